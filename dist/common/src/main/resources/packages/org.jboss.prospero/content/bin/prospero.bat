@@ -230,6 +230,23 @@ if not "%PRESERVE_JAVA_OPT%" == "true" (
 
 
 
+rem Re-use classes loaded by previous runs from a dynamic CDS archive. The archive is created on the first run and
+rem re-created if the JDK changes. Requires JDK 19 or newer, set PROSPERO_CDS=false to disable.
+if "%PROSPERO_CDS%" == "false" goto CDS_END
+echo "%JAVA_OPTS%" | findstr /I "SharedArchiveFile" > nul
+if not errorlevel == 1 goto CDS_END
+"%JAVA%" -XX:+PrintFlagsFinal -version 2>nul | findstr /C:"AutoCreateSharedArchive" > nul
+if errorlevel == 1 goto CDS_END
+if not "x%PROSPERO_CDS_ARCHIVE%" == "x" goto CDS_ARCHIVE_SET
+set "PROSPERO_CDS_KEY=%PROSPERO_HOME::=%"
+set "PROSPERO_CDS_KEY=%PROSPERO_CDS_KEY:\=_%"
+set "PROSPERO_CDS_KEY=%PROSPERO_CDS_KEY: =_%"
+set "PROSPERO_CDS_ARCHIVE=%USERPROFILE%\.prospero\cds\prospero-%PROSPERO_CDS_KEY%.jsa"
+:CDS_ARCHIVE_SET
+for %%F in ("%PROSPERO_CDS_ARCHIVE%") do if not exist "%%~dpF" mkdir "%%~dpF" 2>nul
+for %%F in ("%PROSPERO_CDS_ARCHIVE%") do if exist "%%~dpF" set "JAVA_OPTS=%JAVA_OPTS% -XX:+AutoCreateSharedArchive "-XX:SharedArchiveFile=%PROSPERO_CDS_ARCHIVE%" -Xlog:cds=off -Xlog:cds+dynamic=off"
+:CDS_END
+
 rem Set the module options
 set "MODULE_OPTS=%MODULE_OPTS%"
 if "%SECMGR%" == "true" (
@@ -299,6 +299,32 @@ Function Get-Java-Arguments {
 
     }
 
+    # Re-use classes loaded by previous runs from a dynamic CDS archive. The archive is created on the first run and
+    # re-created if the JDK changes. Requires JDK 19 or newer, set PROSPERO_CDS=false to disable.
+    if ((Get-Env PROSPERO_CDS) -ne 'false' -and -not ($JAVA_OPTS -match "SharedArchiveFile")) {
+
+        if (& $JAVA -XX:+PrintFlagsFinal -version 2>$null | Select-String -SimpleMatch "AutoCreateSharedArchive" -Quiet) {
+
+            $CDS_ARCHIVE = Get-Env PROSPERO_CDS_ARCHIVE "$env:USERPROFILE\.prospero\cds\prospero-$($PROSPERO_HOME -replace '[:\\/ ]', '_').jsa"
+
+            New-Item -ItemType Directory -Force -Path (Split-Path $CDS_ARCHIVE) -ErrorAction SilentlyContinue | Out-Null
+
+            if (Test-Path (Split-Path $CDS_ARCHIVE)) {
+
+                $PROG_ARGS += "-XX:+AutoCreateSharedArchive"
+
+                $PROG_ARGS += "-XX:SharedArchiveFile=$CDS_ARCHIVE"
+
+                $PROG_ARGS += "-Xlog:cds=off"
+
+                $PROG_ARGS += "-Xlog:cds+dynamic=off"
+
+            }
+
+        }
+
+    }
+
     $PROG_ARGS += "-jar"
 
     $PROG_ARGS += "$PROSPERO_HOME\jboss-modules.jar"
@@ -59,6 +59,26 @@ fi
 setDefaultModularJvmOptions $JAVA_OPTS
 JAVA_OPTS="$JAVA_OPTS $DEFAULT_MODULAR_JVM_OPTIONS"
 
+# Re-use classes loaded by previous runs from a dynamic CDS archive. The archive is created on the first run and
+# re-created if the JDK changes. Requires JDK 19 or newer, set PROSPERO_CDS=false to disable.
+if [ "x$PROSPERO_CDS" != "xfalse" ] && ! $cygwin; then
+    CDS_CONF=`echo $JAVA_OPTS | $GREP "SharedArchiveFile"`
+    if [ "x$JAVA_HOME" != "x" ]; then
+        JAVA_RELEASE="$JAVA_HOME/release"
+    else
+        JAVA_RELEASE="$(dirname "$(readlink -f "$(command -v "$JAVA")" 2>/dev/null)")/../release"
+    fi
+    JAVA_MAJOR_VERSION=`sed -n 's/^JAVA_VERSION="\([0-9]*\).*/\1/p' "$JAVA_RELEASE" 2>/dev/null`
+    if [ "x$CDS_CONF" = "x" ] && [ "${JAVA_MAJOR_VERSION:-0}" -ge 19 ]; then
+        if [ "x$PROSPERO_CDS_ARCHIVE" = "x" ]; then
+            PROSPERO_CDS_ARCHIVE="$HOME/.prospero/cds/prospero-`echo "$PROSPERO_HOME" | cksum | cut -d' ' -f1`.jsa"
+        fi
+        if mkdir -p "`dirname "$PROSPERO_CDS_ARCHIVE"`" 2>/dev/null; then
+            JAVA_OPTS="$JAVA_OPTS -XX:+AutoCreateSharedArchive \"-XX:SharedArchiveFile=$PROSPERO_CDS_ARCHIVE\" -Xlog:cds=off -Xlog:cds+dynamic=off"
+        fi
+    fi
+fi
+
 # For Cygwin, switch paths to Windows format before running java
 if $cygwin; then
     PROSPERO_HOME=`cygpath --path --windows "$PROSPERO_HOME"`
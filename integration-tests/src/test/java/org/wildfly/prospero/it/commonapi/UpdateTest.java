@@ -37,7 +37,9 @@ import org.wildfly.channel.Stream;
 import org.wildfly.prospero.actions.ApplyCandidateAction;
 import org.wildfly.prospero.api.exceptions.MetadataException;
 import org.wildfly.prospero.metadata.ManifestVersionRecord;
+import org.wildfly.prospero.actions.ProvisioningAction;
 import org.wildfly.prospero.actions.UpdateAction;
+import org.wildfly.prospero.api.InstallationUpdateResult;
 import org.wildfly.prospero.api.MavenOptions;
 import org.wildfly.prospero.api.ProvisioningDefinition;
 import org.wildfly.prospero.api.RepositoryUtils;
@@ -116,6 +118,39 @@ public class UpdateTest extends WfCoreTestBase {
         assertEquals(UPGRADE_VERSION, wildflyCliArtifact.get().getVersion());
     }
 
+    @Test
+    public void updateSeveralInstallationsWithSharedCandidate() throws Exception {
+        // deploy manifest file
+        File manifestFile = new File(MetadataTestUtils.class.getClassLoader().getResource(CHANNEL_BASE_CORE_19).toURI());
+        deployManifestFile(mockRepo.toURI().toURL(), manifestFile, "1.0.0");
+
+        // provision two installations using the same channel
+        final ProvisioningDefinition provisioningDefinition = defaultWfCoreDefinition()
+                .setChannelCoordinates(buildConfigWithMockRepo().toPath().toString())
+                .setOverrideRepositories(Collections.emptyList()) // reset overrides from defaultWfCoreDefinition()
+                .build();
+        installation.provision(provisioningDefinition.toProvisioningConfig(),
+                provisioningDefinition.resolveChannels(CHANNELS_RESOLVER_FACTORY));
+        final Path secondServer = temp.newFolder().toPath().resolve("second-server");
+        new ProvisioningAction(secondServer, mavenOptions, new AcceptingConsole()).provision(
+                provisioningDefinition.toProvisioningConfig(), provisioningDefinition.resolveChannels(CHANNELS_RESOLVER_FACTORY));
+
+        // update manifest file
+        final File updatedManifest = upgradeTestArtifactIn(manifestFile);
+        deployManifestFile(mockRepo.toURI().toURL(), updatedManifest, "1.0.1");
+
+        // update both installations
+        final List<InstallationUpdateResult> results = UpdateAction.performUpdates(List.of(outputPath, secondServer),
+                mavenOptions, new AcceptingConsole(), Collections.emptyList(), 2);
+
+        assertThat(results)
+                .map(InstallationUpdateResult::getStatus)
+                .containsExactly(InstallationUpdateResult.Status.UPDATED, InstallationUpdateResult.Status.UPDATED);
+        assertEquals(UPGRADE_VERSION, readArtifactFromManifest("org.wildfly.core", "wildfly-cli").get().getVersion());
+        assertThat(secondServer.resolve(MetadataTestUtils.MANIFEST_FILE_PATH))
+                .hasSameTextualContentAs(manifestPath);
+    }
+
     @Test
     public void updateWildflyCoreIgnoreChangesInProsperoConfig() throws Exception {
         final Path channelsFile = outputPath.resolve(ProsperoMetadataUtils.METADATA_DIR)
@@ -33,9 +33,11 @@ import org.wildfly.prospero.actions.MetadataAction;
 import org.wildfly.prospero.actions.PromoteArtifactBundleAction;
 import org.wildfly.prospero.actions.ProvisioningAction;
 import org.wildfly.prospero.actions.UpdateAction;
+import org.wildfly.prospero.actions.VerifyAction;
 import org.wildfly.prospero.api.MavenOptions;
 import org.wildfly.prospero.api.exceptions.OperationException;
 import org.wildfly.prospero.api.exceptions.MetadataException;
+import org.wildfly.prospero.wfchannel.ProvisioningCache;
 
 public class ActionFactory {
 
@@ -43,12 +45,17 @@ public class ActionFactory {
         return new ProvisioningAction(targetPath, mavenOptions, console);
     }
 
+    public ProvisioningAction install(Path targetPath, MavenOptions mavenOptions, Console console, boolean resumable) throws ProvisioningException {
+        return new ProvisioningAction(targetPath, mavenOptions, console, resumable);
+    }
+
     // Option for BETA update support
     // TODO: evaluate in GA - replace by repository:add / custom channels?
-    public UpdateAction update(Path targetPath, MavenOptions mavenOptions, Console console, List<Repository> additionalRepositories)
+    public UpdateAction update(Path targetPath, MavenOptions mavenOptions, Console console, List<Repository> additionalRepositories,
+                               boolean resumable)
             throws OperationException,
             ProvisioningException {
-        return new UpdateAction(targetPath, mavenOptions, console, additionalRepositories);
+        return new UpdateAction(targetPath, mavenOptions, console, additionalRepositories, resumable);
     }
 
     public ApplyCandidateAction applyUpdate(Path installationPath, Path updatePath)
@@ -61,6 +68,10 @@ public class ActionFactory {
         return new InstallationHistoryAction(targetPath, console);
     }
 
+    public VerifyAction verify(Path targetPath, Console console) {
+        return new VerifyAction(targetPath, console);
+    }
+
     public MetadataAction metadataActions(Path targetPath) throws MetadataException {
         return new MetadataAction(targetPath);
     }
@@ -85,4 +96,8 @@ public class ActionFactory {
     public SubscribeNewServerAction subscribeNewServerAction(MavenOptions mvnOptions, Console console) throws ProvisioningException {
         return new SubscribeNewServerAction(mvnOptions, console);
     }
+
+    public ProvisioningCache provisioningCache() {
+        return ProvisioningCache.fromSystemProperties();
+    }
 }
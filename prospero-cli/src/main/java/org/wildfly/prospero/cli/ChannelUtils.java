@@ -10,6 +10,7 @@ import org.wildfly.prospero.api.ProvisioningDefinition;
 import org.wildfly.prospero.api.exceptions.ChannelDefinitionException;
 import org.wildfly.prospero.api.exceptions.NoChannelException;
 import org.wildfly.prospero.wfchannel.MavenSessionManager;
+import org.wildfly.prospero.wfchannel.ProvisioningCache;
 
 import java.util.List;
 
@@ -26,8 +27,9 @@ public class ChannelUtils {
             throws ArgumentParsingException, ProvisioningException, NoChannelException, ChannelDefinitionException {
         final MavenSessionManager mavenSessionManager = new MavenSessionManager(mavenOptions);
         final VersionResolverFactory versionResolverFactory = createVersionResolverFactory(mavenSessionManager);
-        final List<Channel> channels = provisioningDefinition.resolveChannels(versionResolverFactory);
-        return channels;
+        try (ProvisioningCache.Lease ignored = mavenSessionManager.openProvisioningCache()) {
+            return provisioningDefinition.resolveChannels(versionResolverFactory);
+        }
     }
 
 }
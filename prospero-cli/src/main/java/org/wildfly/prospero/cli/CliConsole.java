@@ -20,12 +20,19 @@ package org.wildfly.prospero.cli;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.wildfly.prospero.api.Console;
+import org.wildfly.prospero.api.DownloadProgress;
+import org.wildfly.prospero.api.FileConflict;
 import org.wildfly.prospero.api.ProvisioningProgressEvent;
 import org.wildfly.prospero.api.ArtifactChange;
 import picocli.CommandLine;
@@ -39,7 +46,7 @@ import static org.wildfly.prospero.galleon.GalleonEnvironment.TRACK_JB_ARTIFACTS
 import static org.wildfly.prospero.galleon.GalleonEnvironment.TRACK_RESOLVING_VERSIONS;
 
 @SuppressWarnings("PMD.TooManyStaticImports")
-public class CliConsole implements Console {
+public class CliConsole implements Console, AutoCloseable {
 
     private static final int MAX_LENGTH = 120;
 
@@ -108,8 +115,30 @@ public class CliConsole implements Console {
 
     private Cli cli = new Cli(getStdOut());
 
+    private volatile NdjsonWriter ndjson;
+    private final Map<String, Long> stageStarts = new ConcurrentHashMap<>();
+
+    /**
+     * switches the standard output to {@code format}. In {@link OutputFormat#NDJSON} mode, human-readable messages
+     * are printed to the standard error output.
+     *
+     * @param format - the output format
+     */
+    public synchronized void setOutputFormat(OutputFormat format) {
+        if (format == OutputFormat.NDJSON && ndjson == null) {
+            ndjson = new NdjsonWriter(getStdOut());
+            cli = new Cli(getErrOut());
+        }
+    }
+
     @Override
     public void progressUpdate(ProvisioningProgressEvent update) {
+        final NdjsonWriter ndjson = this.ndjson;
+        if (ndjson != null) {
+            writeProgress(ndjson, update);
+            return;
+        }
+
         ProgressLogger logger = loggers.get(update.getStage());
 
         if (update.getEventType() == ProvisioningProgressEvent.EventType.STARTING) {
@@ -128,7 +157,13 @@ public class CliConsole implements Console {
             final String progressMsg;
             final String details = item == null ? "" : item;
 
-            if (update.getTotal() > 0) {
+            if (update.getTotal() > 0 && update.getThroughput() > 0 && update.getEta() >= 0) {
+                progressMsg = String.format(" %d/%d(%.0f%%) %s/s ETA %d:%02d ", update.getCompleted(), update.getTotal(), update.getProgress(),
+                        FileUtils.byteCountToDisplaySize(update.getThroughput()), update.getEta() / 60, update.getEta() % 60);
+            } else if (update.getTotal() > 0 && update.getThroughput() > 0) {
+                progressMsg = String.format(" %d/%d(%.0f%%) %s/s ", update.getCompleted(), update.getTotal(), update.getProgress(),
+                        FileUtils.byteCountToDisplaySize(update.getThroughput()));
+            } else if (update.getTotal() > 0) {
                 progressMsg = String.format(" %d/%d(%.0f%%) ", update.getCompleted(), update.getTotal(), update.getProgress());
             } else {
                 progressMsg = "";
@@ -152,7 +187,99 @@ public class CliConsole implements Console {
         }
     }
 
+    private void writeProgress(NdjsonWriter ndjson, ProvisioningProgressEvent update) {
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("stage", update.getStage());
+        fields.put("event", update.getEventType().name().toLowerCase(Locale.ROOT));
+        fields.put("completed", update.getCompleted());
+        fields.put("total", update.getTotal());
+        fields.put("item", update.getCurrentItem());
+        if (update.getEventType() == ProvisioningProgressEvent.EventType.STARTING) {
+            stageStarts.put(update.getStage(), ndjson.elapsed());
+        } else if (update.getEventType() == ProvisioningProgressEvent.EventType.COMPLETED) {
+            final Long stageStart = stageStarts.remove(update.getStage());
+            if (stageStart != null) {
+                fields.put("duration", ndjson.elapsed() - stageStart);
+            }
+        }
+        final DownloadProgress downloadProgress = update.getDownloadProgress();
+        if (downloadProgress != null) {
+            fields.put("downloads", downloadProgress.getDownloads());
+            fields.put("cacheHits", downloadProgress.getCacheHits());
+            fields.put("downloadedBytes", downloadProgress.getDownloadedBytes());
+            fields.put("expectedBytes", downloadProgress.getExpectedBytes());
+            fields.put("throughput", downloadProgress.getThroughput());
+            fields.put("eta", downloadProgress.getEta());
+        }
+        final String supersedeKey = update.getEventType() == ProvisioningProgressEvent.EventType.UPDATE ? update.getStage() : null;
+        ndjson.write("progress", supersedeKey, fields);
+    }
+
+    private void writeArtifactChanges(NdjsonWriter ndjson, List<ArtifactChange> artifactChanges) {
+        for (ArtifactChange artifactChange : artifactChanges) {
+            final Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("name", artifactChange.getArtifactName());
+            fields.put("status", artifactChange.getStatus().name().toLowerCase(Locale.ROOT));
+            fields.put("oldVersion", artifactChange.getOldVersion().orElse(null));
+            fields.put("newVersion", artifactChange.getNewVersion().orElse(null));
+            fields.put("channel", artifactChange.getChannelName().orElse(null));
+            fields.put("downgrade", artifactChange.isDowngrade());
+            ndjson.write("artifactChange", fields);
+        }
+    }
+
+    /**
+     * prints files modified both by the user and by the operation.
+     *
+     * @param fileConflicts - the conflicting files
+     */
+    public void conflictsFound(List<FileConflict> fileConflicts) {
+        final NdjsonWriter ndjson = this.ndjson;
+        if (ndjson == null) {
+            FileConflictPrinter.print(fileConflicts, this);
+            return;
+        }
+        for (FileConflict fileConflict : fileConflicts) {
+            final Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("path", fileConflict.getRelativePath());
+            fields.put("userChange", fileConflict.getUserChange().name().toLowerCase(Locale.ROOT));
+            fields.put("updateChange", fileConflict.getUpdateChange().name().toLowerCase(Locale.ROOT));
+            fields.put("resolution", fileConflict.getResolution().name().toLowerCase(Locale.ROOT));
+            ndjson.write("conflict", fields);
+        }
+    }
+
+    /**
+     * reports the result of the command. In {@link OutputFormat#TEXT} mode the result is communicated only by the exit code.
+     *
+     * @param exitCode - the exit code of the command, see {@link ReturnCodes}
+     */
+    public void operationCompleted(int exitCode) {
+        final NdjsonWriter ndjson = this.ndjson;
+        if (ndjson != null) {
+            final Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("exitCode", exitCode);
+            fields.put("duration", ndjson.elapsed());
+            ndjson.write("result", fields);
+        }
+    }
+
+    /**
+     * writes out any buffered output. Events reported after the console is closed are discarded.
+     */
+    @Override
+    public synchronized void close() {
+        if (ndjson != null) {
+            ndjson.close();
+        }
+    }
+
     public void updatesFound(List<ArtifactChange> artifactUpdates) {
+        final NdjsonWriter ndjson = this.ndjson;
+        if (ndjson != null) {
+            writeArtifactChanges(ndjson, artifactUpdates);
+            return;
+        }
         if (artifactUpdates.isEmpty()) {
             println(CliMessages.MESSAGES.noUpdatesFound());
         } else {
@@ -175,6 +302,11 @@ public class CliConsole implements Console {
     }
 
     public void printArtifactChanges(List<ArtifactChange> artifactUpdates) {
+        final NdjsonWriter ndjson = this.ndjson;
+        if (ndjson != null) {
+            writeArtifactChanges(ndjson, artifactUpdates);
+            return;
+        }
         if (!artifactUpdates.isEmpty()) {
             getStdOut().println(CliMessages.MESSAGES.changesFound());
             for (ArtifactChange artifactUpdate : artifactUpdates) {
@@ -203,7 +335,7 @@ public class CliConsole implements Console {
     }
 
     public boolean confirm(String prompt, String accepted, String cancelled) {
-        getStdOut().print(prompt);
+        getMessageOut().print(prompt);
         Scanner sc = new Scanner(getInput());
         while (true) {
             String resp = sc.nextLine();
@@ -214,7 +346,7 @@ public class CliConsole implements Console {
                 println(accepted);
                 return true;
             } else {
-                getStdOut().print(CliMessages.MESSAGES.chooseYN());
+                getMessageOut().print(CliMessages.MESSAGES.chooseYN());
             }
         }
     }
@@ -240,25 +372,36 @@ public class CliConsole implements Console {
     }
 
     public void error(String message, String... args) {
-        getErrOut().println(String.format(message, (Object[]) args));
+        final String formatted = String.format(message, (Object[]) args);
+        getErrOut().println(formatted);
+        final NdjsonWriter ndjson = this.ndjson;
+        if (ndjson != null) {
+            final Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("message", formatted);
+            ndjson.write("error", fields);
+        }
+    }
+
+    private PrintStream getMessageOut() {
+        return ndjson == null ? getStdOut() : getErrOut();
     }
 
     @Override
     public void println(String text) {
         if (text == null) {
-            getStdOut().println();
+            getMessageOut().println();
         } else {
             final CommandLine.Help.Ansi.Text formatted = CommandLine.Help.Ansi.AUTO.new Text(text);
-            getStdOut().println(formatted.toString());
+            getMessageOut().println(formatted.toString());
         }
     }
 
     public void printf(String text, String... args) {
         if (text == null) {
-            getStdOut().println();
+            getMessageOut().println();
         } else {
             final String formatted = String.format(text, (String[]) args);
-            getStdOut().print(CommandLine.Help.Ansi.AUTO.new Text(formatted));
+            getMessageOut().print(CommandLine.Help.Ansi.AUTO.new Text(formatted));
         }
     }
 
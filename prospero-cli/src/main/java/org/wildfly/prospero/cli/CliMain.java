@@ -22,6 +22,8 @@ import org.jboss.logmanager.Configurator;
 import org.jboss.logmanager.Level;
 import org.jboss.logmanager.PropertyConfigurator;
 import org.jboss.logmanager.config.LogContextConfiguration;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.wildfly.prospero.cli.commands.CacheCommand;
 import org.wildfly.prospero.cli.commands.ChannelCommand;
 import org.wildfly.prospero.cli.commands.CliConstants;
 import org.wildfly.prospero.cli.commands.CloneCommand;
@@ -33,13 +35,16 @@ import org.wildfly.prospero.cli.commands.MainCommand;
 import org.wildfly.prospero.cli.commands.PrintLicensesCommand;
 import org.wildfly.prospero.cli.commands.RevertCommand;
 import org.wildfly.prospero.cli.commands.UpdateCommand;
+import org.wildfly.prospero.cli.commands.VerifyCommand;
 import org.wildfly.prospero.cli.commands.channel.ChannelAddCommand;
 import org.wildfly.prospero.cli.commands.channel.ChannelInitializeCommand;
 import org.wildfly.prospero.cli.commands.channel.ChannelPromoteCommand;
 import org.wildfly.prospero.cli.commands.channel.ChannelRemoveCommand;
 import picocli.CommandLine;
 
+import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.logging.Handler;
 
 public class CliMain {
 
@@ -80,6 +85,7 @@ public class CliMain {
         updateCommand.addSubCommands(commandLine);
         commandLine.addSubcommand(new PrintLicensesCommand(console, actionFactory));
         commandLine.addSubcommand(new HistoryCommand(console, actionFactory));
+        commandLine.addSubcommand(new VerifyCommand(console, actionFactory));
         final RevertCommand revertCommand = new RevertCommand(console, actionFactory);
         commandLine.addSubcommand(revertCommand);
         revertCommand.addSubCommands(commandLine);
@@ -94,6 +100,11 @@ public class CliMain {
         channelCmd.addSubcommand(new ChannelInitializeCommand(console, actionFactory));
         channelCmd.addSubcommand(new ChannelPromoteCommand(console, actionFactory));
 
+        commandLine.addSubcommand(new CacheCommand(console, actionFactory));
+        CommandLine cacheCmd = commandLine.getSubcommands().get(CliConstants.Commands.CACHE);
+        cacheCmd.addSubcommand(new CacheCommand.CacheStatsCommand(console, actionFactory));
+        cacheCmd.addSubcommand(new CacheCommand.CachePruneCommand(console, actionFactory));
+
         CloneCommand cloneCommand = new CloneCommand(console, actionFactory);
         commandLine.addSubcommand(cloneCommand);
         cloneCommand.addSubCommands(commandLine);
@@ -103,12 +114,18 @@ public class CliMain {
         featuresCommand.addSubCommands(commandLine);
 
         commandLine.setUsageHelpAutoWidth(true);
+        commandLine.setCaseInsensitiveEnumValuesAllowed(true);
         final boolean isVerbose = Arrays.stream(args).anyMatch(s -> s.equals(CliConstants.VV) || s.equals(CliConstants.VERBOSE));
         final CommandLine.IParameterExceptionHandler rootParameterExceptionHandler = commandLine.getParameterExceptionHandler();
         commandLine.setExecutionExceptionHandler(new ExecutionExceptionHandler(console, isVerbose));
 
         commandLine.setParameterExceptionHandler(new UnknownCommandParameterExceptionHandler(rootParameterExceptionHandler, System.err));
 
+        final OutputFormat outputFormat = outputFormat(args);
+        if (outputFormat == OutputFormat.NDJSON) {
+            console.setOutputFormat(OutputFormat.NDJSON);
+        }
+
         final boolean isDebug = Arrays.stream(args).anyMatch(CliConstants.DEBUG::equals);
         if (isDebug) {
             Configurator c = org.jboss.logmanager.Logger.getLogger("").getAttachment(Configurator.ATTACHMENT_KEY);
@@ -123,13 +140,49 @@ public class CliMain {
             }
         }
 
+        if (outputFormat == OutputFormat.NDJSON) {
+            // the standard output carries only the NDJSON stream
+            redirectConsoleLogging(java.util.logging.Logger.getLogger(""), console.getErrOut());
+        }
+
         return commandLine;
     }
 
     static int execute(String[] args) {
-        CliConsole console = new CliConsole();
-        CommandLine commandLine = createCommandLine(console, args);
-        return commandLine.execute(args);
+        try (CliConsole console = new CliConsole()) {
+            CommandLine commandLine = createCommandLine(console, args);
+            final int exitCode = commandLine.execute(args);
+            console.operationCompleted(exitCode);
+            return exitCode;
+        }
+    }
+
+    static OutputFormat outputFormat(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            final String value;
+            if (args[i].startsWith(CliConstants.OUTPUT + "=")) {
+                value = args[i].substring(CliConstants.OUTPUT.length() + 1);
+            } else if (args[i].equals(CliConstants.OUTPUT) && i + 1 < args.length) {
+                value = args[i + 1];
+            } else {
+                continue;
+            }
+            if (OutputFormat.NDJSON.name().equalsIgnoreCase(value)) {
+                return OutputFormat.NDJSON;
+            }
+        }
+        return OutputFormat.TEXT;
+    }
+
+    /**
+     * Points all console handlers of {@code logger} at {@code target}.
+     */
+    static void redirectConsoleLogging(java.util.logging.Logger logger, OutputStream target) {
+        for (Handler handler : logger.getHandlers()) {
+            if (handler instanceof ConsoleHandler) {
+                ((ConsoleHandler) handler).setOutputStream(target);
+            }
+        }
     }
 
     static void logException(Exception e) {
@@ -420,6 +420,14 @@ public interface CliMessages {
         return new ArgumentParsingException(format(bundle.getString("prospero.general.validation.local_repo.not_directory"), repo));
     }
 
+    default ArgumentParsingException invalidDownloadRate(String rate) {
+        return new ArgumentParsingException(format(bundle.getString("prospero.general.validation.download_rate"), rate));
+    }
+
+    default ArgumentParsingException invalidConcurrentDownloads(int downloads) {
+        return new ArgumentParsingException(format(bundle.getString("prospero.general.validation.concurrent_downloads"), downloads));
+    }
+
     default ArgumentParsingException invalidRepositoryDefinition(String repoKey) {
         return new ArgumentParsingException(format(bundle.getString("prospero.general.validation.repo_format"), repoKey));
     }
@@ -695,4 +703,32 @@ public interface CliMessages {
     default OperationException sizeOfChannel(Path channelFile) {
         return new OperationException(format(bundle.getString("prospero.channels.error.morethanonechannel.found"), channelFile));
     }
+
+    default String provisioningCacheStats(Path cacheDir, int entries, String size, String maxSize, long maxAgeDays) {
+        return format(bundle.getString("prospero.cache.stats"), cacheDir, entries, size, maxSize, maxAgeDays);
+    }
+
+    default String provisioningCachePruned(int entries, String size) {
+        return format(bundle.getString("prospero.cache.pruned"), entries, size);
+    }
+
+    default OperationException provisioningCacheLocked(Path cacheDir) {
+        return new OperationException(format(bundle.getString("prospero.cache.error.locked"), cacheDir));
+    }
+
+    default String verifyFileModified(String path) {
+        return format(bundle.getString("prospero.verify.modified"), path);
+    }
+
+    default String verifyFileMissing(String path) {
+        return format(bundle.getString("prospero.verify.missing"), path);
+    }
+
+    default String verifyNoChanges(int files) {
+        return format(bundle.getString("prospero.verify.no_changes"), files);
+    }
+
+    default String verifyChangesFound(int files, int changes) {
+        return format(bundle.getString("prospero.verify.changes_found"), files, changes);
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.cli;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Writes events as newline-delimited JSON objects.
+ *
+ * The events are serialized by the caller and queued, a background thread writes them out in batches and flushes
+ * the output once per batch. Writing an event never blocks on the output, so frequent progress updates don't slow
+ * down the operation. If a progress update is followed by a newer update of the same stage in the same batch,
+ * only the newer one is written.
+ */
+class NdjsonWriter implements AutoCloseable {
+
+    private static final Logger log = Logger.getLogger(NdjsonWriter.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+    private static final Entry END = new Entry(null, null);
+
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Writer out;
+    private final Thread writerThread;
+    private final long start = System.currentTimeMillis();
+    private volatile boolean closed;
+
+    NdjsonWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.writerThread = new Thread(this::run, "ndjson-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * queues an event. The {@code type}, current {@code timestamp} and milliseconds {@code elapsed} since the writer
+     * was created are added to the {@code fields}.
+     *
+     * @param type - type of the event
+     * @param fields - content of the event, null values are omitted
+     */
+    void write(String type, Map<String, Object> fields) {
+        write(type, null, fields);
+    }
+
+    /**
+     * queues an event that can be replaced by a later event with the same {@code supersedeKey}.
+     *
+     * @param type - type of the event
+     * @param supersedeKey - identifies events replacing each other, e.g. progress updates of a stage
+     * @param fields - content of the event, null values are omitted
+     */
+    void write(String type, String supersedeKey, Map<String, Object> fields) {
+        if (closed) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("timestamp", now);
+        event.put("elapsed", now - start);
+        event.putAll(fields);
+        try {
+            queue.offer(new Entry(supersedeKey, MAPPER.writeValueAsString(event)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    long elapsed() {
+        return System.currentTimeMillis() - start;
+    }
+
+    private void run() {
+        final List<Entry> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    final Entry entry = batch.get(i);
+                    if (entry == END) {
+                        out.flush();
+                        return;
+                    }
+                    if (entry.supersedeKey != null && i + 1 < batch.size()
+                            && entry.supersedeKey.equals(batch.get(i + 1).supersedeKey)) {
+                        continue;
+                    }
+                    out.write(entry.line);
+                    out.write('\n');
+                }
+                out.flush();
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.debug("Unable to write events", e);
+        }
+    }
+
+    /**
+     * writes out all queued events and stops the background thread. Events queued afterwards are discarded.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.offer(END);
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Entry {
+        private final String supersedeKey;
+        private final String line;
+
+        Entry(String supersedeKey, String line) {
+            this.supersedeKey = supersedeKey;
+            this.line = line;
+        }
+    }
+}
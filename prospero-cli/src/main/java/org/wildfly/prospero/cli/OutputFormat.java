@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.cli;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Format of the information printed to the standard output.
+ */
+public enum OutputFormat {
+    /**
+     * human-readable messages and progress animations
+     */
+    TEXT,
+    /**
+     * one JSON object per line for each progress update, artifact change, file conflict and the final result.
+     * Human-readable messages are printed to the standard error output.
+     */
+    NDJSON;
+
+    public static class Candidates implements Iterable<String> {
+
+        @Override
+        public Iterator<String> iterator() {
+            return Arrays.stream(values()).map(f -> f.name().toLowerCase(Locale.ROOT)).iterator();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.wildfly.prospero.cli.ActionFactory;
 import org.wildfly.prospero.cli.ArgumentParsingException;
 import org.wildfly.prospero.cli.CliConsole;
 import org.wildfly.prospero.cli.CliMessages;
+import org.wildfly.prospero.cli.OutputFormat;
 import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
 import picocli.CommandLine;
 
@@ -60,6 +61,15 @@ public abstract class AbstractCommand implements Callable<Integer> {
     )
     boolean debug;
 
+    @SuppressWarnings("unused")
+    @CommandLine.Option(
+            names = {CliConstants.OUTPUT},
+            paramLabel = CliConstants.OUTPUT_FORMAT,
+            completionCandidates = OutputFormat.Candidates.class,
+            order = 103
+    )
+    OutputFormat output;
+
     public AbstractCommand(CliConsole console, ActionFactory actionFactory) {
         this.console = console;
         this.actionFactory = actionFactory;
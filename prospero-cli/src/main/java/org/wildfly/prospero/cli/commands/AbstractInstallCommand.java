@@ -23,6 +23,7 @@ import org.wildfly.prospero.cli.ActionFactory;
 import org.wildfly.prospero.cli.ArgumentParsingException;
 import org.wildfly.prospero.cli.CliConsole;
 import org.wildfly.prospero.cli.RepositoryDefinition;
+import org.wildfly.prospero.cli.commands.options.DownloadOptions;
 import org.wildfly.prospero.cli.commands.options.LocalRepoOptions;
 import picocli.CommandLine;
 
@@ -73,6 +74,9 @@ public abstract class AbstractInstallCommand extends AbstractCommand {
     )
     Optional<Boolean> offline = Optional.empty();
 
+    @CommandLine.ArgGroup(exclusive = false, order = 7, headingKey = "downloadOptions.heading")
+    DownloadOptions downloadOptions = new DownloadOptions();
+
     public AbstractInstallCommand(CliConsole console, ActionFactory actionFactory) {
         super(console, actionFactory);
     }
@@ -80,6 +84,7 @@ public abstract class AbstractInstallCommand extends AbstractCommand {
     protected MavenOptions getMavenOptions() throws ArgumentParsingException {
         final MavenOptions.Builder mavenOptions = localRepoOptions.toOptions();
         offline.map(mavenOptions::setOffline);
+        downloadOptions.applyTo(mavenOptions);
         return mavenOptions.build();
     }
 
@@ -21,6 +21,7 @@ import org.wildfly.prospero.api.MavenOptions;
 import org.wildfly.prospero.cli.ActionFactory;
 import org.wildfly.prospero.cli.ArgumentParsingException;
 import org.wildfly.prospero.cli.CliConsole;
+import org.wildfly.prospero.cli.commands.options.DownloadOptions;
 import org.wildfly.prospero.cli.commands.options.LocalRepoOptions;
 import picocli.CommandLine;
 
@@ -42,6 +43,9 @@ public abstract class AbstractMavenCommand extends AbstractCommand {
     @CommandLine.Option(names = CliConstants.OFFLINE)
     Optional<Boolean> offline = Optional.empty();
 
+    @CommandLine.ArgGroup(exclusive = false, headingKey = "downloadOptions.heading")
+    DownloadOptions downloadOptions = new DownloadOptions();
+
     public AbstractMavenCommand(CliConsole console, ActionFactory actionFactory) {
         super(console, actionFactory);
     }
@@ -49,6 +53,7 @@ public abstract class AbstractMavenCommand extends AbstractCommand {
     protected MavenOptions parseMavenOptions() throws ArgumentParsingException {
         final MavenOptions.Builder builder = localRepoOptions.toOptions();
         offline.map(builder::setOffline);
+        downloadOptions.applyTo(builder);
         return builder.build();
     }
 }
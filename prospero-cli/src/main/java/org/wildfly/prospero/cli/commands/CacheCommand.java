@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.cli.commands;
+
+import org.apache.commons.io.FileUtils;
+import org.wildfly.prospero.cli.ActionFactory;
+import org.wildfly.prospero.cli.CliConsole;
+import org.wildfly.prospero.cli.CliMessages;
+import org.wildfly.prospero.cli.ReturnCodes;
+import org.wildfly.prospero.wfchannel.ProvisioningCache;
+import picocli.CommandLine;
+
+@CommandLine.Command(name = CliConstants.Commands.CACHE)
+public class CacheCommand extends AbstractCommand {
+
+    @CommandLine.Spec
+    protected CommandLine.Model.CommandSpec spec;
+
+    public CacheCommand(CliConsole console, ActionFactory actionFactory) {
+        super(console, actionFactory);
+    }
+
+    @Override
+    public Integer call() {
+        spec.commandLine().usage(console.getErrOut());
+        return ReturnCodes.INVALID_ARGUMENTS;
+    }
+
+    @CommandLine.Command(name = CliConstants.Commands.STATS)
+    public static class CacheStatsCommand extends AbstractCommand {
+
+        public CacheStatsCommand(CliConsole console, ActionFactory actionFactory) {
+            super(console, actionFactory);
+        }
+
+        @Override
+        public Integer call() throws Exception {
+            final ProvisioningCache cache = actionFactory.provisioningCache();
+            final ProvisioningCache.Stats stats = cache.getStats();
+
+            console.println(CliMessages.MESSAGES.provisioningCacheStats(cache.getRoot(), stats.getEntries(),
+                    FileUtils.byteCountToDisplaySize(stats.getSize()), FileUtils.byteCountToDisplaySize(cache.getMaxSize()),
+                    cache.getMaxAge().toDays()));
+            return ReturnCodes.SUCCESS;
+        }
+    }
+
+    @CommandLine.Command(name = CliConstants.Commands.PRUNE)
+    public static class CachePruneCommand extends AbstractCommand {
+
+        @CommandLine.Option(names = CliConstants.ALL)
+        boolean all;
+
+        public CachePruneCommand(CliConsole console, ActionFactory actionFactory) {
+            super(console, actionFactory);
+        }
+
+        @Override
+        public Integer call() throws Exception {
+            final ProvisioningCache cache = actionFactory.provisioningCache();
+            final ProvisioningCache.Stats removed = all ? cache.clear() : cache.prune();
+            if (removed == null) {
+                throw CliMessages.MESSAGES.provisioningCacheLocked(cache.getRoot());
+            }
+
+            console.println(CliMessages.MESSAGES.provisioningCachePruned(removed.getEntries(),
+                    FileUtils.byteCountToDisplaySize(removed.getSize())));
+            return ReturnCodes.SUCCESS;
+        }
+    }
+}
@@ -36,6 +36,7 @@ public final class CliConstants {
 
         public static final String ADD = "add";
         public static final String APPLY = "apply";
+        public static final String CACHE = "cache";
         public static final String CHANNEL = "channel";
         public static final String CLONE = "clone";
         public static final String CUSTOMIZATION_INIT_CHANNEL = "init";
@@ -49,16 +50,20 @@ public final class CliConstants {
         public static final String LIST = "list";
         public static final String PERFORM = "perform";
         public static final String PREPARE = "prepare";
+        public static final String PRUNE = "prune";
         public static final String PRINT_LICENSES = "print-licenses";
         public static final String RECREATE = "recreate";
         public static final String REMOVE = "remove";
         public static final String REVERT = "revert";
+        public static final String STATS = "stats";
         public static final String SUBSCRIBE = "subscribe";
         public static final String UPDATE = "update";
+        public static final String VERIFY = "verify";
         protected static final String VERSIONS = "versions";
     }
 
     public static final String ACCEPT_AGREEMENTS = "--accept-license-agreements";
+    public static final String ALL = "--all";
     public static final String ARG_PATH = "--path";
     public static final String CANDIDATE_DIR = "--candidate-dir";
     public static final String CHANNEL = "--channel";
@@ -80,15 +85,24 @@ public final class CliConstants {
     public static final String LAYERS = "--layers";
     public static final String LIST_PROFILES = "--list-profiles";
     public static final String LOCAL_CACHE = "--local-cache";
+    public static final String MAX_BANDWIDTH = "--max-bandwidth";
+    public static final String MAX_CONCURRENT_DOWNLOADS = "--max-concurrent-downloads";
+    public static final String MAX_REPOSITORY_BANDWIDTH = "--max-repository-bandwidth";
     public static final String OFFLINE = "--offline";
+    public static final String OUTPUT = "--output";
+    public static final String OUTPUT_FORMAT = "<format>";
     public static final String PACKAGE_STABILITY_LEVEL = "--package-stability-level";
+    public static final String PARALLELISM = "--parallelism";
     public static final String PATH = "<path>";
     public static final String PRODUCT = "--product";
     public static final String PROFILE = "--profile";
     public static final String PROFILE_REFERENCE = "<installation-profile>";
+    public static final String RATE = "<rate>";
+    public static final String QUICK = "--quick";
     public static final String REMOVE = "--rm";
     public static final String REPO_URL = "<repo-url>";
     public static final String REPOSITORIES = "--repositories";
+    public static final String RESUME = "--resume";
     public static final String REVISION = "--revision";
     public static final String SELF = "--self";
     public static final String SHADE_REPOSITORIES = "--shade-repositories";
@@ -27,7 +27,6 @@ import org.wildfly.prospero.api.RepositoryUtils;
 import org.wildfly.prospero.cli.ActionFactory;
 import org.wildfly.prospero.cli.CliConsole;
 import org.wildfly.prospero.cli.CliMessages;
-import org.wildfly.prospero.cli.FileConflictPrinter;
 import org.wildfly.prospero.cli.LicensePrinter;
 import org.wildfly.prospero.cli.RepositoryDefinition;
 import org.wildfly.prospero.cli.ReturnCodes;
@@ -87,7 +86,7 @@ public class FeaturesCommand extends AbstractParentCommand {
 
             final MavenOptions mavenOptions = parseMavenOptions();
 
-            try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.getInstance()) {
+            try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.forInstallation(installationDir)) {
                 final List<Repository> repositories = RepositoryUtils.unzipArchives(
                         RepositoryDefinition.from(temporaryRepositories), temporaryFiles);
 
@@ -139,7 +138,7 @@ public class FeaturesCommand extends AbstractParentCommand {
 
                 if (accepted) {
                     try (TemporaryFilesManager temporaryFilesManager = TemporaryFilesManager.getInstance()) {
-                        final Path candidate = temporaryFilesManager.createTempDirectory("prospero-fp-candidate");
+                        final Path candidate = temporaryFilesManager.createTempDirectory(installationDir, "prospero-fp-candidate");
                         final ConfigId configId = parseConfigName(config.orElse(null));
                         if (layers.isEmpty()) {
                             featuresAddAction.addFeaturePack(fpl, configId == null ? Collections.emptySet() : Set.of(configId), candidate);
@@ -150,7 +149,7 @@ public class FeaturesCommand extends AbstractParentCommand {
                         // list conflicts (e.g. config files) and apply the update
                         final ApplyCandidateAction applyCandidateAction = actionFactory.applyUpdate(installationDir, candidate);
                         if (confirmConflicts(applyCandidateAction.getConflicts())) {
-                            applyCandidateAction.applyUpdate(ApplyCandidateAction.Type.FEATURE_ADD);
+                            applyCandidateAction.applyUpdate(ApplyCandidateAction.Type.FEATURE_ADD, true);
                         }
                     } catch (FeaturesAddAction.LayerNotFoundException e) {
                         if (!e.getSupportedLayers().isEmpty()) {
@@ -181,7 +180,7 @@ public class FeaturesCommand extends AbstractParentCommand {
                 return true;
             }
 
-            FileConflictPrinter.print(conflicts, console);
+            console.conflictsFound(conflicts);
             return skipConfirmation || console.confirm(CliMessages.MESSAGES.featuresAddPrompt(),
                     CliMessages.MESSAGES.featuresAddPromptAccepted(),
                     CliMessages.MESSAGES.featuresAddPromptCancelled());
@@ -43,6 +43,7 @@ import org.wildfly.prospero.actions.ProvisioningAction;
 import org.wildfly.prospero.api.ArtifactUtils;
 import org.wildfly.prospero.api.InstallationProfilesManager;
 import org.wildfly.prospero.api.MavenOptions;
+import org.wildfly.prospero.api.OperationJournal;
 import org.wildfly.prospero.api.ProvisioningDefinition;
 import org.wildfly.prospero.api.RepositoryUtils;
 import org.wildfly.prospero.api.TemporaryRepositoriesHandler;
@@ -89,6 +90,12 @@ public class InstallCommand extends AbstractInstallCommand {
     )
     boolean acceptAgreements;
 
+    @CommandLine.Option(
+            names = CliConstants.RESUME,
+            order = 10
+    )
+    boolean resume;
+
     @CommandLine.Option(
             names = CliConstants.SHADE_REPOSITORIES,
             split = ",",
@@ -191,7 +198,9 @@ public class InstallCommand extends AbstractInstallCommand {
             checkFileExists(definition.toUri().toURL(), definition.toString());
         }
 
-        verifyTargetDirectoryIsEmpty(directory);
+        if (!resume || !OperationJournal.open(directory.toAbsolutePath()).isStarted(directory)) {
+            verifyTargetDirectoryIsEmpty(directory);
+        }
         final ProvisioningDefinition provisioningDefinition = buildDefinition()
                 .setStabilityLevel(stabilityLevels.stabilityLevel==null?null:stabilityLevels.stabilityLevel.toLowerCase(Locale.ROOT))
                 .setPackageStabilityLevel(stabilityLevels.packageStabilityLevel==null?null:stabilityLevels.packageStabilityLevel.toLowerCase(Locale.ROOT))
@@ -200,12 +209,12 @@ public class InstallCommand extends AbstractInstallCommand {
         final MavenOptions mavenOptions = getMavenOptions();
         final GalleonProvisioningConfig provisioningConfig = provisioningDefinition.toProvisioningConfig();
         final List<Channel> channels = ChannelUtils.resolveChannels(provisioningDefinition, mavenOptions);
-        try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.getInstance()) {
+        try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.forInstallation(directory)) {
             List<Repository> repositories = RepositoryDefinition.from(this.shadowRepositories);
             final List<Repository> shadowRepositories = RepositoryUtils.unzipArchives(repositories, temporaryFiles);
 
             final ProvisioningAction provisioningAction = actionFactory.install(directory.toAbsolutePath(), mavenOptions,
-                    console);
+                    console, resume);
 
             if (featurePackOrDefinition.fpl.isPresent()) {
                 console.println(CliMessages.MESSAGES.installingFpl(featurePackOrDefinition.fpl.get()));
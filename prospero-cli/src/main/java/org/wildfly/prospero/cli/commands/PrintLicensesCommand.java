@@ -22,6 +22,7 @@ import org.wildfly.channel.Channel;
 import org.wildfly.prospero.actions.ProvisioningAction;
 import org.wildfly.prospero.api.MavenOptions;
 import org.wildfly.prospero.api.ProvisioningDefinition;
+import org.wildfly.prospero.api.WorkDirectory;
 import org.wildfly.prospero.cli.ActionFactory;
 import org.wildfly.prospero.cli.CliConsole;
 import org.wildfly.prospero.cli.CliMessages;
@@ -32,7 +33,6 @@ import org.wildfly.prospero.cli.ChannelUtils;
 import org.wildfly.prospero.licenses.License;
 import picocli.CommandLine;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import org.jboss.galleon.api.config.GalleonProvisioningConfig;
@@ -50,7 +50,7 @@ public class PrintLicensesCommand extends AbstractInstallCommand {
     @Override
     public Integer call() throws Exception {
 
-        final Path tempDirectory = Files.createTempDirectory("tmp-installer");
+        final Path tempDirectory = WorkDirectory.createTempDirectory("tmp-installer");
         try {
             final ProvisioningDefinition provisioningDefinition = buildDefinition().build();
             final MavenOptions mavenOptions = getMavenOptions();
@@ -39,7 +39,6 @@ import org.wildfly.prospero.api.exceptions.OperationException;
 import org.wildfly.prospero.cli.ActionFactory;
 import org.wildfly.prospero.cli.CliConsole;
 import org.wildfly.prospero.cli.CliMessages;
-import org.wildfly.prospero.cli.FileConflictPrinter;
 import org.wildfly.prospero.cli.RepositoryDefinition;
 import org.wildfly.prospero.api.TemporaryFilesManager;
 import picocli.CommandLine;
@@ -56,7 +55,7 @@ public class RevertCommand extends AbstractParentCommand {
         List<ArtifactChange> artifactUpdates = applyCandidateAction.findUpdates().getArtifactUpdates();
         console.printArtifactChanges(artifactUpdates);
         final List<FileConflict> conflicts = applyCandidateAction.getConflicts();
-        FileConflictPrinter.print(conflicts, console);
+        console.conflictsFound(conflicts);
 
         if (!yes && !artifactUpdates.isEmpty() && !console.confirm(CliMessages.MESSAGES.continueWithRevert(),
                 CliMessages.MESSAGES.applyingChanges(), CliMessages.MESSAGES.revertCancelled())) {
@@ -103,7 +102,7 @@ public class RevertCommand extends AbstractParentCommand {
             final MavenOptions mavenOptions = parseMavenOptions();
 
             final List<Repository> repositories = RepositoryDefinition.from(temporaryRepositories);
-            try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.getInstance()) {
+            try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.forInstallation(installationDirectory)) {
                 final List<Repository> overrideRepositories = RepositoryUtils.unzipArchives(repositories, temporaryFiles);
 
                 InstallationHistoryAction historyAction = actionFactory.history(installationDirectory, console);
@@ -111,7 +110,7 @@ public class RevertCommand extends AbstractParentCommand {
                 console.println(CliMessages.MESSAGES.revertStart(installationDirectory, revision));
                 console.println("");
 
-                final Path tempDirectory = temporaryFiles.createTempDirectory("revert-candidate");
+                final Path tempDirectory = temporaryFiles.createTempDirectory(installationDirectory, "revert-candidate");
                 historyAction.prepareRevert(new SavedState(revision), mavenOptions, overrideRepositories, tempDirectory);
 
                 console.println("");
@@ -197,7 +196,7 @@ public class RevertCommand extends AbstractParentCommand {
             final Path installationDirectory = determineInstallationDirectory(directory);
             final MavenOptions mavenOptions = parseMavenOptions();
 
-            try(TemporaryFilesManager temporaryFiles = TemporaryFilesManager.getInstance()) {
+            try(TemporaryFilesManager temporaryFiles = TemporaryFilesManager.forInstallation(installationDirectory)) {
                 final List<Repository> repositories = RepositoryDefinition.from(temporaryRepositories);
                 final List<Repository> overrideRepositories = RepositoryUtils.unzipArchives(repositories, temporaryFiles);
 
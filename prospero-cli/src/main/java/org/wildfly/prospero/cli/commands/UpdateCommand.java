@@ -47,14 +47,15 @@ import org.wildfly.prospero.api.FileConflict;
 import org.wildfly.prospero.api.InstallationMetadata;
 import org.wildfly.prospero.api.InstallationProfilesManager;
 import org.wildfly.prospero.api.MavenOptions;
+import org.wildfly.prospero.api.OperationJournal;
 import org.wildfly.prospero.api.RepositoryUtils;
+import org.wildfly.prospero.api.WorkDirectory;
 import org.wildfly.prospero.api.exceptions.OperationException;
 import org.wildfly.prospero.cli.ActionFactory;
 import org.wildfly.prospero.cli.ArgumentParsingException;
 import org.wildfly.prospero.cli.CliConsole;
 import org.wildfly.prospero.cli.CliMessages;
 import org.wildfly.prospero.cli.DistributionInfo;
-import org.wildfly.prospero.cli.FileConflictPrinter;
 import org.wildfly.prospero.cli.RepositoryDefinition;
 import org.wildfly.prospero.cli.ReturnCodes;
 import org.wildfly.prospero.api.TemporaryFilesManager;
@@ -89,6 +90,9 @@ public class UpdateCommand extends AbstractParentCommand {
         @CommandLine.Option(names = {CliConstants.Y, CliConstants.YES})
         boolean yes;
 
+        @CommandLine.Option(names = CliConstants.RESUME)
+        boolean resume;
+
         public PerformCommand(CliConsole console, ActionFactory actionFactory) {
             super(console, actionFactory);
         }
@@ -110,7 +114,7 @@ public class UpdateCommand extends AbstractParentCommand {
             }
 
             final MavenOptions mavenOptions = parseMavenOptions();
-            try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.getInstance()) {
+            try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.forInstallation(installationDir)) {
                 final List<Repository> repositories = RepositoryUtils.unzipArchives(
                         RepositoryDefinition.from(temporaryRepositories), temporaryFiles);
 
@@ -118,7 +122,7 @@ public class UpdateCommand extends AbstractParentCommand {
 
                 console.println(CliMessages.MESSAGES.updateHeader(installationDir));
 
-                try (UpdateAction updateAction = actionFactory.update(installationDir, mavenOptions, console, repositories)) {
+                try (UpdateAction updateAction = actionFactory.update(installationDir, mavenOptions, console, repositories, resume)) {
                     performUpdate(updateAction, yes, console, installationDir);
                 }
             }
@@ -132,7 +136,7 @@ public class UpdateCommand extends AbstractParentCommand {
         private boolean performUpdate(UpdateAction updateAction, boolean yes, CliConsole console, Path installDir) throws OperationException, ProvisioningException {
             Path targetDir = null;
             try {
-                targetDir = Files.createTempDirectory("update-candidate");
+                targetDir = resume ? updateAction.getCandidateDirectory() : WorkDirectory.createTempDirectory(installDir, "update-candidate");
                 if (buildUpdate(updateAction, targetDir, yes, console, () -> console.confirmUpdates())) {
                     console.println("");
                     console.buildUpdatesComplete();
@@ -140,21 +144,24 @@ public class UpdateCommand extends AbstractParentCommand {
                     ApplyCandidateAction applyCandidateAction = actionFactory.applyUpdate(installDir, targetDir);
                     final List<FileConflict> conflicts = applyCandidateAction.getConflicts();
                     if (!conflicts.isEmpty()) {
-                        FileConflictPrinter.print(conflicts, console);
+                        console.conflictsFound(conflicts);
                         if (!yes && !console.confirm(CliMessages.MESSAGES.continueWithUpdate(), "", CliMessages.MESSAGES.updateCancelled())) {
                             return false;
                         }
                     }
 
                     console.println(CliMessages.MESSAGES.applyingUpdates());
-                    applyCandidateAction.applyUpdate(ApplyCandidateAction.Type.UPDATE);
+                    // a resumable candidate is kept until the update is completed
+                    applyCandidateAction.applyUpdate(ApplyCandidateAction.Type.UPDATE, !resume);
+                    updateAction.discardProgress();
                 } else {
+                    updateAction.discardProgress();
                     return false;
                 }
             } catch (IOException e) {
                 throw ProsperoLogger.ROOT_LOGGER.unableToCreateTemporaryDirectory(e);
             } finally {
-                if (targetDir != null) {
+                if (targetDir != null && !resume) {
                     FileUtils.deleteQuietly(targetDir.toFile());
                 }
             }
@@ -173,6 +180,9 @@ public class UpdateCommand extends AbstractParentCommand {
         @CommandLine.Option(names = {CliConstants.Y, CliConstants.YES})
         boolean yes;
 
+        @CommandLine.Option(names = CliConstants.RESUME)
+        boolean resume;
+
         public PrepareCommand(CliConsole console, ActionFactory actionFactory) {
             super(console, actionFactory);
         }
@@ -183,7 +193,7 @@ public class UpdateCommand extends AbstractParentCommand {
             final Path installationDir = determineInstallationDirectory(directory);
 
             final MavenOptions mavenOptions = parseMavenOptions();
-            try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.getInstance()) {
+            try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.forInstallation(installationDir)) {
                 final List<Repository> repositories = RepositoryUtils.unzipArchives(
                         RepositoryDefinition.from(temporaryRepositories), temporaryFiles);
 
@@ -192,15 +202,18 @@ public class UpdateCommand extends AbstractParentCommand {
                 console.println(CliMessages.MESSAGES.buildUpdateCandidateHeader(installationDir));
 
 
-                verifyTargetDirectoryIsEmpty(candidateDirectory);
+                if (!resume || !OperationJournal.open(installationDir).isStarted(candidateDirectory)) {
+                    verifyTargetDirectoryIsEmpty(candidateDirectory);
+                }
 
                 try (UpdateAction updateAction = actionFactory.update(installationDir,
-                        mavenOptions, console, repositories)) {
+                        mavenOptions, console, repositories, resume)) {
                     if (buildUpdate(updateAction, candidateDirectory, yes, console, () -> console.confirmBuildUpdates())) {
                         console.println("");
                         console.buildUpdatesComplete();
                         console.println(CliMessages.MESSAGES.updateCandidateGenerated(candidateDirectory));
                     }
+                    updateAction.discardProgress();
                 }
             }
 
@@ -255,7 +268,7 @@ public class UpdateCommand extends AbstractParentCommand {
 
             console.updatesFound(applyCandidateAction.findUpdates().getArtifactUpdates());
             final List<FileConflict> conflicts = applyCandidateAction.getConflicts();
-            FileConflictPrinter.print(conflicts, console);
+            console.conflictsFound(conflicts);
 
             // there always should be updates, so confirm update
             if (!yes && !console.confirm(CliMessages.MESSAGES.continueWithUpdate(), CliMessages.MESSAGES.applyingUpdates(), CliMessages.MESSAGES.updateCancelled())) {
@@ -289,11 +302,11 @@ public class UpdateCommand extends AbstractParentCommand {
 
             final MavenOptions mavenOptions = parseMavenOptions();
 
-            try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.getInstance()) {
+            try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.forInstallation(installationDir)) {
                 final List<Repository> repositories = RepositoryUtils.unzipArchives(
                         RepositoryDefinition.from(temporaryRepositories), temporaryFiles);
                 console.println(CliMessages.MESSAGES.checkUpdatesHeader(installationDir));
-                try (UpdateAction updateAction = actionFactory.update(installationDir, mavenOptions, console, repositories)) {
+                try (UpdateAction updateAction = actionFactory.update(installationDir, mavenOptions, console, repositories, false)) {
                     final UpdateSet updateSet = updateAction.findUpdates();
                     console.updatesFound(updateSet.getArtifactUpdates());
                 }
@@ -344,7 +357,7 @@ public class UpdateCommand extends AbstractParentCommand {
             log.debugf("Will generate FeaturePackLocation %s.", loc.toString());
 
             SubscribeNewServerAction subscribeNewServerAction = actionFactory.subscribeNewServerAction(parseMavenOptions(), console);
-            SubscribeNewServerAction.GenerateResult generateResult = subscribeNewServerAction.generateServerMetadata(channels, loc);
+            SubscribeNewServerAction.GenerateResult generateResult = subscribeNewServerAction.generateServerMetadata(installDir, channels, loc);
             generateMeta(installDir, generateResult);
 
             return ReturnCodes.SUCCESS;
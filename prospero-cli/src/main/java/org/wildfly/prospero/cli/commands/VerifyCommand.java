@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.cli.commands;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.wildfly.prospero.actions.VerifyAction;
+import org.wildfly.prospero.api.FileVerification;
+import org.wildfly.prospero.cli.ActionFactory;
+import org.wildfly.prospero.cli.CliConsole;
+import org.wildfly.prospero.cli.CliMessages;
+import org.wildfly.prospero.cli.ReturnCodes;
+import picocli.CommandLine;
+
+@CommandLine.Command(
+        name = CliConstants.Commands.VERIFY,
+        sortOptions = false
+)
+public class VerifyCommand extends AbstractCommand {
+
+    @CommandLine.Option(names = CliConstants.DIR)
+    Optional<Path> directory;
+
+    @CommandLine.Option(names = CliConstants.QUICK)
+    boolean quick;
+
+    @CommandLine.Option(names = CliConstants.PARALLELISM, paramLabel = "<n>")
+    Optional<Integer> parallelism;
+
+    public VerifyCommand(CliConsole console, ActionFactory actionFactory) {
+        super(console, actionFactory);
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        final Path installationDirectory = determineInstallationDirectory(directory);
+        final VerifyAction verifyAction = actionFactory.verify(installationDirectory, console);
+
+        final VerifyAction.Result result = verifyAction.verify(quick,
+                parallelism.orElse(Runtime.getRuntime().availableProcessors()), this::print);
+
+        if (result.getChanges().isEmpty()) {
+            console.println(CliMessages.MESSAGES.verifyNoChanges(result.getVerifiedFiles()));
+            return ReturnCodes.SUCCESS;
+        } else {
+            console.println(CliMessages.MESSAGES.verifyChangesFound(result.getVerifiedFiles(), result.getChanges().size()));
+            return ReturnCodes.PROCESSING_ERROR;
+        }
+    }
+
+    private void print(FileVerification change) {
+        if (change.getStatus() == FileVerification.Status.MISSING) {
+            console.println(CliMessages.MESSAGES.verifyFileMissing(change.getRelativePath()));
+        } else {
+            console.println(CliMessages.MESSAGES.verifyFileModified(change.getRelativePath()));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.cli.commands.options;
+
+import org.wildfly.prospero.api.MavenOptions;
+import org.wildfly.prospero.cli.ArgumentParsingException;
+import org.wildfly.prospero.cli.CliMessages;
+import org.wildfly.prospero.cli.commands.CliConstants;
+import org.wildfly.prospero.wfchannel.ProvisioningCache;
+import picocli.CommandLine;
+
+import java.util.Optional;
+
+public class DownloadOptions {
+    @CommandLine.Option(
+            names = CliConstants.MAX_BANDWIDTH,
+            paramLabel = CliConstants.RATE
+    )
+    Optional<String> maxBandwidth = Optional.empty();
+
+    @CommandLine.Option(
+            names = CliConstants.MAX_REPOSITORY_BANDWIDTH,
+            paramLabel = CliConstants.RATE
+    )
+    Optional<String> maxRepositoryBandwidth = Optional.empty();
+
+    @CommandLine.Option(
+            names = CliConstants.MAX_CONCURRENT_DOWNLOADS,
+            paramLabel = "<n>"
+    )
+    Optional<Integer> maxConcurrentDownloads = Optional.empty();
+
+    public void applyTo(MavenOptions.Builder builder) throws ArgumentParsingException {
+        if (maxBandwidth.isPresent()) {
+            builder.setMaxBandwidth(parseRate(maxBandwidth.get()));
+        }
+        if (maxRepositoryBandwidth.isPresent()) {
+            builder.setMaxRepositoryBandwidth(parseRate(maxRepositoryBandwidth.get()));
+        }
+        if (maxConcurrentDownloads.isPresent()) {
+            if (maxConcurrentDownloads.get() < 1) {
+                throw CliMessages.MESSAGES.invalidConcurrentDownloads(maxConcurrentDownloads.get());
+            }
+            builder.setMaxConcurrentDownloads(maxConcurrentDownloads.get());
+        }
+    }
+
+    /**
+     * parses rate in bytes per second, with an optional K, M or G (1024 based) suffix.
+     */
+    static long parseRate(String rate) throws ArgumentParsingException {
+        final long bytes;
+        try {
+            bytes = ProvisioningCache.parseSize(rate);
+        } catch (NumberFormatException e) {
+            throw CliMessages.MESSAGES.invalidDownloadRate(rate);
+        }
+        if (bytes <= 0) {
+            throw CliMessages.MESSAGES.invalidDownloadRate(rate);
+        }
+        return bytes;
+    }
+}
@@ -21,21 +21,15 @@ package org.wildfly.prospero.cli.commands.options;
 import org.wildfly.prospero.api.InstallationProfilesManager;
 
 import java.util.Iterator;
-import java.util.Set;
 
 /**
  * @deprecated use {@link InstallationProfilesCandidates} instead
  */
 public class FeaturePackCandidates implements Iterable<String> {
 
-    private final Set<String> names;
-
-    public FeaturePackCandidates() {
-        names = InstallationProfilesManager.getNames();
-    }
-
+    // picocli creates the candidates when the command is built, the profiles are only read when completion is requested
     @Override
     public Iterator<String> iterator() {
-        return names.iterator();
+        return InstallationProfilesManager.getNames().iterator();
     }
 }
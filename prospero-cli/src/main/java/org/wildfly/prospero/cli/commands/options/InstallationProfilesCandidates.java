@@ -21,18 +21,12 @@ package org.wildfly.prospero.cli.commands.options;
 import org.wildfly.prospero.api.InstallationProfilesManager;
 
 import java.util.Iterator;
-import java.util.Set;
 
 public class InstallationProfilesCandidates implements Iterable<String> {
 
-    private final Set<String> names;
-
-    public InstallationProfilesCandidates() {
-        names = InstallationProfilesManager.getNames();
-    }
-
+    // picocli creates the candidates when the command is built, the profiles are only read when completion is requested
     @Override
     public Iterator<String> iterator() {
-        return names.iterator();
+        return InstallationProfilesManager.getNames().iterator();
     }
 }
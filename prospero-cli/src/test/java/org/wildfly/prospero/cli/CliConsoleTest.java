@@ -21,13 +21,21 @@ import org.eclipse.aether.artifact.DefaultArtifact;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.wildfly.prospero.api.ArtifactChange;
+import org.wildfly.prospero.api.DownloadProgress;
+import org.wildfly.prospero.api.FileConflict;
+import org.wildfly.prospero.api.ProvisioningProgressEvent;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.wildfly.prospero.galleon.GalleonEnvironment.TRACK_JB_ARTIFACTS_RESOLVE;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -72,6 +80,56 @@ public class CliConsoleTest extends AbstractConsoleTest {
                 .contains("[channel-1]");
     }
 
+    @Test
+    public void ndjsonOutputWritesEventsAsJsonLines() throws Exception {
+        cliConsole.setOutputFormat(OutputFormat.NDJSON);
+
+        cliConsole.println("human readable message");
+        cliConsole.progressUpdate(new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.STARTING, 0, 2));
+        cliConsole.progressUpdate(new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.UPDATE,
+                1, 2, "test.jar", false, new DownloadProgress(1, 0, 1000, 1000, 500, 2)));
+        cliConsole.progressUpdate(new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.COMPLETED, 2, 2));
+        cliConsole.updatesFound(List.of(ArtifactChange.updated(new DefaultArtifact("test.group", "test-artifact", "jar", "2.0.0"),
+                new DefaultArtifact("test.group", "test-artifact", "jar", "2.1.0"), "channel-1")));
+        cliConsole.conflictsFound(List.of(FileConflict.userModified("standalone.xml").updateModified().userPreserved()));
+        cliConsole.operationCompleted(ReturnCodes.SUCCESS);
+        cliConsole.close();
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final List<JsonNode> events = new ArrayList<>();
+        for (String line : outputStream.toString().split("\n")) {
+            events.add(mapper.readTree(line));
+        }
+
+        assertThat(events.stream().map(e -> e.get("type").asText()).collect(Collectors.toList()))
+                .containsExactly("progress", "progress", "progress", "artifactChange", "conflict", "result");
+        assertThat(events.get(1).get("item").asText()).isEqualTo("test.jar");
+        assertThat(events.get(1).get("throughput").asLong()).isEqualTo(500);
+        assertThat(events.get(2).get("event").asText()).isEqualTo("completed");
+        assertThat(events.get(2).has("duration")).isTrue();
+        assertThat(events.get(3).get("newVersion").asText()).isEqualTo("2.1.0");
+        assertThat(events.get(4).get("path").asText()).isEqualTo("standalone.xml");
+        assertThat(events.get(5).get("exitCode").asInt()).isEqualTo(ReturnCodes.SUCCESS);
+        assertThat(systemErrRule.getLog()).contains("human readable message");
+    }
+
+    @Test
+    public void ndjsonEventsAfterCloseAreDiscarded() throws Exception {
+        cliConsole.setOutputFormat(OutputFormat.NDJSON);
+        cliConsole.operationCompleted(ReturnCodes.SUCCESS);
+        cliConsole.close();
+        final String output = outputStream.toString();
+
+        cliConsole.progressUpdate(new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.STARTING, 0, 2));
+        cliConsole.updatesFound(List.of(ArtifactChange.updated(new DefaultArtifact("test.group", "test-artifact", "jar", "2.0.0"),
+                new DefaultArtifact("test.group", "test-artifact", "jar", "2.1.0"), "channel-1")));
+        cliConsole.operationCompleted(ReturnCodes.PROCESSING_ERROR);
+        cliConsole.close();
+
+        assertThat(outputStream.toString()).isEqualTo(output);
+        assertThat(new ObjectMapper().readTree(output).get("type").asText()).isEqualTo("result");
+    }
+
     @After
     public void destory() throws IOException {
         outputStream.close();
@@ -17,12 +17,15 @@
 
 package org.wildfly.prospero.cli;
 
+import org.jboss.logmanager.formatters.PatternFormatter;
+import org.jboss.logmanager.handlers.ConsoleHandler;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.wildfly.prospero.cli.commands.CliConstants;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 
@@ -50,6 +53,39 @@ public class CliMainTest extends AbstractConsoleTest {
         assertTrue(getErrorOutput().contains("Unknown option: '--foo=bar'"));
     }
 
+    @Test
+    public void ndjsonOutputFormatIsRecognizedBeforeParsing() {
+        assertEquals(OutputFormat.NDJSON, CliMain.outputFormat(new String[]{CliConstants.Commands.INSTALL, CliConstants.OUTPUT + "=ndjson"}));
+        assertEquals(OutputFormat.NDJSON, CliMain.outputFormat(new String[]{CliConstants.Commands.INSTALL, CliConstants.OUTPUT, "NDJSON"}));
+        assertEquals(OutputFormat.TEXT, CliMain.outputFormat(new String[]{CliConstants.Commands.INSTALL, CliConstants.OUTPUT, "text"}));
+        assertEquals(OutputFormat.TEXT, CliMain.outputFormat(new String[]{CliConstants.Commands.INSTALL}));
+    }
+
+    @Test
+    public void ndjsonOutputWritesLogToErrorOutput() {
+        final java.util.logging.Logger rootLogger = java.util.logging.Logger.getLogger("");
+        final ConsoleHandler handler = new ConsoleHandler(new PatternFormatter("%p %m%n"));
+        handler.setAutoFlush(true);
+        rootLogger.addHandler(handler);
+        try (CliConsole console = new CliConsole()) {
+            CliMain.createCommandLine(console, new String[]{CliConstants.Commands.INSTALL, CliConstants.OUTPUT + "=ndjson"});
+
+            java.util.logging.Logger.getLogger(CliMainTest.class.getName()).warning("test warning");
+
+            assertTrue(getErrorOutput(), getErrorOutput().contains("test warning"));
+            assertFalse(getStandardOutput(), getStandardOutput().contains("test warning"));
+        } finally {
+            rootLogger.removeHandler(handler);
+        }
+    }
+
+    @Test
+    public void errorOnUnknownOutputFormat() {
+        int exitCode = commandLine.execute(CliConstants.Commands.INSTALL, CliConstants.OUTPUT + "=xml");
+        assertEquals(ReturnCodes.INVALID_ARGUMENTS, exitCode);
+        assertTrue(getErrorOutput(), getErrorOutput().contains("--output"));
+    }
+
     @Test
     public void errorOnUnknownOperation() {
         int exitCode = commandLine.execute("foo");
@@ -20,6 +20,7 @@ package org.wildfly.prospero.cli.commands;
 import org.junit.Test;
 import org.wildfly.prospero.api.MavenOptions;
 import org.wildfly.prospero.cli.AbstractConsoleTest;
+import org.wildfly.prospero.cli.CliMessages;
 import org.wildfly.prospero.cli.ReturnCodes;
 
 import java.nio.file.Path;
@@ -56,6 +57,36 @@ public abstract class AbstractMavenCommandTest extends AbstractConsoleTest {
         assertEquals(Paths.get("test-path").toAbsolutePath(), options.getLocalCache());
     }
 
+    @Test
+    public void downloadLimitsArePassedToMavenOptions() throws Exception {
+        doLocalMock();
+
+        int exitCode = commandLine.execute(getArgs(CliConstants.MAX_BANDWIDTH, "10M",
+                CliConstants.MAX_REPOSITORY_BANDWIDTH, "512k", CliConstants.MAX_CONCURRENT_DOWNLOADS, "2"));
+
+        assertEquals(ReturnCodes.SUCCESS, exitCode);
+        MavenOptions options = getCapturedMavenOptions();
+        assertEquals(Long.valueOf(10 * 1024 * 1024), options.getMaxBandwidth());
+        assertEquals(Long.valueOf(512 * 1024), options.getMaxRepositoryBandwidth());
+        assertEquals(Integer.valueOf(2), options.getMaxConcurrentDownloads());
+    }
+
+    @Test
+    public void invalidDownloadRateIsRejected() throws Exception {
+        int exitCode = commandLine.execute(getArgs(CliConstants.MAX_BANDWIDTH, "fast"));
+
+        assertEquals(ReturnCodes.INVALID_ARGUMENTS, exitCode);
+        assertTrue(getErrorOutput().contains(CliMessages.MESSAGES.invalidDownloadRate("fast").getMessage()));
+    }
+
+    @Test
+    public void tooLargeDownloadRateIsRejected() throws Exception {
+        int exitCode = commandLine.execute(getArgs(CliConstants.MAX_BANDWIDTH, "9000000000G"));
+
+        assertEquals(ReturnCodes.INVALID_ARGUMENTS, exitCode);
+        assertTrue(getErrorOutput().contains(CliMessages.MESSAGES.invalidDownloadRate("9000000000G").getMessage()));
+    }
+
     private String[] getArgs(String... additional) {
         final List<String> args = new ArrayList<>();
         args.addAll(Arrays.asList(getDefaultArguments()));
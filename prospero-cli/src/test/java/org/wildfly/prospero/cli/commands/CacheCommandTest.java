@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.cli.commands;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.wildfly.prospero.cli.AbstractConsoleTest;
+import org.wildfly.prospero.cli.ActionFactory;
+import org.wildfly.prospero.cli.CliMessages;
+import org.wildfly.prospero.cli.ReturnCodes;
+import org.wildfly.prospero.wfchannel.ProvisioningCache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CacheCommandTest extends AbstractConsoleTest {
+
+    private static final Path CACHE_DIR = Path.of("test-cache");
+
+    @Mock
+    private ActionFactory actionFactory;
+
+    @Mock
+    private ProvisioningCache provisioningCache;
+
+    @Override
+    protected ActionFactory createActionFactory() {
+        return actionFactory;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        when(actionFactory.provisioningCache()).thenReturn(provisioningCache);
+    }
+
+    @Test
+    public void statsPrintsCacheSize() throws Exception {
+        when(provisioningCache.getRoot()).thenReturn(CACHE_DIR);
+        when(provisioningCache.getStats()).thenReturn(new ProvisioningCache.Stats(3, 2048));
+        when(provisioningCache.getMaxSize()).thenReturn(4096L);
+        when(provisioningCache.getMaxAge()).thenReturn(Duration.ofDays(7));
+
+        int exitCode = commandLine.execute(CliConstants.Commands.CACHE, CliConstants.Commands.STATS);
+
+        assertEquals(ReturnCodes.SUCCESS, exitCode);
+        assertThat(getStandardOutput())
+                .contains(CliMessages.MESSAGES.provisioningCacheStats(CACHE_DIR, 3, "2 KB", "4 KB", 7));
+    }
+
+    @Test
+    public void pruneRemovesUnusedEntries() throws Exception {
+        when(provisioningCache.prune()).thenReturn(new ProvisioningCache.Stats(2, 1024));
+
+        int exitCode = commandLine.execute(CliConstants.Commands.CACHE, CliConstants.Commands.PRUNE);
+
+        assertEquals(ReturnCodes.SUCCESS, exitCode);
+        verify(provisioningCache, never()).clear();
+        assertThat(getStandardOutput()).contains(CliMessages.MESSAGES.provisioningCachePruned(2, "1 KB"));
+    }
+
+    @Test
+    public void pruneAllClearsTheCache() throws Exception {
+        when(provisioningCache.clear()).thenReturn(new ProvisioningCache.Stats(5, 0));
+
+        int exitCode = commandLine.execute(CliConstants.Commands.CACHE, CliConstants.Commands.PRUNE, CliConstants.ALL);
+
+        assertEquals(ReturnCodes.SUCCESS, exitCode);
+        verify(provisioningCache, never()).prune();
+    }
+
+    @Test
+    public void pruneFailsIfCacheIsLocked() throws Exception {
+        when(provisioningCache.getRoot()).thenReturn(CACHE_DIR);
+        when(provisioningCache.prune()).thenReturn(null);
+
+        int exitCode = commandLine.execute(CliConstants.Commands.CACHE, CliConstants.Commands.PRUNE);
+
+        assertEquals(ReturnCodes.PROCESSING_ERROR, exitCode);
+        assertThat(getErrorOutput()).contains(CliMessages.MESSAGES.provisioningCacheLocked(CACHE_DIR).getMessage());
+    }
+}
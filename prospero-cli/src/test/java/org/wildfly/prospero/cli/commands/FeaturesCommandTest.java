@@ -343,7 +343,7 @@ public class FeaturesCommandTest extends AbstractMavenCommandTest {
                 CliConstants.FPL, "org.test:test");
 
         assertEquals("The user should be prompted to continue twice.", 2, askedConfirmation);
-        verify(applyUpdateAction).applyUpdate(ApplyCandidateAction.Type.FEATURE_ADD);
+        verify(applyUpdateAction).applyUpdate(ApplyCandidateAction.Type.FEATURE_ADD, true);
     }
 
     @Test
@@ -359,7 +359,7 @@ public class FeaturesCommandTest extends AbstractMavenCommandTest {
                 CliConstants.TARGET_CONFIG, "test/idontexist",
                 CliConstants.FPL, "org.test:test");
 
-        verify(applyUpdateAction, never()).applyUpdate(ApplyCandidateAction.Type.FEATURE_ADD);
+        verify(applyUpdateAction, never()).applyUpdate(ApplyCandidateAction.Type.FEATURE_ADD, true);
     }
 
     @Test
@@ -370,7 +370,7 @@ public class FeaturesCommandTest extends AbstractMavenCommandTest {
                 CliConstants.FPL, "org.test:test");
 
         assertEquals("The user should be prompted to continue only once to confirm installation.", 1, askedConfirmation);
-        verify(applyUpdateAction).applyUpdate(ApplyCandidateAction.Type.FEATURE_ADD);
+        verify(applyUpdateAction).applyUpdate(ApplyCandidateAction.Type.FEATURE_ADD, true);
     }
 
     @Override
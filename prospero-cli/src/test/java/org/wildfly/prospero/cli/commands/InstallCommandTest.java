@@ -60,6 +60,7 @@ import static org.assertj.core.api.Assertions.entry;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -93,7 +94,7 @@ public class InstallCommandTest extends AbstractMavenCommandTest {
     @Before
     public void setUp() throws Exception {
         super.setUp();
-        when(actionFactory.install(any(), any(), any())).thenReturn(provisionAction);
+        when(actionFactory.install(any(), any(), any(), anyBoolean())).thenReturn(provisionAction);
     }
 
     @Test
@@ -419,7 +420,7 @@ public class InstallCommandTest extends AbstractMavenCommandTest {
 
     @Override
     protected MavenOptions getCapturedMavenOptions() throws Exception {
-        Mockito.verify(actionFactory).install(any(), mavenOptions.capture(), any());
+        Mockito.verify(actionFactory).install(any(), mavenOptions.capture(), any(), anyBoolean());
         return mavenOptions.getValue();
     }
 
@@ -50,6 +50,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
@@ -89,7 +90,7 @@ public class UpdateCommandTest extends AbstractMavenCommandTest {
     @Before
     public void setUp() throws Exception {
         super.setUp();
-        when(actionFactory.update(any(), any(), any(), any())).thenReturn(updateAction);
+        when(actionFactory.update(any(), any(), any(), any(), anyBoolean())).thenReturn(updateAction);
         when(actionFactory.applyUpdate(any(), any())).thenReturn(applyCandidateAction);
         installationDir = tempFolder.newFolder().toPath();
 
@@ -120,7 +121,23 @@ public class UpdateCommandTest extends AbstractMavenCommandTest {
 
         assertEquals(ReturnCodes.SUCCESS, exitCode);
         Mockito.verify(updateAction).buildUpdate(any());
-        Mockito.verify(applyCandidateAction).applyUpdate(ApplyCandidateAction.Type.UPDATE);
+        Mockito.verify(applyCandidateAction).applyUpdate(ApplyCandidateAction.Type.UPDATE, true);
+    }
+
+    @Test
+    public void resumableUpdateUsesPreservedCandidateDirectory() throws Exception {
+        final Path candidateDir = tempFolder.newFolder().toPath();
+        when(updateAction.findUpdates()).thenReturn(new UpdateSet(List.of(change("1.0.0", "1.0.1"))));
+        when(updateAction.buildUpdate(any())).thenReturn(true);
+        when(updateAction.getCandidateDirectory()).thenReturn(candidateDir);
+        int exitCode = commandLine.execute(CliConstants.Commands.UPDATE, CliConstants.Commands.PERFORM,
+                CliConstants.DIR, installationDir.toString(), CliConstants.RESUME);
+
+        assertEquals(ReturnCodes.SUCCESS, exitCode);
+        Mockito.verify(actionFactory).update(any(), any(), any(), any(), eq(true));
+        Mockito.verify(updateAction).buildUpdate(candidateDir.toAbsolutePath());
+        Mockito.verify(applyCandidateAction).applyUpdate(ApplyCandidateAction.Type.UPDATE, false);
+        Mockito.verify(updateAction).discardProgress();
     }
 
     @Test
@@ -140,9 +157,9 @@ public class UpdateCommandTest extends AbstractMavenCommandTest {
         int exitCode = commandLine.execute(CliConstants.Commands.UPDATE, CliConstants.Commands.PERFORM, CliConstants.SELF);
 
         assertEquals(ReturnCodes.SUCCESS, exitCode);
-        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any());
+        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any(), anyBoolean());
         Mockito.verify(updateAction).buildUpdate(any());
-        Mockito.verify(applyCandidateAction).applyUpdate(ApplyCandidateAction.Type.UPDATE);
+        Mockito.verify(applyCandidateAction).applyUpdate(ApplyCandidateAction.Type.UPDATE, true);
     }
 
     @Test
@@ -155,9 +172,9 @@ public class UpdateCommandTest extends AbstractMavenCommandTest {
                 CliConstants.DIR, installationDir.toAbsolutePath().toString());
 
         assertEquals(ReturnCodes.SUCCESS, exitCode);
-        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any());
+        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any(), anyBoolean());
         Mockito.verify(updateAction).buildUpdate(any());
-        Mockito.verify(applyCandidateAction).applyUpdate(ApplyCandidateAction.Type.UPDATE);
+        Mockito.verify(applyCandidateAction).applyUpdate(ApplyCandidateAction.Type.UPDATE, true);
     }
 
     @Test
@@ -192,7 +209,7 @@ public class UpdateCommandTest extends AbstractMavenCommandTest {
                 CliConstants.DIR, installationDir.toAbsolutePath().toString());
 
         assertEquals(ReturnCodes.SUCCESS, exitCode);
-        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any());
+        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any(), anyBoolean());
         assertEquals(1, getAskedConfirmation());
         Mockito.verify(updateAction, never()).performUpdate();
     }
@@ -207,10 +224,10 @@ public class UpdateCommandTest extends AbstractMavenCommandTest {
                 CliConstants.DIR, installationDir.toAbsolutePath().toString());
 
         assertEquals(ReturnCodes.SUCCESS, exitCode);
-        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any());
+        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any(), anyBoolean());
         assertEquals(1, getAskedConfirmation());
         Mockito.verify(updateAction).buildUpdate(any());
-        Mockito.verify(applyCandidateAction).applyUpdate(ApplyCandidateAction.Type.UPDATE);
+        Mockito.verify(applyCandidateAction).applyUpdate(ApplyCandidateAction.Type.UPDATE, true);
     }
 
     @Test
@@ -222,7 +239,7 @@ public class UpdateCommandTest extends AbstractMavenCommandTest {
                 CliConstants.DIR, installationDir.toAbsolutePath().toString());
 
         assertEquals(ReturnCodes.SUCCESS, exitCode);
-        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any());
+        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any(), anyBoolean());
         Mockito.verify(updateAction, never()).performUpdate();
         Mockito.verify(updateAction).findUpdates();
     }
@@ -246,7 +263,7 @@ public class UpdateCommandTest extends AbstractMavenCommandTest {
                 CliConstants.DIR, installationDir.toAbsolutePath().toString());
 
         assertEquals(ReturnCodes.SUCCESS, exitCode);
-        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any());
+        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any(), anyBoolean());
         assertEquals(1, getAskedConfirmation());
         Mockito.verify(updateAction).buildUpdate(updatePath);
     }
@@ -261,7 +278,7 @@ public class UpdateCommandTest extends AbstractMavenCommandTest {
                 CliConstants.DIR, installationDir.toAbsolutePath().toString());
 
         assertEquals(ReturnCodes.SUCCESS, exitCode);
-        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any());
+        Mockito.verify(actionFactory).update(eq(installationDir.toAbsolutePath()), any(), any(), any(), anyBoolean());
         assertEquals(0, getAskedConfirmation());
         Mockito.verify(updateAction, never()).buildUpdate(updatePath);
     }
@@ -315,12 +332,12 @@ public class UpdateCommandTest extends AbstractMavenCommandTest {
 
     @Override
     protected MavenOptions getCapturedMavenOptions() throws Exception {
-        Mockito.verify(actionFactory).update(any(), mavenOptions.capture(), any(), any());
+        Mockito.verify(actionFactory).update(any(), mavenOptions.capture(), any(), any(), anyBoolean());
         return mavenOptions.getValue();
     }
 
     protected List<Repository> getCapturedRepositories() throws Exception {
-        Mockito.verify(actionFactory).update(any(), any(), any(), repositories.capture());
+        Mockito.verify(actionFactory).update(any(), any(), any(), repositories.capture(), anyBoolean());
         return repositories.getValue();
     }
 
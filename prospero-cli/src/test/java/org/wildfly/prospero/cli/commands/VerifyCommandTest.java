@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.cli.commands;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.util.HashUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.prospero.cli.AbstractConsoleTest;
+import org.wildfly.prospero.cli.CliMessages;
+import org.wildfly.prospero.cli.ReturnCodes;
+import org.wildfly.prospero.test.MetadataTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+
+public class VerifyCommandTest extends AbstractConsoleTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    private Path installationDir;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        installationDir = tempDir.newFolder().toPath();
+        MetadataTestUtils.createInstallationMetadata(installationDir);
+        MetadataTestUtils.createGalleonProvisionedState(installationDir);
+
+        final Path file = installationDir.resolve("test.txt");
+        Files.writeString(file, "test");
+        final Path hashes = installationDir.resolve(Constants.PROVISIONED_STATE_DIR).resolve(Constants.HASHES).resolve(Constants.HASHES);
+        Files.createDirectories(hashes.getParent());
+        Files.writeString(hashes, "test.txt\n" + HashUtils.hashFile(file) + "\n");
+    }
+
+    @Test
+    public void currentDirNotValidInstallation() {
+        int exitCode = commandLine.execute(CliConstants.Commands.VERIFY);
+
+        assertEquals(ReturnCodes.INVALID_ARGUMENTS, exitCode);
+        assertThat(getErrorOutput())
+                .contains(CliMessages.MESSAGES.invalidInstallationDir(VerifyCommand.currentDir()).getMessage());
+    }
+
+    @Test
+    public void unchangedInstallationSucceeds() {
+        int exitCode = commandLine.execute(CliConstants.Commands.VERIFY, CliConstants.DIR, installationDir.toString());
+
+        assertEquals(ReturnCodes.SUCCESS, exitCode);
+        assertThat(getStandardOutput()).contains(CliMessages.MESSAGES.verifyNoChanges(1));
+    }
+
+    @Test
+    public void changedFilesAreListed() throws Exception {
+        Files.writeString(installationDir.resolve("test.txt"), "changed");
+
+        int exitCode = commandLine.execute(CliConstants.Commands.VERIFY, CliConstants.DIR, installationDir.toString(),
+                CliConstants.QUICK, CliConstants.PARALLELISM, "1");
+
+        assertEquals(ReturnCodes.PROCESSING_ERROR, exitCode);
+        assertThat(getStandardOutput())
+                .contains(CliMessages.MESSAGES.verifyFileModified("test.txt"))
+                .contains(CliMessages.MESSAGES.verifyChangesFound(1, 1));
+    }
+}
@@ -33,6 +33,7 @@ import org.wildfly.prospero.api.exceptions.InvalidRepositoryArchiveException;
 import org.wildfly.prospero.api.exceptions.InvalidUpdateCandidateException;
 import org.wildfly.prospero.api.exceptions.MetadataException;
 import org.wildfly.prospero.api.exceptions.NoChannelException;
+import org.wildfly.prospero.api.exceptions.OperationCancelledException;
 import org.wildfly.prospero.api.exceptions.ProvisioningRuntimeException;
 
 import java.io.IOException;
@@ -386,4 +387,57 @@ public interface ProsperoLogger extends BasicLogger {
 
     @Message(id = 270, value = "Unable to compare the hash content between the installation %s and candidate installation %s.")
     MetadataException unableToCompareHashDirs(Path installationDir, Path updateDir, @Cause Exception e);
+
+    @Message(id = 271, value = "The operation has been cancelled.")
+    OperationCancelledException operationCancelled();
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 272, value = "Resuming an interrupted operation on %s using the progress recorded in %s")
+    void resumingOperation(Path target, Path workDir);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 273, value = "Re-using the update candidate already built in %s")
+    void reusingUpdateCandidate(Path candidateDir);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 276, value = "Removed %d unused entries (%d bytes) from the provisioning cache %s")
+    void provisioningCachePruned(int entries, long size, Path cacheDir);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 277, value = "Waiting for another process to finish its operation on %s")
+    void waitingForInstallationLock(Path installationDir);
+
+    @Message(id = 278, value = "Unable to lock the installation %s.")
+    MetadataException unableToLockInstallation(Path installationDir, @Cause Exception e);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 279, value = "Building a single update candidate for %d installations with the same configuration as %s")
+    void sharedUpdateCandidate(int installations, Path installationDir);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 280, value = "Unable to update the installation %s: %s")
+    void installationUpdateFailed(Path installationDir, String reason);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 281, value = "Populating %s from a previously provisioned image %s")
+    void provisioningFromImage(Path installDir, Path image);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 282, value = "Repository %s is not reachable and will be skipped for the rest of the operation: %s")
+    void repositoryUnreachable(String url, String reason);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 283, value = "Repository %s: %d requests, %d failures, average latency %d ms")
+    void repositoryStatistics(String url, int requests, int failures, long averageLatency);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 284, value = "Downloaded %d artifacts (%s at %s/s), %d artifacts resolved from the local cache")
+    void downloadSummary(long downloads, String size, String throughput, long cacheHits);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 285, value = "The channel manifests of %s have not changed since the last update")
+    void manifestsUnchanged(Path installDir);
+
+    @Message(id = 286, value = "Unable to lock the installation %s for modification, the current operation has locked it for reading.")
+    MetadataException installationLockUpgradeNotSupported(Path installationDir);
 }
@@ -18,6 +18,7 @@ package org.wildfly.prospero.actions;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -32,6 +33,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -44,7 +46,9 @@ import org.jboss.galleon.BaseErrors;
 import org.jboss.logging.Logger;
 import org.wildfly.prospero.ProsperoLogger;
 import org.wildfly.prospero.api.ArtifactChange;
+import org.wildfly.prospero.api.Console;
 import org.wildfly.prospero.api.FileConflict;
+import org.wildfly.prospero.api.InstallationLock;
 import org.wildfly.prospero.api.InstallationMetadata;
 import org.wildfly.prospero.api.MavenOptions;
 import org.wildfly.prospero.api.SavedState;
@@ -72,11 +76,15 @@ import org.jboss.galleon.util.IoUtils;
 import org.jboss.galleon.util.PathsUtils;
 import org.wildfly.prospero.galleon.ArtifactCache;
 import org.wildfly.prospero.galleon.GalleonEnvironment;
+import org.wildfly.prospero.galleon.RepositoryRanking;
 import org.wildfly.prospero.installation.git.GitStorage;
 import org.wildfly.prospero.licenses.LicenseManager;
 import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+import org.wildfly.prospero.model.ManifestYamlSupport;
 import org.wildfly.prospero.updates.CandidateProperties;
 import org.wildfly.prospero.updates.CandidatePropertiesParser;
+import org.wildfly.prospero.updates.ConflictReport;
+import org.wildfly.prospero.updates.ConflictReportParser;
 import org.wildfly.prospero.updates.MarkerFile;
 import org.wildfly.prospero.updates.UpdateSet;
 import org.wildfly.prospero.wfchannel.MavenSessionManager;
@@ -89,9 +97,12 @@ public class ApplyCandidateAction {
     public static final Path STANDALONE_STARTUP_MARKER = Path.of("standalone", "tmp", "startup-marker");
     public static final Path DOMAIN_STARTUP_MARKER = Path.of("domain", "tmp", "startup-marker");
     public static final String CANDIDATE_CHANNEL_NAME_LIST = "candidate_properties.yaml";
+    public static final String CANDIDATE_CONFLICT_REPORT = "candidate_conflicts.yaml";
+    private static final String BACKUP_SUFFIX = ".bak";
     private final Path updateDir;
     private final Path installationDir;
     private final SystemPaths systemPaths;
+    private final Console console;
 
     private static final Logger log = Logger.getLogger(ApplyCandidateAction.class);
 
@@ -124,8 +135,20 @@ public class ApplyCandidateAction {
 
     public ApplyCandidateAction(Path installationDir, Path updateDir)
             throws ProvisioningException, OperationException {
+        this(installationDir, updateDir, null);
+    }
+
+    /**
+     * @param installationDir - the server being updated
+     * @param updateDir - the candidate server
+     * @param console - if not null, the action is aborted when the {@code console} reports cancelled operation.
+     *                The cancellation is only honoured before the installation is modified.
+     */
+    public ApplyCandidateAction(Path installationDir, Path updateDir, Console console)
+            throws ProvisioningException, OperationException {
         this.updateDir = updateDir;
         this.installationDir = installationDir;
+        this.console = console;
 
         try {
             this.systemPaths = SystemPaths.load(updateDir);
@@ -156,6 +179,38 @@ public class ApplyCandidateAction {
      * @throws MetadataException - if unable to read or write the installation of update metadata
      */
     public List<FileConflict> applyUpdate(Type operation) throws ProvisioningException, OperationException {
+        return applyUpdate(operation, false);
+    }
+
+    /**
+     * Applies changes from prepare update at {@code updateDir} to {@code installationDir}, see {@link #applyUpdate(Type)}.
+     * <p>
+     * If the {@code disposableCandidate} is set, the Galleon metadata and the artifact cache are moved from {@code updateDir}
+     * into the installation instead of being copied. The candidate cannot be applied again afterwards and should be removed.
+     *
+     * @param operation - type of the candidate
+     * @param disposableCandidate - if the candidate is removed after being applied
+     * @return list of solved {@code FileConflict}s
+     * @throws ProvisioningException - if unable to apply the changes from {@code updateDir} to {@code installationDir}
+     * @throws InvalidUpdateCandidateException - if the folder at {@code updateDir} is not a valid update
+     * @throws MetadataException - if unable to read or write the installation of update metadata
+     */
+    public List<FileConflict> applyUpdate(Type operation, boolean disposableCandidate) throws ProvisioningException, OperationException {
+        // wait for other processes reading the installation and prevent them from reading partial changes
+        try (InstallationLock lock = InstallationLock.exclusive(installationDir)) {
+            verifyApplicable(operation);
+
+            if (targetServerIsRunning()) {
+                final ProvisioningException ex = ProsperoLogger.ROOT_LOGGER.serverRunningError();
+                ProsperoLogger.ROOT_LOGGER.warn("", ex);
+                throw ex;
+            }
+
+            return mergeCandidate(operation, disposableCandidate);
+        }
+    }
+
+    private void verifyApplicable(Type operation) throws ProvisioningException, OperationException {
         ValidationResult validationResult = verifyCandidate(operation);
         if (operation == Type.REVERT && ValidationResult.NO_CHANGES == validationResult) {
             final InvalidUpdateCandidateException ex = ProsperoLogger.ROOT_LOGGER.noChangesAvailable(updateDir, installationDir);
@@ -168,20 +223,19 @@ public class ApplyCandidateAction {
             ProsperoLogger.ROOT_LOGGER.warn("", ex);
             throw ex;
         }
+    }
 
-        if (targetServerIsRunning()) {
-            final ProvisioningException ex = ProsperoLogger.ROOT_LOGGER.serverRunningError();
-            ProsperoLogger.ROOT_LOGGER.warn("", ex);
-            throw ex;
-        }
-
+    private List<FileConflict> mergeCandidate(Type operation, boolean disposableCandidate) throws ProvisioningException, OperationException {
         FsDiff diffs = findChanges();
+        // last chance to abort - after this point the installation is modified
+        checkCancelled();
         try {
             ProsperoLogger.ROOT_LOGGER.applyingCandidate(operation.text.toLowerCase(Locale.ROOT), updateDir);
             ProsperoLogger.ROOT_LOGGER.candidateChanges(
                     findUpdates().getArtifactUpdates().stream().map(ArtifactChange::prettyPrint).collect(Collectors.joining("; "))
                     );
 
+            retainReplacedArtifacts();
             final List<FileConflict> conflicts = doApplyUpdate(diffs);
 
             if (conflicts.isEmpty()) {
@@ -195,7 +249,7 @@ public class ApplyCandidateAction {
                 }
             }
 
-            updateMetadata(operation);
+            updateMetadata(operation, disposableCandidate);
             ProsperoLogger.ROOT_LOGGER.candidateApplied(operation.text, installationDir);
             return conflicts;
         } catch (IOException ex) {
@@ -249,7 +303,7 @@ public class ApplyCandidateAction {
         }
 
         try {
-            if (operation == Type.REVERT && compareContent(installationDir, updateDir)) {
+            if (operation == Type.REVERT && compareContent(installationDir, updateDir, console)) {
                 if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
                     ProsperoLogger.ROOT_LOGGER.debugf(
                             "There are no changes to apply to the installation [%s] from the candidate installation [%s].",
@@ -269,20 +323,76 @@ public class ApplyCandidateAction {
 
     /**
      * list conflicts between the candidate ({@code installationDir} and target server {@code updateDir}.
-     *
+     * <p>
+     * If the conflicts were recorded by {@link #recordConflicts()} and neither server has changed since, the recorded
+     * conflicts are returned without comparing the servers again.
      *
      * @return list of {@code FileConflict} or empty list if no conflicts found.
      * @throws ProvisioningException
      * @throws OperationException
      */
     public List<FileConflict> getConflicts() throws ProvisioningException, OperationException {
+        final Optional<List<FileConflict>> recordedConflicts = readRecordedConflicts();
+        if (recordedConflicts.isPresent()) {
+            return recordedConflicts.get();
+        }
+
         try {
-            return compareServers(findChanges());
+            final FsDiff fsDiff = findChanges();
+            checkCancelled();
+            return compareServers(fsDiff);
         } catch (IOException ex) {
             throw new ProvisioningException(ex);
         }
     }
 
+    /**
+     * compares the candidate with the installation and stores the conflicts in the candidate, together with
+     * a fingerprint of both servers. Used when the candidate is prepared, so that {@link #getConflicts()} doesn't
+     * have to compare the servers again.
+     *
+     * @return list of {@code FileConflict} or empty list if no conflicts found.
+     * @throws ProvisioningException
+     * @throws OperationException
+     */
+    public List<FileConflict> recordConflicts() throws ProvisioningException, OperationException {
+        final Path reportFile = updateDir.resolve(METADATA_DIR).resolve(CANDIDATE_CONFLICT_REPORT);
+        try {
+            // any change made while the servers are compared invalidates the report
+            final String fingerprint = ConflictReport.fingerprint(installationDir, updateDir);
+            final FsDiff fsDiff = findChanges();
+            checkCancelled();
+            final List<FileConflict> conflicts = compareServers(fsDiff);
+
+            ConflictReportParser.write(new ConflictReport(fingerprint, conflicts), reportFile);
+            return conflicts;
+        } catch (IOException ex) {
+            throw ProsperoLogger.ROOT_LOGGER.unableToWriteFile(reportFile, ex);
+        }
+    }
+
+    private Optional<List<FileConflict>> readRecordedConflicts() {
+        final Path reportFile = updateDir.resolve(METADATA_DIR).resolve(CANDIDATE_CONFLICT_REPORT);
+        if (!Files.exists(reportFile)) {
+            return Optional.empty();
+        }
+        try {
+            final ConflictReport report = ConflictReportParser.read(reportFile);
+            if (report.getFingerprint().equals(ConflictReport.fingerprint(installationDir, updateDir))) {
+                if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
+                    ProsperoLogger.ROOT_LOGGER.debugf("Using the conflicts recorded in the candidate [%s].", updateDir);
+                }
+                return Optional.of(Collections.unmodifiableList(report.getConflicts()));
+            }
+            if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
+                ProsperoLogger.ROOT_LOGGER.debugf("The servers have changed since the conflicts were recorded in [%s].", updateDir);
+            }
+        } catch (IOException | MetadataException e) {
+            ProsperoLogger.ROOT_LOGGER.debug("Unable to read the conflict report " + reportFile, e);
+        }
+        return Optional.empty();
+    }
+
     public boolean removeCandidate(File updateDir) {
         File[] allContents = updateDir.listFiles();
         if (allContents != null) {
@@ -368,6 +478,12 @@ public class ApplyCandidateAction {
         }
     }
 
+    private void checkCancelled() {
+        if (console != null) {
+            console.checkCancelled();
+        }
+    }
+
     private boolean targetServerIsRunning() {
         return Files.exists(installationDir.resolve(STANDALONE_STARTUP_MARKER)) || Files.exists(installationDir.resolve(DOMAIN_STARTUP_MARKER));
     }
@@ -379,30 +495,42 @@ public class ApplyCandidateAction {
                 .setNoLocalCache(true)
                 .build();
         try (GalleonEnvironment galleonEnv = GalleonEnvironment.builder(installationDir, Collections.emptyList(),
-                        new MavenSessionManager(mavenOptions), true)
+                        new MavenSessionManager(mavenOptions, installationDir), true)
                 .build()) {
             return galleonEnv.getProvisioning().getFsDiff();
         }
 
     }
 
-    private void updateMetadata(Type operation) throws ProvisioningException, MetadataException {
+    private void updateMetadata(Type operation, boolean disposableCandidate) throws ProvisioningException, MetadataException {
         try {
             copyCurrentVersions();
-            Path installationGalleonPath = PathsUtils.getProvisionedStateDir(installationDir);
-            Path updateGalleonPath = PathsUtils.getProvisionedStateDir(updateDir);
-            IoUtils.recursiveDelete(installationGalleonPath);
-            IoUtils.copy(updateGalleonPath, installationGalleonPath, true);
+            replaceGalleonAndCacheDirectories(disposableCandidate);
             // after the galleon data is copied, persist a copy of provisioning.xml and record it
             ProsperoMetadataUtils.recordProvisioningDefinition(installationDir);
             writeProsperoMetadata(operation);
-            updateInstallationCache();
             updateAcceptedLicences();
         } catch (IOException ex) {
             throw new ProvisioningException(ex);
         }
     }
 
+    /*
+     * keeps the artifacts replaced by the candidate, so that the current state can be restored without resolving them
+     */
+    private void retainReplacedArtifacts() {
+        try {
+            final String revision = MarkerFile.read(updateDir).getState();
+            final int retained = ArtifactCache.getInstance(installationDir).retain(updateDir, revision);
+            if (log.isDebugEnabled()) {
+                log.debugf("Retained %d artifacts of revision %s", retained, revision);
+            }
+        } catch (IOException | MetadataException e) {
+            // the cache is an optimization, the revert can still resolve the artifacts
+            log.debug("Unable to retain artifacts replaced by the candidate", e);
+        }
+    }
+
     private void updateAcceptedLicences() throws MetadataException {
         try {
             new LicenseManager().copyIfExists(updateDir, installationDir);
@@ -425,6 +553,11 @@ public class ApplyCandidateAction {
         Path installationMetadataDir = installationDir.resolve(METADATA_DIR);
         Path installationManifest = installationMetadataDir.resolve(ProsperoMetadataUtils.MANIFEST_FILE_NAME);
         IoUtils.copy(updateManifest, installationManifest);
+        ManifestYamlSupport.copyRecorded(updateManifest, installationManifest);
+        final Path updateRanking = updateDir.resolve(RepositoryRanking.RANKING_FILE);
+        if (Files.exists(updateRanking)) {
+            IoUtils.copy(updateRanking, installationDir.resolve(RepositoryRanking.RANKING_FILE));
+        }
 
         try (GitStorage git = new GitStorage(installationDir)) {
             switch (operation) {
@@ -446,20 +579,105 @@ public class ApplyCandidateAction {
         }
     }
 
-    private void updateInstallationCache() throws IOException {
-        Path updateCacheDir = updateDir.resolve(ArtifactCache.CACHE_FOLDER);
+    /*
+     * The Galleon provisioning state has to match the artifact cache. Both original directories are kept until both
+     * are replaced, and restored if either of them cannot be replaced.
+     */
+    private void replaceGalleonAndCacheDirectories(boolean disposableCandidate) throws IOException {
+        final DirectoryReplacement galleon = new DirectoryReplacement(PathsUtils.getProvisionedStateDir(updateDir),
+                PathsUtils.getProvisionedStateDir(installationDir), disposableCandidate);
+        final DirectoryReplacement cache = new DirectoryReplacement(updateDir.resolve(ArtifactCache.CACHE_FOLDER),
+                installationDir.resolve(ArtifactCache.CACHE_FOLDER), disposableCandidate);
+
+        try {
+            galleon.replace();
+            cache.replace();
+        } catch (IOException | RuntimeException e) {
+            cache.restore(e);
+            galleon.restore(e);
+            throw e;
+        }
+
+        galleon.removeBackup();
+        cache.removeBackup();
+    }
+
+    /*
+     * Replaces the content of the target directory with the source directory. The original target is renamed
+     * and can be restored until the backup is removed.
+     */
+    private static class DirectoryReplacement {
+        private final Path source;
+        private final Path target;
+        private final Path backup;
+        private final boolean move;
+        private boolean replaced;
+
+        DirectoryReplacement(Path source, Path target, boolean move) {
+            this.source = source;
+            this.target = target;
+            this.backup = target.resolveSibling(target.getFileName() + BACKUP_SUFFIX);
+            this.move = move;
+        }
+
+        void replace() throws IOException {
+            if (Files.exists(backup)) {
+                IoUtils.recursiveDelete(backup);
+            }
+            if (Files.exists(target)) {
+                Files.move(target, backup, StandardCopyOption.ATOMIC_MOVE);
+            }
+            replaced = true;
+
+            if (Files.exists(source)) {
+                if (move) {
+                    moveDirectory(source, target);
+                } else {
+                    IoUtils.copy(source, target, true);
+                }
+            }
+        }
 
+        void restore(Exception failure) {
+            if (!replaced) {
+                return;
+            }
+            try {
+                if (move && Files.exists(target) && !Files.exists(source)) {
+                    // keep the candidate complete, so that it can be applied again
+                    moveDirectory(target, source);
+                }
+                if (Files.exists(target)) {
+                    IoUtils.recursiveDelete(target);
+                }
+                if (Files.exists(backup)) {
+                    Files.move(backup, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException | RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
 
-        Path installationCacheDir = installationDir.resolve(ArtifactCache.CACHE_FOLDER);
-        if (Files.exists(installationCacheDir)) {
-            IoUtils.recursiveDelete(installationCacheDir);
+        void removeBackup() {
+            if (Files.exists(backup)) {
+                IoUtils.recursiveDelete(backup);
+            }
         }
-        if (Files.exists(updateCacheDir)) {
-            IoUtils.copy(updateCacheDir, installationCacheDir);
+    }
+
+    private static void moveDirectory(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // the candidate is on a different file system
+            if (log.isDebugEnabled()) {
+                log.debugf("Unable to move %s to %s, copying instead", source, target);
+            }
+            IoUtils.copy(source, target, true);
         }
     }
 
-    private List<FileConflict> handleRemovedFiles(FsDiff fsDiff) throws IOException {
+    private List<FileConflict> handleRemovedFiles(FsDiff fsDiff, boolean apply) throws IOException {
         final List<FileConflict> conflictList = new ArrayList<>();
         if (fsDiff.hasRemovedEntries()) {
             for (FsEntry removed : fsDiff.getRemovedEntries()) {
@@ -473,8 +691,10 @@ public class ApplyCandidateAction {
                         if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
                             ProsperoLogger.ROOT_LOGGER.debug(formatMessage(FORCED, removed.getRelativePath(), HAS_CHANGED_IN_THE_UPDATED_VERSION));
                         }
-                        Files.createDirectories(installationDir.resolve(removed.getRelativePath()).getParent());
-                        IoUtils.copy(target, installationDir.resolve(removed.getRelativePath()));
+                        if (apply) {
+                            Files.createDirectories(installationDir.resolve(removed.getRelativePath()).getParent());
+                            IoUtils.copy(target, installationDir.resolve(removed.getRelativePath()));
+                        }
                     }
                 } else {
                     if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
@@ -487,7 +707,7 @@ public class ApplyCandidateAction {
         return conflictList;
     }
 
-    private List<FileConflict> handleAddedFiles(FsDiff fsDiff) throws IOException, ProvisioningException {
+    private List<FileConflict> handleAddedFiles(FsDiff fsDiff, boolean apply) throws IOException, ProvisioningException {
         final List<FileConflict> conflictList = new ArrayList<>();
         if (fsDiff.hasAddedEntries()) {
             for (FsEntry added : fsDiff.getAddedEntries()) {
@@ -496,14 +716,14 @@ public class ApplyCandidateAction {
                 if (p.getNameCount() > 0 && p.getName(0).toString().equals(METADATA_DIR)) {
                     continue;
                 }
-                addFsEntry(updateDir, added, systemPaths, conflictList);
+                addFsEntry(updateDir, added, systemPaths, conflictList, apply);
             }
         }
         return conflictList;
     }
 
-    private void addFsEntry(Path updateDir, FsEntry added, SystemPaths systemPaths, List<FileConflict> conflictList)
-            throws ProvisioningException {
+    private void addFsEntry(Path updateDir, FsEntry added, SystemPaths systemPaths, List<FileConflict> conflictList,
+                            boolean apply) throws ProvisioningException {
         final Path target = updateDir.resolve(added.getRelativePath());
         if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
             ProsperoLogger.ROOT_LOGGER.debug(formatMessage(ADDED, added.getRelativePath(), null));
@@ -511,7 +731,7 @@ public class ApplyCandidateAction {
         if (Files.exists(target)) {
             if (added.isDir()) {
                 for (FsEntry child : added.getChildren()) {
-                    addFsEntry(updateDir, child, systemPaths, conflictList);
+                    addFsEntry(updateDir, child, systemPaths, conflictList, apply);
                 }
                 return;
             }
@@ -532,19 +752,23 @@ public class ApplyCandidateAction {
                         ProsperoLogger.ROOT_LOGGER.debug(formatMessage(FORCED, added.getRelativePath(), CONFLICTS_WITH_THE_UPDATED_VERSION));
                     }
                     conflictList.add(FileConflict.userAdded(added.getRelativePath()).updateAdded().overwritten());
-                    glold(installationDir.resolve(added.getRelativePath()), target);
+                    if (apply) {
+                        glold(installationDir.resolve(added.getRelativePath()), target);
+                    }
                 } else {
                     if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
                         ProsperoLogger.ROOT_LOGGER.debug(formatMessage(CONFLICT, added.getRelativePath(), CONFLICTS_WITH_THE_UPDATED_VERSION));
                     }
                     conflictList.add(FileConflict.userAdded(added.getRelativePath()).updateAdded().userPreserved());
-                    glnew(target, installationDir.resolve(added.getRelativePath()));
+                    if (apply) {
+                        glnew(target, installationDir.resolve(added.getRelativePath()));
+                    }
                 }
             }
         }
     }
 
-    private List<FileConflict> handleModifiedFiles(FsDiff fsDiff) throws IOException, ProvisioningException {
+    private List<FileConflict> handleModifiedFiles(FsDiff fsDiff, boolean apply) throws IOException, ProvisioningException {
         final List<FileConflict> conflictList = new ArrayList<>();
         if (fsDiff.hasModifiedEntries()) {
             for (FsEntry[] modified : fsDiff.getModifiedEntries()) {
@@ -574,13 +798,17 @@ public class ApplyCandidateAction {
                                     ProsperoLogger.ROOT_LOGGER.debug(formatMessage(FORCED, installation.getRelativePath(), HAS_CHANGED_IN_THE_UPDATED_VERSION));
                                 }
                                 conflictList.add(FileConflict.userModified(installation.getRelativePath()).updateModified().overwritten());
-                                glold(installation.getPath(), file);
+                                if (apply) {
+                                    glold(installation.getPath(), file);
+                                }
                             } else {
                                 if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
                                     ProsperoLogger.ROOT_LOGGER.debug(formatMessage(CONFLICT, installation.getRelativePath(), HAS_CHANGED_IN_THE_UPDATED_VERSION));
                                 }
                                 conflictList.add(FileConflict.userModified(installation.getRelativePath()).updateModified().userPreserved());
-                                glnew(file, installationFile);
+                                if (apply) {
+                                    glnew(file, installationFile);
+                                }
                             }
                         }
                     }
@@ -598,19 +826,19 @@ public class ApplyCandidateAction {
 
     private List<FileConflict> compareServers(FsDiff fsDiff) throws IOException, ProvisioningException {
         List<FileConflict> conflicts = new ArrayList<>();
-        // Handles user added/removed/modified files
-        conflicts.addAll(handleRemovedFiles(fsDiff));
-        conflicts.addAll(handleAddedFiles(fsDiff));
-        conflicts.addAll(handleModifiedFiles(fsDiff));
+        // Finds conflicts with user added/removed/modified files without changing the installation
+        conflicts.addAll(handleRemovedFiles(fsDiff, false));
+        conflicts.addAll(handleAddedFiles(fsDiff, false));
+        conflicts.addAll(handleModifiedFiles(fsDiff, false));
         return Collections.unmodifiableList(conflicts);
     }
 
     private List<FileConflict> doApplyUpdate(FsDiff fsDiff) throws IOException, ProvisioningException {
         List<FileConflict> conflicts = new ArrayList<>();
         // Handles user added/removed/modified files
-        conflicts.addAll(handleRemovedFiles(fsDiff));
-        conflicts.addAll(handleAddedFiles(fsDiff));
-        conflicts.addAll(handleModifiedFiles(fsDiff));
+        conflicts.addAll(handleRemovedFiles(fsDiff, true));
+        conflicts.addAll(handleAddedFiles(fsDiff, true));
+        conflicts.addAll(handleModifiedFiles(fsDiff, true));
 
         // Handles files added/removed/modified in the update.
         Path skipUpdateGalleon = PathsUtils.getProvisionedStateDir(updateDir);
@@ -629,6 +857,10 @@ public class ApplyCandidateAction {
                 final String pathKey = getFsDiffKey(relative, false);
                 if (fsDiff.getModifiedEntry(pathKey) == null &&
                         fsDiff.getAddedEntry(pathKey) == null && !isParentAdded(fsDiff, relative)) {
+                    // the candidate file is linked to the installation file, no need to compare the content
+                    if (Files.exists(installationFile) && Files.isSameFile(file, installationFile)) {
+                        return FileVisitResult.CONTINUE;
+                    }
                     byte[] updateHash = HashUtils.hashPath(file);
                     // The file could be new or updated in the installation
                     if (!Files.exists(installationFile) || !Arrays.equals(updateHash, HashUtils.hashPath(installationFile))) {
@@ -778,7 +1010,7 @@ public class ApplyCandidateAction {
         }
     }
 
-    private static boolean compareContent(Path installationDir, Path updateDir) throws IOException {
+    private static boolean compareContent(Path installationDir, Path updateDir, Console console) throws IOException {
         Path instGalleonHashPath = PathsUtils.getProvisionedStateDir(installationDir).resolve(Constants.HASHES);
         Path updateGalleonHashPath = PathsUtils.getProvisionedStateDir(updateDir).resolve(Constants.HASHES);
 
@@ -797,6 +1029,9 @@ public class ApplyCandidateAction {
         }
 
         for (Path path : instDirsPaths) {
+            if (console != null) {
+                console.checkCancelled();
+            }
             Path sourcePath = instGalleonHashPath.resolve(path);
             if (Files.isRegularFile(sourcePath)) {
                 Path targetPath = updateGalleonHashPath.resolve(path);
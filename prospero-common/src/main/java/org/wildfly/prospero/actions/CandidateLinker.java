@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.actions;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.util.HashUtils;
+import org.jboss.logging.Logger;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replaces files in a candidate server that are identical to the files in the installation with hard links.
+ *
+ * Only JAR files are linked - they are not modified after provisioning. Configuration and other files might be
+ * edited in place in the installation before the candidate is applied, which would change the linked candidate file as well.
+ *
+ * Files are considered identical if their sizes match, the hashes recorded by Galleon in {@code .galleon/hashes} of
+ * both servers are the same, and the installation file still matches its recorded hash. Only the installation file is
+ * read - a JAR modified by the user would otherwise be shared with the candidate.
+ *
+ * Linking is only possible if both servers are on the same file store. If a link cannot be created, the candidate keeps
+ * its own copy of the file.
+ */
+class CandidateLinker {
+
+    private static final Logger LOG = Logger.getLogger(CandidateLinker.class.getName());
+    private static final String JAR_EXTENSION = ".jar";
+
+    private final Path installationDir;
+    private final Path candidateDir;
+
+    CandidateLinker(Path installationDir, Path candidateDir) {
+        this.installationDir = installationDir;
+        this.candidateDir = candidateDir;
+    }
+
+    /**
+     * @return number of files replaced by links
+     */
+    int linkUnchangedFiles() {
+        try {
+            if (!Files.getFileStore(installationDir).equals(Files.getFileStore(candidateDir))) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debugf("Candidate %s is on a different file store than %s, not linking files", candidateDir, installationDir);
+                }
+                return 0;
+            }
+        } catch (IOException e) {
+            LOG.debug("Unable to determine the file store of the candidate", e);
+            return 0;
+        }
+
+        final Map<String, String> installationHashes;
+        final Map<String, String> candidateHashes;
+        try {
+            installationHashes = readRecordedHashes(installationDir);
+            candidateHashes = readRecordedHashes(candidateDir);
+        } catch (IOException e) {
+            LOG.debug("Unable to read recorded file hashes, not linking files", e);
+            return 0;
+        }
+        if (installationHashes.isEmpty() || candidateHashes.isEmpty()) {
+            return 0;
+        }
+
+        final Path skipCandidateGalleon = candidateDir.resolve(Constants.PROVISIONED_STATE_DIR);
+        final Path skipCandidateInstallation = candidateDir.resolve(ProsperoMetadataUtils.METADATA_DIR);
+        final int[] linked = {0};
+        final long[] linkedBytes = {0};
+        try {
+            Files.walkFileTree(candidateDir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (dir.equals(skipCandidateGalleon) || dir.equals(skipCandidateInstallation)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (!attrs.isRegularFile() || !file.getFileName().toString().endsWith(JAR_EXTENSION)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    final Path relativePath = candidateDir.relativize(file);
+                    final Path installationFile = installationDir.resolve(relativePath);
+                    final String key = toKey(relativePath);
+                    if (isIdentical(attrs, installationFile, candidateHashes.get(key), installationHashes.get(key))) {
+                        if (!link(file, installationFile)) {
+                            return FileVisitResult.TERMINATE;
+                        }
+                        linked[0]++;
+                        linkedBytes[0] += attrs.size();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            // the candidate is still complete, the remaining files are just not linked
+            LOG.debug("Unable to link candidate files to the installation", e);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Linked %d files (%d bytes) of candidate %s to the installation", linked[0], linkedBytes[0], candidateDir);
+        }
+        return linked[0];
+    }
+
+    private static boolean isIdentical(BasicFileAttributes attrs, Path installationFile,
+                                       String candidateHash, String installationHash) throws IOException {
+        if (candidateHash == null || !candidateHash.equals(installationHash)) {
+            return false;
+        }
+        return Files.isRegularFile(installationFile) && Files.size(installationFile) == attrs.size()
+                && installationHash.equals(HashUtils.bytesToHexString(HashUtils.hashPath(installationFile)));
+    }
+
+    /**
+     * Reads the file hashes recorded by Galleon when the server was provisioned. Each {@code hashes} file lists
+     * alternately the name of a file in the matching server directory and its hash.
+     *
+     * @return hashes keyed by the path relative to {@code serverDir}, using {@code /} as separator
+     */
+    private static Map<String, String> readRecordedHashes(Path serverDir) throws IOException {
+        final Path hashesDir = serverDir.resolve(Constants.PROVISIONED_STATE_DIR).resolve(Constants.HASHES);
+        if (!Files.isDirectory(hashesDir)) {
+            return Map.of();
+        }
+
+        final List<Path> hashFiles;
+        try (Stream<Path> files = Files.walk(hashesDir)) {
+            hashFiles = files
+                    .filter(f -> f.getFileName().toString().equals(Constants.HASHES) && Files.isRegularFile(f))
+                    .collect(Collectors.toList());
+        }
+
+        final Map<String, String> hashes = new HashMap<>();
+        for (Path hashFile : hashFiles) {
+            final Path dir = hashesDir.relativize(hashFile.getParent());
+            final List<String> lines = Files.readAllLines(hashFile, StandardCharsets.UTF_8);
+            for (int i = 0; i + 1 < lines.size(); i += 2) {
+                hashes.put(toKey(dir.resolve(lines.get(i))), lines.get(i + 1));
+            }
+        }
+        return hashes;
+    }
+
+    private static String toKey(Path relativePath) {
+        return relativePath.toString().replace(File.separatorChar, '/');
+    }
+
+    private static boolean link(Path file, Path installationFile) throws IOException {
+        final Path tempLink = file.resolveSibling(file.getFileName() + ".link");
+        try {
+            Files.createLink(tempLink, installationFile);
+        } catch (IOException | UnsupportedOperationException e) {
+            // hard links are not supported by the file system, no point trying other files
+            LOG.debug("Unable to create a hard link to " + installationFile, e);
+            return false;
+        }
+        boolean moved = false;
+        try {
+            Files.move(tempLink, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(tempLink);
+            }
+        }
+        return true;
+    }
+}
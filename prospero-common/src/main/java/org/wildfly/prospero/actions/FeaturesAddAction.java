@@ -30,15 +30,18 @@ import org.wildfly.channel.Channel;
 import org.wildfly.channel.ChannelSession;
 import org.wildfly.channel.NoStreamFoundException;
 import org.wildfly.channel.Repository;
+import org.wildfly.channel.UnresolvedMavenArtifactException;
 import org.wildfly.prospero.ProsperoLogger;
 import org.wildfly.prospero.api.Console;
 import org.wildfly.prospero.api.InstallationMetadata;
 import org.wildfly.prospero.api.MavenOptions;
 import org.wildfly.prospero.api.TemporaryRepositoriesHandler;
+import org.wildfly.prospero.api.WorkDirectory;
 import org.wildfly.prospero.api.exceptions.ArtifactResolutionException;
 import org.wildfly.prospero.api.exceptions.InvalidUpdateCandidateException;
 import org.wildfly.prospero.api.exceptions.MetadataException;
 import org.wildfly.prospero.api.exceptions.OperationException;
+import org.wildfly.prospero.galleon.FeaturePackCatalog;
 import org.wildfly.prospero.galleon.FeaturePackLocationParser;
 import org.wildfly.prospero.galleon.GalleonEnvironment;
 import org.wildfly.prospero.licenses.License;
@@ -49,7 +52,6 @@ import org.wildfly.prospero.model.ProsperoConfig;
 import org.wildfly.prospero.wfchannel.MavenSessionManager;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
@@ -63,7 +65,6 @@ import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jboss.galleon.api.GalleonBuilder;
-import org.jboss.galleon.api.GalleonFeaturePackLayout;
 import org.jboss.galleon.api.GalleonProvisioningLayout;
 import org.jboss.galleon.api.Provisioning;
 import org.jboss.galleon.api.config.GalleonConfigurationWithLayers;
@@ -84,6 +85,8 @@ public class FeaturesAddAction {
     private final Console console;
     private final CandidateActionsFactory candidateActionsFactory;
     private final FeaturePackTemplateManager featurePackTemplateManager;
+    private final FeaturePackCatalog featurePackCatalog;
+    private final Map<String, String> resolvedVersions = new HashMap<>();
     private LicenseManager licenseManager;
 
     public FeaturesAddAction(MavenOptions mavenOptions, Path installDir, List<Repository> repositories, Console console) throws MetadataException, ProvisioningException {
@@ -103,12 +106,14 @@ public class FeaturesAddAction {
         this.prosperoConfig = addTemporaryRepositories(repositories);
 
         final MavenOptions mergedOptions = prosperoConfig.getMavenOptions().merge(mavenOptions);
-        this.mavenSessionManager = new MavenSessionManager(mergedOptions);
+        this.mavenSessionManager = new MavenSessionManager(mergedOptions, installDir);
 
         this.candidateActionsFactory = candidateActionsFactory;
 
         this.featurePackTemplateManager = featurePackTemplateManager;
 
+        this.featurePackCatalog = new FeaturePackCatalog(installDir);
+
         this.licenseManager = new LicenseManager();
     }
 
@@ -140,7 +145,8 @@ public class FeaturesAddAction {
             ProsperoLogger.ROOT_LOGGER.trace("Adding feature pack " + fpl);
         }
 
-        final Map<String, Set<String>> allLayers = getAllLayers(fpl);
+        final FeaturePackCatalog.Entry catalogEntry = getCatalogEntry(fpl);
+        final Map<String, Set<String>> allLayers = catalogEntry.getLayers();
 
         if (ProsperoLogger.ROOT_LOGGER.isTraceEnabled()) {
             ProsperoLogger.ROOT_LOGGER.trace("Found layers");
@@ -165,7 +171,7 @@ public class FeaturesAddAction {
 
         final GalleonProvisioningConfig newConfig = buildProvisioningConfig(Collections.emptySet(), fpl, selectedConfigs);
 
-        install(featurePackCoord, newConfig, candidatePath);
+        install(featurePackCoord, newConfig, catalogEntry, candidatePath);
     }
 
 
@@ -201,7 +207,8 @@ public class FeaturesAddAction {
             ProsperoLogger.ROOT_LOGGER.trace("Adding feature pack " + fpl);
         }
 
-        final Map<String, Set<String>> allLayers = getAllLayers(fpl);
+        final FeaturePackCatalog.Entry catalogEntry = getCatalogEntry(fpl);
+        final Map<String, Set<String>> allLayers = catalogEntry.getLayers();
 
         if (ProsperoLogger.ROOT_LOGGER.isTraceEnabled()) {
             ProsperoLogger.ROOT_LOGGER.trace("Found layers");
@@ -222,7 +229,7 @@ public class FeaturesAddAction {
 
         final GalleonProvisioningConfig newConfig = buildProvisioningConfig(layers, fpl, selectedConfig==null?Collections.emptySet():Set.of(new ConfigId(selectedModel, selectedConfig)));
 
-        install(featurePackCoord, newConfig, candidateFolder);
+        install(featurePackCoord, newConfig, catalogEntry, candidateFolder);
     }
 
     /**
@@ -235,6 +242,16 @@ public class FeaturesAddAction {
      */
     public FeaturePackTemplate getFeaturePackRecipe(String featurePackCoord)
             throws ProvisioningException, OperationException {
+        final ArtifactCoordinate coord = toMavenCoordinates(featurePackCoord);
+        final String resolvedVersion = resolvedVersions.get(coord.getGroupId() + ":" + coord.getArtifactId());
+        if (resolvedVersion != null) {
+            // already resolved when the feature pack layers were listed
+            if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
+                ProsperoLogger.ROOT_LOGGER.debugf("Found version %s of %s, matching template", resolvedVersion, featurePackCoord);
+            }
+            return featurePackTemplateManager.find(coord.getGroupId(), coord.getArtifactId(), coord.getVersion());
+        }
+
         Path tempDirectory = null;
         GalleonEnvironment galleonEnv = null;
         try {
@@ -243,11 +260,9 @@ public class FeaturesAddAction {
             }
             // nothing should be written out in the temp folder, but we need to create it in order to create galleon
             // TODO: future improvement - replace it with just creating ChannelSession
-            tempDirectory = Files.createTempDirectory("prospero-temp-target");
+            tempDirectory = WorkDirectory.createTempDirectory(installDir, "prospero-temp-target");
             galleonEnv = getGalleonEnv(tempDirectory);
 
-            final ArtifactCoordinate coord = toMavenCoordinates(featurePackCoord);
-
             final String version = galleonEnv.getChannelSession().findLatestMavenArtifactVersion(coord.getGroupId(), coord.getArtifactId(),
                     coord.getExtension(), coord.getClassifier(), coord.getVersion()).getVersion();
 
@@ -325,10 +340,11 @@ public class FeaturesAddAction {
         }
     }
 
-    private void install(String featurePackCoord, GalleonProvisioningConfig newConfig, Path candidate) throws ProvisioningException, OperationException {
+    private void install(String featurePackCoord, GalleonProvisioningConfig newConfig, FeaturePackCatalog.Entry catalogEntry,
+                         Path candidate) throws ProvisioningException, OperationException {
         final List<License> pendingLicenses = getRequiredLicenses(featurePackCoord);
 
-        verifyConfigurationsAvailable(newConfig);
+        verifyConfigurationsAvailable(newConfig, catalogEntry);
 
         // make sure the previous provisioning_config is persisted
         try (InstallationMetadata metadata = InstallationMetadata.loadInstallation(installDir)) {
@@ -542,14 +558,21 @@ public class FeaturesAddAction {
         }
     }
 
-    private void verifyConfigurationsAvailable(GalleonProvisioningConfig config) throws ProvisioningException, OperationException {
+    private void verifyConfigurationsAvailable(GalleonProvisioningConfig config, FeaturePackCatalog.Entry catalogEntry)
+            throws ProvisioningException, OperationException {
+        // configurations provided by the added feature pack don't need to be looked up in the installed ones
+        final List<ConfigId> configIds = Stream.concat(
+                        config.getFeaturePackDeps().stream().flatMap(fd -> fd.getIncludedConfigs().stream()),
+                        config.getDefinedConfigs().stream().map(GalleonConfigurationWithLayers::getId))
+                .filter(cfg -> !catalogEntry.hasConfig(cfg))
+                .collect(Collectors.toList());
+        if (configIds.isEmpty()) {
+            return;
+        }
+
         try (GalleonEnvironment env = GalleonEnvironment
                 .builder(installDir, prosperoConfig.getChannels(), mavenSessionManager, false).build()) {
-            final Stream<ConfigId> configIds = Stream.concat(
-                    config.getFeaturePackDeps().stream().flatMap(fd -> fd.getIncludedConfigs().stream()),
-                    config.getDefinedConfigs().stream().map(GalleonConfigurationWithLayers::getId));
-
-            final Optional<ConfigId> missingConfig = configIds.filter(cfg -> {
+            final Optional<ConfigId> missingConfig = configIds.stream().filter(cfg -> {
                 try {
                     return !env.getProvisioning().hasOrderedFeaturePacksConfig(config, cfg);
                 } catch (ProvisioningException ex) {
@@ -597,40 +620,62 @@ public class FeaturesAddAction {
                 .build();
     }
 
-    private Map<String, Set<String>> getAllLayers(FeaturePackLocation fpl)
+    /*
+     * Listing layers requires resolving and extracting the feature pack with all its dependencies. The result is
+     * recorded in the FeaturePackCatalog and reused if the same version of the feature pack is added again.
+     */
+    private FeaturePackCatalog.Entry getCatalogEntry(FeaturePackLocation fpl)
             throws ProvisioningException, OperationException {
-        final GalleonProvisioningConfig config = GalleonProvisioningConfig.builder()
-                .addFeaturePackDep(GalleonFeaturePackConfig.builder(fpl).build())
-                .build();
+        final ArtifactCoordinate coord = toMavenCoordinates(fpl.getProducerName());
 
-        final MavenRepoManager repositoryManager = GalleonEnvironment
-                .builder(installDir, prosperoConfig.getChannels(), mavenSessionManager, false).build()
-                .getRepositoryManager();
-        final Map<String, Set<String>> layersMap = new HashMap<>();
-        try (Provisioning p = new GalleonBuilder().addArtifactResolver(repositoryManager).newProvisioningBuilder(config).build()) {
-            try (GalleonProvisioningLayout layout = p.newProvisioningLayout(config)) {
-                for (GalleonFeaturePackLayout fp : layout.getOrderedFeaturePacks()) {
-                    final Set<ConfigId> configIds;
-                    try {
-                        configIds = fp.loadLayers();
-                    } catch (IOException e) {
-                        // this should not happen as the code IOException is not actually thrown by loadLayers
-                        throw new RuntimeException(e);
-                    }
-                    for (ConfigId layer : configIds) {
-                        final String model = layer.getModel();
-                        Set<String> names = layersMap.get(model);
-                        if (names == null) {
-                            names = new HashSet<>();
-                            layersMap.put(model, names);
-                        }
-                        names.add(layer.getName());
+        try (GalleonEnvironment galleonEnv = GalleonEnvironment
+                .builder(installDir, prosperoConfig.getChannels(), mavenSessionManager, false).build()) {
+            final String version = resolveVersion(galleonEnv, coord);
+            if (version != null) {
+                final Optional<FeaturePackCatalog.Entry> entry = featurePackCatalog.get(coord.getGroupId(), coord.getArtifactId(), version);
+                if (entry.isPresent()) {
+                    if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
+                        ProsperoLogger.ROOT_LOGGER.debugf("Using recorded layers of %s:%s", fpl.getProducerName(), version);
                     }
+                    return entry.get();
                 }
             }
+
+            final GalleonProvisioningConfig config = GalleonProvisioningConfig.builder()
+                    .addFeaturePackDep(GalleonFeaturePackConfig.builder(fpl).build())
+                    .build();
+
+            final MavenRepoManager repositoryManager = galleonEnv.getRepositoryManager();
+            final FeaturePackCatalog.Entry entry;
+            try (Provisioning p = new GalleonBuilder().addArtifactResolver(repositoryManager).newProvisioningBuilder(config).build();
+                 GalleonProvisioningLayout layout = p.newProvisioningLayout(config)) {
+                entry = FeaturePackCatalog.read(layout);
+            }
+
+            if (version != null) {
+                try {
+                    featurePackCatalog.store(coord.getGroupId(), coord.getArtifactId(), version, entry);
+                } catch (IOException e) {
+                    ProsperoLogger.ROOT_LOGGER.debug("Unable to record layers of " + fpl.getProducerName(), e);
+                }
+            }
+            return entry;
         }
+    }
 
-        return layersMap;
+    private String resolveVersion(GalleonEnvironment galleonEnv, ArtifactCoordinate coord) {
+        try {
+            final String version = galleonEnv.getChannelSession().findLatestMavenArtifactVersion(coord.getGroupId(),
+                    coord.getArtifactId(), coord.getExtension(), coord.getClassifier(), coord.getVersion()).getVersion();
+            resolvedVersions.put(coord.getGroupId() + ":" + coord.getArtifactId(), version);
+            return version;
+        } catch (UnresolvedMavenArtifactException e) {
+            // let Galleon resolve the feature pack and report the error
+            if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
+                ProsperoLogger.ROOT_LOGGER.debug("Unable to resolve version of " + coord, e);
+            }
+            return null;
+        }
     }
 
     private ProsperoConfig addTemporaryRepositories(List<Repository> repositories) {
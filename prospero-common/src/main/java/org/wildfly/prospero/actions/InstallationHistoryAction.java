@@ -23,12 +23,14 @@ import org.wildfly.channel.Repository;
 import org.wildfly.prospero.ProsperoLogger;
 import org.wildfly.prospero.api.Console;
 import org.wildfly.prospero.api.InstallationChanges;
+import org.wildfly.prospero.api.InstallationLock;
 import org.wildfly.prospero.api.MavenOptions;
 import org.wildfly.prospero.api.TemporaryRepositoriesHandler;
 import org.wildfly.prospero.api.exceptions.OperationException;
 import org.wildfly.prospero.api.InstallationMetadata;
 import org.wildfly.prospero.api.exceptions.MetadataException;
 import org.wildfly.prospero.api.SavedState;
+import org.wildfly.prospero.api.WorkDirectory;
 import org.wildfly.prospero.galleon.GalleonEnvironment;
 import org.wildfly.prospero.model.ProsperoConfig;
 import org.wildfly.prospero.updates.UpdateSet;
@@ -87,12 +89,12 @@ public class InstallationHistoryAction {
         Path tempDirectory = null;
         try {
             ProsperoLogger.ROOT_LOGGER.revertStarted(installation, savedState.getName());
-            tempDirectory = Files.createTempDirectory("revert-candidate");
+            tempDirectory = WorkDirectory.createTempDirectory(installation, "revert-candidate");
             if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
                 ProsperoLogger.ROOT_LOGGER.temporaryCandidateFolder(tempDirectory);
             }
             prepareRevert(savedState, mavenOptions, overrideRepositories, tempDirectory);
-            new ApplyCandidateAction(installation, tempDirectory).applyUpdate(ApplyCandidateAction.Type.REVERT);
+            new ApplyCandidateAction(installation, tempDirectory).applyUpdate(ApplyCandidateAction.Type.REVERT, true);
             ProsperoLogger.ROOT_LOGGER.revertCompleted(installation, savedState.getName());
         } catch (IOException e) {
             throw ProsperoLogger.ROOT_LOGGER.unableToCreateTemporaryDirectory(e);
@@ -105,6 +107,13 @@ public class InstallationHistoryAction {
 
     public void prepareRevert(SavedState savedState, MavenOptions mavenOptions, List<Repository> overrideRepositories, Path targetDir)
             throws OperationException, ProvisioningException {
+        try (InstallationLock lock = InstallationLock.shared(installation)) {
+            buildRevertCandidate(savedState, mavenOptions, overrideRepositories, targetDir);
+        }
+    }
+
+    private void buildRevertCandidate(SavedState savedState, MavenOptions mavenOptions, List<Repository> overrideRepositories, Path targetDir)
+            throws OperationException, ProvisioningException {
         if (Files.exists(targetDir)) {
             InstallFolderUtils.verifyIsEmptyDir(targetDir);
         } else {
@@ -117,7 +126,7 @@ public class InstallationHistoryAction {
             verifyStateExists(savedState, metadata);
             verifyStateIsNotTip(savedState, metadata);
 
-            MavenSessionManager mavenSessionManager = new MavenSessionManager(mavenOptions);
+            MavenSessionManager mavenSessionManager = new MavenSessionManager(mavenOptions, installation);
             try (InstallationMetadata revertMetadata = metadata.getSavedState(savedState)) {
                 final ProsperoConfig prosperoConfig = new ProsperoConfig(
                         TemporaryRepositoriesHandler.overrideRepositories(revertMetadata.getProsperoConfig().getChannels(), overrideRepositories));
@@ -49,7 +49,7 @@ public class InstallationRestoreAction {
 
     public InstallationRestoreAction(Path installDir, MavenOptions mavenOptions, Console console) throws ProvisioningException {
         this.installDir = installDir;
-        this.mavenSessionManager = new MavenSessionManager(mavenOptions);
+        this.mavenSessionManager = new MavenSessionManager(mavenOptions, installDir);
         this.console = console;
     }
 
@@ -123,6 +123,8 @@ class PrepareCandidateAction implements AutoCloseable {
             throw new RuntimeException(e);
         }
 
+        recordConflicts(targetDir);
+
         return true;
     }
 
@@ -141,6 +143,8 @@ class PrepareCandidateAction implements AutoCloseable {
                     e.getAttemptedRepositories(), mavenSessionManager.isOffline());
         }
 
+        // share unchanged artifacts with the installation instead of keeping a second copy in the candidate
+        new CandidateLinker(installDir, targetDir).linkUnchangedFiles();
 
         final Optional<ManifestVersionRecord> manifestRecord = manifestVersionResolver.apply(galleonEnv.getChannels());
 
@@ -150,6 +154,8 @@ class PrepareCandidateAction implements AutoCloseable {
         manifestRecord.ifPresent(rec -> cacheManifests(rec, targetDir));
         writeProsperoMetadata(targetDir, galleonEnv.getChannelSession().getRecordedChannel(), prosperoConfig.getChannels(),
                 manifestRecord);
+        // copied into the installation when the candidate is applied
+        galleonEnv.getRepositoryRanking().save(targetDir);
 
         try {
             final GalleonFeaturePackAnalyzer galleonFeaturePackAnalyzer = new GalleonFeaturePackAnalyzer(galleonEnv.getChannels(), mavenSessionManager);
@@ -195,6 +201,19 @@ class PrepareCandidateAction implements AutoCloseable {
         }
     }
 
+    /*
+     * compares the candidate with the installation while the candidate is prepared, so that the conflicts don't have
+     * to be computed again before the candidate is applied
+     */
+    private void recordConflicts(Path targetDir) {
+        try {
+            new ApplyCandidateAction(installDir, targetDir).recordConflicts();
+        } catch (ProvisioningException | OperationException e) {
+            // the conflicts will be computed when the candidate is applied
+            ProsperoLogger.ROOT_LOGGER.debug("Unable to record the conflicts of the candidate " + targetDir, e);
+        }
+    }
+
     private void writeCandidateProperties(UpdateSet updateSet, Path installationDir) {
         final List<CandidateProperties.ComponentUpdate> updates = new ArrayList<>();
 
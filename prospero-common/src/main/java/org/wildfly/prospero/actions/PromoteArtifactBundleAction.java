@@ -33,6 +33,7 @@ import org.wildfly.prospero.api.exceptions.ArtifactPromoteException;
 import org.wildfly.prospero.promotion.ArtifactPromoter;
 import org.wildfly.prospero.promotion.ArtifactBundle;
 import org.wildfly.prospero.wfchannel.MavenSessionManager;
+import org.wildfly.prospero.wfchannel.ProvisioningCache;
 
 import java.io.IOException;
 import java.net.URL;
@@ -69,7 +70,7 @@ public class PromoteArtifactBundleAction {
             RemoteRepository targetRepo = new RemoteRepository.Builder("target-repo", "default", targetRepository.toString()).build();
 
             final ArtifactPromoter promoter = new ArtifactPromoter(system, session, targetRepo);
-            try {
+            try (ProvisioningCache.Lease ignored = msm.openProvisioningCache()) {
                 promoter.promote(extracted.getArtifactList(),
                         new ChannelCoordinate(coordinate.getMaven().getGroupId(), coordinate.getMaven().getArtifactId()), sourceRepo);
             } catch (IOException | ArtifactResolutionException | DeploymentException e) {
@@ -17,6 +17,7 @@
 
 package org.wildfly.prospero.actions;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.jboss.galleon.universe.maven.MavenUniverseException;
@@ -27,10 +28,13 @@ import org.wildfly.channel.Repository;
 import org.wildfly.channel.UnresolvedMavenArtifactException;
 import org.wildfly.prospero.ProsperoLogger;
 import org.wildfly.prospero.api.Console;
+import org.wildfly.prospero.api.InstallationLock;
 import org.wildfly.prospero.api.InstallationMetadata;
 import org.wildfly.prospero.api.MavenOptions;
+import org.wildfly.prospero.api.OperationJournal;
 import org.wildfly.prospero.api.RepositoryUtils;
 import org.wildfly.prospero.api.TemporaryRepositoriesHandler;
+import org.wildfly.prospero.api.WorkDirectory;
 import org.wildfly.prospero.api.exceptions.ArtifactResolutionException;
 import org.wildfly.prospero.api.exceptions.MetadataException;
 import org.wildfly.prospero.api.exceptions.OperationException;
@@ -39,6 +43,7 @@ import org.wildfly.prospero.galleon.ArtifactCache;
 import org.wildfly.prospero.galleon.GalleonFeaturePackAnalyzer;
 import org.wildfly.prospero.galleon.GalleonEnvironment;
 import org.wildfly.prospero.galleon.GalleonUtils;
+import org.wildfly.prospero.galleon.ProvisionedImageCache;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
@@ -58,6 +63,7 @@ import org.wildfly.prospero.licenses.LicenseManager;
 import org.wildfly.prospero.metadata.ManifestVersionRecord;
 import org.wildfly.prospero.metadata.ManifestVersionResolver;
 import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+import org.wildfly.prospero.model.ManifestYamlSupport;
 import org.wildfly.prospero.model.ProsperoConfig;
 import org.wildfly.prospero.wfchannel.MavenSessionManager;
 import org.jboss.galleon.ProvisioningException;
@@ -71,15 +77,35 @@ public class ProvisioningAction {
     private final Console console;
     private final LicenseManager licenseManager;
     private final MavenOptions mvnOptions;
+    private final OperationJournal journal;
+    private final ProvisionedImageCache imageCache;
 
     public ProvisioningAction(Path installDir, MavenOptions mvnOptions, Console console) throws ProvisioningException {
+        this(installDir, mvnOptions, console, false);
+    }
+
+    /**
+     * @param resumable - if true, the downloaded artifacts are preserved if the provisioning is interrupted. When
+     *                  the provisioning is attempted again, the partially provisioned {@code installDir} is cleared
+     *                  and the preserved artifacts are re-used.
+     */
+    public ProvisioningAction(Path installDir, MavenOptions mvnOptions, Console console, boolean resumable) throws ProvisioningException {
         this.installDir = installDir;
         this.console = console;
         this.mvnOptions = mvnOptions;
-        this.mavenSessionManager = new MavenSessionManager(mvnOptions);
+        this.journal = resumable ? OperationJournal.open(installDir) : null;
+        if (journal != null) {
+            this.mavenSessionManager = new MavenSessionManager(journal.preserveDownloads(mvnOptions), installDir);
+        } else {
+            this.mavenSessionManager = new MavenSessionManager(mvnOptions, installDir);
+        }
         this.licenseManager = new LicenseManager();
+        // a resumed provisioning might leave a partial image behind
+        this.imageCache = journal == null && ProvisionedImageCache.isEnabled() ? ProvisionedImageCache.fromSystemProperties() : null;
 
-        verifyInstallDir(installDir);
+        if (!isResumed()) {
+            verifyInstallDir(installDir);
+        }
     }
 
     /**
@@ -102,6 +128,9 @@ public class ProvisioningAction {
      *
      * <b>NOTE:</b> All required licenses are assumed to be accepted by calling this method.
      *
+     * If the {@link ProvisionedImageCache} is enabled, and the same configuration has been provisioned before using the
+     * same manifest versions, the server is copied from the cached image instead of being provisioned by Galleon.
+     *
      * @param provisioningConfig prospero provisioning definition
      * @param channels list of channels to resolve installed artifacts
      * @param overwriteRepositories list of repositories to resolve installed artifacts from. They do not alter persisted channel definitions.
@@ -119,12 +148,25 @@ public class ProvisioningAction {
 
         channels = TemporaryRepositoriesHandler.overrideRepositories(channels, overwriteRepositories);
 
+        if (journal != null) {
+            startJournal();
+        }
+
+        final Optional<String> imageKey;
         try (GalleonEnvironment galleonEnv = GalleonEnvironment
                 .builder(installDir, channels, mavenSessionManager, false)
                 .setConsole(console)
                 .setProvisioningConfig(provisioningConfig)
                 .build()) {
 
+            // the image key requires manifest versions before the server is provisioned
+            ManifestVersionRecord manifestRecord = imageCache == null ? null : resolveManifestVersions(channels);
+            imageKey = getImageKey(galleonEnv, provisioningConfig, manifestRecord);
+            if (imageKey.isPresent() && provisionFromImage(imageKey.get(), recordedChannels, manifestRecord)) {
+                ProsperoLogger.ROOT_LOGGER.provisioningComplete(installDir);
+                return;
+            }
+
             try {
                 if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
                     ProsperoLogger.ROOT_LOGGER.debug("Starting Galleon provisioning");
@@ -137,16 +179,8 @@ public class ProvisioningAction {
                         e.getAttemptedRepositories(), mavenSessionManager.isOffline());
             }
 
-            final ManifestVersionRecord manifestRecord;
-            try {
-                if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
-                    ProsperoLogger.ROOT_LOGGER.debug("Resolving installed manifest versions");
-                }
-
-                manifestRecord = new ManifestVersionResolver(mavenSessionManager.getProvisioningRepo(), mavenSessionManager.newRepositorySystem())
-                        .getCurrentVersions(channels);
-            } catch (IOException e) {
-                throw ProsperoLogger.ROOT_LOGGER.unableToDownloadFile(e);
+            if (manifestRecord == null) {
+                manifestRecord = resolveManifestVersions(channels);
             }
 
             cacheManifests(manifestRecord);
@@ -162,6 +196,9 @@ public class ProvisioningAction {
                         installDir.resolve(ProsperoMetadataUtils.METADATA_DIR).resolve(ProsperoMetadataUtils.PROVISIONING_RECORD_XML), e);
             }
             writeProsperoMetadata(installDir, galleonEnv.getChannelSession().getRecordedChannel(), recordedChannels, manifestRecord);
+            try (InstallationLock lock = InstallationLock.exclusive(installDir)) {
+                galleonEnv.getRepositoryRanking().save(installDir);
+            }
         }
 
 
@@ -186,9 +223,108 @@ public class ProvisioningAction {
             throw new RuntimeException(e);
         }
 
+        if (journal != null) {
+            journal.discard();
+        }
+        imageKey.ifPresent(this::storeImage);
         ProsperoLogger.ROOT_LOGGER.provisioningComplete(installDir);
     }
 
+    private ManifestVersionRecord resolveManifestVersions(List<Channel> channels) throws MetadataException {
+        try {
+            if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
+                ProsperoLogger.ROOT_LOGGER.debug("Resolving installed manifest versions");
+            }
+
+            return new ManifestVersionResolver(mavenSessionManager.getProvisioningRepo(), mavenSessionManager.newRepositorySystem())
+                    .getCurrentVersions(channels);
+        } catch (IOException e) {
+            throw ProsperoLogger.ROOT_LOGGER.unableToDownloadFile(e);
+        }
+    }
+
+    private Optional<String> getImageKey(GalleonEnvironment galleonEnv, GalleonProvisioningConfig provisioningConfig,
+                                         ManifestVersionRecord manifestRecord) throws ProvisioningException {
+        if (imageCache == null) {
+            return Optional.empty();
+        }
+        Path provisioningXml = null;
+        try {
+            provisioningXml = WorkDirectory.createTempFile("provisioning", ".xml");
+            galleonEnv.getProvisioning().storeProvisioningConfig(provisioningConfig, provisioningXml);
+            return ProvisionedImageCache.key(provisioningXml, manifestRecord, galleonEnv.getChannels(),
+                    mavenSessionManager.getResolvedArtifactVersions());
+        } catch (IOException e) {
+            ProsperoLogger.ROOT_LOGGER.debug("Unable to generate the provisioned image key", e);
+            return Optional.empty();
+        } finally {
+            if (provisioningXml != null) {
+                FileUtils.deleteQuietly(provisioningXml.toFile());
+            }
+        }
+    }
+
+    private boolean provisionFromImage(String key, List<Channel> recordedChannels, ManifestVersionRecord manifestRecord)
+            throws ProvisioningException, OperationException {
+        try {
+            if (!imageCache.materialize(key, installDir)) {
+                return false;
+            }
+        } catch (IOException e) {
+            ProsperoLogger.ROOT_LOGGER.debug("Unable to use the provisioned image, falling back to provisioning", e);
+            try {
+                if (Files.exists(installDir)) {
+                    FileUtils.cleanDirectory(installDir.toFile());
+                }
+            } catch (IOException ex) {
+                throw ProsperoLogger.ROOT_LOGGER.unableToWriteFile(installDir, ex);
+            }
+            return false;
+        }
+        ProsperoLogger.ROOT_LOGGER.provisioningFromImage(installDir, imageCache.getRoot().resolve(key));
+
+        final Path manifestFile = installDir.resolve(ProsperoMetadataUtils.METADATA_DIR).resolve(ProsperoMetadataUtils.MANIFEST_FILE_NAME);
+        final ChannelManifest manifest;
+        try {
+            manifest = ManifestYamlSupport.parseRecorded(manifestFile);
+        } catch (IOException e) {
+            throw ProsperoLogger.ROOT_LOGGER.unableToReadFile(manifestFile, e);
+        }
+        // the image doesn't contain the history, start a new one
+        writeProsperoMetadata(installDir, manifest, recordedChannels, manifestRecord);
+        return true;
+    }
+
+    private void storeImage(String key) {
+        try {
+            imageCache.store(key, installDir);
+        } catch (IOException e) {
+            ProsperoLogger.ROOT_LOGGER.debug("Unable to store the provisioned image", e);
+        }
+    }
+
+    private boolean isResumed() {
+        try {
+            return journal != null && Files.exists(installDir) && journal.isStarted(installDir);
+        } catch (MetadataException e) {
+            ProsperoLogger.ROOT_LOGGER.debug("Unable to read the operation journal", e);
+            return false;
+        }
+    }
+
+    private void startJournal() throws MetadataException {
+        if (isResumed()) {
+            ProsperoLogger.ROOT_LOGGER.resumingOperation(installDir, journal.getWorkDir());
+            // Galleon cannot continue a partial provisioning, start again re-using the downloaded artifacts
+            try {
+                FileUtils.cleanDirectory(installDir.toFile());
+            } catch (IOException e) {
+                throw ProsperoLogger.ROOT_LOGGER.unableToWriteFile(installDir, e);
+            }
+        }
+        journal.record(OperationJournal.Phase.STARTED, installDir, null);
+    }
+
     private void cacheManifests(ManifestVersionRecord manifestRecord) {
         try {
             ArtifactCache.getInstance(installDir).cache(manifestRecord, mavenSessionManager.getResolvedArtifactVersions());
@@ -24,6 +24,7 @@ import org.wildfly.channel.UnresolvedMavenArtifactException;
 import org.wildfly.prospero.ProsperoLogger;
 import org.wildfly.prospero.api.Console;
 import org.wildfly.prospero.api.MavenOptions;
+import org.wildfly.prospero.api.WorkDirectory;
 import org.wildfly.prospero.api.exceptions.ArtifactResolutionException;
 import org.wildfly.prospero.api.exceptions.OperationException;
 import org.wildfly.prospero.galleon.GalleonEnvironment;
@@ -31,7 +32,6 @@ import org.wildfly.prospero.galleon.GalleonUtils;
 import org.wildfly.prospero.wfchannel.MavenSessionManager;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import org.jboss.galleon.api.config.GalleonFeaturePackConfig;
@@ -52,8 +52,8 @@ public class SubscribeNewServerAction {
     this.mavenSessionManager = new MavenSessionManager(mvnOptions);
   }
 
-  public GenerateResult generateServerMetadata(List<Channel> channels, FeaturePackLocation loc) throws IOException, ProvisioningException, OperationException {
-    Path tempDir = Files.createTempDirectory("tmp-prov-");
+  public GenerateResult generateServerMetadata(Path installDir, List<Channel> channels, FeaturePackLocation loc) throws IOException, ProvisioningException, OperationException {
+    Path tempDir = WorkDirectory.createTempDirectory(installDir, "tmp-prov-");
 
     tempDir.toFile().deleteOnExit();
     try (GalleonEnvironment galleonEnv = GalleonEnvironment
@@ -19,23 +19,48 @@ package org.wildfly.prospero.actions;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.util.HashUtils;
 import org.jboss.galleon.util.PathsUtils;
 import org.wildfly.channel.Channel;
 import org.wildfly.channel.Repository;
 import org.wildfly.prospero.ProsperoLogger;
 import org.wildfly.prospero.api.Console;
 import org.wildfly.prospero.api.FileConflict;
+import org.wildfly.prospero.api.InstallationLock;
+import org.wildfly.prospero.api.InstallationUpdateResult;
 import org.wildfly.prospero.api.MavenOptions;
+import org.wildfly.prospero.api.OperationJournal;
+import org.wildfly.prospero.api.ProvisioningProgressEvent;
 import org.wildfly.prospero.api.TemporaryRepositoriesHandler;
 import org.wildfly.prospero.api.InstallationMetadata;
+import org.wildfly.prospero.api.WorkDirectory;
+import org.wildfly.prospero.api.exceptions.MetadataException;
+import org.wildfly.prospero.api.exceptions.OperationCancelledException;
 import org.wildfly.prospero.api.exceptions.OperationException;
 import org.wildfly.prospero.galleon.GalleonEnvironment;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
 import org.wildfly.prospero.model.ProsperoConfig;
+import org.wildfly.prospero.updates.ManifestUpdateFinder;
+import org.wildfly.prospero.updates.MarkerFile;
 import org.wildfly.prospero.updates.UpdateFinder;
 import org.wildfly.prospero.updates.UpdateSet;
 import org.wildfly.prospero.wfchannel.MavenSessionManager;
@@ -52,16 +77,32 @@ public class UpdateAction implements AutoCloseable {
     private final Console console;
     private final ProsperoConfig prosperoConfig;
     private final MavenOptions mavenOptions;
+    private final OperationJournal journal;
 
     public UpdateAction(Path installDir, MavenOptions mavenOptions, Console console, List<Repository> overrideRepositories)
             throws OperationException, ProvisioningException {
+        this(installDir, mavenOptions, console, overrideRepositories, false);
+    }
+
+    /**
+     * @param resumable - if true, the downloaded artifacts and the progress of building the update candidate are
+     *                  preserved if the update is interrupted and re-used when the update is attempted again.
+     */
+    public UpdateAction(Path installDir, MavenOptions mavenOptions, Console console, List<Repository> overrideRepositories,
+                        boolean resumable)
+            throws OperationException, ProvisioningException {
         this.metadata = InstallationMetadata.loadInstallation(installDir);
         this.installDir = installDir;
         this.console = console;
         this.prosperoConfig = addTemporaryRepositories(overrideRepositories);
         this.mavenOptions = prosperoConfig.getMavenOptions().merge(mavenOptions);
+        this.journal = resumable ? OperationJournal.open(installDir) : null;
 
-        this.mavenSessionManager = new MavenSessionManager(this.mavenOptions);
+        if (journal != null) {
+            this.mavenSessionManager = new MavenSessionManager(journal.preserveDownloads(this.mavenOptions), installDir);
+        } else {
+            this.mavenSessionManager = new MavenSessionManager(this.mavenOptions, installDir);
+        }
     }
 
     /**
@@ -76,25 +117,242 @@ public class UpdateAction implements AutoCloseable {
         ProsperoLogger.ROOT_LOGGER.performUpdateStarted(installDir);
         Path targetDir = null;
         try {
-            targetDir = Files.createTempDirectory("update-candidate");
-            if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
-                ProsperoLogger.ROOT_LOGGER.temporaryCandidateFolder(targetDir);
+            if (journal != null) {
+                targetDir = journal.getCandidateDirectory();
+            } else {
+                targetDir = WorkDirectory.createTempDirectory(installDir, "update-candidate");
+                if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
+                    ProsperoLogger.ROOT_LOGGER.temporaryCandidateFolder(targetDir);
+                }
             }
             if (buildUpdate(targetDir)) {
                 final ApplyCandidateAction applyCandidateAction = new ApplyCandidateAction(installDir, targetDir);
-                return applyCandidateAction.applyUpdate(ApplyCandidateAction.Type.UPDATE);
+                final List<FileConflict> conflicts = applyCandidateAction.applyUpdate(ApplyCandidateAction.Type.UPDATE, journal == null);
+                discardProgress();
+                return conflicts;
             } else {
+                discardProgress();
                 return Collections.emptyList();
             }
         } catch (IOException e) {
             throw ProsperoLogger.ROOT_LOGGER.unableToCreateTemporaryDirectory(e);
         } finally {
-            if (targetDir != null) {
+            if (targetDir != null && journal == null) {
                 FileUtils.deleteQuietly(targetDir.toFile());
             }
         }
     }
 
+    /**
+     * updates several installations together. Installations with the same provisioning configuration, manifest
+     * and channels are grouped - the updates are resolved and the update candidate is built only once for each group,
+     * then applied to each member of the group. Up to {@code parallelism} installations are updated concurrently.
+     *
+     * A failure to update one installation doesn't stop updates of the other installations, it is reported
+     * in the installation's result instead. If the calling thread is interrupted, the installations that have not been
+     * updated yet are reported as failed with an {@link OperationCancelledException}.
+     *
+     * @param installationDirs - installations to update
+     * @param mavenOptions - maven options overriding the options of the installations
+     * @param console - console used to report the progress, can be {@code null}
+     * @param overrideRepositories - repositories used instead of the installations' channel repositories
+     * @param parallelism - maximum number of installations updated at the same time
+     * @return results of the updates in the order of {@code installationDirs}
+     */
+    public static List<InstallationUpdateResult> performUpdates(List<Path> installationDirs, MavenOptions mavenOptions,
+                                                                Console console, List<Repository> overrideRepositories,
+                                                                int parallelism) {
+        final InstallationUpdateResult[] results = new InstallationUpdateResult[installationDirs.size()];
+
+        final Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < installationDirs.size(); i++) {
+            try {
+                groups.computeIfAbsent(groupKey(installationDirs.get(i)), k -> new ArrayList<>()).add(i);
+            } catch (MetadataException e) {
+                results[i] = failed(installationDirs.get(i), e);
+            }
+        }
+
+        // the candidates are applied concurrently, but the console is not required to be thread-safe
+        final Console applyConsole = console == null ? null : new SynchronizedConsole(console);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            for (List<Integer> group : groups.values()) {
+                final Path groupInstallation = installationDirs.get(group.get(0));
+                ProsperoLogger.ROOT_LOGGER.sharedUpdateCandidate(group.size(), groupInstallation);
+
+                final Map<Integer, Future<InstallationUpdateResult>> futures = new LinkedHashMap<>();
+                Path candidateDir = null;
+                try (UpdateAction updateAction = new UpdateAction(groupInstallation, mavenOptions, console, overrideRepositories)) {
+                    candidateDir = WorkDirectory.createTempDirectory(groupInstallation, "update-candidate");
+                    if (!updateAction.buildUpdate(candidateDir)) {
+                        group.forEach(i -> results[i] = InstallationUpdateResult.noUpdates(installationDirs.get(i)));
+                        continue;
+                    }
+
+                    final Path candidate = candidateDir;
+                    for (Integer i : group) {
+                        futures.put(i, executor.submit(() -> applyCandidate(installationDirs.get(i), candidate, applyConsole)));
+                    }
+                    for (Map.Entry<Integer, Future<InstallationUpdateResult>> future : futures.entrySet()) {
+                        results[future.getKey()] = future.getValue().get();
+                    }
+                } catch (OperationException | ProvisioningException | IOException | ExecutionException e) {
+                    for (Integer i : group) {
+                        if (results[i] == null) {
+                            results[i] = failed(installationDirs.get(i), e);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    // keep the results of installations that have already been updated
+                    for (Map.Entry<Integer, Future<InstallationUpdateResult>> future : futures.entrySet()) {
+                        if (results[future.getKey()] == null && future.getValue().isDone()) {
+                            results[future.getKey()] = completedResult(installationDirs.get(future.getKey()), future.getValue());
+                        }
+                    }
+                    final OperationCancelledException cancelled = ProsperoLogger.ROOT_LOGGER.operationCancelled();
+                    for (int i = 0; i < results.length; i++) {
+                        if (results[i] == null) {
+                            results[i] = failed(installationDirs.get(i), cancelled);
+                        }
+                    }
+                    return Arrays.asList(results);
+                } finally {
+                    if (candidateDir != null) {
+                        FileUtils.deleteQuietly(candidateDir.toFile());
+                        WorkDirectory.deleteIfEmpty(groupInstallation);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return Arrays.asList(results);
+    }
+
+    /*
+     * installations are updated by the same candidate if they have the same Galleon configuration, manifest and channels
+     */
+    private static String groupKey(Path installationDir) throws MetadataException {
+        final StringBuilder key = new StringBuilder();
+        for (Path file : List.of(PathsUtils.getProvisioningXml(installationDir),
+                installationDir.resolve(ProsperoMetadataUtils.METADATA_DIR).resolve(ProsperoMetadataUtils.MANIFEST_FILE_NAME),
+                installationDir.resolve(ProsperoMetadataUtils.METADATA_DIR).resolve(ProsperoMetadataUtils.INSTALLER_CHANNELS_FILE_NAME))) {
+            try {
+                key.append(HashUtils.hashFile(file)).append(':');
+            } catch (IOException e) {
+                throw ProsperoLogger.ROOT_LOGGER.unableToReadFile(file, e);
+            }
+        }
+        return key.toString();
+    }
+
+    /*
+     * applies a copy of the shared candidate, so that the installations can be updated concurrently
+     */
+    private static InstallationUpdateResult applyCandidate(Path installationDir, Path candidateDir, Console console) {
+        Path installationCandidate = null;
+        try {
+            installationCandidate = WorkDirectory.createTempDirectory(installationDir, "update-candidate");
+            copyCandidate(candidateDir, installationCandidate);
+            try (InstallationMetadata metadata = InstallationMetadata.loadInstallation(installationDir)) {
+                new MarkerFile(metadata.getRevisions().get(0).getName(), ApplyCandidateAction.Type.UPDATE)
+                        .write(installationCandidate);
+            }
+
+            final List<FileConflict> conflicts = new ApplyCandidateAction(installationDir, installationCandidate, console)
+                    .applyUpdate(ApplyCandidateAction.Type.UPDATE, true);
+            return InstallationUpdateResult.updated(installationDir, conflicts);
+        } catch (OperationException | ProvisioningException | IOException | RuntimeException e) {
+            return failed(installationDir, e);
+        } finally {
+            if (installationCandidate != null) {
+                FileUtils.deleteQuietly(installationCandidate.toFile());
+                WorkDirectory.deleteIfEmpty(installationDir);
+            }
+        }
+    }
+
+    /*
+     * The server files are only copied from the candidate when it's applied, so they can be hard-linked.
+     * The metadata is moved into the installation and modified later on, so it's copied.
+     */
+    private static void copyCandidate(Path source, Path target) throws IOException {
+        final boolean[] linksSupported = {true};
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                final Path relative = source.relativize(file);
+                final Path targetFile = target.resolve(relative);
+                final boolean metadata = relative.startsWith(ProsperoMetadataUtils.METADATA_DIR)
+                        || relative.startsWith(Constants.PROVISIONED_STATE_DIR);
+                if (linksSupported[0] && !metadata) {
+                    try {
+                        Files.createLink(targetFile, file);
+                        return FileVisitResult.CONTINUE;
+                    } catch (IOException | UnsupportedOperationException e) {
+                        // e.g. the installations are on different file systems
+                        linksSupported[0] = false;
+                    }
+                }
+                Files.copy(file, targetFile);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static InstallationUpdateResult completedResult(Path installationDir, Future<InstallationUpdateResult> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException | CancellationException e) {
+            return failed(installationDir, e);
+        } catch (InterruptedException e) {
+            // the future is done, so get() doesn't wait
+            Thread.currentThread().interrupt();
+            return failed(installationDir, e);
+        }
+    }
+
+    private static InstallationUpdateResult failed(Path installationDir, Exception e) {
+        ProsperoLogger.ROOT_LOGGER.installationUpdateFailed(installationDir, e.getMessage());
+        return InstallationUpdateResult.failed(installationDir, e);
+    }
+
+    /**
+     * returns a directory to build the update candidate in. If the action is resumable, the directory is preserved
+     * when the update fails and the candidate is re-used by the next attempt. Otherwise, a new temporary directory is created.
+     *
+     * @return path to an empty or a partially built candidate directory
+     * @throws ProvisioningException if the temporary directory cannot be created
+     */
+    public Path getCandidateDirectory() throws ProvisioningException {
+        if (journal != null) {
+            return journal.getCandidateDirectory();
+        }
+        try {
+            return WorkDirectory.createTempDirectory(installDir, "update-candidate");
+        } catch (IOException e) {
+            throw ProsperoLogger.ROOT_LOGGER.unableToCreateTemporaryDirectory(e);
+        }
+    }
+
+    /**
+     * removes the progress recorded by a resumable update, including the preserved downloads and the candidate
+     * directory returned by {@link #getCandidateDirectory()}. Should be called after the update was applied.
+     */
+    public void discardProgress() {
+        if (journal != null) {
+            journal.discard();
+        }
+    }
+
     /**
      * builds an update candidate for {@code installDir}. The candidate is placed in {@code targetDir}.
      * The candidate is only built if there are
@@ -105,7 +363,17 @@ public class UpdateAction implements AutoCloseable {
      * @throws OperationException
      */
     public boolean buildUpdate(Path targetDir) throws ProvisioningException, OperationException {
-        if (Files.exists(targetDir)) {
+        // the installation is only read, other processes are allowed to read it as well
+        try (InstallationLock lock = InstallationLock.shared(installDir)) {
+            return doBuildUpdate(targetDir);
+        }
+    }
+
+    private boolean doBuildUpdate(Path targetDir) throws ProvisioningException, OperationException {
+        final boolean resumed = journal != null && Files.exists(targetDir) && journal.isStarted(targetDir);
+        if (resumed) {
+            ProsperoLogger.ROOT_LOGGER.resumingOperation(targetDir, journal.getWorkDir());
+        } else if (Files.exists(targetDir)) {
             InstallFolderUtils.verifyIsEmptyDir(targetDir);
         } else {
             InstallFolderUtils.verifyIsWritable(targetDir);
@@ -117,6 +385,23 @@ public class UpdateAction implements AutoCloseable {
             return false;
         }
 
+        final String fingerprint = fingerprint(updateSet);
+        if (resumed) {
+            if (journal.isCompleted(OperationJournal.Phase.CANDIDATE_BUILT, targetDir, fingerprint)) {
+                ProsperoLogger.ROOT_LOGGER.reusingUpdateCandidate(targetDir);
+                return true;
+            }
+            // Galleon cannot continue provisioning a partial candidate, start again re-using the downloaded artifacts
+            try {
+                FileUtils.cleanDirectory(targetDir.toFile());
+            } catch (IOException e) {
+                throw ProsperoLogger.ROOT_LOGGER.unableToWriteFile(targetDir, e);
+            }
+        }
+        if (journal != null) {
+            journal.record(OperationJournal.Phase.STARTED, targetDir, fingerprint);
+        }
+
         ProsperoLogger.ROOT_LOGGER.updateCandidateStarted(installDir);
         try (PrepareCandidateAction prepareCandidateAction = new PrepareCandidateAction(installDir, mavenSessionManager, prosperoConfig);
              GalleonEnvironment galleonEnv = getGalleonEnv(targetDir)) {
@@ -125,6 +410,9 @@ public class UpdateAction implements AutoCloseable {
 
                 final boolean result = prepareCandidateAction.buildCandidate(targetDir, galleonEnv,
                         ApplyCandidateAction.Type.UPDATE, provisioningConfig, updateSet);
+                if (journal != null) {
+                    journal.record(OperationJournal.Phase.CANDIDATE_BUILT, targetDir, fingerprint);
+                }
                 ProsperoLogger.ROOT_LOGGER.updateCandidateCompleted(targetDir);
                 return result;
             }
@@ -134,16 +422,28 @@ public class UpdateAction implements AutoCloseable {
     /**
      * generate a list of updates that can be applied to server at {@code installDir}.
      *
+     * If the channel manifests resolve to the versions recorded in the installation, no updates are searched for.
+     * Otherwise, the updates are found by comparing the resolved manifests with the installed artifacts, see {@link ManifestUpdateFinder}.
+     *
      * @return
      * @throws OperationException
      * @throws ProvisioningException
      */
     public UpdateSet findUpdates() throws OperationException, ProvisioningException {
         ProsperoLogger.ROOT_LOGGER.checkingUpdates();
-        try (GalleonEnvironment galleonEnv = getGalleonEnv(installDir);
-             UpdateFinder updateFinder = new UpdateFinder(galleonEnv.getChannelSession())) {
+        try (InstallationLock lock = InstallationLock.shared(installDir);
+             GalleonEnvironment galleonEnv = getGalleonEnv(installDir);
+             UpdateFinder updateFinder = new UpdateFinder(galleonEnv.getChannelSession(), console)) {
+
+            final ManifestUpdateFinder manifestUpdateFinder = new ManifestUpdateFinder(galleonEnv.getChannels(),
+                    mavenSessionManager.getResolvedArtifactVersions());
+            if (metadata.getManifestVersions().map(manifestUpdateFinder::isUnchanged).orElse(false)) {
+                ProsperoLogger.ROOT_LOGGER.manifestsUnchanged(installDir);
+                ProsperoLogger.ROOT_LOGGER.updatesFound(0);
+                return UpdateSet.EMPTY;
+            }
 
-            final UpdateSet updates = updateFinder.findUpdates(metadata.getArtifacts());
+            final UpdateSet updates = manifestUpdateFinder.findUpdates(metadata.getArtifacts(), updateFinder);
             ProsperoLogger.ROOT_LOGGER.updatesFound(updates.getArtifactUpdates().size());
             return updates;
         }
@@ -157,6 +457,13 @@ public class UpdateAction implements AutoCloseable {
                 .build();
     }
 
+    private static String fingerprint(UpdateSet updateSet) {
+        return updateSet.getArtifactUpdates().stream()
+                .map(c -> c.getArtifactName() + ":" + c.getOldVersion().orElse("") + ":" + c.getNewVersion().orElse(""))
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
     @Override
     public void close() {
         metadata.close();
@@ -169,4 +476,36 @@ public class UpdateAction implements AutoCloseable {
 
         return new ProsperoConfig(channels, prosperoConfig.getMavenOptions());
     }
+
+    /*
+     * serializes the output of concurrently applied candidates
+     */
+    private static class SynchronizedConsole implements Console {
+
+        private final Console delegate;
+
+        SynchronizedConsole(Console delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized void progressUpdate(ProvisioningProgressEvent update) {
+            delegate.progressUpdate(update);
+        }
+
+        @Override
+        public synchronized void println(String text) {
+            delegate.println(text);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return delegate.isCancelled();
+        }
+
+        @Override
+        public void checkCancelled() {
+            delegate.checkCancelled();
+        }
+    }
 }
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.actions;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.util.HashUtils;
+import org.jboss.logging.Logger;
+import org.wildfly.prospero.ProsperoLogger;
+import org.wildfly.prospero.api.Console;
+import org.wildfly.prospero.api.FileVerification;
+import org.wildfly.prospero.api.InstallationLock;
+import org.wildfly.prospero.api.exceptions.MetadataException;
+import org.wildfly.prospero.galleon.ArtifactCache;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Verifies that the files of the installation have not been changed since it was provisioned.
+ *
+ * The content of the files is compared with the hashes recorded by Galleon in {@code .galleon/hashes} and with the
+ * artifacts recorded in the {@link ArtifactCache}. The files are hashed in parallel and the changed files are
+ * reported as soon as they are found.
+ *
+ * In the quick mode, the size and modification time of the files that were found unchanged are recorded in
+ * {@link #BASELINE_FILE}, and files with the same size and modification time are not hashed again.
+ */
+public class VerifyAction {
+
+    private static final Logger LOG = Logger.getLogger(VerifyAction.class);
+
+    public static final Path BASELINE_FILE = Path.of(ProsperoMetadataUtils.METADATA_DIR, ".verified");
+    private static final String BASELINE_SEPARATOR = "::";
+
+    private final Path installationDir;
+    private final Console console;
+
+    public VerifyAction(Path installationDir, Console console) {
+        this.installationDir = installationDir.toAbsolutePath();
+        this.console = console;
+    }
+
+    /**
+     * compares the files of the installation with the recorded hashes.
+     *
+     * @param quick - skips hashing files whose size and modification time match the last quick verification
+     * @param parallelism - maximum number of files hashed at the same time
+     * @param listener - receives the changed files as soon as they are found, called from the calling thread. Can be {@code null}
+     * @return number of verified files and the changed files
+     * @throws MetadataException if the recorded hashes or the installation files cannot be read
+     */
+    public Result verify(boolean quick, int parallelism, Consumer<FileVerification> listener) throws MetadataException {
+        final Map<Path, String> expected = readExpectedHashes();
+        final Map<Path, Baseline> baseline = quick ? readBaseline() : Collections.emptyMap();
+
+        final List<FileVerification> changes = new ArrayList<>();
+        final Map<Path, Baseline> verified = new HashMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            final CompletionService<Check> checks = new ExecutorCompletionService<>(executor);
+            for (Map.Entry<Path, String> file : expected.entrySet()) {
+                checks.submit(() -> check(file.getKey(), file.getValue(), baseline.get(file.getKey())));
+            }
+
+            for (int i = 0; i < expected.size(); i++) {
+                if (console != null) {
+                    console.checkCancelled();
+                }
+                final Check check = checks.take().get();
+                if (check.change != null) {
+                    changes.add(check.change);
+                    if (listener != null) {
+                        listener.accept(check.change);
+                    }
+                } else if (check.baseline != null) {
+                    verified.put(check.file, check.baseline);
+                }
+            }
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof FileCheckException) {
+                throw ProsperoLogger.ROOT_LOGGER.unableToReadFile(((FileCheckException) cause).file, (Exception) cause.getCause());
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (quick) {
+            writeBaseline(verified);
+        }
+        return new Result(expected.size(), changes);
+    }
+
+    private Check check(Path file, String hash, Baseline recorded) throws FileCheckException {
+        final String relativePath = installationDir.relativize(file).toString().replace(File.separatorChar, '/');
+        try {
+            final BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                return new Check(file, new FileVerification(relativePath, FileVerification.Status.MISSING), null);
+            }
+
+            final Baseline current = new Baseline(hash, attributes.size(), attributes.lastModifiedTime().toMillis());
+            if (current.equals(recorded)) {
+                return new Check(file, null, current);
+            }
+
+            if (!hash.equals(HashUtils.bytesToHexString(HashUtils.hashPath(file)))) {
+                return new Check(file, new FileVerification(relativePath, FileVerification.Status.MODIFIED), null);
+            }
+            return new Check(file, null, attributes.isRegularFile() ? current : null);
+        } catch (IOException e) {
+            throw new FileCheckException(file, e);
+        }
+    }
+
+    /*
+     * the hashes are stored in .galleon/hashes/<directory>/hashes as alternating lines of file name and the hash
+     */
+    private Map<Path, String> readExpectedHashes() throws MetadataException {
+        final Path hashesDir = installationDir.resolve(Constants.PROVISIONED_STATE_DIR).resolve(Constants.HASHES);
+        if (!Files.isDirectory(hashesDir)) {
+            throw ProsperoLogger.ROOT_LOGGER.invalidInstallationDir(installationDir, List.of(hashesDir));
+        }
+
+        final Map<Path, String> expected = new TreeMap<>();
+        final List<Path> hashFiles;
+        try (Stream<Path> files = Files.walk(hashesDir)) {
+            hashFiles = files
+                    .filter(f -> f.getFileName().toString().equals(Constants.HASHES) && Files.isRegularFile(f))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw ProsperoLogger.ROOT_LOGGER.unableToReadFile(hashesDir, e);
+        }
+
+        for (Path hashFile : hashFiles) {
+            final Path dir = installationDir.resolve(hashesDir.relativize(hashFile.getParent()).toString());
+            try {
+                final List<String> lines = Files.readAllLines(hashFile, StandardCharsets.UTF_8);
+                for (int i = 0; i + 1 < lines.size(); i += 2) {
+                    expected.put(dir.resolve(lines.get(i)), lines.get(i + 1));
+                }
+            } catch (IOException e) {
+                throw ProsperoLogger.ROOT_LOGGER.unableToReadFile(hashFile, e);
+            }
+        }
+
+        try {
+            ArtifactCache.readRecordedFiles(installationDir).forEach((file, hash) -> expected.putIfAbsent(file.toAbsolutePath(), hash));
+        } catch (IOException e) {
+            throw ProsperoLogger.ROOT_LOGGER.unableToReadFile(installationDir.resolve(ArtifactCache.CACHE_FOLDER), e);
+        }
+        return expected;
+    }
+
+    private Map<Path, Baseline> readBaseline() {
+        final Path baselineFile = installationDir.resolve(BASELINE_FILE);
+        if (!Files.exists(baselineFile)) {
+            return Collections.emptyMap();
+        }
+        final Map<Path, Baseline> baseline = new HashMap<>();
+        try {
+            for (String line : Files.readAllLines(baselineFile, StandardCharsets.UTF_8)) {
+                final String[] splitLine = line.split(BASELINE_SEPARATOR);
+                if (splitLine.length == 4) {
+                    baseline.put(installationDir.resolve(splitLine[0]),
+                            new Baseline(splitLine[1], Long.parseLong(splitLine[2]), Long.parseLong(splitLine[3])));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // the baseline is only an optimization, all files will be hashed instead
+            LOG.debug("Unable to read the verification baseline " + baselineFile, e);
+            return Collections.emptyMap();
+        }
+        return baseline;
+    }
+
+    private void writeBaseline(Map<Path, Baseline> verified) throws MetadataException {
+        final Path baselineFile = installationDir.resolve(BASELINE_FILE);
+        try (InstallationLock lock = InstallationLock.shared(installationDir)) {
+            final Path tempFile = Files.createTempFile(baselineFile.getParent(), baselineFile.getFileName().toString(), null);
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                    for (Map.Entry<Path, Baseline> entry : new TreeMap<>(verified).entrySet()) {
+                        final String relativePath = installationDir.relativize(entry.getKey()).toString().replace(File.separatorChar, '/');
+                        writer.write(relativePath + BASELINE_SEPARATOR + entry.getValue().hash + BASELINE_SEPARATOR
+                                + entry.getValue().size + BASELINE_SEPARATOR + entry.getValue().lastModified);
+                        writer.newLine();
+                    }
+                }
+                Files.move(tempFile, baselineFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            // the installation might be read-only, the next quick verification will hash the files again
+            LOG.debug("Unable to write the verification baseline " + baselineFile, e);
+        }
+    }
+
+    /**
+     * Outcome of the verification.
+     */
+    public static class Result {
+        private final int verifiedFiles;
+        private final List<FileVerification> changes;
+
+        Result(int verifiedFiles, List<FileVerification> changes) {
+            this.verifiedFiles = verifiedFiles;
+            this.changes = List.copyOf(changes);
+        }
+
+        /**
+         * @return number of files that have been compared with the recorded state
+         */
+        public int getVerifiedFiles() {
+            return verifiedFiles;
+        }
+
+        /**
+         * @return files that were changed or removed, in the order they were found
+         */
+        public List<FileVerification> getChanges() {
+            return changes;
+        }
+    }
+
+    private static class Check {
+        private final Path file;
+        private final FileVerification change;
+        private final Baseline baseline;
+
+        Check(Path file, FileVerification change, Baseline baseline) {
+            this.file = file;
+            this.change = change;
+            this.baseline = baseline;
+        }
+    }
+
+    /*
+     * state of a file that has been found unchanged. The expected hash is included, so that the baseline doesn't
+     * apply after the recorded hashes change.
+     */
+    private static class Baseline {
+        private final String hash;
+        private final long size;
+        private final long lastModified;
+
+        Baseline(String hash, long size, long lastModified) {
+            this.hash = hash;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Baseline baseline = (Baseline) o;
+            return size == baseline.size && lastModified == baseline.lastModified && hash.equals(baseline.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hash, size, lastModified);
+        }
+    }
+
+    private static class FileCheckException extends Exception {
+        private final Path file;
+
+        FileCheckException(Path file, IOException cause) {
+            super(cause);
+            this.file = file;
+        }
+    }
+}
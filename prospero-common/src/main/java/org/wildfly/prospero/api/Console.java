@@ -17,6 +17,9 @@
 
 package org.wildfly.prospero.api;
 
+import org.wildfly.prospero.ProsperoLogger;
+import org.wildfly.prospero.api.exceptions.OperationCancelledException;
+
 public interface Console {
 
     /**
@@ -33,4 +36,25 @@ public interface Console {
      * @param text
      */
     void println(String text);
+
+    /**
+     * checks if the caller requested the current operation to be cancelled. Long-running operations check it
+     * periodically and abort at the next safe point.
+     *
+     * @return true if the operation should be aborted
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * aborts the current operation if it has been cancelled
+     *
+     * @throws OperationCancelledException if {@link #isCancelled()} is true
+     */
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw ProsperoLogger.ROOT_LOGGER.operationCancelled();
+        }
+    }
 }
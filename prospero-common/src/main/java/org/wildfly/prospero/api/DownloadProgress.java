@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.api;
+
+/**
+ * Byte-level statistics of the artifacts downloaded in the current provisioning stage.
+ */
+public class DownloadProgress {
+
+    private final long downloads;
+    private final long cacheHits;
+    private final long downloadedBytes;
+    private final long expectedBytes;
+    private final long throughput;
+    private final long eta;
+
+    public DownloadProgress(long downloads, long cacheHits, long downloadedBytes, long expectedBytes, long throughput, long eta) {
+        this.downloads = downloads;
+        this.cacheHits = cacheHits;
+        this.downloadedBytes = downloadedBytes;
+        this.expectedBytes = expectedBytes;
+        this.throughput = throughput;
+        this.eta = eta;
+    }
+
+    /**
+     * number of artifacts downloaded from remote repositories.
+     */
+    public long getDownloads() {
+        return downloads;
+    }
+
+    /**
+     * number of artifacts resolved from a local cache without a download.
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * number of bytes received from remote repositories, including in-progress downloads.
+     */
+    public long getDownloadedBytes() {
+        return downloadedBytes;
+    }
+
+    /**
+     * sum of content lengths announced by remote repositories for the started downloads.
+     */
+    public long getExpectedBytes() {
+        return expectedBytes;
+    }
+
+    /**
+     * average download rate in bytes per second.
+     *
+     * @return the download rate, or -1 if no data has been downloaded yet
+     */
+    public long getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * estimated time until all the remaining artifacts are downloaded.
+     *
+     * @return number of seconds, or -1 if the time cannot be estimated
+     */
+    public long getEta() {
+        return eta;
+    }
+
+    @Override
+    public String toString() {
+        return "DownloadProgress{" +
+                "downloads=" + downloads +
+                ", cacheHits=" + cacheHits +
+                ", downloadedBytes=" + downloadedBytes +
+                ", expectedBytes=" + expectedBytes +
+                ", throughput=" + throughput +
+                ", eta=" + eta +
+                '}';
+    }
+}
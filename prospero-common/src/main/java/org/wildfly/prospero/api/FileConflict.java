@@ -17,6 +17,8 @@
 
 package org.wildfly.prospero.api;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.jboss.galleon.diff.FsDiff;
 
 import java.util.Objects;
@@ -122,7 +124,11 @@ public class FileConflict {
         }
     }
 
-    private FileConflict(Change userChange, Change updateChange, Resolution resolution, String relativePath) {
+    @JsonCreator
+    private FileConflict(@JsonProperty("userChange") Change userChange,
+                         @JsonProperty("updateChange") Change updateChange,
+                         @JsonProperty("resolution") Resolution resolution,
+                         @JsonProperty("relativePath") String relativePath) {
         this.userChange = userChange;
         this.updateChange = updateChange;
         this.resolution = resolution;
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.api;
+
+import java.util.Objects;
+
+/**
+ * A file of the installation that doesn't match the state recorded when the installation was provisioned.
+ */
+public class FileVerification {
+
+    public enum Status {
+        /**
+         * the content of the file is different from the recorded hash
+         */
+        MODIFIED,
+        /**
+         * the file has been removed from the installation
+         */
+        MISSING
+    }
+
+    private final String relativePath;
+    private final Status status;
+
+    public FileVerification(String relativePath, Status status) {
+        this.relativePath = Objects.requireNonNull(relativePath);
+        this.status = Objects.requireNonNull(status);
+    }
+
+    /**
+     * @return path of the file relative to the installation directory, using {@code /} as separator
+     */
+    public String getRelativePath() {
+        return relativePath;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FileVerification that = (FileVerification) o;
+        return relativePath.equals(that.relativePath) && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(relativePath, status);
+    }
+
+    @Override
+    public String toString() {
+        return "FileVerification{" +
+                "relativePath='" + relativePath + '\'' +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.api;
+
+import org.wildfly.prospero.ProsperoLogger;
+import org.wildfly.prospero.api.exceptions.MetadataException;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coordinates access to an installation's metadata between processes using a lock on {@code .installation/.lock}.
+ * <p>
+ * Operations reading the installation acquire a {@link #shared(Path)} lock and can run concurrently with each other.
+ * Operations modifying the installation acquire an {@link #exclusive(Path)} lock and wait until all other processes
+ * release their locks.
+ * <p>
+ * Within a single JVM the locks are re-entrant - nested locks on the same installation share the file lock, which
+ * is released when the last lock is closed. Only the threads holding the lock can re-enter it. Other threads can join
+ * a shared lock with another shared lock, but any other request waits until all locks on the installation are released.
+ * <p>
+ * A shared lock cannot be upgraded - requesting an exclusive lock while the current thread holds a shared one fails.
+ * The thread holding an exclusive lock can acquire both shared and exclusive nested locks.
+ */
+public final class InstallationLock implements AutoCloseable {
+
+    public static final Path LOCK_FILE = Path.of(ProsperoMetadataUtils.METADATA_DIR, ".lock");
+
+    // guards the holders, never held while waiting for the file lock
+    private static final Map<Path, Holder> HOLDERS = new HashMap<>();
+
+    private final Path installationDir;
+    private final Thread owner;
+    private boolean closed;
+
+    private InstallationLock(Path installationDir, Thread owner) {
+        this.installationDir = installationDir;
+        this.owner = owner;
+    }
+
+    /**
+     * acquires a lock allowing other processes to read, but not modify the installation. If the installation
+     * is being modified, waits until the modification is finished.
+     *
+     * @param installationDir - the server installation
+     * @return the lock, has to be closed when the operation is finished
+     * @throws MetadataException if the lock file cannot be created or locked
+     */
+    public static InstallationLock shared(Path installationDir) throws MetadataException {
+        return acquire(installationDir, true);
+    }
+
+    /**
+     * acquires a lock preventing other processes from reading or modifying the installation. Waits until all other
+     * processes finish their operations on the installation.
+     *
+     * @param installationDir - the server installation
+     * @return the lock, has to be closed when the operation is finished
+     * @throws MetadataException if the lock file cannot be created or locked, or if the current thread already
+     *                           holds a shared lock on the installation
+     */
+    public static InstallationLock exclusive(Path installationDir) throws MetadataException {
+        return acquire(installationDir, false);
+    }
+
+    private static InstallationLock acquire(Path installationDir, boolean shared) throws MetadataException {
+        final Path key = installationDir.toAbsolutePath().normalize();
+        final Path lockFile = key.resolve(LOCK_FILE);
+        if (!Files.isDirectory(lockFile.getParent())) {
+            // not an installation (yet), there's no metadata to protect
+            return new InstallationLock(null, null);
+        }
+
+        final Thread current = Thread.currentThread();
+        final Holder holder;
+        synchronized (HOLDERS) {
+            boolean waiting = false;
+            while (true) {
+                final Holder existing = HOLDERS.get(key);
+                if (existing == null) {
+                    // reserve the installation for this thread, the file lock is acquired outside the monitor
+                    holder = new Holder(shared);
+                    HOLDERS.put(key, holder);
+                    break;
+                }
+                if (existing.shared && !shared && existing.owners.containsKey(current)) {
+                    throw ProsperoLogger.ROOT_LOGGER.installationLockUpgradeNotSupported(key);
+                }
+                if (existing.lock != null && (existing.owners.containsKey(current) || (existing.shared && shared))) {
+                    existing.acquire(current);
+                    return new InstallationLock(key, current);
+                }
+
+                if (!waiting) {
+                    ProsperoLogger.ROOT_LOGGER.waitingForInstallationLock(key);
+                    waiting = true;
+                }
+                try {
+                    HOLDERS.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw ProsperoLogger.ROOT_LOGGER.unableToLockInstallation(key, e);
+                }
+            }
+        }
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            final FileLock lock = lock(channel, key, shared);
+            synchronized (HOLDERS) {
+                holder.channel = channel;
+                holder.lock = lock;
+                holder.acquire(current);
+                HOLDERS.notifyAll();
+            }
+            return new InstallationLock(key, current);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                closeQuietly(channel);
+            }
+            synchronized (HOLDERS) {
+                HOLDERS.remove(key);
+                HOLDERS.notifyAll();
+            }
+            if (e instanceof IOException) {
+                throw ProsperoLogger.ROOT_LOGGER.unableToLockInstallation(key, e);
+            }
+            throw (RuntimeException) e;
+        }
+    }
+
+    private static FileLock lock(FileChannel channel, Path installationDir, boolean shared) throws IOException {
+        final FileLock lock = channel.tryLock(0, Long.MAX_VALUE, shared);
+        if (lock != null) {
+            return lock;
+        }
+        ProsperoLogger.ROOT_LOGGER.waitingForInstallationLock(installationDir);
+        return channel.lock(0, Long.MAX_VALUE, shared);
+    }
+
+    @Override
+    public void close() {
+        if (installationDir == null || closed) {
+            return;
+        }
+        closed = true;
+        synchronized (HOLDERS) {
+            final Holder holder = HOLDERS.get(installationDir);
+            if (holder != null && holder.release(owner)) {
+                HOLDERS.remove(installationDir);
+                closeQuietly(holder.channel);
+                HOLDERS.notifyAll();
+            }
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            // closing the channel releases the lock
+            channel.close();
+        } catch (IOException e) {
+            ProsperoLogger.ROOT_LOGGER.debug("Unable to close the installation lock file", e);
+        }
+    }
+
+    private static class Holder {
+        private final boolean shared;
+        // number of open locks per thread
+        private final Map<Thread, Integer> owners = new HashMap<>();
+        private FileChannel channel;
+        private FileLock lock;
+
+        Holder(boolean shared) {
+            this.shared = shared;
+        }
+
+        void acquire(Thread thread) {
+            owners.merge(thread, 1, Integer::sum);
+        }
+
+        /**
+         * @return true if there are no open locks left
+         */
+        boolean release(Thread thread) {
+            owners.computeIfPresent(thread, (t, count) -> count == 1 ? null : count - 1);
+            return owners.isEmpty();
+        }
+    }
+}
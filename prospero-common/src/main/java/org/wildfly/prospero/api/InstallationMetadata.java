@@ -80,6 +80,24 @@ public class InstallationMetadata implements AutoCloseable {
      * @throws MetadataException
      */
     public static InstallationMetadata loadInstallation(Path base) throws MetadataException {
+        final InstallationMetadata metadata;
+        try (InstallationLock lock = InstallationLock.shared(base)) {
+            metadata = readInstallation(base);
+        }
+
+        try {
+            // starting the history modifies the installation, it locks the installation exclusively after the shared lock is released
+            if (!metadata.gitStorage.isStarted()) {
+                ProsperoLogger.ROOT_LOGGER.debugf("Initializing history storage in %s", base);
+                metadata.gitStorage.record();
+            }
+        } catch (IOException e) {
+            throw ProsperoLogger.ROOT_LOGGER.unableToCreateHistoryStorage(base.resolve(ProsperoMetadataUtils.METADATA_DIR), e);
+        }
+        return metadata;
+    }
+
+    private static InstallationMetadata readInstallation(Path base) throws MetadataException {
         final Path manifestFile = base.resolve(ProsperoMetadataUtils.METADATA_DIR).resolve(ProsperoMetadataUtils.MANIFEST_FILE_NAME);
 
         ChannelManifest manifest;
@@ -87,7 +105,7 @@ public class InstallationMetadata implements AutoCloseable {
         Optional<ManifestVersionRecord> currentVersion;
 
         try {
-            manifest = ManifestYamlSupport.parse(manifestFile.toFile());
+            manifest = ManifestYamlSupport.parseRecorded(manifestFile);
         } catch (IOException e) {
             throw ProsperoLogger.ROOT_LOGGER.unableToParseConfiguration(manifestFile, e);
         }
@@ -115,17 +133,8 @@ public class InstallationMetadata implements AutoCloseable {
             }
         }
 
-        try {
-            final GitStorage gitStorage = new GitStorage(base);
-            final InstallationMetadata metadata = new InstallationMetadata(base, manifest, prosperoConfig, gitStorage, currentVersion, provisioningConfig);
-            if (!gitStorage.isStarted()) {
-                ProsperoLogger.ROOT_LOGGER.debugf("Initializing history storage in %s", base);
-                gitStorage.record();
-            }
-            return metadata;
-        } catch (IOException e) {
-            throw ProsperoLogger.ROOT_LOGGER.unableToCreateHistoryStorage(base.resolve(ProsperoMetadataUtils.METADATA_DIR), e);
-        }
+        final GitStorage gitStorage = new GitStorage(base);
+        return new InstallationMetadata(base, manifest, prosperoConfig, gitStorage, currentVersion, provisioningConfig);
     }
 
     /**
@@ -166,7 +175,7 @@ public class InstallationMetadata implements AutoCloseable {
             throw ProsperoLogger.ROOT_LOGGER.invalidMetadataBundle(archiveLocation);
         }
 
-        final Path tempDirectory = Files.createTempDirectory("installer-import");
+        final Path tempDirectory = WorkDirectory.createTempDirectory("installer-import");
         tempDirectory.toFile().deleteOnExit();
         try (ZipInputStream zis = new ZipInputStream(new FileInputStream(archiveLocation.toFile()))) {
             Path manifestFile = null;
@@ -288,11 +297,18 @@ public class InstallationMetadata implements AutoCloseable {
     }
 
     public void recordProvision(boolean overrideProsperoConfig, boolean gitRecord) throws MetadataException {
+        try (InstallationLock lock = InstallationLock.exclusive(base)) {
+            writeProvisionRecord(overrideProsperoConfig, gitRecord);
+        }
+    }
+
+    private void writeProvisionRecord(boolean overrideProsperoConfig, boolean gitRecord) throws MetadataException {
         try {
             ProsperoMetadataUtils.writeManifest(this.manifestFile, this.manifest);
         } catch (IOException e) {
             throw ProsperoLogger.ROOT_LOGGER.unableToSaveConfiguration(manifestFile, e);
         }
+        ManifestYamlSupport.recordParsed(this.manifestFile, this.manifest);
         // Add README.txt file to .installation directory to warn the files should not be edited.
         if (!Files.exists(readmeFile)) {
             try {
@@ -324,7 +340,7 @@ public class InstallationMetadata implements AutoCloseable {
      * check if the provisioning definition is present. If not add it to the history
      */
     public void updateProvisioningConfiguration() throws MetadataException {
-        try {
+        try (InstallationLock lock = InstallationLock.exclusive(base)) {
             if (!Files.exists(base.resolve(ProsperoMetadataUtils.METADATA_DIR).resolve(ProsperoMetadataUtils.PROVISIONING_RECORD_XML))) {
                 ProsperoMetadataUtils.recordProvisioningDefinition(base);
 
@@ -406,11 +422,13 @@ public class InstallationMetadata implements AutoCloseable {
     }
 
     public void updateProsperoConfig(ProsperoConfig config) throws MetadataException {
-        this.prosperoConfig = config;
+        try (InstallationLock lock = InstallationLock.exclusive(base)) {
+            this.prosperoConfig = config;
 
-        writeProsperoConfig();
+            writeProsperoConfig();
 
-        gitStorage.recordConfigChange();
+            gitStorage.recordConfigChange();
+        }
     }
 
     public Optional<ManifestVersionRecord> getManifestVersions() {
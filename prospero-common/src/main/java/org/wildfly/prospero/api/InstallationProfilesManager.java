@@ -29,27 +29,27 @@ import java.util.Set;
 
 /**
  * Defines well known Galleon feature packs.
+ *
+ * The profile definitions are parsed when they are first accessed, not when the class is loaded.
  */
 public abstract class InstallationProfilesManager {
 
     private static final Logger logger = Logger.getLogger(InstallationProfilesManager.class);
 
-    private static final Map<String, InstallationProfile> nameMap = new HashMap<>();
-
     public static InstallationProfile getByName(String name) {
-        return nameMap.get(name);
+        return Profiles.nameMap.get(name);
     }
 
     public static boolean isWellKnownName(String name) {
-        return nameMap.containsKey(name);
+        return Profiles.nameMap.containsKey(name);
     }
 
     public static Set<String> getNames() {
-        return nameMap.keySet();
+        return Profiles.nameMap.keySet();
     }
 
-    static {
-
+    private static Map<String, InstallationProfile> loadProfiles() {
+        final Map<String, InstallationProfile> nameMap = new HashMap<>();
         final URL knownRepoUrl = findProfileDefinitions();
         if (knownRepoUrl == null) {
             logger.debug("No known repositories found");
@@ -66,6 +66,7 @@ public abstract class InstallationProfilesManager {
                 logger.debug("Error parsing provisioning configurations:", e);
             }
         }
+        return nameMap;
     }
 
     private static URL findProfileDefinitions() {
@@ -77,4 +78,9 @@ public abstract class InstallationProfilesManager {
         }
     }
 
+    // initialized on first access
+    private static final class Profiles {
+        private static final Map<String, InstallationProfile> nameMap = loadProfiles();
+    }
+
 }
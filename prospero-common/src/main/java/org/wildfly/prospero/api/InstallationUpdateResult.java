@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.api;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Outcome of an update of one of the installations updated together by
+ * {@link org.wildfly.prospero.actions.UpdateAction#performUpdates(List, MavenOptions, Console, List, int)}.
+ */
+public class InstallationUpdateResult {
+
+    public enum Status {
+        /**
+         * the update has been applied to the installation
+         */
+        UPDATED,
+        /**
+         * there were no updates available for the installation
+         */
+        NO_UPDATES,
+        /**
+         * the installation has not been updated, see {@link #getError()}
+         */
+        FAILED
+    }
+
+    private final Path installationDir;
+    private final Status status;
+    private final List<FileConflict> conflicts;
+    private final Exception error;
+
+    private InstallationUpdateResult(Path installationDir, Status status, List<FileConflict> conflicts, Exception error) {
+        this.installationDir = Objects.requireNonNull(installationDir);
+        this.status = status;
+        this.conflicts = conflicts;
+        this.error = error;
+    }
+
+    public static InstallationUpdateResult updated(Path installationDir, List<FileConflict> conflicts) {
+        return new InstallationUpdateResult(installationDir, Status.UPDATED, List.copyOf(conflicts), null);
+    }
+
+    public static InstallationUpdateResult noUpdates(Path installationDir) {
+        return new InstallationUpdateResult(installationDir, Status.NO_UPDATES, Collections.emptyList(), null);
+    }
+
+    public static InstallationUpdateResult failed(Path installationDir, Exception error) {
+        return new InstallationUpdateResult(installationDir, Status.FAILED, Collections.emptyList(), Objects.requireNonNull(error));
+    }
+
+    public Path getInstallationDir() {
+        return installationDir;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return conflicts between the update and local changes of the installation
+     */
+    public List<FileConflict> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * @return the reason of the failure, or {@code null} if the update did not fail
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "InstallationUpdateResult{" +
+                "installationDir=" + installationDir +
+                ", status=" + status +
+                ", conflicts=" + conflicts +
+                ", error=" + error +
+                '}';
+    }
+}
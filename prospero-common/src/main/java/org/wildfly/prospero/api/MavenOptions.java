@@ -18,6 +18,8 @@
 package org.wildfly.prospero.api;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
@@ -42,6 +44,12 @@ public class MavenOptions {
     private final Optional<Path> localCache;
     private final Optional<Boolean> offline;
     private final Optional<Boolean> noLocalCache;
+    private final Optional<Integer> maxConnectionsPerRoute;
+    private final Optional<Integer> connectionMaxTtl;
+    private final Optional<Boolean> http2;
+    private final Optional<Long> maxBandwidth;
+    private final Optional<Long> maxRepositoryBandwidth;
+    private final Optional<Integer> maxConcurrentDownloads;
 
     public static final MavenOptions DEFAULT_OPTIONS = builder().build();
     public static final MavenOptions OFFLINE_NO_CACHE = builder()
@@ -60,16 +68,36 @@ public class MavenOptions {
     @JsonCreator
     private MavenOptions(@JsonProperty("localCache") Path localCache,
                          @JsonProperty("offline") boolean offline,
-                         @JsonProperty("noLocalCache") boolean noLocalCache) {
+                         @JsonProperty("noLocalCache") boolean noLocalCache,
+                         @JsonProperty("maxConnectionsPerRoute") Integer maxConnectionsPerRoute,
+                         @JsonProperty("connectionMaxTtl") Integer connectionMaxTtl,
+                         @JsonProperty("http2") Boolean http2,
+                         @JsonProperty("maxBandwidth") Long maxBandwidth,
+                         @JsonProperty("maxRepositoryBandwidth") Long maxRepositoryBandwidth,
+                         @JsonProperty("maxConcurrentDownloads") Integer maxConcurrentDownloads) {
         this.localCache = Optional.ofNullable(localCache).map(Path::toAbsolutePath);
         this.noLocalCache = Optional.of(noLocalCache);
         this.offline = Optional.of(offline);
+        this.maxConnectionsPerRoute = Optional.ofNullable(maxConnectionsPerRoute);
+        this.connectionMaxTtl = Optional.ofNullable(connectionMaxTtl);
+        this.http2 = Optional.ofNullable(http2);
+        this.maxBandwidth = Optional.ofNullable(maxBandwidth);
+        this.maxRepositoryBandwidth = Optional.ofNullable(maxRepositoryBandwidth);
+        this.maxConcurrentDownloads = Optional.ofNullable(maxConcurrentDownloads);
     }
 
-    private MavenOptions(Optional<Path> localCache, Optional<Boolean> offline, Optional<Boolean> noLocalCache) {
+    private MavenOptions(Optional<Path> localCache, Optional<Boolean> offline, Optional<Boolean> noLocalCache,
+                         Optional<Integer> maxConnectionsPerRoute, Optional<Integer> connectionMaxTtl, Optional<Boolean> http2,
+                         Optional<Long> maxBandwidth, Optional<Long> maxRepositoryBandwidth, Optional<Integer> maxConcurrentDownloads) {
         this.localCache = localCache;
         this.noLocalCache = noLocalCache;
         this.offline = offline;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.connectionMaxTtl = connectionMaxTtl;
+        this.http2 = http2;
+        this.maxBandwidth = maxBandwidth;
+        this.maxRepositoryBandwidth = maxRepositoryBandwidth;
+        this.maxConcurrentDownloads = maxConcurrentDownloads;
     }
 
     public Path getLocalCache() {
@@ -89,12 +117,88 @@ public class MavenOptions {
         return localCache.isPresent();
     }
 
+    /**
+     * maximum number of pooled connections to a single repository host, or {@code null} to use the Maven resolver default.
+     *
+     * @return the maximum number of connections
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute.orElse(null);
+    }
+
+    /**
+     * time in seconds a pooled connection can be kept alive, or {@code null} to use the Maven resolver default.
+     *
+     * @return the connection time to live
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getConnectionMaxTtl() {
+        return connectionMaxTtl.orElse(null);
+    }
+
+    /**
+     * if true, remote repositories are accessed using the JDK {@code HttpClient} preferring HTTP/2 instead of
+     * the Apache HttpClient based transport. Repositories behind an authenticating proxy, or using insecure HTTPS or
+     * a custom SSL context, are still accessed with the Apache HttpClient. The HTTP/2 transport verifies servers
+     * using the JVM's default trust store ({@code javax.net.ssl.*} system properties) and ignores proxies not
+     * configured in Maven settings.
+     *
+     * @return true if the HTTP/2 transport should be used
+     */
+    @JsonIgnore
+    public boolean isHttp2() {
+        return http2.orElse(false);
+    }
+
+    @JsonProperty("http2")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean getHttp2() {
+        return http2.orElse(null);
+    }
+
+    /**
+     * maximum download rate in bytes per second shared by all the repositories, or {@code null} if not limited.
+     *
+     * @return the download rate limit
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getMaxBandwidth() {
+        return maxBandwidth.orElse(null);
+    }
+
+    /**
+     * maximum download rate in bytes per second from a single repository, or {@code null} if not limited.
+     *
+     * @return the download rate limit
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getMaxRepositoryBandwidth() {
+        return maxRepositoryBandwidth.orElse(null);
+    }
+
+    /**
+     * maximum number of files downloaded at the same time, or {@code null} to use the Maven resolver default.
+     *
+     * @return the number of concurrent downloads
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getMaxConcurrentDownloads() {
+        return maxConcurrentDownloads.orElse(null);
+    }
+
     @Override
     public String toString() {
         return "MavenOptions{" +
                 "localCache=" + localCache +
                 ", offline=" + offline +
                 ", noLocalCache=" + noLocalCache +
+                ", maxConnectionsPerRoute=" + maxConnectionsPerRoute +
+                ", connectionMaxTtl=" + connectionMaxTtl +
+                ", http2=" + http2 +
+                ", maxBandwidth=" + maxBandwidth +
+                ", maxRepositoryBandwidth=" + maxRepositoryBandwidth +
+                ", maxConcurrentDownloads=" + maxConcurrentDownloads +
                 '}';
     }
 
@@ -117,6 +221,13 @@ public class MavenOptions {
         } else if (this.localCache.isPresent()) {
             builder.setLocalCachePath(this.getLocalCache());
         }
+
+        override.maxConnectionsPerRoute.or(() -> this.maxConnectionsPerRoute).ifPresent(builder::setMaxConnectionsPerRoute);
+        override.connectionMaxTtl.or(() -> this.connectionMaxTtl).ifPresent(builder::setConnectionMaxTtl);
+        override.http2.or(() -> this.http2).ifPresent(builder::setHttp2);
+        override.maxBandwidth.or(() -> this.maxBandwidth).ifPresent(builder::setMaxBandwidth);
+        override.maxRepositoryBandwidth.or(() -> this.maxRepositoryBandwidth).ifPresent(builder::setMaxRepositoryBandwidth);
+        override.maxConcurrentDownloads.or(() -> this.maxConcurrentDownloads).ifPresent(builder::setMaxConcurrentDownloads);
         return builder.build();
     }
 
@@ -135,12 +246,16 @@ public class MavenOptions {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         MavenOptions that = (MavenOptions) o;
-        return Objects.equals(localCache, that.localCache) && Objects.equals(offline, that.offline) && Objects.equals(noLocalCache, that.noLocalCache);
+        return Objects.equals(localCache, that.localCache) && Objects.equals(offline, that.offline) && Objects.equals(noLocalCache, that.noLocalCache)
+                && Objects.equals(maxConnectionsPerRoute, that.maxConnectionsPerRoute) && Objects.equals(connectionMaxTtl, that.connectionMaxTtl)
+                && Objects.equals(http2, that.http2) && Objects.equals(maxBandwidth, that.maxBandwidth)
+                && Objects.equals(maxRepositoryBandwidth, that.maxRepositoryBandwidth) && Objects.equals(maxConcurrentDownloads, that.maxConcurrentDownloads);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(localCache, offline, noLocalCache);
+        return Objects.hash(localCache, offline, noLocalCache, maxConnectionsPerRoute, connectionMaxTtl, http2,
+                maxBandwidth, maxRepositoryBandwidth, maxConcurrentDownloads);
     }
 
     public static class Builder {
@@ -148,13 +263,20 @@ public class MavenOptions {
         private Optional<Boolean> offline = Optional.empty();
         private Optional<Boolean> noLocalCache = Optional.empty();
         private Optional<Path> localCachePath = Optional.empty();
+        private Optional<Integer> maxConnectionsPerRoute = Optional.empty();
+        private Optional<Integer> connectionMaxTtl = Optional.empty();
+        private Optional<Boolean> http2 = Optional.empty();
+        private Optional<Long> maxBandwidth = Optional.empty();
+        private Optional<Long> maxRepositoryBandwidth = Optional.empty();
+        private Optional<Integer> maxConcurrentDownloads = Optional.empty();
 
         private Builder() {
 
         }
 
         public MavenOptions build() {
-            return new MavenOptions(localCachePath, offline, noLocalCache);
+            return new MavenOptions(localCachePath, offline, noLocalCache, maxConnectionsPerRoute, connectionMaxTtl, http2,
+                    maxBandwidth, maxRepositoryBandwidth, maxConcurrentDownloads);
         }
 
         public Builder setOffline(boolean offline) {
@@ -171,5 +293,35 @@ public class MavenOptions {
             this.localCachePath = Optional.of(localCachePath);
             return this;
         }
+
+        public Builder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = Optional.of(maxConnectionsPerRoute);
+            return this;
+        }
+
+        public Builder setConnectionMaxTtl(int connectionMaxTtl) {
+            this.connectionMaxTtl = Optional.of(connectionMaxTtl);
+            return this;
+        }
+
+        public Builder setHttp2(boolean http2) {
+            this.http2 = Optional.of(http2);
+            return this;
+        }
+
+        public Builder setMaxBandwidth(long maxBandwidth) {
+            this.maxBandwidth = Optional.of(maxBandwidth);
+            return this;
+        }
+
+        public Builder setMaxRepositoryBandwidth(long maxRepositoryBandwidth) {
+            this.maxRepositoryBandwidth = Optional.of(maxRepositoryBandwidth);
+            return this;
+        }
+
+        public Builder setMaxConcurrentDownloads(int maxConcurrentDownloads) {
+            this.maxConcurrentDownloads = Optional.of(maxConcurrentDownloads);
+            return this;
+        }
     }
 }
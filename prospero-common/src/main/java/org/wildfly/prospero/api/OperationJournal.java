@@ -0,0 +1,224 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.api;
+
+import org.apache.commons.io.FileUtils;
+import org.jboss.galleon.util.HashUtils;
+import org.wildfly.prospero.ProsperoLogger;
+import org.wildfly.prospero.api.exceptions.MetadataException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Records the progress of an operation in a persistent work directory, so that the operation can be resumed if it
+ * is interrupted.
+ *
+ * The work directory is shared by all operations on the same target and contains:
+ * <ul>
+ *     <li>a Maven repository used to download artifacts instead of a temporary one,</li>
+ *     <li>a directory for update candidates built on behalf of the user,</li>
+ *     <li>a journal file with the last completed {@link Phase} of the operation.</li>
+ * </ul>
+ *
+ * Galleon provisioning cannot be continued from the middle, so a target directory left behind by an unfinished
+ * {@code Phase.STARTED} is cleared and provisioned again, re-using the downloaded artifacts.
+ */
+public class OperationJournal {
+
+    private static final String JOURNAL_DIR = "prospero-journal";
+    private static final String JOURNAL_FILE = "journal.properties";
+    private static final String PROVISIONING_REPOSITORY = "provisioning-repository";
+    private static final String CANDIDATE_DIR = "candidate";
+    private static final String PHASE_KEY = "phase";
+    private static final String TARGET_KEY = "target";
+    private static final String FINGERPRINT_KEY = "fingerprint";
+
+    public enum Phase {
+        /**
+         * the target directory has been modified, but is not complete
+         */
+        STARTED,
+        /**
+         * the target directory contains a complete update candidate
+         */
+        CANDIDATE_BUILT
+    }
+
+    private final Path workDir;
+
+    private OperationJournal(Path workDir) {
+        this.workDir = workDir;
+    }
+
+    /**
+     * opens a journal of operations performed on {@code installationDir}. If no operation was interrupted,
+     * the journal is empty.
+     *
+     * @param installationDir - the server installation the operations are performed on
+     * @return the journal
+     */
+    public static OperationJournal open(Path installationDir) {
+        return open(WorkDirectory.forInstallation(installationDir).resolve(JOURNAL_DIR), installationDir);
+    }
+
+    static OperationJournal open(Path workRoot, Path installationDir) {
+        Objects.requireNonNull(installationDir);
+        final String key;
+        try {
+            key = HashUtils.hash(installationDir.toAbsolutePath().normalize().toString());
+        } catch (IOException e) {
+            // hashing a String doesn't perform any I/O
+            throw new IllegalStateException(e);
+        }
+        return new OperationJournal(workRoot.resolve(key));
+    }
+
+    public Path getWorkDir() {
+        return workDir;
+    }
+
+    /**
+     * Maven repository preserving artifacts downloaded by interrupted operations.
+     *
+     * @return path to the repository
+     */
+    public Path getProvisioningRepository() {
+        return workDir.resolve(PROVISIONING_REPOSITORY);
+    }
+
+    /**
+     * replaces the temporary Maven cache in {@code mavenOptions} with the {@link #getProvisioningRepository()}.
+     * If the options use a persistent local cache, they are returned unchanged.
+     *
+     * @param mavenOptions - options of the operation
+     * @return options preserving downloaded artifacts between runs
+     */
+    public MavenOptions preserveDownloads(MavenOptions mavenOptions) {
+        if (!mavenOptions.isNoLocalCache()) {
+            return mavenOptions;
+        }
+        return mavenOptions.merge(MavenOptions.builder()
+                .setNoLocalCache(false)
+                .setLocalCachePath(getProvisioningRepository())
+                .build());
+    }
+
+    /**
+     * directory used to build update candidates when no candidate directory was provided by the user.
+     *
+     * @return path to the candidate directory
+     */
+    public Path getCandidateDirectory() {
+        return workDir.resolve(CANDIDATE_DIR);
+    }
+
+    /**
+     * checks if the journal contains an operation on {@code target} that reached at least {@code phase}.
+     *
+     * @param phase - the minimal completed phase
+     * @param target - the directory modified by the operation
+     * @param fingerprint - identifies the outcome of the operation, e.g. the set of updates. If the recorded fingerprint
+     *                    is different, the previous progress is not applicable.
+     * @return true if the recorded progress can be used
+     * @throws MetadataException if the journal cannot be read
+     */
+    public boolean isCompleted(Phase phase, Path target, String fingerprint) throws MetadataException {
+        final Properties journal = read();
+        if (journal == null || !target.toAbsolutePath().toString().equals(journal.getProperty(TARGET_KEY))) {
+            return false;
+        }
+        if (!Objects.equals(fingerprint, journal.getProperty(FINGERPRINT_KEY))) {
+            return false;
+        }
+        try {
+            return Phase.valueOf(journal.getProperty(PHASE_KEY)).ordinal() >= phase.ordinal();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * checks if {@code target} has been modified by a recorded operation, independently of its outcome.
+     *
+     * @param target - the directory modified by the operation
+     * @return true if the {@code target} has been written to by a previous operation
+     * @throws MetadataException if the journal cannot be read
+     */
+    public boolean isStarted(Path target) throws MetadataException {
+        final Properties journal = read();
+        return journal != null && target.toAbsolutePath().toString().equals(journal.getProperty(TARGET_KEY));
+    }
+
+    /**
+     * records the {@code phase} of operation on {@code target} as completed. The journal is replaced atomically,
+     * so it is never left in an inconsistent state.
+     *
+     * @param phase - the completed phase
+     * @param target - the directory modified by the operation
+     * @param fingerprint - identifies the outcome of the operation
+     * @throws MetadataException if the journal cannot be written
+     */
+    public void record(Phase phase, Path target, String fingerprint) throws MetadataException {
+        final Properties journal = new Properties();
+        journal.setProperty(PHASE_KEY, phase.name());
+        journal.setProperty(TARGET_KEY, target.toAbsolutePath().toString());
+        if (fingerprint != null) {
+            journal.setProperty(FINGERPRINT_KEY, fingerprint);
+        }
+
+        final Path journalFile = workDir.resolve(JOURNAL_FILE);
+        try {
+            Files.createDirectories(workDir);
+            final Path tempFile = Files.createTempFile(workDir, JOURNAL_FILE, null);
+            try (OutputStream os = Files.newOutputStream(tempFile)) {
+                journal.store(os, null);
+            }
+            Files.move(tempFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw ProsperoLogger.ROOT_LOGGER.unableToWriteFile(journalFile, e);
+        }
+    }
+
+    /**
+     * removes the recorded progress, downloaded artifacts and the update candidate built in the work directory.
+     */
+    public void discard() {
+        FileUtils.deleteQuietly(workDir.toFile());
+    }
+
+    private Properties read() throws MetadataException {
+        final Path journalFile = workDir.resolve(JOURNAL_FILE);
+        if (!Files.exists(journalFile)) {
+            return null;
+        }
+        try (InputStream is = Files.newInputStream(journalFile)) {
+            final Properties journal = new Properties();
+            journal.load(is);
+            return journal;
+        } catch (IOException e) {
+            throw ProsperoLogger.ROOT_LOGGER.unableToReadFile(journalFile, e);
+        }
+    }
+}
@@ -27,6 +27,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import javax.xml.stream.XMLStreamException;
@@ -50,6 +52,7 @@ import org.wildfly.prospero.ProsperoLogger;
 import org.wildfly.prospero.api.exceptions.ChannelDefinitionException;
 import org.wildfly.prospero.api.exceptions.MetadataException;
 import org.wildfly.prospero.api.exceptions.NoChannelException;
+import org.wildfly.prospero.galleon.ChannelResolutionExecutor;
 import org.wildfly.prospero.galleon.FeaturePackLocationParser;
 import org.wildfly.prospero.galleon.GalleonUtils;
 import org.wildfly.prospero.model.InstallationProfile;
@@ -212,7 +215,7 @@ public class ProvisioningDefinition {
                     .collect(Collectors.toList());
 
             if (!gavCoordinates.isEmpty()) {
-                channels.addAll(versionResolverFactory.resolveChannels(gavCoordinates, channelResolutionRepositories()));
+                channels.addAll(resolveGavCoordinates(versionResolverFactory, gavCoordinates, channelResolutionRepositories()));
             }
             if (!urlCoordinates.isEmpty()) {
                 // The URL-based coordinates are resolved in a way that bypasses the VersionResolverFactory, because the factory
@@ -232,22 +235,93 @@ public class ProvisioningDefinition {
         }
     }
 
+    private static List<Channel> resolveGavCoordinates(VersionResolverFactory versionResolverFactory,
+                                                       List<ChannelCoordinate> gavCoordinates,
+                                                       List<RemoteRepository> repositories) throws MalformedURLException {
+        if (gavCoordinates.size() == 1) {
+            return versionResolverFactory.resolveChannels(gavCoordinates, repositories);
+        }
+
+        final List<List<Channel>> resolved = resolveConcurrently(gavCoordinates,
+                coord -> versionResolverFactory.resolveChannels(List.of(coord), repositories));
+        if (resolved == null) {
+            // at least one of the channels failed - resolve them again in order to report the error
+            // exactly the same way as a sequential resolution would
+            return versionResolverFactory.resolveChannels(gavCoordinates, repositories);
+        }
+        return resolved.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
     private static List<Channel> resolveUrlCoordinates(List<ChannelCoordinate> urlCoordinates) {
-        ArrayList<Channel> channels = new ArrayList<>();
-        for (ChannelCoordinate coord: urlCoordinates) {
-            Objects.requireNonNull(coord.getUrl(), "This method only expects URL coordinates.");
+        if (urlCoordinates.size() == 1) {
+            return readUrlCoordinate(urlCoordinates.get(0));
+        }
+
+        final List<List<Channel>> resolved = resolveConcurrently(urlCoordinates, ProvisioningDefinition::readUrlCoordinate);
+        if (resolved == null) {
+            // re-read the channels in order, so that the first failing channel is reported
+            ArrayList<Channel> channels = new ArrayList<>();
+            for (ChannelCoordinate coord : urlCoordinates) {
+                channels.addAll(readUrlCoordinate(coord));
+            }
+            return channels;
+        }
+        return resolved.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    private static List<Channel> readUrlCoordinate(ChannelCoordinate coord) {
+        Objects.requireNonNull(coord.getUrl(), "This method only expects URL coordinates.");
+        try (InputStream is = coord.getUrl().openStream()) {
+            String yaml = IOUtils.toString(is, StandardCharsets.UTF_8);
+            return ChannelMapper.fromString(yaml);
+        } catch (IOException e) {
+            InvalidChannelMetadataException ice = new InvalidChannelMetadataException(
+                    "Failed to read channel " + coord.getUrl(), List.of(e.getLocalizedMessage()));
+            ice.initCause(e);
+            throw ice;
+        }
+    }
+
+    /**
+     * Resolves each of the {@code coordinates} using the {@link ChannelResolutionExecutor}.
+     *
+     * @return resolved channels in the same order as {@code coordinates}, or {@code null} if any of the coordinates
+     * could not be resolved
+     */
+    private static List<List<Channel>> resolveConcurrently(List<ChannelCoordinate> coordinates, ChannelCoordinateResolver resolver) {
+        final List<CompletableFuture<List<Channel>>> futures = new ArrayList<>(coordinates.size());
+        for (ChannelCoordinate coord : coordinates) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                final long start = System.currentTimeMillis();
+                try {
+                    return resolver.resolve(coord);
+                } catch (MalformedURLException e) {
+                    throw new IllegalArgumentException(e);
+                } finally {
+                    if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
+                        ProsperoLogger.ROOT_LOGGER.debugf("Resolved channel definition %s in %d ms",
+                                coord.getUrl() != null ? coord.getUrl() : coord.getGroupId() + ":" + coord.getArtifactId(),
+                                System.currentTimeMillis() - start);
+                    }
+                }
+            }, ChannelResolutionExecutor.get()));
+        }
+
+        final List<List<Channel>> resolved = new ArrayList<>(coordinates.size());
+        for (CompletableFuture<List<Channel>> future : futures) {
             try {
-                InputStream is = coord.getUrl().openStream();
-                String yaml = IOUtils.toString(is, StandardCharsets.UTF_8);
-                channels.addAll(ChannelMapper.fromString(yaml));
-            } catch (IOException e) {
-                InvalidChannelMetadataException ice = new InvalidChannelMetadataException(
-                        "Failed to read channel " + coord.getUrl(), List.of(e.getLocalizedMessage()));
-                ice.initCause(e);
-                throw ice;
+                resolved.add(future.join());
+            } catch (CompletionException e) {
+                ProsperoLogger.ROOT_LOGGER.debug("Unable to resolve channel definition", e.getCause());
+                return null;
             }
         }
-        return channels;
+        return resolved;
+    }
+
+    @FunctionalInterface
+    private interface ChannelCoordinateResolver {
+        List<Channel> resolve(ChannelCoordinate coordinate) throws MalformedURLException;
     }
 
     private static void validateResolvedChannels(List<Channel> channels) throws NoChannelException {
@@ -44,6 +44,7 @@ public class ProvisioningProgressEvent {
     private final EventType eventType;
     private String item = null;
     private boolean slowPhase = false;
+    private DownloadProgress downloadProgress = null;
 
     public ProvisioningProgressEvent(String stage, EventType eventType, long completed, long total) {
         this.completed = completed;
@@ -58,6 +59,39 @@ public class ProvisioningProgressEvent {
         this.slowPhase = slowPhase;
     }
 
+    public ProvisioningProgressEvent(String stage, EventType eventType, long completed, long total, String item, boolean slowPhase,
+                                     DownloadProgress downloadProgress) {
+        this(stage, eventType, completed, total, item, slowPhase);
+        this.downloadProgress = downloadProgress;
+    }
+
+    /**
+     * average download rate of the current stage in bytes per second.
+     *
+     * @return the download rate, or -1 if the stage doesn't download any data
+     */
+    public long getThroughput() {
+        return downloadProgress == null ? -1 : downloadProgress.getThroughput();
+    }
+
+    /**
+     * estimated number of seconds until the current stage finishes downloading.
+     *
+     * @return the estimate, or -1 if it is not available
+     */
+    public long getEta() {
+        return downloadProgress == null ? -1 : downloadProgress.getEta();
+    }
+
+    /**
+     * statistics of artifacts downloaded in the current stage.
+     *
+     * @return download statistics if the stage downloads artifacts, null otherwise
+     */
+    public DownloadProgress getDownloadProgress() {
+        return downloadProgress;
+    }
+
     /**
      * details of currently processed item.
      *
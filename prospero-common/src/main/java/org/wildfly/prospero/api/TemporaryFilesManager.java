@@ -20,35 +20,63 @@ package org.wildfly.prospero.api;
 import org.apache.commons.io.FileUtils;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
- * Tracks created temporary files and removes them when {@code close()} is closed.
+ * Tracks created temporary files and removes them when {@code close()} is closed, together with the installations'
+ * work directories if nothing else is left in them.
  */
 public class TemporaryFilesManager implements AutoCloseable {
 
     private final Set<Path> temporaryFiles = new HashSet<>();
+    private final Set<Path> installations = new HashSet<>();
+    private final Path installationDir;
 
     TemporaryFilesManager() {
+        this(null);
+    }
 
+    private TemporaryFilesManager(Path installationDir) {
+        this.installationDir = installationDir;
     }
 
     public static TemporaryFilesManager getInstance() {
         return new TemporaryFilesManager();
     }
 
+    /**
+     * Creates a manager placing the temporary files in the work directory of {@code installationDir}, see {@link WorkDirectory}.
+     *
+     * @param installationDir - the server installation the temporary files are used with
+     * @return new instance of {@code TemporaryFilesManager}
+     */
+    public static TemporaryFilesManager forInstallation(Path installationDir) {
+        return new TemporaryFilesManager(installationDir);
+    }
+
     public Path createTempDirectory(String prefix) throws IOException {
-        final Path tempDirectory = Files.createTempDirectory(prefix);
+        final Path tempDirectory = installationDir == null
+                ? WorkDirectory.createTempDirectory(prefix)
+                : WorkDirectory.createTempDirectory(installationDir, prefix);
+        tempDirectory.toFile().deleteOnExit();
+        temporaryFiles.add(tempDirectory);
+        return tempDirectory;
+    }
+
+    public Path createTempDirectory(Path installationDir, String prefix) throws IOException {
+        final Path tempDirectory = WorkDirectory.createTempDirectory(installationDir, prefix);
         tempDirectory.toFile().deleteOnExit();
         temporaryFiles.add(tempDirectory);
+        installations.add(installationDir);
         return tempDirectory;
     }
 
     public Path createTempFile(String prefix, String suffix) throws IOException {
-        final Path tempFile = Files.createTempFile(prefix, suffix);
+        final Path tempFile = installationDir == null
+                ? WorkDirectory.createTempFile(prefix, suffix)
+                : WorkDirectory.createTempFile(installationDir, prefix, suffix);
         tempFile.toFile().deleteOnExit();
         temporaryFiles.add(tempFile);
         return tempFile;
@@ -59,5 +87,9 @@ public class TemporaryFilesManager implements AutoCloseable {
         temporaryFiles.stream()
                 .map(Path::toFile)
                 .forEach(FileUtils::deleteQuietly);
+        if (installationDir != null) {
+            WorkDirectory.deleteIfEmpty(installationDir);
+        }
+        installations.forEach(WorkDirectory::deleteIfEmpty);
     }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.api;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Locates the directories used for temporary files - update candidates, extracted repositories and temporary Maven caches.
+ * <p>
+ * Temporary files related to an installation are created in a sibling directory of the installation, so that they
+ * are on the same file system and can be moved into the installation. That directory is removed by
+ * {@link #deleteIfEmpty(Path)} once nothing is left in it. Other temporary files are created in the system
+ * temporary directory.
+ * <p>
+ * Both locations can be replaced by setting the {@value #WORK_DIR_PROPERTY} system property.
+ */
+public final class WorkDirectory {
+
+    public static final String WORK_DIR_PROPERTY = "prospero.work.dir";
+    public static final String WORK_DIR_SUFFIX = ".work";
+
+    private WorkDirectory() {
+    }
+
+    /**
+     * @return the configured work directory, or the system temporary directory if it has not been configured
+     */
+    public static Path getRoot() {
+        if (isConfigured()) {
+            return Path.of(System.getProperty(WORK_DIR_PROPERTY)).toAbsolutePath();
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Work directory for operations on {@code installationDir}. Unless configured otherwise, it is a sibling
+     * of the installation named {@code <installation>.work}. If the parent of the installation is not writable,
+     * {@link #getRoot()} is used instead.
+     *
+     * @param installationDir - the server installation
+     * @return path to the work directory. The directory might not exist yet.
+     */
+    public static Path forInstallation(Path installationDir) {
+        if (isConfigured()) {
+            return getRoot();
+        }
+        final Path absolutePath = installationDir.toAbsolutePath().normalize();
+        final Path parent = absolutePath.getParent();
+        if (parent == null || absolutePath.getFileName() == null || !Files.isWritable(parent)) {
+            return getRoot();
+        }
+        return parent.resolve(absolutePath.getFileName() + WORK_DIR_SUFFIX);
+    }
+
+    /**
+     * removes the work directory of {@code installationDir} if it is empty. Configured work directories are never
+     * removed. Failures are ignored, the directory is left in place in that case.
+     *
+     * @param installationDir - the server installation
+     */
+    public static void deleteIfEmpty(Path installationDir) {
+        if (isConfigured()) {
+            return;
+        }
+        final Path workDir = forInstallation(installationDir);
+        if (workDir.equals(getRoot())) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(workDir);
+        } catch (DirectoryNotEmptyException e) {
+            // still used by another operation or holds the operation journal
+        } catch (IOException e) {
+            // left for the next operation to clean up
+        }
+    }
+
+    /**
+     * creates a new directory in {@link #getRoot()}.
+     *
+     * @param prefix - prefix of the directory name
+     * @return path to the created directory
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path createTempDirectory(String prefix) throws IOException {
+        if (!isConfigured()) {
+            // the JDK might have cached a different value of java.io.tmpdir
+            return Files.createTempDirectory(prefix);
+        }
+        return createIn(getRoot(), prefix);
+    }
+
+    /**
+     * creates a new directory in the work directory of {@code installationDir}.
+     *
+     * @param installationDir - the server installation
+     * @param prefix - prefix of the directory name
+     * @return path to the created directory
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path createTempDirectory(Path installationDir, String prefix) throws IOException {
+        return createIn(forInstallation(installationDir), prefix);
+    }
+
+    /**
+     * creates a new file in {@link #getRoot()}.
+     *
+     * @param prefix - prefix of the file name
+     * @param suffix - suffix of the file name
+     * @return path to the created file
+     * @throws IOException if the file cannot be created
+     */
+    public static Path createTempFile(String prefix, String suffix) throws IOException {
+        if (!isConfigured()) {
+            return Files.createTempFile(prefix, suffix);
+        }
+        final Path root = getRoot();
+        Files.createDirectories(root);
+        return Files.createTempFile(root, prefix, suffix);
+    }
+
+    /**
+     * creates a new file in the work directory of {@code installationDir}.
+     *
+     * @param installationDir - the server installation
+     * @param prefix - prefix of the file name
+     * @param suffix - suffix of the file name
+     * @return path to the created file
+     * @throws IOException if the file cannot be created
+     */
+    public static Path createTempFile(Path installationDir, String prefix, String suffix) throws IOException {
+        final Path workDir = forInstallation(installationDir);
+        Files.createDirectories(workDir);
+        return Files.createTempFile(workDir, prefix, suffix);
+    }
+
+    private static boolean isConfigured() {
+        final String configured = System.getProperty(WORK_DIR_PROPERTY);
+        return configured != null && !configured.isBlank();
+    }
+
+    private static Path createIn(Path workDir, String prefix) throws IOException {
+        Files.createDirectories(workDir);
+        return Files.createTempDirectory(workDir, prefix);
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.api.exceptions;
+
+/**
+ * Thrown when a running operation notices it has been cancelled by the caller.
+ *
+ * The exception is unchecked, because it has to propagate through Galleon and Maven callbacks.
+ */
+public class OperationCancelledException extends ProvisioningRuntimeException {
+
+    public OperationCancelledException(String msg) {
+        super(msg);
+    }
+}
@@ -24,8 +24,11 @@ import org.jboss.logging.Logger;
 import org.wildfly.channel.ChannelManifest;
 import org.wildfly.channel.MavenArtifact;
 import org.wildfly.prospero.ProsperoLogger;
+import org.wildfly.prospero.api.InstallationLock;
+import org.wildfly.prospero.api.exceptions.MetadataException;
 import org.wildfly.prospero.metadata.ManifestVersionRecord;
 import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+import org.wildfly.prospero.wfchannel.ProvisioningCache;
 import org.wildfly.prospero.wfchannel.ResolvedArtifactsStore;
 
 import java.io.BufferedWriter;
@@ -35,14 +38,21 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 
 /**
  * Manages artifact cache located in {@code installationDir}/{@code CACHE_FOLDER}.
@@ -53,7 +63,9 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * If the artifact cannot be found within Galleon-provisioned {@code installationDir}, the artifact can be added to the
  * {@code CACHE_FOLDER}.
  *
- * The cache is rebuild during update and only current artifacts are stored.
+ * The cache is rebuild during update and only current artifacts are stored. Artifacts replaced by the update are
+ * moved to {@code RETAINED_FOLDER} (see {@link #retain(Path, String)}) and are still returned by the cache, so
+ * that the installation can be reverted without resolving them again.
  */
 public class ArtifactCache {
     private static final Logger LOG = Logger.getLogger(ArtifactCache.class);
@@ -61,6 +73,12 @@ public class ArtifactCache {
     static final String CACHE_LINE_SEPARATOR = "::";
     static final String CACHE_FILENAME = "artifacts.txt";
     public static final Path CACHE_FOLDER = Path.of(ProsperoMetadataUtils.METADATA_DIR, ".cache");
+    public static final Path RETAINED_FOLDER = Path.of(ProsperoMetadataUtils.METADATA_DIR, ".retained");
+
+    public static final String RETAINED_REVISIONS_PROPERTY = "prospero.cache.retained-revisions";
+    public static final String RETAINED_MAX_SIZE_PROPERTY = "prospero.cache.retained-max-size";
+    public static final int DEFAULT_RETAINED_REVISIONS = 3;
+    public static final long DEFAULT_RETAINED_MAX_SIZE = 512L * 1024 * 1024;
 
     private final Path cacheDir;
     private final Path installationDir;
@@ -87,6 +105,24 @@ public class ArtifactCache {
         }
     }
 
+    /**
+     * reads the files recorded in the cache descriptor of {@code installationDir} with their expected SHA-1 hashes.
+     * Unlike {@link #getInstance(Path)}, the descriptor is always read again. Artifacts retained from previous
+     * revisions are not included.
+     *
+     * @param installationDir - the server installation
+     * @return absolute paths of the recorded files and their hashes
+     * @throws IOException if the cache descriptor is corrupt and cannot be read
+     */
+    public static Map<Path, String> readRecordedFiles(Path installationDir) throws IOException {
+        final ArtifactCache cache = new ArtifactCache(installationDir, false);
+        final Map<Path, String> files = new HashMap<>();
+        for (Map.Entry<String, Path> entry : cache.paths.entrySet()) {
+            files.put(entry.getValue(), cache.hashes.get(entry.getKey()));
+        }
+        return files;
+    }
+
     public static void cleanInstancesCache() {
         synchronized (instances) {
             instances.clear();
@@ -94,10 +130,20 @@ public class ArtifactCache {
     }
 
     private ArtifactCache(Path installationDir) throws IOException {
+        this(installationDir, true);
+    }
+
+    private ArtifactCache(Path installationDir, boolean includeRetained) throws IOException {
         this.installationDir = installationDir;
         this.cacheDir = installationDir.resolve(CACHE_FOLDER);
 
-        init();
+        try (InstallationLock installationLock = lockInstallation(true)) {
+            if (includeRetained) {
+                init();
+            } else {
+                read(cacheDir.resolve(CACHE_FILENAME), false);
+            }
+        }
     }
 
     /**
@@ -142,8 +188,8 @@ public class ArtifactCache {
      * @throws IOException
      */
     public void record(MavenArtifact artifact, Path pathToArtifact) throws IOException {
-        try {
-            lock.writeLock().lock();
+        lock.writeLock().lock();
+        try (InstallationLock installationLock = lockInstallation(false)) {
 
             final String cacheFileKey = getCacheFileKey(artifact);
 
@@ -167,6 +213,17 @@ public class ArtifactCache {
         }
     }
 
+    /*
+     * prevents other processes from modifying the cache descriptor while it's being read or written
+     */
+    private InstallationLock lockInstallation(boolean shared) throws IOException {
+        try {
+            return shared ? InstallationLock.shared(installationDir) : InstallationLock.exclusive(installationDir);
+        } catch (MetadataException e) {
+            throw new IOException(e.getMessage(), e.getCause());
+        }
+    }
+
     /**
      * caches the artifact in {@code CACHE_FOLDER}. The cached artifact is then recorded in the cache list.
      *
@@ -214,6 +271,158 @@ public class ArtifactCache {
         }
     }
 
+    /**
+     * keeps artifacts that are recorded in the cache, but are not used by the candidate in {@code candidateDir}.
+     * The artifacts are linked or copied to {@code RETAINED_FOLDER} before the candidate is applied and recorded
+     * with the {@code revision} they were used by.
+     *
+     * Only artifacts of the last {@value #RETAINED_REVISIONS_PROPERTY} revisions are kept, up to the total size
+     * of {@value #RETAINED_MAX_SIZE_PROPERTY}. Artifacts of older revisions are removed first.
+     *
+     * @param candidateDir - the candidate that will be applied to the installation
+     * @param revision - the current revision of the installation
+     * @return number of newly retained artifacts
+     * @throws IOException if the artifacts cannot be copied or the cache descriptor cannot be written
+     */
+    public int retain(Path candidateDir, String revision) throws IOException {
+        Objects.requireNonNull(revision);
+
+        lock.writeLock().lock();
+        try (InstallationLock installationLock = lockInstallation(false)) {
+            // the cache might have been replaced by a previous operation
+            invalidate();
+            init();
+
+            final Set<String> candidateArtifacts = new HashSet<>();
+            final Path candidateList = candidateDir.resolve(CACHE_FOLDER).resolve(CACHE_FILENAME);
+            if (Files.exists(candidateList)) {
+                for (String line : Files.readAllLines(candidateList)) {
+                    candidateArtifacts.add(toKey(line.split(CACHE_LINE_SEPARATOR)[0]));
+                }
+            }
+
+            final Path retainedDir = installationDir.resolve(RETAINED_FOLDER);
+            final Path retainedList = retainedDir.resolve(CACHE_FILENAME);
+            final List<String> retainedLines = new ArrayList<>();
+            if (Files.exists(retainedList)) {
+                for (String line : Files.readAllLines(retainedList)) {
+                    // lists written by older versions might contain the same artifact more than once
+                    removeRetained(retainedLines, toKey(line.split(CACHE_LINE_SEPARATOR)[0]));
+                    retainedLines.add(line);
+                }
+            }
+
+            int count = 0;
+            final Path cacheList = cacheDir.resolve(CACHE_FILENAME);
+            final List<String> cacheLines = Files.exists(cacheList) ? Files.readAllLines(cacheList) : List.of();
+            for (String line : cacheLines) {
+                final String[] splitLine = line.split(CACHE_LINE_SEPARATOR);
+                final String key = toKey(splitLine[0]);
+                if (candidateArtifacts.contains(key)) {
+                    continue;
+                }
+
+                final Path artifactFile = installationDir.resolve(splitLine[2]);
+                if (!Files.isRegularFile(artifactFile) || !HashUtils.hashFile(artifactFile).equals(splitLine[1])) {
+                    LOG.debug("Unable to retain modified or removed artifact " + splitLine[0]);
+                    continue;
+                }
+                final String groupId = org.jboss.galleon.universe.maven.MavenArtifact.fromString(splitLine[0]).getGroupId();
+                final Path retainedFile = retainedDir.resolve(groupId).resolve(artifactFile.getFileName());
+                // the artifact might have been retained by an older revision, e.g. if it was reverted to, keep it for longer
+                removeRetained(retainedLines, key);
+                Files.createDirectories(retainedFile.getParent());
+                Files.deleteIfExists(retainedFile);
+                try {
+                    // the installation file is replaced, not modified, by the update
+                    Files.createLink(retainedFile, artifactFile);
+                } catch (IOException | UnsupportedOperationException e) {
+                    Files.copy(artifactFile, retainedFile);
+                }
+                retainedLines.add(withRevision(splitLine[0], splitLine[1], retainedFile, revision));
+                count++;
+            }
+
+            if (!retainedLines.isEmpty()) {
+                writeAtomically(retainedList, evict(retainedLines));
+            }
+
+            invalidate();
+            init();
+            return count;
+        } catch (MavenUniverseException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void removeRetained(List<String> retainedLines, String key) throws MavenUniverseException {
+        final Iterator<String> iterator = retainedLines.iterator();
+        while (iterator.hasNext()) {
+            if (key.equals(toKey(iterator.next().split(CACHE_LINE_SEPARATOR)[0]))) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private String withRevision(String gav, String hash, Path file, String revision) {
+        final String recordedPath = installationDir.relativize(file).toString().replace(File.separatorChar, '/');
+        return gav + CACHE_LINE_SEPARATOR + hash + CACHE_LINE_SEPARATOR + recordedPath + CACHE_LINE_SEPARATOR + revision;
+    }
+
+    /*
+     * removes artifacts of the oldest revisions exceeding the configured limits. The lines are ordered by the time
+     * they were retained.
+     */
+    private List<String> evict(List<String> retainedLines) throws IOException {
+        final int maxRevisions = Integer.getInteger(RETAINED_REVISIONS_PROPERTY, DEFAULT_RETAINED_REVISIONS);
+        final String maxSizeValue = System.getProperty(RETAINED_MAX_SIZE_PROPERTY);
+        final long maxSize = maxSizeValue == null ? DEFAULT_RETAINED_MAX_SIZE : ProvisioningCache.parseSize(maxSizeValue);
+
+        final Map<String, List<String>> revisions = new LinkedHashMap<>();
+        final Map<String, Long> sizes = new HashMap<>();
+        long totalSize = 0;
+        for (String line : retainedLines) {
+            final String[] splitLine = line.split(CACHE_LINE_SEPARATOR);
+            final String revision = splitLine.length > 3 ? splitLine[3] : "";
+            // keep the order of the newest use of the revision
+            final List<String> lines = revisions.remove(revision);
+            revisions.put(revision, lines == null ? new ArrayList<>() : lines);
+            revisions.get(revision).add(line);
+
+            final Path file = installationDir.resolve(splitLine[2]);
+            final long size = Files.exists(file) ? Files.size(file) : 0;
+            sizes.merge(revision, size, Long::sum);
+            totalSize += size;
+        }
+
+        final List<String> evictedLines = new ArrayList<>();
+        final Iterator<Map.Entry<String, List<String>>> iterator = revisions.entrySet().iterator();
+        while (iterator.hasNext() && (revisions.size() > maxRevisions || totalSize > maxSize)) {
+            final Map.Entry<String, List<String>> evicted = iterator.next();
+            evictedLines.addAll(evicted.getValue());
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf("Removed %d retained artifacts of revision %s", evicted.getValue().size(), evicted.getKey());
+            }
+            totalSize -= sizes.get(evicted.getKey());
+            iterator.remove();
+        }
+
+        final List<String> remaining = revisions.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        final Set<Path> remainingFiles = new HashSet<>();
+        for (String line : remaining) {
+            remainingFiles.add(installationDir.resolve(line.split(CACHE_LINE_SEPARATOR)[2]));
+        }
+        for (String line : evictedLines) {
+            final Path file = installationDir.resolve(line.split(CACHE_LINE_SEPARATOR)[2]);
+            if (!remainingFiles.contains(file)) {
+                Files.deleteIfExists(file);
+            }
+        }
+        return remaining;
+    }
+
     private static String getCacheFileKey(MavenArtifact artifact) {
         final org.jboss.galleon.universe.maven.MavenArtifact galleonArtifact = new org.jboss.galleon.universe.maven.MavenArtifact();
         galleonArtifact.setGroupId(artifact.getGroupId());
@@ -226,20 +435,34 @@ public class ArtifactCache {
 
     private static void removeArtifactFromCacheList(String cacheKey, Path cacheList) throws IOException {
         final List<String> cacheLines = Files.readAllLines(cacheList);
-        Files.delete(cacheList);
+        cacheLines.removeIf(cacheLine -> cacheLine.split(CACHE_LINE_SEPARATOR)[0].equals(cacheKey));
+        writeAtomically(cacheList, cacheLines);
+    }
 
-        try (BufferedWriter writer = Files.newBufferedWriter(cacheList, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW)) {
-            for (String cacheLine : cacheLines) {
-                if (!cacheLine.split(CACHE_LINE_SEPARATOR)[0].equals(cacheKey)) {
-                    writer.write(cacheLine + System.lineSeparator());
+    /*
+     * replaces the list atomically, so that it's never missing when read by other processes
+     */
+    private static void writeAtomically(Path list, List<String> lines) throws IOException {
+        final Path tempList = Files.createTempFile(list.getParent(), CACHE_FILENAME, null);
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempList, StandardCharsets.UTF_8)) {
+                for (String line : lines) {
+                    writer.write(line + System.lineSeparator());
                 }
             }
+            Files.move(tempList, list, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempList);
         }
     }
 
     private void init() throws IOException {
-        Path artifactLog = cacheDir.resolve(CACHE_FILENAME);
+        read(cacheDir.resolve(CACHE_FILENAME), false);
+        // artifacts recorded in the current cache take precedence
+        read(installationDir.resolve(RETAINED_FOLDER).resolve(CACHE_FILENAME), true);
+    }
 
+    private void read(Path artifactLog, boolean retainedArtifacts) throws IOException {
         if (Files.exists(artifactLog)) {
             int row = 0;
             final List<String> lines = Files.readAllLines(artifactLog);
@@ -252,8 +475,10 @@ public class ArtifactCache {
                     String gav = splitLine[0];
                     String hash = splitLine[1];
                     Path path = Paths.get(splitLine[2]);
-                    final org.jboss.galleon.universe.maven.MavenArtifact mavenArtifact = org.jboss.galleon.universe.maven.MavenArtifact.fromString(gav);
-                    final String key = asKey(mavenArtifact.getGroupId(), mavenArtifact.getArtifactId(), mavenArtifact.getExtension(), mavenArtifact.getClassifier(), mavenArtifact.getVersion());
+                    final String key = toKey(gav);
+                    if (retainedArtifacts && paths.containsKey(key)) {
+                        continue;
+                    }
                     paths.put(key, installationDir.resolve(path));
                     hashes.put(key, hash);
                 }
@@ -268,6 +493,11 @@ public class ArtifactCache {
         hashes.clear();
     }
 
+    private static String toKey(String gav) throws MavenUniverseException {
+        final org.jboss.galleon.universe.maven.MavenArtifact mavenArtifact = org.jboss.galleon.universe.maven.MavenArtifact.fromString(gav);
+        return asKey(mavenArtifact.getGroupId(), mavenArtifact.getArtifactId(), mavenArtifact.getExtension(), mavenArtifact.getClassifier(), mavenArtifact.getVersion());
+    }
+
     private static String asKey(String groupId, String artifactId, String extension, String classifier, String version) {
         final StringBuilder buf = new StringBuilder();
         buf.append(groupId).append(':').append(artifactId);
@@ -32,6 +32,7 @@ import org.wildfly.channel.ChannelSession;
 import org.wildfly.channel.Stream;
 import org.wildfly.channel.UnresolvedMavenArtifactException;
 import org.wildfly.prospero.ProsperoLogger;
+import org.wildfly.prospero.api.Console;
 
 import java.io.BufferedReader;
 import java.nio.file.FileSystem;
@@ -54,19 +55,30 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
     private static final String REQUIRE_CHANNEL_FOR_ALL_ARTIFACT = "org.wildfly.plugins.galleon.all.artifact.requires.channel.resolution";
     private final ChannelSession channelSession;
     private final ChannelManifest manifest;
+    private final Console console;
 
     public ChannelMavenArtifactRepositoryManager(ChannelSession channelSession) {
-        this.channelSession = channelSession;
-        this.manifest = null;
+        this(channelSession, null, null);
     }
 
     public ChannelMavenArtifactRepositoryManager(ChannelSession channelSession, ChannelManifest manifest) {
+        this(channelSession, manifest, null);
+    }
+
+    /**
+     * @param channelSession - session used to resolve the artifacts
+     * @param manifest - if not null, the artifact versions are resolved from this manifest instead of the channels
+     * @param console - if not null, the resolution is aborted when the {@code console} reports cancelled operation
+     */
+    public ChannelMavenArtifactRepositoryManager(ChannelSession channelSession, ChannelManifest manifest, Console console) {
         this.channelSession = channelSession;
         this.manifest = manifest;
+        this.console = console;
     }
 
     @Override
     public void resolve(MavenArtifact artifact) throws MavenUniverseException {
+        checkCancelled();
         org.wildfly.channel.MavenArtifact result;
         if (manifest == null) {
             try {
@@ -170,6 +182,7 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
 
     @Override
     public void resolveAll(Collection<MavenArtifact> artifacts) throws MavenUniverseException {
+        checkCancelled();
 
         if (manifest == null) {
             // split the artifacts into requiring channels and not requiring channels
@@ -277,6 +290,12 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
         return coordinates;
     }
 
+    private void checkCancelled() {
+        if (console != null) {
+            console.checkCancelled();
+        }
+    }
+
     private boolean isUniverseOrProducerArtifact(String artifactId) {
         return artifactId.equals("community-universe") || artifactId.equals("wildfly-producers");
     }
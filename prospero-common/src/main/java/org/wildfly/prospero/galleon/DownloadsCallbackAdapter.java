@@ -17,17 +17,28 @@
 
 package org.wildfly.prospero.galleon;
 
+import org.apache.commons.io.FileUtils;
 import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.TransferCancelledException;
 import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
 import org.jboss.galleon.progresstracking.ProgressCallback;
 import org.jboss.galleon.progresstracking.ProgressTracker;
 import org.jboss.galleon.universe.maven.MavenArtifact;
 import org.wildfly.prospero.ProsperoLogger;
 import org.wildfly.prospero.api.Console;
+import org.wildfly.prospero.api.DownloadProgress;
 import org.wildfly.prospero.api.ProvisioningProgressEvent;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.wildfly.prospero.galleon.GalleonEnvironment.TRACK_JB_ARTIFACTS_RESOLVE;
 import static org.wildfly.prospero.galleon.GalleonEnvironment.TRACK_RESOLVING_VERSIONS;
@@ -36,18 +47,40 @@ import static org.wildfly.prospero.galleon.GalleonEnvironment.TRACK_RESOLVING_VE
  * Adapter combining Galleon ProgressCallback and Maven TransferListener to track number of already downloaded artifacts.
  *
  * It uses Galleon's TRACK_JB_ARTIFACTS_RESOLVE event to find number of artifacts and Maven's transferSucceeded to update completed
- * count.
+ * count. Artifacts reported as processed by Galleon, but never transferred, were resolved from a local cache and are
+ * counted as cache hits. The transferred artifacts are matched using their coordinates parsed from the repository path.
  *
- * TODO: the total includes artifacts cached locally - find a way to exclude those or update when they are resolved.
+ * Received bytes are counted as they arrive, so that the download rate and estimated time to completion are updated
+ * while large artifacts are downloaded. In-between completed downloads, the longest running download is reported as
+ * the current item.
+ *
+ * If the operation is cancelled (see {@link Console#isCancelled()}), in-progress downloads are aborted.
+ *
+ * The progress events are created while holding the adapter's lock, but passed to the {@link Console} after the lock
+ * is released, so that a slow console doesn't block the download threads.
  */
 class DownloadsCallbackAdapter extends AbstractTransferListener implements ProgressCallback<MavenArtifact> {
 
+    static final long PROGRESS_INTERVAL_MS = 500;
+    private static final String SNAPSHOT = "SNAPSHOT";
+    // <version>-<yyyyMMdd.HHmmss>-<build number> used for the files of deployed snapshots
+    private static final Pattern TIMESTAMPED_VERSION = Pattern.compile("(.*-)\\d{8}\\.\\d{6}-\\d+");
+
     private final Console console;
     private HashSet<String> resolvedVersionKeys = new HashSet<>();
     private long totalVolume;
     private long processed;
     private long versionUpdates;
     private boolean currentPhase = false;
+    private long phaseStart;
+    private final AtomicLong downloadedBytes = new AtomicLong();
+    private long expectedBytes;
+    private long completedBytes;
+    private long downloads;
+    private long cacheHits;
+    private long lastUpdate;
+    private final Set<String> downloadedArtifacts = new HashSet<>();
+    private final Map<TransferResource, Transfer> inFlight = new HashMap<>();
 
     public DownloadsCallbackAdapter(Console console) {
         this.console = console;
@@ -55,16 +88,26 @@ class DownloadsCallbackAdapter extends AbstractTransferListener implements Progr
 
     @Override
     public void starting(ProgressTracker<MavenArtifact> tracker) {
+        publish(start(tracker));
+        ProsperoLogger.ROOT_LOGGER.startedPhase("download artifacts", "0");
+    }
+
+    private synchronized ProvisioningProgressEvent start(ProgressTracker<MavenArtifact> tracker) {
         this.totalVolume = tracker.getTotalVolume();
         this.processed = 0;
         this.currentPhase = true;
         this.resolvedVersionKeys = new HashSet<>();
-        final ProvisioningProgressEvent progress = new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.STARTING,
+        this.phaseStart = System.currentTimeMillis();
+        this.downloadedBytes.set(0);
+        this.expectedBytes = 0;
+        this.completedBytes = 0;
+        this.downloads = 0;
+        this.cacheHits = 0;
+        this.lastUpdate = 0;
+        this.downloadedArtifacts.clear();
+        this.inFlight.clear();
+        return new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.STARTING,
                 tracker.getProcessedVolume(), tracker.getTotalVolume());
-        if (console != null) {
-            this.console.progressUpdate(progress);
-        }
-        ProsperoLogger.ROOT_LOGGER.startedPhase("download artifacts", "" + processed);
     }
 
     @Override
@@ -72,25 +115,160 @@ class DownloadsCallbackAdapter extends AbstractTransferListener implements Progr
         // ignore
     }
 
+    @Override
+    public void processed(ProgressTracker<MavenArtifact> tracker) {
+        final MavenArtifact artifact = tracker.getItem();
+        if (artifact == null || artifact.getPath() == null) {
+            return;
+        }
+        final ProvisioningProgressEvent progress;
+        synchronized (this) {
+            if (!currentPhase || downloadedArtifacts.contains(artifactKey(artifact))) {
+                return;
+            }
+            cacheHits++;
+            processed++;
+            progress = new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.UPDATE,
+                    processed, totalVolume, artifact.getPath().getFileName().toString(), false, getDownloadProgress());
+        }
+        publish(progress);
+    }
+
     @Override
     public void complete(ProgressTracker<MavenArtifact> tracker) {
-        final ProvisioningProgressEvent progress = new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.COMPLETED,
-                tracker.getProcessedVolume(), tracker.getTotalVolume());
-        if (console != null) {
-            this.console.progressUpdate(progress);
+        final ProvisioningProgressEvent progress;
+        final long processedArtifacts;
+        synchronized (this) {
+            progress = new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.COMPLETED,
+                    tracker.getProcessedVolume(), tracker.getTotalVolume(), null, false, getDownloadProgress());
+            processedArtifacts = processed;
+            this.totalVolume = 0;
+            this.processed = 0;
+            this.currentPhase = false;
+            this.resolvedVersionKeys = new HashSet<>();
+            this.inFlight.clear();
         }
-        ProsperoLogger.ROOT_LOGGER.completedPhase("download artifacts", "" + processed);
-        this.totalVolume = 0;
-        this.processed = 0;
-        this.currentPhase = false;
-        this.resolvedVersionKeys = new HashSet<>();
+        publish(progress);
+        ProsperoLogger.ROOT_LOGGER.completedPhase("download artifacts", "" + processedArtifacts);
+        final DownloadProgress downloadProgress = progress.getDownloadProgress();
+        ProsperoLogger.ROOT_LOGGER.downloadSummary(downloadProgress.getDownloads(), FileUtils.byteCountToDisplaySize(downloadProgress.getDownloadedBytes()),
+                FileUtils.byteCountToDisplaySize(Math.max(0, downloadProgress.getThroughput())), downloadProgress.getCacheHits());
     }
 
     @Override
-    public void transferSucceeded(TransferEvent event) {
+    public void transferInitiated(TransferEvent event) throws TransferCancelledException {
+        checkCancelled();
+    }
+
+    @Override
+    public synchronized void transferStarted(TransferEvent event) throws TransferCancelledException {
+        checkCancelled();
         if (!currentPhase) {
             return;
         }
+        final TransferResource resource = event.getResource();
+        inFlight.put(resource, new Transfer(fileName(resource.getResourceName()), resource.getContentLength()));
+        if (resource.getContentLength() > 0) {
+            expectedBytes += resource.getContentLength();
+        }
+    }
+
+    @Override
+    public void transferProgressed(TransferEvent event) throws TransferCancelledException {
+        checkCancelled();
+        final ProvisioningProgressEvent progress;
+        synchronized (this) {
+            if (!currentPhase) {
+                return;
+            }
+            downloadedBytes.addAndGet(event.getDataLength());
+            final Transfer transfer = inFlight.get(event.getResource());
+            if (transfer != null) {
+                transfer.received += event.getDataLength();
+            }
+
+            final long now = System.currentTimeMillis();
+            if (console == null || now - lastUpdate < PROGRESS_INTERVAL_MS) {
+                return;
+            }
+            lastUpdate = now;
+            final Transfer longest = inFlight.values().stream()
+                    .min((a, b) -> Long.compare(a.started, b.started))
+                    .orElse(transfer);
+            progress = new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.UPDATE,
+                    processed, totalVolume, longest == null ? null : longest.describe(), false, getDownloadProgress());
+        }
+        publish(progress);
+    }
+
+    @Override
+    public synchronized void transferFailed(TransferEvent event) {
+        final Transfer transfer = inFlight.remove(event.getResource());
+        if (transfer != null && transfer.contentLength > 0) {
+            expectedBytes -= transfer.contentLength;
+        }
+    }
+
+    private DownloadProgress getDownloadProgress() {
+        final long throughput = getThroughput();
+        return new DownloadProgress(downloads, cacheHits, downloadedBytes.get(), expectedBytes, throughput, getEta(throughput));
+    }
+
+    private long getThroughput() {
+        final long elapsed = System.currentTimeMillis() - phaseStart;
+        if (downloadedBytes.get() == 0 || elapsed <= 0) {
+            return -1;
+        }
+        return downloadedBytes.get() * 1000 / elapsed;
+    }
+
+    /*
+     * Remaining bytes of in-flight downloads, plus the artifacts that were not requested yet. Those are assumed
+     * to be found in the cache as often as the already resolved ones, and to have an average size of completed downloads.
+     */
+    private long getEta(long throughput) {
+        if (throughput <= 0) {
+            return -1;
+        }
+        long remainingBytes = 0;
+        for (Transfer transfer : inFlight.values()) {
+            if (transfer.contentLength > 0) {
+                remainingBytes += Math.max(0, transfer.contentLength - transfer.received);
+            }
+        }
+        final long pending = totalVolume - processed - inFlight.size();
+        if (pending > 0) {
+            if (downloads == 0) {
+                return -1;
+            }
+            final long pendingDownloads = pending * downloads / (downloads + cacheHits);
+            remainingBytes += pendingDownloads * (completedBytes / downloads);
+        }
+        return (remainingBytes + throughput - 1) / throughput;
+    }
+
+    private void checkCancelled() throws TransferCancelledException {
+        if (console != null && console.isCancelled()) {
+            throw new TransferCancelledException();
+        }
+    }
+
+    @Override
+    public void transferSucceeded(TransferEvent event) {
+        publish(recordTransfer(event));
+    }
+
+    private synchronized ProvisioningProgressEvent recordTransfer(TransferEvent event) {
+        if (!currentPhase) {
+            return null;
+        }
+        final Transfer transfer = inFlight.remove(event.getResource());
+        final long received = transfer == null ? 0 : transfer.received;
+        if (event.getTransferredBytes() > received) {
+            // progress events were not delivered for the whole content
+            downloadedBytes.addAndGet(event.getTransferredBytes() - received);
+        }
+        completedBytes += Math.max(received, event.getTransferredBytes());
 
         String item = event.getResource().getResourceName();
         if (ProsperoLogger.ROOT_LOGGER.isDebugEnabled()) {
@@ -99,22 +277,116 @@ class DownloadsCallbackAdapter extends AbstractTransferListener implements Progr
 
         final int fileNameIndex = item.lastIndexOf(File.separator);
         item = item.substring(fileNameIndex + 1);
-        if (console != null) {
-            if ("maven-metadata.xml".equals(item)) {
-                // get first part of maven-metadata.xml name
-                // for each unique one - increment by one
-                final String key = event.getResource().getResourceName().substring(0, fileNameIndex);
-                if (!resolvedVersionKeys.contains(key)) {
-                    resolvedVersionKeys.add(key);
-                    final ProvisioningProgressEvent progress = new ProvisioningProgressEvent(TRACK_RESOLVING_VERSIONS, ProvisioningProgressEvent.EventType.UPDATE,
-                            ++versionUpdates, totalVolume, null, false);
-                    this.console.progressUpdate(progress);
-                }
-            } else {
-                final ProvisioningProgressEvent progress = new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.UPDATE,
-                        ++processed, totalVolume, item, false);
-                this.console.progressUpdate(progress);
+        if ("maven-metadata.xml".equals(item)) {
+            // get first part of maven-metadata.xml name
+            // for each unique one - increment by one
+            final String key = event.getResource().getResourceName().substring(0, fileNameIndex);
+            if (console != null && resolvedVersionKeys.add(key)) {
+                return new ProvisioningProgressEvent(TRACK_RESOLVING_VERSIONS, ProvisioningProgressEvent.EventType.UPDATE,
+                        ++versionUpdates, totalVolume, null, false);
+            }
+            return null;
+        } else {
+            downloads++;
+            final String artifactKey = artifactKey(event.getResource().getResourceName());
+            if (artifactKey != null) {
+                downloadedArtifacts.add(artifactKey);
+            }
+            processed++;
+            return new ProvisioningProgressEvent(TRACK_JB_ARTIFACTS_RESOLVE, ProvisioningProgressEvent.EventType.UPDATE,
+                    processed, totalVolume, item, false, getDownloadProgress());
+        }
+    }
+
+    private void publish(ProvisioningProgressEvent progress) {
+        if (console != null && progress != null) {
+            console.progressUpdate(progress);
+        }
+    }
+
+    private static String fileName(String resourceName) {
+        return resourceName.substring(resourceName.lastIndexOf(File.separator) + 1);
+    }
+
+    private static String artifactKey(MavenArtifact artifact) {
+        return artifactKey(artifact.getGroupId(), artifact.getArtifactId(), artifact.getExtension(), artifact.getClassifier(),
+                baseVersion(artifact.getVersion()));
+    }
+
+    /*
+     * parses the coordinates from the repository layout: <groupId as path>/<artifactId>/<baseVersion>/<artifactId>-<version>[-<classifier>].<extension>
+     */
+    static String artifactKey(String resourceName) {
+        final String[] segments = resourceName.replace('\\', '/').split("/");
+        if (segments.length < 4) {
+            return null;
+        }
+        final String fileName = segments[segments.length - 1];
+        final String version = segments[segments.length - 2];
+        final String artifactId = segments[segments.length - 3];
+        final String groupId = String.join(".", Arrays.asList(segments).subList(0, segments.length - 3));
+        if (!fileName.startsWith(artifactId + "-")) {
+            return null;
+        }
+
+        String remainder = fileName.substring(artifactId.length() + 1);
+        if (remainder.startsWith(version)) {
+            remainder = remainder.substring(version.length());
+        } else {
+            final Matcher timestamped = TIMESTAMPED_VERSION.matcher(remainder);
+            if (!version.endsWith(SNAPSHOT) || !timestamped.lookingAt()
+                    || !timestamped.group(1).equals(version.substring(0, version.length() - SNAPSHOT.length()))) {
+                return null;
+            }
+            remainder = remainder.substring(timestamped.end());
+        }
+
+        String classifier = null;
+        if (remainder.startsWith("-")) {
+            final int extensionIndex = remainder.indexOf('.');
+            if (extensionIndex < 0) {
+                return null;
+            }
+            classifier = remainder.substring(1, extensionIndex);
+            remainder = remainder.substring(extensionIndex);
+        }
+        if (!remainder.startsWith(".")) {
+            return null;
+        }
+        return artifactKey(groupId, artifactId, remainder.substring(1), classifier, version);
+    }
+
+    private static String artifactKey(String groupId, String artifactId, String extension, String classifier, String version) {
+        return String.join(":", groupId, artifactId, extension, classifier == null ? "" : classifier, version);
+    }
+
+    private static String baseVersion(String version) {
+        if (version == null) {
+            return null;
+        }
+        final Matcher timestamped = TIMESTAMPED_VERSION.matcher(version);
+        if (timestamped.matches()) {
+            return timestamped.group(1) + SNAPSHOT;
+        }
+        return version;
+    }
+
+    private static class Transfer {
+        private final String name;
+        private final long contentLength;
+        private final long started = System.currentTimeMillis();
+        private long received;
+
+        Transfer(String name, long contentLength) {
+            this.name = name;
+            this.contentLength = contentLength;
+        }
+
+        String describe() {
+            if (contentLength > 0) {
+                return String.format("%s (%d%%)", name, received * 100 / contentLength);
             }
+            return name;
         }
     }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.api.GalleonFeaturePackLayout;
+import org.jboss.galleon.api.GalleonProvisioningLayout;
+import org.jboss.galleon.config.ConfigId;
+import org.jboss.logging.Logger;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Persists layers and configurations provided by feature packs, so that they can be validated without resolving
+ * and extracting the feature packs again.
+ * <p>
+ * Each entry is identified by the Maven coordinates of a feature pack and contains the layers and configurations
+ * of the feature pack and all its dependencies. The entries are stored in
+ * {@code installationDir}/{@code CATALOG_FOLDER}, outside of the {@link ArtifactCache}, so they are not discarded
+ * when the installation is updated.
+ */
+public class FeaturePackCatalog {
+
+    private static final Logger LOG = Logger.getLogger(FeaturePackCatalog.class);
+
+    public static final Path CATALOG_FOLDER = Path.of(ProsperoMetadataUtils.METADATA_DIR, ".feature-packs");
+    private static final String LAYERS_PREFIX = "layers.";
+    private static final String CONFIGS_PREFIX = "configs.";
+    private static final String SEPARATOR = ",";
+
+    private final Path catalogDir;
+
+    public FeaturePackCatalog(Path installationDir) {
+        this.catalogDir = installationDir.resolve(CATALOG_FOLDER);
+    }
+
+    /**
+     * finds a catalog entry of a feature pack.
+     *
+     * @param groupId - groupId of the feature pack
+     * @param artifactId - artifactId of the feature pack
+     * @param version - resolved version of the feature pack
+     * @return the entry, or empty {@code Optional} if the feature pack hasn't been recorded or the entry cannot be read
+     */
+    public Optional<Entry> get(String groupId, String artifactId, String version) {
+        final Path entryFile = catalogDir.resolve(fileName(groupId, artifactId, version));
+        if (!Files.exists(entryFile)) {
+            return Optional.empty();
+        }
+        final Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(entryFile)) {
+            properties.load(is);
+        } catch (IOException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf(e, "Unable to read feature pack catalog %s", entryFile);
+            }
+            return Optional.empty();
+        }
+
+        final Map<String, Set<String>> layers = new HashMap<>();
+        final Set<ConfigId> configs = new HashSet<>();
+        for (String key : properties.stringPropertyNames()) {
+            final Set<String> values = split(properties.getProperty(key));
+            if (key.startsWith(LAYERS_PREFIX)) {
+                layers.put(key.substring(LAYERS_PREFIX.length()), values);
+            } else if (key.startsWith(CONFIGS_PREFIX)) {
+                final String model = key.substring(CONFIGS_PREFIX.length());
+                values.forEach(name -> configs.add(new ConfigId(model, name)));
+            }
+        }
+        return Optional.of(new Entry(layers, configs));
+    }
+
+    /**
+     * records a catalog entry of a feature pack. The entry is replaced atomically.
+     *
+     * @param groupId - groupId of the feature pack
+     * @param artifactId - artifactId of the feature pack
+     * @param version - resolved version of the feature pack
+     * @param entry - layers and configurations of the feature pack
+     * @throws IOException if the entry cannot be written
+     */
+    public void store(String groupId, String artifactId, String version, Entry entry) throws IOException {
+        final Properties properties = new Properties();
+        for (Map.Entry<String, Set<String>> layers : entry.layers.entrySet()) {
+            properties.setProperty(LAYERS_PREFIX + layers.getKey(), String.join(SEPARATOR, new TreeSet<>(layers.getValue())));
+        }
+        final Map<String, Set<String>> configs = new HashMap<>();
+        for (ConfigId config : entry.configs) {
+            configs.computeIfAbsent(config.getModel(), m -> new TreeSet<>()).add(config.getName());
+        }
+        for (Map.Entry<String, Set<String>> modelConfigs : configs.entrySet()) {
+            properties.setProperty(CONFIGS_PREFIX + modelConfigs.getKey(), String.join(SEPARATOR, modelConfigs.getValue()));
+        }
+
+        Files.createDirectories(catalogDir);
+        final Path entryFile = catalogDir.resolve(fileName(groupId, artifactId, version));
+        final Path tempFile = Files.createTempFile(catalogDir, entryFile.getFileName().toString(), null);
+        try {
+            try (OutputStream os = Files.newOutputStream(tempFile)) {
+                properties.store(os, groupId + ":" + artifactId + ":" + version);
+            }
+            Files.move(tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * reads layers and configurations of all feature packs in the {@code layout}.
+     *
+     * @param layout - provisioning layout of a feature pack
+     * @return the catalog entry
+     * @throws ProvisioningException if the feature pack metadata cannot be read
+     */
+    public static Entry read(GalleonProvisioningLayout layout) throws ProvisioningException {
+        final Map<String, Set<String>> layers = new HashMap<>();
+        final Set<ConfigId> configs = new HashSet<>();
+        for (GalleonFeaturePackLayout fp : layout.getOrderedFeaturePacks()) {
+            final Set<ConfigId> configIds;
+            try {
+                configIds = fp.loadLayers();
+            } catch (IOException e) {
+                // this should not happen as the code IOException is not actually thrown by loadLayers
+                throw new RuntimeException(e);
+            }
+            for (ConfigId layer : configIds) {
+                layers.computeIfAbsent(layer.getModel(), m -> new HashSet<>()).add(layer.getName());
+            }
+
+            final Path configsDir = fp.getDir().resolve(Constants.CONFIGS);
+            if (Files.isDirectory(configsDir)) {
+                try (Stream<Path> models = Files.list(configsDir)) {
+                    for (Path model : (Iterable<Path>) models::iterator) {
+                        try (Stream<Path> names = Files.list(model)) {
+                            names.filter(name -> Files.exists(name.resolve(Constants.CONFIG_XML)))
+                                    .forEach(name -> configs.add(new ConfigId(model.getFileName().toString(), name.getFileName().toString())));
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new ProvisioningException("Unable to list configurations of " + fp.getFPID(), e);
+                }
+            }
+        }
+        return new Entry(layers, configs);
+    }
+
+    private static String fileName(String groupId, String artifactId, String version) {
+        return groupId + "_" + artifactId + "_" + version + ".properties";
+    }
+
+    private static Set<String> split(String value) {
+        final Set<String> values = new HashSet<>();
+        for (String item : value.split(SEPARATOR)) {
+            if (!item.isEmpty()) {
+                values.add(item);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Layers and configurations provided by a feature pack and its dependencies.
+     */
+    public static class Entry {
+        private final Map<String, Set<String>> layers;
+        private final Set<ConfigId> configs;
+
+        public Entry(Map<String, Set<String>> layers, Set<ConfigId> configs) {
+            this.layers = layers;
+            this.configs = configs;
+        }
+
+        /**
+         * @return layer names grouped by the configuration model
+         */
+        public Map<String, Set<String>> getLayers() {
+            return layers;
+        }
+
+        public Set<ConfigId> getConfigs() {
+            return Collections.unmodifiableSet(configs);
+        }
+
+        public boolean hasConfig(ConfigId configId) {
+            return configs.contains(configId);
+        }
+    }
+}
@@ -37,6 +37,9 @@ import static org.wildfly.prospero.galleon.GalleonEnvironment.TRACK_JBMODULES;
 /**
  * Translates Galleon {@link ProgressCallback} into {@link Console#progressUpdate(ProvisioningProgressEvent)}.
  *
+ * Each callback also checks if the operation has been cancelled (see {@link Console#isCancelled()}) and aborts
+ * the provisioning if so.
+ *
  * New {@code GalleonCallbackAdapter} has to be created for each event type registered for.
  */
 @SuppressWarnings("PMD.TooManyStaticImports")
@@ -69,6 +72,7 @@ public class GalleonCallbackAdapter implements ProgressCallback<Object> {
 
     @Override
     public void starting(ProgressTracker tracker) {
+        checkCancelled();
         final ProvisioningProgressEvent progress = new ProvisioningProgressEvent(id, ProvisioningProgressEvent.EventType.STARTING,
                 tracker.getProcessedVolume(), tracker.getTotalVolume());
         final String total =  tracker.getTotalVolume()>0 ? ""+tracker.getTotalVolume() : "";
@@ -81,6 +85,7 @@ public class GalleonCallbackAdapter implements ProgressCallback<Object> {
 
     @Override
     public void pulse(ProgressTracker tracker) {
+        checkCancelled();
     }
 
     @Override
@@ -100,6 +105,7 @@ public class GalleonCallbackAdapter implements ProgressCallback<Object> {
         if (console == null) {
             return;
         }
+        console.checkCancelled();
 
         String item = null;
         boolean slowPhase = false;
@@ -135,6 +141,12 @@ public class GalleonCallbackAdapter implements ProgressCallback<Object> {
         this.console.progressUpdate(progress);
     }
 
+    private void checkCancelled() {
+        if (console != null) {
+            console.checkCancelled();
+        }
+    }
+
     private String name(String id) {
         switch (id) {
             case TRACK_LAYOUT_BUILD:
@@ -20,6 +20,7 @@ package org.wildfly.prospero.galleon;
 import org.apache.commons.io.FileUtils;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.util.listener.ChainedTransferListener;
 import org.jboss.galleon.ProvisioningException;
 import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
 import org.jboss.logging.Logger;
@@ -42,6 +43,7 @@ import org.wildfly.prospero.api.exceptions.UnresolvedChannelMetadataException;
 import org.wildfly.prospero.api.exceptions.OperationException;
 import org.wildfly.prospero.metadata.ManifestVersionRecord;
 import org.wildfly.prospero.wfchannel.MavenSessionManager;
+import org.wildfly.prospero.wfchannel.ProvisioningCache;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -77,11 +79,15 @@ public class GalleonEnvironment implements AutoCloseable {
     private final MavenRepoManager repositoryManager;
     private final ChannelSession channelSession;
     private final List<Channel> channels;
+    private final RepositoryHealth repositoryHealth;
+    private final RepositoryRanking repositoryRanking;
+    private final ProvisioningCache.Lease cacheLease;
     private Path restoreManifestPath = null;
 
     private boolean resetGalleonLineEndings = true;
 
-    private GalleonEnvironment(Builder builder) throws ProvisioningException, MetadataException, ChannelDefinitionException, UnresolvedChannelMetadataException {
+    private GalleonEnvironment(Builder builder, ProvisioningCache.Lease cacheLease) throws ProvisioningException, MetadataException, ChannelDefinitionException, UnresolvedChannelMetadataException {
+        this.cacheLease = cacheLease;
         Optional<Console> console = Optional.ofNullable(builder.console);
         Optional<ChannelManifest> restoreManifest = Optional.ofNullable(builder.manifest);
         if (restoreManifest.isPresent()) {
@@ -110,7 +116,19 @@ public class GalleonEnvironment implements AutoCloseable {
             factory = new VersionResolverFactory(system, session, MavenProxyHandler::addProxySettings);
         }
 
-        channelSession = initChannelSession(session, factory);
+        // try the repository that provided most artifacts with the same groupId prefix first
+        repositoryRanking = RepositoryRanking.load(sourceServerPath);
+        factory = new RankedRepositoryResolverFactory(factory, repositoryRanking);
+
+        // skip repositories that are not reachable instead of waiting for timeouts on each artifact
+        repositoryHealth = new RepositoryHealth(system, session, builder.mavenSessionManager.newTransporterProvider());
+        factory = new RepositoryHealthResolverFactory(factory, repositoryHealth);
+
+        // resolve manifests and blocklists of all channels concurrently, ChannelSession would resolve them one by one
+        final PrefetchingVersionResolverFactory prefetchingFactory = new PrefetchingVersionResolverFactory(factory);
+        prefetchingFactory.prefetch(channels);
+
+        channelSession = initChannelSession(session, prefetchingFactory);
 
         if (restoreManifest.isPresent()) {
             // try to load the manifests used by the state that's being reverted to
@@ -123,11 +141,7 @@ public class GalleonEnvironment implements AutoCloseable {
         if (builder.artifactDirectResolve) {
             repositoryManager = new MavenArtifactDirectResolverRepositoryManager(channelSession);
         } else {
-            if (restoreManifest.isEmpty()) {
-                repositoryManager = new ChannelMavenArtifactRepositoryManager(channelSession);
-            } else {
-                repositoryManager = new ChannelMavenArtifactRepositoryManager(channelSession, restoreManifest.get());
-            }
+            repositoryManager = new ChannelMavenArtifactRepositoryManager(channelSession, restoreManifest.orElse(null), console.orElse(null));
         }
 
         if (System.getProperty(Constants.PROP_LINUX_LINE_ENDINGS) == null) {
@@ -147,7 +161,8 @@ public class GalleonEnvironment implements AutoCloseable {
                 .forEach(t->provisioning.setProgressCallback(t, new GalleonCallbackAdapter(console.orElse(null), t)));
 
         final DownloadsCallbackAdapter callback = new DownloadsCallbackAdapter(console.orElse(null));
-        session.setTransferListener(callback);
+        // keep the listener configured by the MavenSessionManager, e.g. download limits
+        session.setTransferListener(new ChainedTransferListener(session.getTransferListener(), callback, repositoryHealth, repositoryRanking));
         provisioning.setProgressCallback(TRACK_JB_ARTIFACTS_RESOLVE, callback);
     }
 
@@ -250,6 +265,14 @@ public class GalleonEnvironment implements AutoCloseable {
         return channels;
     }
 
+    public RepositoryHealth getRepositoryHealth() {
+        return repositoryHealth;
+    }
+
+    public RepositoryRanking getRepositoryRanking() {
+        return repositoryRanking;
+    }
+
     @Override
     public void close() {
         if (resetGalleonLineEndings) {
@@ -259,6 +282,10 @@ public class GalleonEnvironment implements AutoCloseable {
             FileUtils.deleteQuietly(restoreManifestPath.toFile());
         }
         provisioning.close();
+        repositoryHealth.close();
+        if (cacheLease != null) {
+            cacheLease.close();
+        }
     }
 
     public static Builder builder(Path installDir, List<Channel> channels, MavenSessionManager mavenSessionManager, boolean useDefaultCore) {
@@ -325,7 +352,16 @@ public class GalleonEnvironment implements AutoCloseable {
         }
 
         public GalleonEnvironment build() throws ProvisioningException, OperationException {
-            return new GalleonEnvironment(this);
+            // artifacts resolved by the environment cannot be evicted from the provisioning cache until it is closed
+            final ProvisioningCache.Lease cacheLease = mavenSessionManager.openProvisioningCache();
+            try {
+                return new GalleonEnvironment(this, cacheLease);
+            } catch (ProvisioningException | OperationException | RuntimeException e) {
+                if (cacheLease != null) {
+                    cacheLease.close();
+                }
+                throw e;
+            }
         }
 
         public Builder setSourceServerPath(Path sourceServerPath) {
@@ -25,6 +25,7 @@ import org.jboss.logging.Logger;
 import org.wildfly.channel.Channel;
 import org.wildfly.channel.MavenArtifact;
 import org.wildfly.channel.UnresolvedMavenArtifactException;
+import org.wildfly.prospero.api.WorkDirectory;
 import org.wildfly.prospero.api.exceptions.OperationException;
 import org.wildfly.prospero.wfchannel.MavenSessionManager;
 
@@ -62,7 +63,7 @@ public class GalleonFeaturePackAnalyzer {
      */
     public void cacheGalleonArtifacts(Path installedDir, GalleonProvisioningConfig provisioningConfig) throws Exception {
         // no data will be actually written out, but we need a path to init the Galleon
-        final Path tempInstallationPath = Files.createTempDirectory("temp");
+        final Path tempInstallationPath = WorkDirectory.createTempDirectory(installedDir, "temp");
         final Set<String> fps = new HashSet<>();
 
         try (GalleonEnvironment galleonEnv = galleonEnvWithFpMapper(tempInstallationPath, installedDir, fps, provisioningConfig)) {
@@ -125,7 +126,7 @@ public class GalleonFeaturePackAnalyzer {
      */
     public Set<String> getFeaturePacks(Path installedDir, GalleonProvisioningConfig provisioningConfig) throws IOException, ProvisioningException, OperationException {
         // no data will be actually written out, but we need a path to init the Galleon
-        final Path tempInstallationPath = Files.createTempDirectory("temp");
+        final Path tempInstallationPath = WorkDirectory.createTempDirectory(installedDir, "temp");
         final Set<String> fps = new HashSet<>();
         try (GalleonEnvironment galleonEnv = galleonEnvWithFpMapper(tempInstallationPath, installedDir, fps, provisioningConfig)) {
             // calling this for a side effect of resolving feature pack artifacts
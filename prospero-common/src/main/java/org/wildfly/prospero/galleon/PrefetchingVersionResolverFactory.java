@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.jboss.logging.Logger;
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.ArtifactTransferException;
+import org.wildfly.channel.Channel;
+import org.wildfly.channel.ChannelMetadataCoordinate;
+import org.wildfly.channel.Repository;
+import org.wildfly.channel.spi.MavenVersionsResolver;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves manifests and blocklists of all channels concurrently before a {@code ChannelSession} is created.
+ *
+ * The {@code ChannelSession} resolves the metadata of each channel in turn. When it requests metadata that was
+ * already resolved by {@link #prefetch(List)}, the stored URL is returned instead of resolving it again.
+ *
+ * Failures during the prefetch are ignored - the affected metadata is resolved again by the {@code ChannelSession}
+ * in the channel order, so the errors are reported the same way as without the prefetch.
+ */
+public class PrefetchingVersionResolverFactory implements MavenVersionsResolver.Factory {
+
+    private static final Logger LOG = Logger.getLogger(PrefetchingVersionResolverFactory.class.getName());
+
+    private final MavenVersionsResolver.Factory factory;
+    private final Map<MetadataKey, URL> resolvedMetadata = new ConcurrentHashMap<>();
+
+    public PrefetchingVersionResolverFactory(MavenVersionsResolver.Factory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Resolves Maven manifest and blocklist coordinates of {@code channels} using the {@link ChannelResolutionExecutor}.
+     *
+     * @param channels - channels to resolve metadata for
+     */
+    public void prefetch(List<Channel> channels) {
+        final List<Channel> mavenChannels = new ArrayList<>();
+        for (Channel channel : channels) {
+            if (!getMavenMetadataCoordinates(channel).isEmpty()) {
+                mavenChannels.add(channel);
+            }
+        }
+        if (mavenChannels.size() < 2) {
+            // nothing to gain, let the ChannelSession resolve it
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(mavenChannels.size());
+        for (Channel channel : mavenChannels) {
+            futures.add(CompletableFuture.runAsync(() -> prefetch(channel), ChannelResolutionExecutor.get()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[]{})).join();
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Resolved metadata of %d channels in %d ms", mavenChannels.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private void prefetch(Channel channel) {
+        final long start = System.currentTimeMillis();
+        try (MavenVersionsResolver resolver = factory.create(channel.getRepositories())) {
+            for (ChannelMetadataCoordinate coord : getMavenMetadataCoordinates(channel)) {
+                final List<URL> urls = resolver.resolveChannelMetadata(List.of(coord));
+                if (urls.size() == 1 && urls.get(0) != null) {
+                    resolvedMetadata.put(new MetadataKey(channel.getRepositories(), coord), urls.get(0));
+                }
+            }
+        } catch (RuntimeException e) {
+            // the ChannelSession will try again and report the error
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf(e, "Unable to prefetch metadata of channel %s", channel.getName());
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Resolved metadata of channel %s in %d ms", channel.getName(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private static List<ChannelMetadataCoordinate> getMavenMetadataCoordinates(Channel channel) {
+        final List<ChannelMetadataCoordinate> coordinates = new ArrayList<>(2);
+        if (channel.getManifestCoordinate() != null && channel.getManifestCoordinate().getUrl() == null) {
+            coordinates.add(channel.getManifestCoordinate());
+        }
+        if (channel.getBlocklistCoordinate() != null && channel.getBlocklistCoordinate().getUrl() == null) {
+            coordinates.add(channel.getBlocklistCoordinate());
+        }
+        return coordinates;
+    }
+
+    @Override
+    public MavenVersionsResolver create(Collection<Repository> repositories) {
+        return new PrefetchedMetadataResolver(factory.create(repositories), repositories);
+    }
+
+    private class PrefetchedMetadataResolver implements MavenVersionsResolver {
+
+        private final MavenVersionsResolver delegate;
+        private final Collection<Repository> repositories;
+
+        PrefetchedMetadataResolver(MavenVersionsResolver delegate, Collection<Repository> repositories) {
+            this.delegate = delegate;
+            this.repositories = repositories;
+        }
+
+        @Override
+        public Set<String> getAllVersions(String groupId, String artifactId, String extension, String classifier) {
+            return delegate.getAllVersions(groupId, artifactId, extension, classifier);
+        }
+
+        @Override
+        public File resolveArtifact(String groupId, String artifactId, String extension, String classifier, String version) throws ArtifactTransferException {
+            return delegate.resolveArtifact(groupId, artifactId, extension, classifier, version);
+        }
+
+        @Override
+        public List<File> resolveArtifacts(List<ArtifactCoordinate> coordinates) throws ArtifactTransferException {
+            return delegate.resolveArtifacts(coordinates);
+        }
+
+        @Override
+        public List<URL> resolveChannelMetadata(List<? extends ChannelMetadataCoordinate> coords) throws ArtifactTransferException {
+            final List<URL> urls = new ArrayList<>(coords.size());
+            for (ChannelMetadataCoordinate coord : coords) {
+                final URL url = resolvedMetadata.get(new MetadataKey(repositories, coord));
+                if (url == null) {
+                    return delegate.resolveChannelMetadata(coords);
+                }
+                urls.add(url);
+            }
+            return urls;
+        }
+
+        @Override
+        public String getMetadataReleaseVersion(String groupId, String artifactId) {
+            return delegate.getMetadataReleaseVersion(groupId, artifactId);
+        }
+
+        @Override
+        public String getMetadataLatestVersion(String groupId, String artifactId) {
+            return delegate.getMetadataLatestVersion(groupId, artifactId);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+
+    private static class MetadataKey {
+        private final List<Repository> repositories;
+        private final ChannelMetadataCoordinate coordinate;
+
+        MetadataKey(Collection<Repository> repositories, ChannelMetadataCoordinate coordinate) {
+            this.repositories = repositories == null ? List.of() : new ArrayList<>(repositories);
+            this.coordinate = coordinate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MetadataKey that = (MetadataKey) o;
+            return Objects.equals(repositories, that.repositories) && Objects.equals(coordinate, that.coordinate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(repositories, coordinate);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.jboss.galleon.util.HashUtils;
+import org.jboss.galleon.util.IoUtils;
+import org.jboss.logging.Logger;
+import org.wildfly.channel.Channel;
+import org.wildfly.prospero.api.InstallationLock;
+import org.wildfly.prospero.metadata.ManifestVersionRecord;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+import org.wildfly.prospero.updates.ManifestUpdateFinder;
+import org.wildfly.prospero.wfchannel.ResolvedArtifactsStore;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores complete provisioned servers, so that repeated installations of the same configuration don't need to be
+ * provisioned by Galleon again.
+ * <p>
+ * An image is identified by the Galleon provisioning configuration and the versions of the manifests used to provision
+ * it. Installations using channels without a manifest, with a SNAPSHOT manifest, or with manifests that do not fully
+ * determine the artifact versions (see {@link ManifestUpdateFinder#isFullyDetermined()}), are not cached, as the same
+ * inputs can result in different servers.
+ * <p>
+ * The images don't contain the installation history - new installations get a fresh history. JAR files are
+ * hard-linked between the image and installations if possible, all other files are copied.
+ * <p>
+ * The cache is enabled by setting the {@value #ENABLED_PROPERTY} or {@value #DIR_PROPERTY} system property. Only
+ * the {@value #MAX_IMAGES_PROPERTY} most recently used images are kept.
+ */
+public class ProvisionedImageCache {
+
+    private static final Logger log = Logger.getLogger(ProvisionedImageCache.class);
+
+    public static final String ENABLED_PROPERTY = "prospero.image-cache.enabled";
+    public static final String DIR_PROPERTY = "prospero.image-cache.dir";
+    public static final String MAX_IMAGES_PROPERTY = "prospero.image-cache.max-images";
+
+    public static final Path DEFAULT_DIR = Paths.get(System.getProperty("user.home"), ".prospero", "image-cache");
+    public static final int DEFAULT_MAX_IMAGES = 3;
+
+    // change if the content of images changes
+    private static final String IMAGE_FORMAT = "1";
+    private static final String TEMP_PREFIX = ".tmp-";
+    private static final List<Path> EXCLUDED_PATHS = List.of(
+            Path.of(ProsperoMetadataUtils.METADATA_DIR, ".git"),
+            InstallationLock.LOCK_FILE
+    );
+
+    private final Path root;
+    private final int maxImages;
+
+    public ProvisionedImageCache(Path root, int maxImages) {
+        this.root = root.toAbsolutePath().normalize();
+        this.maxImages = maxImages;
+    }
+
+    /**
+     * @return true if the cache has been enabled using system properties
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY) || System.getProperty(DIR_PROPERTY) != null;
+    }
+
+    /**
+     * creates an instance of the cache configured by system properties. The cache does not need to be enabled.
+     *
+     * @return the cache
+     * @throws NumberFormatException if the configured limit cannot be parsed
+     */
+    public static ProvisionedImageCache fromSystemProperties() {
+        final String dir = System.getProperty(DIR_PROPERTY);
+        final String maxImages = System.getProperty(MAX_IMAGES_PROPERTY);
+        return new ProvisionedImageCache(dir == null ? DEFAULT_DIR : Path.of(dir),
+                maxImages == null ? DEFAULT_MAX_IMAGES : Integer.parseInt(maxImages.trim()));
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * generates a key of the image provisioned from {@code provisioningXml} using manifests in {@code manifestRecord}.
+     *
+     * @param provisioningXml - Galleon provisioning configuration
+     * @param manifestRecord - manifests resolved from the installation's channels
+     * @param channels - the installation's channels
+     * @param resolvedArtifacts - artifacts resolved by the maven session, containing the channel manifests
+     * @return the key, or empty {@code Optional} if the installation cannot be cached
+     * @throws IOException if the {@code provisioningXml} cannot be read
+     */
+    public static Optional<String> key(Path provisioningXml, ManifestVersionRecord manifestRecord, List<Channel> channels,
+                                       ResolvedArtifactsStore resolvedArtifacts) throws IOException {
+        if (!manifestRecord.getOpenManifests().isEmpty()
+                || !new ManifestUpdateFinder(channels, resolvedArtifacts).isFullyDetermined()) {
+            return Optional.empty();
+        }
+        final List<String> manifests = new ArrayList<>();
+        for (ManifestVersionRecord.MavenManifest manifest : manifestRecord.getMavenManifests()) {
+            if (manifest.getVersion().endsWith("-SNAPSHOT")) {
+                return Optional.empty();
+            }
+            manifests.add(manifest.getGroupId() + ":" + manifest.getArtifactId() + ":" + manifest.getVersion());
+        }
+        for (ManifestVersionRecord.UrlManifest manifest : manifestRecord.getUrlManifests()) {
+            manifests.add(manifest.getUrl() + ":" + manifest.getHash());
+        }
+        if (manifests.isEmpty()) {
+            return Optional.empty();
+        }
+        manifests.sort(Comparator.naturalOrder());
+
+        return Optional.of(HashUtils.hash(IMAGE_FORMAT + "\n" + Files.readString(provisioningXml) + "\n"
+                + String.join("\n", manifests)));
+    }
+
+    /**
+     * populates {@code installDir} with the content of the image identified by {@code key}.
+     *
+     * @param key - key of the image, see {@link #key(Path, ManifestVersionRecord)}
+     * @param installDir - target directory, should be empty
+     * @return false if there is no such image in the cache
+     * @throws IOException if the image cannot be copied. The {@code installDir} may be partially populated.
+     */
+    public boolean materialize(String key, Path installDir) throws IOException {
+        final Path image = root.resolve(key);
+        if (!Files.isDirectory(image)) {
+            return false;
+        }
+        // mark as recently used
+        Files.setLastModifiedTime(image, FileTime.fromMillis(System.currentTimeMillis()));
+        copy(image, installDir);
+        if (log.isDebugEnabled()) {
+            log.debugf("Populated %s with provisioned image %s", installDir, image);
+        }
+        return true;
+    }
+
+    /**
+     * adds a copy of the provisioned {@code installDir} to the cache. The least recently used images are removed
+     * if the cache is full.
+     *
+     * @param key - key of the image, see {@link #key(Path, ManifestVersionRecord)}
+     * @param installDir - a newly provisioned server
+     * @throws IOException if the image cannot be stored
+     */
+    public void store(String key, Path installDir) throws IOException {
+        final Path image = root.resolve(key);
+        if (Files.exists(image)) {
+            return;
+        }
+        Files.createDirectories(root);
+        final Path tempImage = Files.createTempDirectory(root, TEMP_PREFIX);
+        try {
+            copy(installDir, tempImage);
+            Files.move(tempImage, image, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (!Files.exists(image)) {
+                throw e;
+            }
+            // stored by another process in the meantime
+        } finally {
+            if (Files.exists(tempImage)) {
+                IoUtils.recursiveDelete(tempImage);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debugf("Stored provisioned image of %s in %s", installDir, image);
+        }
+        evict();
+    }
+
+    private void evict() throws IOException {
+        final List<Path> images;
+        try (Stream<Path> list = Files.list(root)) {
+            images = list
+                    .filter(Files::isDirectory)
+                    .filter(p -> !p.getFileName().toString().startsWith(TEMP_PREFIX))
+                    .sorted(Comparator.comparing(ProvisionedImageCache::lastModified).reversed())
+                    .collect(Collectors.toList());
+        }
+        for (Path image : images.subList(Math.min(maxImages, images.size()), images.size())) {
+            if (log.isDebugEnabled()) {
+                log.debugf("Removing least recently used provisioned image %s", image);
+            }
+            IoUtils.recursiveDelete(image);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /*
+     * JARs are only ever replaced, never modified, by the updates, so they can be shared. The configuration and other
+     * files can be modified by the server.
+     */
+    private static void copy(Path source, Path target) throws IOException {
+        final boolean[] linksSupported = {true};
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                final Path relative = source.relativize(dir);
+                if (EXCLUDED_PATHS.contains(relative)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Files.createDirectories(target.resolve(relative));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                final Path relative = source.relativize(file);
+                if (EXCLUDED_PATHS.contains(relative)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                final Path targetFile = target.resolve(relative);
+                if (linksSupported[0] && file.getFileName().toString().endsWith(".jar")) {
+                    try {
+                        Files.createLink(targetFile, file);
+                        return FileVisitResult.CONTINUE;
+                    } catch (IOException | UnsupportedOperationException e) {
+                        // e.g. the cache is on a different file system
+                        linksSupported[0] = false;
+                    }
+                }
+                Files.copy(file, targetFile, StandardCopyOption.COPY_ATTRIBUTES);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.ArtifactTransferException;
+import org.wildfly.channel.ChannelMetadataCoordinate;
+import org.wildfly.channel.Repository;
+import org.wildfly.channel.spi.MavenVersionsResolver;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates resolvers that try the repositories in the order suggested by the {@link RepositoryRanking} for each
+ * resolved artifact.
+ *
+ * Available versions and channel metadata are resolved using the declared order, because they are read from all
+ * the repositories anyway.
+ */
+class RankedRepositoryResolverFactory implements MavenVersionsResolver.Factory {
+
+    private final MavenVersionsResolver.Factory factory;
+    private final RepositoryRanking ranking;
+
+    RankedRepositoryResolverFactory(MavenVersionsResolver.Factory factory, RepositoryRanking ranking) {
+        this.factory = factory;
+        this.ranking = ranking;
+    }
+
+    @Override
+    public MavenVersionsResolver create(Collection<Repository> repositories) {
+        if (repositories == null || repositories.size() < 2) {
+            return factory.create(repositories);
+        }
+        return new RankedRepositoryResolver(new ArrayList<>(repositories));
+    }
+
+    @Override
+    public void close() {
+        factory.close();
+    }
+
+    private class RankedRepositoryResolver implements MavenVersionsResolver {
+
+        private final List<Repository> repositories;
+        private final MavenVersionsResolver declaredOrderResolver;
+        private final Map<List<Repository>, MavenVersionsResolver> resolvers = new ConcurrentHashMap<>();
+
+        RankedRepositoryResolver(List<Repository> repositories) {
+            this.repositories = repositories;
+            this.declaredOrderResolver = factory.create(repositories);
+            this.resolvers.put(repositories, declaredOrderResolver);
+        }
+
+        private MavenVersionsResolver getResolver(String groupId) {
+            return resolvers.computeIfAbsent(ranking.order(groupId, repositories), factory::create);
+        }
+
+        @Override
+        public Set<String> getAllVersions(String groupId, String artifactId, String extension, String classifier) {
+            return declaredOrderResolver.getAllVersions(groupId, artifactId, extension, classifier);
+        }
+
+        @Override
+        public File resolveArtifact(String groupId, String artifactId, String extension, String classifier, String version) throws ArtifactTransferException {
+            return getResolver(groupId).resolveArtifact(groupId, artifactId, extension, classifier, version);
+        }
+
+        @Override
+        public List<File> resolveArtifacts(List<ArtifactCoordinate> coordinates) throws ArtifactTransferException {
+            // resolve the artifacts in batches sharing the same repository order, and restore the requested order
+            final Map<List<Repository>, List<Integer>> batches = new LinkedHashMap<>();
+            for (int i = 0; i < coordinates.size(); i++) {
+                batches.computeIfAbsent(ranking.order(coordinates.get(i).getGroupId(), repositories), k -> new ArrayList<>())
+                        .add(i);
+            }
+            if (batches.size() == 1) {
+                return resolvers.computeIfAbsent(batches.keySet().iterator().next(), factory::create)
+                        .resolveArtifacts(coordinates);
+            }
+
+            final File[] files = new File[coordinates.size()];
+            for (Map.Entry<List<Repository>, List<Integer>> batch : batches.entrySet()) {
+                final List<ArtifactCoordinate> batchCoordinates = new ArrayList<>(batch.getValue().size());
+                for (Integer i : batch.getValue()) {
+                    batchCoordinates.add(coordinates.get(i));
+                }
+                final List<File> batchFiles = resolvers.computeIfAbsent(batch.getKey(), factory::create)
+                        .resolveArtifacts(batchCoordinates);
+                for (int i = 0; i < batchFiles.size(); i++) {
+                    files[batch.getValue().get(i)] = batchFiles.get(i);
+                }
+            }
+            return Arrays.asList(files);
+        }
+
+        @Override
+        public List<URL> resolveChannelMetadata(List<? extends ChannelMetadataCoordinate> coords) throws ArtifactTransferException {
+            return declaredOrderResolver.resolveChannelMetadata(coords);
+        }
+
+        @Override
+        public String getMetadataReleaseVersion(String groupId, String artifactId) {
+            return declaredOrderResolver.getMetadataReleaseVersion(groupId, artifactId);
+        }
+
+        @Override
+        public String getMetadataLatestVersion(String groupId, String artifactId) {
+            return declaredOrderResolver.getMetadataLatestVersion(groupId, artifactId);
+        }
+
+        @Override
+        public void close() {
+            resolvers.values().forEach(MavenVersionsResolver::close);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.eclipse.aether.ConfigurationProperties;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.transport.PeekTask;
+import org.eclipse.aether.spi.connector.transport.Transporter;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+import org.eclipse.aether.transfer.NoTransporterException;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.jboss.logging.Logger;
+import org.wildfly.channel.Repository;
+import org.wildfly.prospero.ProsperoLogger;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLException;
+
+/**
+ * Tracks the health of remote repositories used during a single operation.
+ *
+ * Before a repository is used for the first time, it is probed with a HEAD request sent by the Maven transporter,
+ * using the same mirror, proxy and authentication settings as the artifact resolution. A repository that cannot be
+ * reached is skipped for the rest of the operation instead of waiting for connection timeouts on every artifact.
+ * The same happens when a repository fails {@link #MAX_FAILURES_PROPERTY} transfers.
+ *
+ * If none of the repositories of a channel are reachable, they are all used, so that the resolution errors are
+ * reported the same way as without the health checks.
+ *
+ * The number of requests, failures and the average latency of each repository is logged when the operation completes.
+ */
+public class RepositoryHealth extends AbstractTransferListener implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(RepositoryHealth.class.getName());
+
+    public static final String PROBE_PROPERTY = "prospero.repository.probe";
+    public static final String PROBE_TIMEOUT_PROPERTY = "prospero.repository.probe-timeout";
+    public static final String MAX_FAILURES_PROPERTY = "prospero.repository.max-failures";
+    private static final int DEFAULT_PROBE_TIMEOUT = 5000;
+    private static final int DEFAULT_MAX_FAILURES = 3;
+
+    interface Probe {
+        void probe(Repository repository) throws IOException;
+    }
+
+    private final Probe probe;
+    private final int maxFailures;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Boolean>> probes = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * @param system - the repository system used by the operation
+     * @param session - the session used by the operation. The repositories are not probed in offline mode.
+     * @param transporters - creates the transporters used to probe the repositories
+     */
+    public RepositoryHealth(RepositorySystem system, RepositorySystemSession session, TransporterProvider transporters) {
+        this(!session.isOffline() && !"false".equals(System.getProperty(PROBE_PROPERTY)) ?
+                        transporterProbe(system, session, transporters) : null,
+                Integer.getInteger(MAX_FAILURES_PROPERTY, DEFAULT_MAX_FAILURES));
+    }
+
+    RepositoryHealth(Probe probe, int maxFailures) {
+        this.probe = probe;
+        this.maxFailures = maxFailures;
+        this.executor = probe == null ? null : Executors.newCachedThreadPool(r -> {
+            final Thread thread = new Thread(r, "repository-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * removes repositories that are not reachable or failed too many times from {@code repositories}. The repositories
+     * that were not used yet are probed concurrently.
+     *
+     * @param repositories - repositories of a channel
+     * @return healthy repositories, or all {@code repositories} if none of them is healthy
+     */
+    public List<Repository> filter(Collection<Repository> repositories) {
+        final List<CompletableFuture<Boolean>> results = new ArrayList<>(repositories.size());
+        for (Repository repository : repositories) {
+            results.add(probe(repository));
+        }
+
+        final List<Repository> healthy = new ArrayList<>(repositories.size());
+        int i = 0;
+        for (Repository repository : repositories) {
+            if (results.get(i++).join() && isHealthy(repository.getUrl())) {
+                healthy.add(repository);
+            } else if (LOG.isDebugEnabled()) {
+                LOG.debugf("Skipping unhealthy repository %s", repository.getUrl());
+            }
+        }
+
+        if (healthy.isEmpty()) {
+            return new ArrayList<>(repositories);
+        }
+        return healthy;
+    }
+
+    /**
+     * checks if the repository is still used by the operation.
+     *
+     * @param url - URL of the repository
+     * @return false if the repository was skipped
+     */
+    public boolean isHealthy(String url) {
+        final Stats s = stats.get(normalize(url));
+        return s == null || !s.tripped.get();
+    }
+
+    private CompletableFuture<Boolean> probe(Repository repository) {
+        final String url = repository.getUrl();
+        if (probe == null || url == null || !(url.startsWith("http://") || url.startsWith("https://"))) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return probes.computeIfAbsent(normalize(url), u -> CompletableFuture.supplyAsync(() -> {
+            final long start = System.currentTimeMillis();
+            try {
+                probe.probe(repository);
+                getStats(u).recordSuccess(System.currentTimeMillis() - start);
+                return true;
+            } catch (IOException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debugf(e, "Probe of repository %s failed", url);
+                }
+                getStats(u).requests.incrementAndGet();
+                getStats(u).failures.incrementAndGet();
+                trip(u, e.toString());
+                return false;
+            }
+        }, executor));
+    }
+
+    @Override
+    public void transferSucceeded(TransferEvent event) {
+        final Stats s = getStats(event.getResource().getRepositoryUrl());
+        final long startTime = event.getResource().getTransferStartTime();
+        s.recordSuccess(startTime > 0 ? System.currentTimeMillis() - startTime : 0);
+    }
+
+    @Override
+    public void transferFailed(TransferEvent event) {
+        final String url = normalize(event.getResource().getRepositoryUrl());
+        final Stats s = getStats(url);
+        s.requests.incrementAndGet();
+        final Exception exception = event.getException();
+        if (exception instanceof ArtifactNotFoundException || exception instanceof MetadataNotFoundException) {
+            // the repository is working, it just doesn't have the artifact
+            return;
+        }
+        if (s.failures.incrementAndGet() >= maxFailures) {
+            trip(url, exception == null ? "" : exception.getMessage());
+        }
+    }
+
+    private void trip(String url, String reason) {
+        if (getStats(url).tripped.compareAndSet(false, true)) {
+            ProsperoLogger.ROOT_LOGGER.repositoryUnreachable(url, reason);
+        }
+    }
+
+    private Stats getStats(String url) {
+        return stats.computeIfAbsent(normalize(url), u -> new Stats());
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        stats.forEach((url, s) -> {
+            final int requests = s.requests.get();
+            if (requests > 0) {
+                ProsperoLogger.ROOT_LOGGER.repositoryStatistics(url, requests, s.failures.get(),
+                        s.succeeded.get() == 0 ? 0 : s.latency.get() / s.succeeded.get());
+            }
+        });
+    }
+
+    private static String normalize(String url) {
+        if (url != null && url.endsWith("/")) {
+            return url.substring(0, url.length() - 1);
+        }
+        return url;
+    }
+
+    private static Probe transporterProbe(RepositorySystem system, RepositorySystemSession session, TransporterProvider transporters) {
+        final int timeout = Integer.getInteger(PROBE_TIMEOUT_PROPERTY, DEFAULT_PROBE_TIMEOUT);
+        final DefaultRepositorySystemSession probeSession = new DefaultRepositorySystemSession(session);
+        probeSession.setConfigProperty(ConfigurationProperties.CONNECT_TIMEOUT, timeout);
+        probeSession.setConfigProperty(ConfigurationProperties.REQUEST_TIMEOUT, timeout);
+
+        return repository -> {
+            // applies the mirrors, proxies and authentication configured in the session
+            final RemoteRepository remoteRepository = system.newResolutionRepositories(probeSession,
+                    List.of(MavenProxyHandler.addProxySettings(repository))).get(0);
+            final Transporter transporter;
+            try {
+                transporter = transporters.newTransporter(probeSession, remoteRepository);
+            } catch (NoTransporterException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            try {
+                transporter.peek(new PeekTask(URI.create("")));
+            } catch (Exception e) {
+                // any response means the repository is reachable, even if it doesn't allow listing the root
+                if (transporter.classify(e) != Transporter.ERROR_NOT_FOUND && isConnectionFailure(e)) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            } finally {
+                transporter.close();
+            }
+        };
+    }
+
+    private static boolean isConnectionFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SocketException || t instanceof UnknownHostException || t instanceof SocketTimeoutException
+                    || t instanceof HttpTimeoutException || t instanceof SSLException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Stats {
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicLong latency = new AtomicLong();
+        private final AtomicBoolean tripped = new AtomicBoolean();
+
+        void recordSuccess(long millis) {
+            requests.incrementAndGet();
+            succeeded.incrementAndGet();
+            latency.addAndGet(millis);
+        }
+    }
+}
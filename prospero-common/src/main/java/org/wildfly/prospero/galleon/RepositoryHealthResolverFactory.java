@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.ArtifactTransferException;
+import org.wildfly.channel.ChannelMetadataCoordinate;
+import org.wildfly.channel.Repository;
+import org.wildfly.channel.spi.MavenVersionsResolver;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates resolvers using only the repositories considered healthy by the {@link RepositoryHealth}.
+ *
+ * The health of the repositories is checked on each request, so that a repository that failed too many transfers
+ * is skipped by resolvers created before the failures as well.
+ */
+class RepositoryHealthResolverFactory implements MavenVersionsResolver.Factory {
+
+    private final MavenVersionsResolver.Factory factory;
+    private final RepositoryHealth repositoryHealth;
+
+    RepositoryHealthResolverFactory(MavenVersionsResolver.Factory factory, RepositoryHealth repositoryHealth) {
+        this.factory = factory;
+        this.repositoryHealth = repositoryHealth;
+    }
+
+    @Override
+    public MavenVersionsResolver create(Collection<Repository> repositories) {
+        if (repositories == null) {
+            return factory.create(null);
+        }
+        return new HealthCheckingResolver(new ArrayList<>(repositories));
+    }
+
+    @Override
+    public void close() {
+        factory.close();
+    }
+
+    private class HealthCheckingResolver implements MavenVersionsResolver {
+
+        private final List<Repository> repositories;
+        private final Map<List<Repository>, MavenVersionsResolver> resolvers = new ConcurrentHashMap<>();
+
+        HealthCheckingResolver(List<Repository> repositories) {
+            this.repositories = repositories;
+            // probes the repositories before the first request
+            getResolver();
+        }
+
+        private MavenVersionsResolver getResolver() {
+            return resolvers.computeIfAbsent(repositoryHealth.filter(repositories), factory::create);
+        }
+
+        @Override
+        public Set<String> getAllVersions(String groupId, String artifactId, String extension, String classifier) {
+            return getResolver().getAllVersions(groupId, artifactId, extension, classifier);
+        }
+
+        @Override
+        public File resolveArtifact(String groupId, String artifactId, String extension, String classifier, String version) throws ArtifactTransferException {
+            return getResolver().resolveArtifact(groupId, artifactId, extension, classifier, version);
+        }
+
+        @Override
+        public List<File> resolveArtifacts(List<ArtifactCoordinate> coordinates) throws ArtifactTransferException {
+            return getResolver().resolveArtifacts(coordinates);
+        }
+
+        @Override
+        public List<URL> resolveChannelMetadata(List<? extends ChannelMetadataCoordinate> coords) throws ArtifactTransferException {
+            return getResolver().resolveChannelMetadata(coords);
+        }
+
+        @Override
+        public String getMetadataReleaseVersion(String groupId, String artifactId) {
+            return getResolver().getMetadataReleaseVersion(groupId, artifactId);
+        }
+
+        @Override
+        public String getMetadataLatestVersion(String groupId, String artifactId) {
+            return getResolver().getMetadataLatestVersion(groupId, artifactId);
+        }
+
+        @Override
+        public void close() {
+            resolvers.values().forEach(MavenVersionsResolver::close);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.jboss.logging.Logger;
+import org.wildfly.channel.Repository;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records which repositories provided artifacts of each groupId prefix, and how fast they were, so that the likeliest
+ * repository can be tried first in subsequent resolutions.
+ *
+ * The groupId prefix consists of the first {@link #PREFIX_SEGMENTS} segments of the groupId, e.g. {@code org.jboss}.
+ * The statistics are kept in {@code .installation/.repository-ranking}. They are only written by operations modifying
+ * the installation - into a new installation or update candidate, which is copied into the installation when applied.
+ *
+ * Only the order of the repositories is changed, the set of repositories and therefore the artifact versions
+ * available to a channel stay the same.
+ */
+public class RepositoryRanking extends AbstractTransferListener {
+
+    private static final Logger LOG = Logger.getLogger(RepositoryRanking.class.getName());
+
+    public static final Path RANKING_FILE = Path.of(ProsperoMetadataUtils.METADATA_DIR, ".repository-ranking");
+    static final int PREFIX_SEGMENTS = 2;
+    /**
+     * minimal number of requests for a repository to be considered
+     */
+    static final int MIN_REQUESTS = 3;
+    private static final String KEY_SEPARATOR = "|";
+
+    private final Map<Key, Stats> stats = new ConcurrentHashMap<>();
+    private final AtomicBoolean modified = new AtomicBoolean(false);
+
+    private RepositoryRanking() {
+    }
+
+    /**
+     * reads statistics recorded by previous operations on {@code installationDir}. If the statistics cannot be read,
+     * the ranking starts empty.
+     *
+     * @param installationDir - the server installation
+     * @return the ranking
+     */
+    public static RepositoryRanking load(Path installationDir) {
+        final RepositoryRanking ranking = new RepositoryRanking();
+        final Path rankingFile = installationDir.resolve(RANKING_FILE);
+        if (Files.exists(rankingFile)) {
+            final Properties properties = new Properties();
+            try (InputStream is = Files.newInputStream(rankingFile)) {
+                properties.load(is);
+            } catch (IOException e) {
+                LOG.debugf(e, "Unable to read repository ranking %s", rankingFile);
+                return ranking;
+            }
+            for (String name : properties.stringPropertyNames()) {
+                final Key key = Key.parse(name);
+                final Stats value = Stats.parse(properties.getProperty(name));
+                if (key != null && value != null) {
+                    ranking.stats.put(key, value);
+                }
+            }
+        }
+        return ranking;
+    }
+
+    /**
+     * orders {@code repositories} to try the repository most likely to provide artifacts of {@code groupId} first.
+     * The remaining repositories keep their declared order.
+     *
+     * @param groupId - groupId of the resolved artifact
+     * @param repositories - repositories in declared order
+     * @return the repositories in the order they should be tried
+     */
+    public List<Repository> order(String groupId, List<Repository> repositories) {
+        if (repositories.size() < 2) {
+            return repositories;
+        }
+        final String prefix = prefix(groupId);
+        Repository likeliest = null;
+        Stats best = null;
+        for (Repository repository : repositories) {
+            final Stats candidate = stats.get(new Key(prefix, normalize(repository.getUrl())));
+            if (candidate != null && candidate.requests() >= MIN_REQUESTS && candidate.hits.get() > 0
+                    && (best == null || candidate.isBetterThan(best))) {
+                likeliest = repository;
+                best = candidate;
+            }
+        }
+        if (likeliest == null || likeliest == repositories.get(0)) {
+            return repositories;
+        }
+        final List<Repository> ordered = new ArrayList<>(repositories.size());
+        ordered.add(likeliest);
+        for (Repository repository : repositories) {
+            if (repository != likeliest) {
+                ordered.add(repository);
+            }
+        }
+        return ordered;
+    }
+
+    @Override
+    public void transferSucceeded(TransferEvent event) {
+        final Stats s = getStats(event);
+        if (s != null) {
+            final long startTime = event.getResource().getTransferStartTime();
+            s.hits.incrementAndGet();
+            s.latency.addAndGet(startTime > 0 ? System.currentTimeMillis() - startTime : 0);
+            modified.set(true);
+        }
+    }
+
+    @Override
+    public void transferFailed(TransferEvent event) {
+        final Stats s = getStats(event);
+        if (s != null) {
+            // any failure means the artifact had to be looked up in another repository
+            s.misses.incrementAndGet();
+            modified.set(true);
+        }
+    }
+
+    /**
+     * writes the updated statistics into {@code serverDir}, if its metadata directory exists. Failures are ignored,
+     * the ranking is only an optimization.
+     * <p>
+     * The caller has to prevent concurrent access to {@code serverDir}, e.g. by holding an exclusive
+     * {@link org.wildfly.prospero.api.InstallationLock}.
+     *
+     * @param serverDir - a new installation or an update candidate
+     */
+    public void save(Path serverDir) {
+        final Path rankingFile = serverDir.resolve(RANKING_FILE);
+        if (!modified.get() || !Files.isDirectory(rankingFile.getParent())) {
+            return;
+        }
+        final Properties properties = new Properties();
+        stats.forEach((key, value) -> properties.setProperty(key.toString(), value.toString()));
+        try {
+            final Path tempFile = Files.createTempFile(rankingFile.getParent(), RANKING_FILE.getFileName().toString(), null);
+            try (OutputStream os = Files.newOutputStream(tempFile)) {
+                properties.store(os, null);
+            }
+            Files.move(tempFile, rankingFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.debugf(e, "Unable to write repository ranking %s", rankingFile);
+        }
+    }
+
+    private Stats getStats(TransferEvent event) {
+        final String name = event.getResource().getResourceName();
+        if (name == null || name.contains("maven-metadata")) {
+            // metadata are always read from all repositories
+            return null;
+        }
+        // org/jboss/foo/artifact/1.0.0/artifact-1.0.0.jar -> the groupId is everything but the last three segments
+        final String[] segments = name.split("/");
+        if (segments.length < 4) {
+            return null;
+        }
+        final String groupId = String.join(".", List.of(segments).subList(0, segments.length - 3));
+        return stats.computeIfAbsent(new Key(prefix(groupId), normalize(event.getResource().getRepositoryUrl())),
+                k -> new Stats());
+    }
+
+    static String prefix(String groupId) {
+        final String[] segments = groupId.split("\\.");
+        if (segments.length <= PREFIX_SEGMENTS) {
+            return groupId;
+        }
+        return String.join(".", List.of(segments).subList(0, PREFIX_SEGMENTS));
+    }
+
+    private static String normalize(String url) {
+        if (url != null && url.endsWith("/")) {
+            return url.substring(0, url.length() - 1);
+        }
+        return url;
+    }
+
+    private static class Key {
+        private final String prefix;
+        private final String url;
+
+        Key(String prefix, String url) {
+            this.prefix = prefix;
+            this.url = url;
+        }
+
+        static Key parse(String text) {
+            final int index = text.indexOf(KEY_SEPARATOR);
+            if (index < 0) {
+                return null;
+            }
+            return new Key(text.substring(0, index), text.substring(index + 1));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(prefix, key.prefix) && Objects.equals(url, key.url);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(prefix, url);
+        }
+
+        @Override
+        public String toString() {
+            return prefix + KEY_SEPARATOR + url;
+        }
+    }
+
+    private static class Stats {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong latency = new AtomicLong();
+
+        static Stats parse(String text) {
+            final String[] values = text.split(",");
+            if (values.length != 3) {
+                return null;
+            }
+            final Stats stats = new Stats();
+            try {
+                stats.hits.set(Long.parseLong(values[0]));
+                stats.misses.set(Long.parseLong(values[1]));
+                stats.latency.set(Long.parseLong(values[2]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            return stats;
+        }
+
+        long requests() {
+            return hits.get() + misses.get();
+        }
+
+        double hitRate() {
+            return (double) hits.get() / requests();
+        }
+
+        long averageLatency() {
+            return hits.get() == 0 ? Long.MAX_VALUE : latency.get() / hits.get();
+        }
+
+        boolean isBetterThan(Stats other) {
+            final int byHitRate = Double.compare(hitRate(), other.hitRate());
+            if (byHitRate != 0) {
+                return byHitRate > 0;
+            }
+            return averageLatency() < other.averageLatency();
+        }
+
+        @Override
+        public String toString() {
+            return hits.get() + "," + misses.get() + "," + latency.get();
+        }
+    }
+}
@@ -29,6 +29,8 @@ import org.wildfly.prospero.api.ChannelChange;
 import org.wildfly.prospero.api.exceptions.MetadataException;
 import org.wildfly.prospero.api.SavedState;
 import org.wildfly.prospero.api.ArtifactChange;
+import org.wildfly.prospero.api.InstallationLock;
+import org.wildfly.prospero.api.WorkDirectory;
 import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
 import org.wildfly.prospero.model.ManifestYamlSupport;
 import org.apache.commons.io.FileUtils;
@@ -76,7 +78,7 @@ public class GitStorage implements AutoCloseable {
     }
 
     public List<SavedState> getRevisions() throws MetadataException {
-        try {
+        try (InstallationLock lock = InstallationLock.shared(base.getParent())) {
             final Iterable<RevCommit> call = git.log().call();
             List<SavedState> history = new ArrayList<>();
             for (RevCommit revCommit : call) {
@@ -112,7 +114,7 @@ public class GitStorage implements AutoCloseable {
     }
 
     public void record() throws MetadataException {
-        try {
+        try (InstallationLock lock = InstallationLock.exclusive(base.getParent())) {
 
             if (isRepositoryEmpty(git)) {
                 final PersonIdent author = adjustCommitDateToCreationDate(getCommitter());
@@ -152,7 +154,7 @@ public class GitStorage implements AutoCloseable {
     }
 
     public void recordChange(SavedState.Type operation, String... files) throws MetadataException {
-        try {
+        try (InstallationLock lock = InstallationLock.exclusive(base.getParent())) {
             if (isRepositoryEmpty(git)) {
                 throw new IllegalStateException("This operation cannot be performed on empty repository");
             }
@@ -190,7 +192,7 @@ public class GitStorage implements AutoCloseable {
     }
 
     public void recordConfigChange() throws MetadataException {
-        try {
+        try (InstallationLock lock = InstallationLock.exclusive(base.getParent())) {
             git.add().addFilepattern(ProsperoMetadataUtils.INSTALLER_CHANNELS_FILE_NAME).call();
             final PersonIdent author = getCommitter();
             git.commit()
@@ -205,7 +207,7 @@ public class GitStorage implements AutoCloseable {
 
     public Path revert(SavedState savedState) throws MetadataException {
         try {
-            Path hist = Files.createTempDirectory("hist").resolve(ProsperoMetadataUtils.METADATA_DIR);
+            Path hist = WorkDirectory.createTempDirectory("hist").resolve(ProsperoMetadataUtils.METADATA_DIR);
             try (Git temp =  Git.cloneRepository()
                     .setDirectory(hist.toFile())
                     .setRemote("origin")
@@ -243,7 +245,7 @@ public class GitStorage implements AutoCloseable {
     }
 
     public void reset() throws MetadataException {
-        try {
+        try (InstallationLock lock = InstallationLock.exclusive(base.getParent())) {
             git.reset()
                     .setRef("HEAD")
                     .setMode(ResetCommand.ResetType.HARD)
@@ -368,7 +370,7 @@ public class GitStorage implements AutoCloseable {
     }
 
     private Path checkoutPastState(SavedState savedState, String fileName) throws GitAPIException, IOException {
-        Path hist = Files.createTempDirectory("hist");
+        Path hist = WorkDirectory.createTempDirectory("hist");
         try (Git temp =  Git.cloneRepository()
                     .setDirectory(hist.toFile())
                     .setRemote("origin")
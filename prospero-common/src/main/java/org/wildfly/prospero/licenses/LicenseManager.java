@@ -33,6 +33,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
@@ -51,7 +52,8 @@ public class LicenseManager {
     private static final String LICENSE_DEFINITION_EXTENSION = ".yaml";
     private static final String DEFAULT_LICENSE_DEFINITION = LICENSE_DEFINITION_NAME + LICENSE_DEFINITION_EXTENSION;
     protected static final String LICENSE_AGREEMENT_FILENAME= "license_accepted.properties";
-    private final HashMap<String, List<License>> nameMap = new HashMap<>();
+    private final URL licensesUrl;
+    private HashMap<String, List<License>> nameMap;
 
     public LicenseManager() {
         this(getLicensesFile());
@@ -59,6 +61,15 @@ public class LicenseManager {
 
     // package-access for tests
     LicenseManager(URL licensesUrl) {
+        this.licensesUrl = licensesUrl;
+    }
+
+    // the definitions are only parsed if the licenses are needed
+    private synchronized Map<String, List<License>> getNameMap() {
+        if (nameMap != null) {
+            return nameMap;
+        }
+        nameMap = new HashMap<>();
         if (licensesUrl == null) {
             logger.debug("No known repositories found");
         } else {
@@ -77,6 +88,7 @@ public class LicenseManager {
                 logger.debug("Error parsing provisioning configurations:", e);
             }
         }
+        return nameMap;
     }
 
     /**
@@ -88,6 +100,7 @@ public class LicenseManager {
     public List<License> getLicenses(Set<String> fpls) {
         Objects.requireNonNull(fpls);
 
+        final Map<String, List<License>> nameMap = getNameMap();
         return fpls.stream()
                 .filter(nameMap::containsKey)
                 .map(nameMap::get)
@@ -17,6 +17,12 @@
 
 package org.wildfly.prospero.model;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jboss.galleon.util.HashUtils;
+import org.jboss.logging.Logger;
 import org.wildfly.channel.ChannelManifest;
 import org.wildfly.channel.ChannelManifestMapper;
 import org.wildfly.channel.InvalidChannelMetadataException;
@@ -25,9 +31,20 @@ import org.wildfly.prospero.api.exceptions.MetadataException;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 public class ManifestYamlSupport {
 
+    private static final Logger LOG = Logger.getLogger(ManifestYamlSupport.class);
+
+    private static final String RECORDED_SUFFIX = ".json";
+    private static final String HASH_FIELD = "hash";
+    private static final String MANIFEST_FIELD = "manifest";
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
     public static ChannelManifest parse(File manifestFile) throws IOException, MetadataException {
         try {
             return ChannelManifestMapper.from(manifestFile.toURI().toURL());
@@ -36,4 +53,103 @@ public class ManifestYamlSupport {
         }
     }
 
+    /**
+     * parses a manifest recorded by Prospero in the installation metadata.
+     * <p>
+     * If the manifest has been validated before, it is read from a JSON copy stored next to the {@code manifestFile},
+     * skipping the schema validation. The copy is only used if the hash of the {@code manifestFile} matches the hash
+     * recorded in the copy. Otherwise, the manifest is fully validated. The copy is not modified, it is only written
+     * when Prospero records the manifest, see {@link #recordParsed(Path, ChannelManifest)}.
+     * <p>
+     * Manifests provided by the user should be parsed using {@link #parse(File)}.
+     *
+     * @param manifestFile - the {@code manifest.yaml} file in the installation metadata
+     * @return parsed manifest
+     * @throws IOException if the {@code manifestFile} cannot be read
+     * @throws MetadataException if the {@code manifestFile} is not a valid manifest
+     */
+    public static ChannelManifest parseRecorded(Path manifestFile) throws IOException, MetadataException {
+        final String hash = HashUtils.hashFile(manifestFile);
+        final Path recordedFile = getRecordedFile(manifestFile);
+        if (Files.exists(recordedFile)) {
+            try {
+                final JsonNode recorded = JSON_MAPPER.readTree(recordedFile.toFile());
+                if (recorded.hasNonNull(HASH_FIELD) && hash.equals(recorded.get(HASH_FIELD).asText())) {
+                    return JSON_MAPPER.treeToValue(recorded.get(MANIFEST_FIELD), ChannelManifest.class);
+                }
+            } catch (IOException e) {
+                // fall back to the YAML file
+                if (LOG.isDebugEnabled()) {
+                    LOG.debugf(e, "Unable to read the recorded manifest %s", recordedFile);
+                }
+            }
+        }
+
+        return parse(manifestFile.toFile());
+    }
+
+    /**
+     * stores a JSON copy of the {@code manifest} written to {@code manifestFile}, so that the file doesn't need to
+     * be validated when it's parsed using {@link #parseRecorded(Path)}. Failures to write the copy are ignored.
+     *
+     * @param manifestFile - the {@code manifest.yaml} file in the installation metadata
+     * @param manifest - the manifest written to the {@code manifestFile}
+     */
+    public static void recordParsed(Path manifestFile, ChannelManifest manifest) {
+        try {
+            writeRecorded(getRecordedFile(manifestFile), HashUtils.hashFile(manifestFile), manifest);
+        } catch (IOException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf(e, "Unable to hash the manifest %s", manifestFile);
+            }
+        }
+    }
+
+    /**
+     * copies the JSON copy of {@code sourceManifest} next to the {@code targetManifest}. Used when the manifest file
+     * itself is copied into the installation metadata. If the {@code sourceManifest} has no copy, the copy of
+     * the {@code targetManifest} is removed.
+     *
+     * @param sourceManifest - the {@code manifest.yaml} file that was copied
+     * @param targetManifest - the {@code manifest.yaml} file in the installation metadata
+     */
+    public static void copyRecorded(Path sourceManifest, Path targetManifest) {
+        final Path sourceRecorded = getRecordedFile(sourceManifest);
+        final Path targetRecorded = getRecordedFile(targetManifest);
+        try {
+            if (Files.exists(sourceRecorded)) {
+                Files.copy(sourceRecorded, targetRecorded, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(targetRecorded);
+            }
+        } catch (IOException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf(e, "Unable to copy the recorded manifest %s", sourceRecorded);
+            }
+        }
+    }
+
+    private static void writeRecorded(Path recordedFile, String hash, ChannelManifest manifest) {
+        try {
+            final ObjectNode recorded = JSON_MAPPER.createObjectNode();
+            recorded.put(HASH_FIELD, hash);
+            recorded.set(MANIFEST_FIELD, JSON_MAPPER.valueToTree(manifest));
+
+            final Path tempFile = Files.createTempFile(recordedFile.getParent(), recordedFile.getFileName().toString(), null);
+            try {
+                JSON_MAPPER.writeValue(tempFile.toFile(), recorded);
+                Files.move(tempFile, recordedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf(e, "Unable to record the manifest %s", recordedFile);
+            }
+        }
+    }
+
+    private static Path getRecordedFile(Path manifestFile) {
+        return manifestFile.resolveSibling("." + manifestFile.getFileName() + RECORDED_SUFFIX);
+    }
 }
@@ -22,6 +22,7 @@ import org.apache.commons.io.FileUtils;
 import org.eclipse.aether.artifact.Artifact;
 import org.wildfly.channel.ArtifactCoordinate;
 import org.wildfly.prospero.ProsperoLogger;
+import org.wildfly.prospero.api.WorkDirectory;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -129,7 +130,7 @@ public class ArtifactBundle implements AutoCloseable {
     }
 
     private static Path unzipArchive(File archivePath) throws IOException {
-        final Path extracted = Files.createTempDirectory("customization");
+        final Path extracted = WorkDirectory.createTempDirectory("customization");
         try (ZipInputStream zis = new ZipInputStream(new FileInputStream(archivePath))) {
 
             ZipEntry entry;
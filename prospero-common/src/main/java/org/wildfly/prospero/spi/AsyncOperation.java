@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.spi;
+
+import org.wildfly.prospero.api.ProvisioningProgressEvent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Handle of an operation started asynchronously by {@link ProsperoInstallationManager}.
+ *
+ * Cancelling the {@link #getResult()} future (or calling {@link #cancel()}) requests the operation to stop. The cancellation
+ * is cooperative - the operation stops at the next safe point, e.g. before the next artifact is resolved or the next
+ * Galleon phase is started. The {@link #getProgress()} publisher completes when the operation has actually stopped.
+ *
+ * @param <T> type of the operation result
+ */
+public class AsyncOperation<T> {
+
+    private final CompletableFuture<T> result;
+    private final Flow.Publisher<ProvisioningProgressEvent> progress;
+
+    AsyncOperation(CompletableFuture<T> result, Flow.Publisher<ProvisioningProgressEvent> progress) {
+        this.result = result;
+        this.progress = progress;
+    }
+
+    /**
+     * result of the operation. The future is completed exceptionally with the operation error if it fails.
+     *
+     * @return future result of the operation
+     */
+    public CompletableFuture<T> getResult() {
+        return result;
+    }
+
+    /**
+     * stream of progress updates emitted by the operation. The publisher signals {@code onComplete} when the operation
+     * finishes and {@code onError} if it fails or is cancelled.
+     *
+     * Events are not buffered for slow subscribers indefinitely - if a subscriber cannot keep up, some of the updates are dropped
+     * rather than slowing down the operation.
+     *
+     * @return publisher of progress events
+     */
+    public Flow.Publisher<ProvisioningProgressEvent> getProgress() {
+        return progress;
+    }
+
+    /**
+     * requests cancellation of the operation.
+     *
+     * @return true if the operation was cancelled, false if it has already completed
+     */
+    public boolean cancel() {
+        return result.cancel(false);
+    }
+}
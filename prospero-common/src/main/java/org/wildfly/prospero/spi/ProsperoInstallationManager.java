@@ -20,6 +20,9 @@ import org.wildfly.prospero.actions.InstallationExportAction;
 import org.wildfly.prospero.actions.InstallationHistoryAction;
 import org.wildfly.prospero.actions.MetadataAction;
 import org.wildfly.prospero.actions.UpdateAction;
+import org.wildfly.prospero.actions.VerifyAction;
+import org.wildfly.prospero.api.Console;
+import org.wildfly.prospero.api.FileVerification;
 import org.wildfly.prospero.api.MavenOptions.Builder;
 import org.wildfly.prospero.galleon.GalleonCallbackAdapter;
 import org.wildfly.prospero.metadata.ManifestVersionRecord;
@@ -41,6 +44,10 @@ import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -53,13 +60,7 @@ public class ProsperoInstallationManager implements InstallationManager {
     private Path installationDir;
 
     public ProsperoInstallationManager(Path installationDir, MavenOptions mavenOptions) throws Exception {
-        final Builder options = org.wildfly.prospero.api.MavenOptions.builder()
-                .setOffline(mavenOptions.isOffline());
-        if (mavenOptions.getLocalRepository() != null) {
-            options.setNoLocalCache(false);
-            options.setLocalCachePath(mavenOptions.getLocalRepository());
-        }
-        actionFactory = new ActionFactory(installationDir, options.build());
+        actionFactory = new ActionFactory(installationDir, mapMavenOptions(mavenOptions));
         this.installationDir = installationDir;
     }
 
@@ -127,6 +128,106 @@ public class ProsperoInstallationManager implements InstallationManager {
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #prepareRevert(String, Path, List)}.
+     *
+     * @param executor - executor used to run the operation
+     * @return handle of the running operation
+     */
+    public AsyncOperation<Void> prepareRevertAsync(String revision, Path targetDir, List<Repository> repositories, Executor executor) {
+        Objects.requireNonNull(revision);
+        Objects.requireNonNull(targetDir);
+        Objects.requireNonNull(executor);
+        return runAsync(executor, console -> {
+            final InstallationHistoryAction historyAction = actionFactory.getHistoryAction(console);
+            historyAction.prepareRevert(new SavedState(revision), actionFactory.mavenOptions,
+                    map(repositories, ProsperoInstallationManager::mapRepository), targetDir);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link #prepareUpdate(Path, List)}.
+     *
+     * @param executor - executor used to run the operation
+     * @return handle of the running operation
+     */
+    public AsyncOperation<Boolean> prepareUpdateAsync(Path targetDir, List<Repository> repositories, Executor executor) {
+        Objects.requireNonNull(executor);
+        return runAsync(executor, console -> {
+            try (UpdateAction prepareUpdateAction = actionFactory.getUpdateAction(map(repositories, ProsperoInstallationManager::mapRepository), console)) {
+                return prepareUpdateAction.buildUpdate(targetDir);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link #findUpdates(List)}.
+     *
+     * @param executor - executor used to run the operation
+     * @return handle of the running operation
+     */
+    public AsyncOperation<List<ArtifactChange>> findUpdatesAsync(List<Repository> repositories, Executor executor) {
+        Objects.requireNonNull(executor);
+        return runAsync(executor, console -> {
+            try (UpdateAction updateAction = actionFactory.getUpdateAction(map(repositories, ProsperoInstallationManager::mapRepository), console)) {
+                final UpdateSet updates = updateAction.findUpdates();
+                return updates.getArtifactUpdates().stream()
+                        .map(ProsperoInstallationManager::mapArtifactChange)
+                        .collect(Collectors.toList());
+            }
+        });
+    }
+
+    /**
+     * Verifies that the files of the installation have not been modified or removed since it was provisioned.
+     * The files are compared with the hashes recorded by Galleon and the installation's artifact cache.
+     *
+     * @param quick - skips hashing files whose size and modification time didn't change since the last verification
+     * @param parallelism - maximum number of files hashed at the same time
+     * @param listener - receives each changed file as soon as it is found. Can be {@code null}
+     * @return all changed files
+     * @throws MetadataException if the recorded hashes or the installation files cannot be read
+     */
+    public List<FileVerification> verify(boolean quick, int parallelism, Consumer<FileVerification> listener) throws MetadataException {
+        return actionFactory.getVerifyAction().verify(quick, parallelism, listener).getChanges();
+    }
+
+    private static <T> AsyncOperation<T> runAsync(Executor executor, AsyncTask<T> task) {
+        final PublishingConsole console = new PublishingConsole();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        // propagate the cancellation to the running operation
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                console.cancel();
+            }
+        });
+
+        executor.execute(() -> {
+            try {
+                console.checkCancelled();
+                final T res = task.run(console);
+                result.complete(res);
+                console.close();
+            } catch (Throwable t) {
+                if (console.isCancelled()) {
+                    logger.debug("Operation has been cancelled", t);
+                    console.closeExceptionally(new CancellationException());
+                } else {
+                    result.completeExceptionally(t);
+                    console.closeExceptionally(t);
+                }
+            }
+        });
+
+        return new AsyncOperation<>(result, console.getPublisher());
+    }
+
+    @FunctionalInterface
+    private interface AsyncTask<T> {
+        T run(Console console) throws Exception;
+    }
+
     @Override
     public Collection<Channel> listChannels() throws OperationException {
         try (MetadataAction metadataAction = actionFactory.getMetadataAction()) {
@@ -276,6 +377,20 @@ public class ProsperoInstallationManager implements InstallationManager {
         }
     }
 
+    static org.wildfly.prospero.api.MavenOptions mapMavenOptions(MavenOptions mavenOptions) {
+        final Builder options = org.wildfly.prospero.api.MavenOptions.builder()
+                .setOffline(mavenOptions.isOffline());
+        if (mavenOptions.getLocalRepository() != null) {
+            options.setNoLocalCache(false);
+            options.setLocalCachePath(mavenOptions.getLocalRepository());
+        }
+        return options.build();
+    }
+
+    static List<org.wildfly.channel.Repository> mapRepositories(List<Repository> repositories) {
+        return map(repositories, ProsperoInstallationManager::mapRepository);
+    }
+
     private static <T, R> List<R> map(List<T> subject, Function<T,R> mapper) {
         if (subject == null) {
             return Collections.emptyList();
@@ -330,11 +445,19 @@ public class ProsperoInstallationManager implements InstallationManager {
         }
 
         protected InstallationHistoryAction getHistoryAction() {
-            return new InstallationHistoryAction(server, null);
+            return getHistoryAction(null);
+        }
+
+        protected InstallationHistoryAction getHistoryAction(Console console) {
+            return new InstallationHistoryAction(server, console);
         }
 
         protected UpdateAction getUpdateAction(List<org.wildfly.channel.Repository> repositories) throws OperationException, ProvisioningException {
-            return new UpdateAction(server, mavenOptions, null, repositories);
+            return getUpdateAction(repositories, null);
+        }
+
+        protected UpdateAction getUpdateAction(List<org.wildfly.channel.Repository> repositories, Console console) throws OperationException, ProvisioningException {
+            return new UpdateAction(server, mavenOptions, console, repositories);
         }
 
         protected MetadataAction getMetadataAction() throws MetadataException {
@@ -345,6 +468,10 @@ public class ProsperoInstallationManager implements InstallationManager {
             return new InstallationExportAction(server);
         }
 
+        protected VerifyAction getVerifyAction() {
+            return new VerifyAction(server, null);
+        }
+
         org.wildfly.prospero.api.MavenOptions getMavenOptions() {
             return mavenOptions;
         }
@@ -21,9 +21,12 @@ package org.wildfly.prospero.spi;
 
 import org.jboss.galleon.Constants;
 import org.wildfly.installationmanager.MavenOptions;
+import org.wildfly.installationmanager.Repository;
 import org.wildfly.installationmanager.spi.InstallationManager;
 import org.wildfly.installationmanager.spi.InstallationManagerFactory;
 import org.wildfly.prospero.ProsperoLogger;
+import org.wildfly.prospero.actions.UpdateAction;
+import org.wildfly.prospero.api.InstallationUpdateResult;
 import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
 
 import java.nio.file.Path;
@@ -44,6 +47,24 @@ public class ProsperoInstallationManagerFactory implements InstallationManagerFa
         return new ProsperoInstallationManager(installationDir, mavenOptions);
     }
 
+    /**
+     * updates several installations together. The update candidate is built only once for installations with
+     * the same configuration and applied to up to {@code parallelism} installations concurrently.
+     *
+     * @param installationDirs - installations to update
+     * @param mavenOptions - maven options used to resolve the updates
+     * @param repositories - repositories used instead of the installations' channel repositories, can be empty
+     * @param parallelism - maximum number of installations updated at the same time
+     * @return results of the updates in the order of {@code installationDirs}
+     * @see UpdateAction#performUpdates(List, org.wildfly.prospero.api.MavenOptions, org.wildfly.prospero.api.Console, List, int)
+     */
+    public List<InstallationUpdateResult> updateAll(List<Path> installationDirs, MavenOptions mavenOptions,
+                                                    List<Repository> repositories, int parallelism) {
+        installationDirs.forEach(this::verifyInstallationDirectory);
+        return UpdateAction.performUpdates(installationDirs, ProsperoInstallationManager.mapMavenOptions(mavenOptions),
+                null, ProsperoInstallationManager.mapRepositories(repositories), parallelism);
+    }
+
     @Override
     public String getName() {
         return "prospero";
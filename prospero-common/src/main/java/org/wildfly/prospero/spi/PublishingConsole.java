@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.spi;
+
+import org.jboss.logging.Logger;
+import org.wildfly.prospero.api.Console;
+import org.wildfly.prospero.api.ProvisioningProgressEvent;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * {@link Console} used by asynchronous operations. Progress updates are published to subscribers without blocking
+ * the operation and the cancellation flag can be set from a different thread.
+ */
+class PublishingConsole implements Console, AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(PublishingConsole.class);
+
+    private final SubmissionPublisher<ProvisioningProgressEvent> publisher = new SubmissionPublisher<>();
+    private volatile boolean cancelled = false;
+
+    @Override
+    public void progressUpdate(ProvisioningProgressEvent update) {
+        // drop the update if the subscriber's buffer is full - progress is not worth blocking the operation
+        publisher.offer(update, (subscriber, event) -> false);
+    }
+
+    @Override
+    public void println(String text) {
+        logger.info(text);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        this.cancelled = true;
+    }
+
+    Flow.Publisher<ProvisioningProgressEvent> getPublisher() {
+        return publisher;
+    }
+
+    void closeExceptionally(Throwable error) {
+        publisher.closeExceptionally(error);
+    }
+
+    @Override
+    public void close() {
+        publisher.close();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.updates;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.util.HashUtils;
+import org.wildfly.prospero.api.FileConflict;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Conflicts between a candidate and the installation it was prepared for, computed when the candidate was built.
+ *
+ * The report is only valid as long as the files of the installation and the candidate don't change. The
+ * {@code fingerprint} identifies the state of both directories using the size and modification time of the files
+ * tracked by Galleon and can be compared with {@link #fingerprint(Path, Path)} without hashing the content of the files.
+ */
+public class ConflictReport {
+
+    protected static final String DEFAULT_SCHEMA = "1.0.0";
+
+    private final String schemaVersion;
+    private final String fingerprint;
+    private final List<FileConflict> conflicts;
+
+    public ConflictReport(String fingerprint, List<FileConflict> conflicts) {
+        this(DEFAULT_SCHEMA, fingerprint, conflicts);
+    }
+
+    @JsonCreator
+    public ConflictReport(@JsonProperty(required = true, value = "schemaVersion") String schemaVersion,
+                          @JsonProperty(required = true, value = "fingerprint") String fingerprint,
+                          @JsonProperty(value = "conflicts") List<FileConflict> conflicts) {
+        this.schemaVersion = schemaVersion;
+        this.fingerprint = fingerprint;
+        this.conflicts = conflicts == null ? Collections.emptyList() : conflicts;
+    }
+
+    public String getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public List<FileConflict> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * calculates the fingerprint of the files in {@code installationDir} and {@code candidateDir}. Only the files
+     * recorded in {@code .galleon/hashes} of either server, and the recorded hashes themselves, are included. Other
+     * files don't take part in the conflict resolution.
+     *
+     * @param installationDir - the server being updated
+     * @param candidateDir - the candidate server
+     * @return hex-encoded fingerprint
+     * @throws IOException if the directories cannot be read
+     */
+    public static String fingerprint(Path installationDir, Path candidateDir) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final Set<String> trackedPaths = new TreeSet<>();
+        trackedPaths.addAll(readTrackedPaths(installationDir));
+        trackedPaths.addAll(readTrackedPaths(candidateDir));
+        for (Path dir : List.of(installationDir, candidateDir)) {
+            for (String path : trackedPaths) {
+                digest.update(path.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(fileState(dir.resolve(path)).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            digest.update((byte) 0);
+        }
+        return HashUtils.bytesToHexString(digest.digest());
+    }
+
+    /*
+     * the hashes are stored in .galleon/hashes/<directory>/hashes as alternating lines of file name and the hash
+     */
+    private static Set<String> readTrackedPaths(Path root) throws IOException {
+        final Path hashesDir = root.resolve(Constants.PROVISIONED_STATE_DIR).resolve(Constants.HASHES);
+        if (!Files.isDirectory(hashesDir)) {
+            return Collections.emptySet();
+        }
+
+        final List<Path> hashFiles;
+        try (Stream<Path> files = Files.walk(hashesDir)) {
+            hashFiles = files
+                    .filter(f -> f.getFileName().toString().equals(Constants.HASHES) && Files.isRegularFile(f))
+                    .collect(Collectors.toList());
+        }
+
+        final Set<String> paths = new HashSet<>();
+        for (Path hashFile : hashFiles) {
+            paths.add(toKey(root.relativize(hashFile)));
+            final Path dir = hashesDir.relativize(hashFile.getParent());
+            final List<String> lines = Files.readAllLines(hashFile, StandardCharsets.UTF_8);
+            for (int i = 0; i + 1 < lines.size(); i += 2) {
+                paths.add(toKey(dir.resolve(lines.get(i))));
+            }
+        }
+        return paths;
+    }
+
+    private static String fileState(Path file) throws IOException {
+        try {
+            final BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            return attrs.size() + ":" + attrs.lastModifiedTime();
+        } catch (NoSuchFileException e) {
+            return "-";
+        }
+    }
+
+    private static String toKey(Path relativePath) {
+        return relativePath.toString().replace(File.separatorChar, '/');
+    }
+
+    @Override
+    public String toString() {
+        return "ConflictReport{" +
+                "schemaVersion='" + schemaVersion + '\'' +
+                ", fingerprint='" + fingerprint + '\'' +
+                ", conflicts=" + conflicts +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConflictReport that = (ConflictReport) o;
+        return Objects.equals(schemaVersion, that.schemaVersion) && Objects.equals(fingerprint, that.fingerprint) && Objects.equals(conflicts, that.conflicts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(schemaVersion, fingerprint, conflicts);
+    }
+}
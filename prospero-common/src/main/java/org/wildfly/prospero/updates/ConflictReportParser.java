@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.updates;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.wildfly.prospero.api.exceptions.MetadataException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class ConflictReportParser {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper(new YAMLFactory());
+
+    public static ConflictReport read(Path file) throws IOException, MetadataException {
+        final JsonNode node = OBJECT_MAPPER.readTree(file.toFile());
+        final String version = node.path("schemaVersion").asText();
+        if (!ConflictReport.DEFAULT_SCHEMA.equals(version)) {
+            throw new MetadataException("Unknown schemaVersion for the candidate conflict report.");
+        }
+
+        return OBJECT_MAPPER.treeToValue(node, ConflictReport.class);
+    }
+
+    public static void write(ConflictReport report, Path file) throws IOException {
+        OBJECT_MAPPER.writeValue(file.toFile(), report);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.updates;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.jboss.logging.Logger;
+import org.wildfly.channel.Channel;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestCoordinate;
+import org.wildfly.channel.ChannelManifestMapper;
+import org.wildfly.channel.InvalidChannelMetadataException;
+import org.wildfly.channel.MavenArtifact;
+import org.wildfly.channel.MavenCoordinate;
+import org.wildfly.channel.Stream;
+import org.wildfly.channel.version.VersionMatcher;
+import org.wildfly.prospero.api.ArtifactChange;
+import org.wildfly.prospero.api.exceptions.ArtifactResolutionException;
+import org.wildfly.prospero.metadata.ManifestVersionRecord;
+import org.wildfly.prospero.wfchannel.ResolvedArtifactsStore;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Finds updates by comparing channel manifests resolved for the update with the installed artifacts, instead of
+ * querying the latest version of each artifact.
+ *
+ * The comparison is only possible if the resolved manifests fully determine the artifact versions - the channels cannot
+ * use blocklists, resolve artifacts without streams or require other manifests. Artifacts with version pattern streams
+ * are still looked up using {@link UpdateFinder}. Otherwise, all the artifacts are looked up.
+ */
+public class ManifestUpdateFinder {
+
+    private static final Logger LOG = Logger.getLogger(ManifestUpdateFinder.class.getName());
+
+    private final List<Channel> channels;
+    private final ResolvedArtifactsStore resolvedArtifacts;
+
+    /**
+     * @param channels - channels used to find the updates
+     * @param resolvedArtifacts - artifacts resolved by the maven session, containing the channel manifests
+     */
+    public ManifestUpdateFinder(List<Channel> channels, ResolvedArtifactsStore resolvedArtifacts) {
+        this.channels = channels;
+        this.resolvedArtifacts = resolvedArtifacts;
+    }
+
+    /**
+     * checks if the resolved manifests are the same as the manifests the installation was provisioned with. If they are,
+     * and the manifests fully determine the artifact versions, there cannot be any updates.
+     *
+     * @param installedVersions - manifest versions recorded in the installation
+     * @return true if all the channel manifests resolved to the same versions as recorded
+     */
+    public boolean isUnchanged(ManifestVersionRecord installedVersions) {
+        if (!installedVersions.getUrlManifests().isEmpty() || !installedVersions.getOpenManifests().isEmpty()
+                || installedVersions.getMavenManifests().size() != channels.size()) {
+            return false;
+        }
+
+        for (Channel channel : channels) {
+            final MavenCoordinate coordinate = channel.getManifestCoordinate() == null ? null : channel.getManifestCoordinate().getMaven();
+            if (coordinate == null) {
+                return false;
+            }
+            final MavenArtifact resolved = resolvedArtifacts.getManifestVersion(coordinate.getGroupId(), coordinate.getArtifactId());
+            final boolean recorded = resolved != null && installedVersions.getMavenManifests().stream()
+                    .anyMatch(m -> m.getGroupId().equals(coordinate.getGroupId())
+                            && m.getArtifactId().equals(coordinate.getArtifactId())
+                            && m.getVersion().equals(resolved.getVersion()));
+            if (!recorded) {
+                return false;
+            }
+        }
+
+        return isFullyDetermined();
+    }
+
+    /**
+     * checks if the resolved manifests fully determine the versions of all artifacts. If they don't, the same manifests
+     * can resolve to different artifacts over time.
+     *
+     * @return false if any of the channels uses a blocklist, a no-stream strategy, manifest requirements or version
+     * pattern streams, or if its manifest has not been resolved
+     */
+    public boolean isFullyDetermined() {
+        final Optional<List<ResolvedManifest>> manifests = resolveManifests();
+        return manifests.isPresent() && manifests.get().stream()
+                .flatMap(m -> m.manifest.getStreams().stream())
+                .allMatch(s -> s.getVersionPattern() == null && s.getVersion() != null);
+    }
+
+    /**
+     * generates a list of updates of {@code artifacts}.
+     *
+     * @param artifacts - the installed artifacts
+     * @param updateFinder - used to find versions that are not determined by the manifests
+     * @return the updates
+     * @throws ArtifactResolutionException if a latest version of an artifact cannot be found
+     */
+    public UpdateSet findUpdates(List<Artifact> artifacts, UpdateFinder updateFinder) throws ArtifactResolutionException {
+        final Optional<List<ResolvedManifest>> manifests = resolveManifests();
+        if (manifests.isEmpty()) {
+            return updateFinder.findUpdates(artifacts);
+        }
+
+        final Map<String, ArtifactChange> changes = new HashMap<>();
+        final List<Artifact> lookups = new ArrayList<>();
+        for (Artifact artifact : artifacts) {
+            String latestVersion = null;
+            String channelName = null;
+            boolean found = false;
+            boolean versionPattern = false;
+            for (ResolvedManifest resolved : manifests.get()) {
+                final Optional<Stream> stream = resolved.manifest.findStreamFor(artifact.getGroupId(), artifact.getArtifactId());
+                if (stream.isEmpty()) {
+                    continue;
+                }
+                found = true;
+                if (stream.get().getVersionPattern() != null || stream.get().getVersion() == null) {
+                    versionPattern = true;
+                    break;
+                }
+                if (latestVersion == null || VersionMatcher.COMPARATOR.compare(stream.get().getVersion(), latestVersion) > 0) {
+                    latestVersion = stream.get().getVersion();
+                    channelName = resolved.channel.getName();
+                }
+            }
+
+            if (versionPattern) {
+                lookups.add(artifact);
+            } else if (!found) {
+                changes.put(key(artifact), ArtifactChange.removed(artifact));
+            } else if (!latestVersion.equals(artifact.getVersion())) {
+                changes.put(key(artifact), ArtifactChange.updated(artifact, artifact.setVersion(latestVersion), channelName));
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Found %d updates in channel manifests, looking up %d artifacts", changes.size(), lookups.size());
+        }
+        if (!lookups.isEmpty()) {
+            for (Map.Entry<Artifact, ArtifactChange> change : updateFinder.findChanges(lookups).entrySet()) {
+                changes.put(key(change.getKey()), change.getValue());
+            }
+        }
+
+        // keep the order of the installed artifacts
+        final List<ArtifactChange> updates = new ArrayList<>();
+        for (Artifact artifact : artifacts) {
+            final ArtifactChange change = changes.get(key(artifact));
+            if (change != null) {
+                updates.add(change);
+            }
+        }
+        return new UpdateSet(updates);
+    }
+
+    private Optional<List<ResolvedManifest>> resolveManifests() {
+        final List<ResolvedManifest> manifests = new ArrayList<>();
+        for (Channel channel : channels) {
+            final ChannelManifestCoordinate coordinate = channel.getManifestCoordinate();
+            if (coordinate == null || channel.getBlocklistCoordinate() != null
+                    || (channel.getNoStreamStrategy() != null && channel.getNoStreamStrategy() != Channel.NoStreamStrategy.NONE)) {
+                return Optional.empty();
+            }
+
+            try {
+                final URL url;
+                if (coordinate.getMaven() != null) {
+                    final MavenArtifact resolved = resolvedArtifacts.getManifestVersion(coordinate.getMaven().getGroupId(),
+                            coordinate.getMaven().getArtifactId());
+                    if (resolved == null) {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debugf("Manifest %s of channel %s was not resolved in this session", coordinate.getMaven(), channel.getName());
+                        }
+                        return Optional.empty();
+                    }
+                    url = resolved.getFile().toURI().toURL();
+                } else {
+                    url = coordinate.getUrl();
+                }
+
+                final ChannelManifest manifest = ChannelManifestMapper.from(url);
+                if (!manifest.getManifestRequirements().isEmpty()) {
+                    return Optional.empty();
+                }
+                manifests.add(new ResolvedManifest(channel, manifest));
+            } catch (MalformedURLException | InvalidChannelMetadataException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debugf(e, "Unable to read manifest of channel %s", channel.getName());
+                }
+                return Optional.empty();
+            }
+        }
+        return Optional.of(manifests);
+    }
+
+    private static String key(Artifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getClassifier() + ":" + artifact.getExtension();
+    }
+
+    private static class ResolvedManifest {
+        private final Channel channel;
+        private final ChannelManifest manifest;
+
+        ResolvedManifest(Channel channel, ChannelManifest manifest) {
+            this.channel = channel;
+            this.manifest = manifest;
+        }
+    }
+}
@@ -23,16 +23,19 @@ import org.wildfly.channel.ChannelSession;
 import org.wildfly.channel.UnresolvedMavenArtifactException;
 import org.wildfly.channel.VersionResult;
 import org.wildfly.prospero.api.ArtifactChange;
+import org.wildfly.prospero.api.Console;
 import org.wildfly.prospero.api.exceptions.ArtifactResolutionException;
+import org.wildfly.prospero.api.exceptions.OperationCancelledException;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
 
 public class UpdateFinder implements AutoCloseable {
 
@@ -40,19 +43,39 @@ public class UpdateFinder implements AutoCloseable {
 
     private final ChannelSession channelSession;
     private final ExecutorService executorService;
+    private final Console console;
 
     public UpdateFinder(ChannelSession channelSession) {
+        this(channelSession, null);
+    }
+
+    /**
+     * @param channelSession - session used to find latest versions of artifacts
+     * @param console - if not null, the search is aborted when the {@code console} reports cancelled operation
+     */
+    public UpdateFinder(ChannelSession channelSession, Console console) {
         this.channelSession = channelSession;
+        this.console = console;
         this.executorService = Executors.newWorkStealingPool(UPDATES_SEARCH_PARALLELISM);
     }
 
     public UpdateSet findUpdates(List<Artifact> artifacts) throws ArtifactResolutionException {
+        return new UpdateSet(new ArrayList<>(findChanges(artifacts).values()));
+    }
+
+    /**
+     * finds updates of {@code artifacts}, keyed by the artifact they apply to. Artifacts without an update are not included.
+     */
+    Map<Artifact, ArtifactChange> findChanges(List<Artifact> artifacts) throws ArtifactResolutionException {
         // use parallel executor to speed up the artifact resolution
         List<CompletableFuture<Optional<ArtifactChange>>> allPackages = new ArrayList<>();
         for (Artifact artifact : artifacts) {
             final CompletableFuture<Optional<ArtifactChange>> cf = new CompletableFuture<>();
             executorService.submit(() -> {
                 try {
+                    if (console != null) {
+                        console.checkCancelled();
+                    }
                     final Optional<ArtifactChange> found = findUpdates(artifact);
                     cf.complete(found);
                 } catch (Exception e) {
@@ -67,17 +90,21 @@ public class UpdateFinder implements AutoCloseable {
         } catch (CompletionException e) {
             if (e.getCause() instanceof ArtifactResolutionException) {
                 throw (ArtifactResolutionException) e.getCause();
+            } else if (e.getCause() instanceof OperationCancelledException) {
+                throw (OperationCancelledException) e.getCause();
             } else {
                 throw e;
             }
         }
 
-        final List<ArtifactChange> updates = allPackages.stream()
-                .map(cf ->cf.getNow(Optional.empty()))
-                .flatMap(Optional::stream)
-                .collect(Collectors.toList());
-
-        return new UpdateSet(updates);
+        final Map<Artifact, ArtifactChange> changes = new LinkedHashMap<>();
+        for (int i = 0; i < artifacts.size(); i++) {
+            final Optional<ArtifactChange> change = allPackages.get(i).getNow(Optional.empty());
+            if (change.isPresent()) {
+                changes.put(artifacts.get(i), change.get());
+            }
+        }
+        return changes;
     }
 
     private Optional<ArtifactChange> findUpdates(Artifact artifact) throws ArtifactResolutionException {
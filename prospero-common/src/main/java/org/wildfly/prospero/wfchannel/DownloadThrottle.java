@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.wfchannel;
+
+import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.TransferCancelledException;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the download rate and the number of concurrent downloads of all sessions sharing this listener.
+ *
+ * The listener is called by the Maven transport on the thread performing the download. A transfer waits in
+ * {@link #transferInitiated(TransferEvent)} until a download slot is free, and each received chunk of data is delayed
+ * in {@link #transferProgressed(TransferEvent)} until it fits both the global and the per-repository rate.
+ */
+class DownloadThrottle extends AbstractTransferListener {
+
+    private final Rate globalRate;
+    private final long repositoryBandwidth;
+    private final Map<String, Rate> repositoryRates = new ConcurrentHashMap<>();
+    private final Semaphore downloadSlots;
+    private final Set<TransferResource> activeTransfers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * @param bandwidth - maximum bytes per second downloaded from all repositories, or {@code null} if not limited
+     * @param repositoryBandwidth - maximum bytes per second downloaded from one repository, or {@code null} if not limited
+     * @param concurrentDownloads - maximum number of concurrent transfers, or {@code null} if not limited
+     */
+    DownloadThrottle(Long bandwidth, Long repositoryBandwidth, Integer concurrentDownloads) {
+        this.globalRate = bandwidth == null ? null : new Rate(bandwidth);
+        this.repositoryBandwidth = repositoryBandwidth == null ? -1 : repositoryBandwidth;
+        this.downloadSlots = concurrentDownloads == null ? null : new Semaphore(concurrentDownloads, true);
+    }
+
+    @Override
+    public void transferInitiated(TransferEvent event) throws TransferCancelledException {
+        if (downloadSlots == null || event.getRequestType() != TransferEvent.RequestType.GET) {
+            return;
+        }
+        try {
+            downloadSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferCancelledException();
+        }
+        activeTransfers.add(event.getResource());
+    }
+
+    @Override
+    public void transferProgressed(TransferEvent event) throws TransferCancelledException {
+        final long bytes = event.getDataLength();
+        if (bytes <= 0 || event.getRequestType() != TransferEvent.RequestType.GET) {
+            return;
+        }
+        long delay = globalRate == null ? 0 : globalRate.reserve(bytes);
+        if (repositoryBandwidth > 0) {
+            final Rate repositoryRate = repositoryRates.computeIfAbsent(event.getResource().getRepositoryUrl(),
+                    u -> new Rate(repositoryBandwidth));
+            delay = Math.max(delay, repositoryRate.reserve(bytes));
+        }
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransferCancelledException();
+            }
+        }
+    }
+
+    @Override
+    public void transferSucceeded(TransferEvent event) {
+        release(event);
+    }
+
+    @Override
+    public void transferFailed(TransferEvent event) {
+        release(event);
+    }
+
+    private void release(TransferEvent event) {
+        if (downloadSlots != null && activeTransfers.remove(event.getResource())) {
+            downloadSlots.release();
+        }
+    }
+
+    /**
+     * Paces the received data to a constant rate. Each call reserves the time needed to receive {@code bytes} at
+     * the given rate after the previously reserved data and returns how long the caller has to wait for its turn.
+     */
+    static class Rate {
+        private final long bytesPerSecond;
+        private long next;
+
+        Rate(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+            this.next = System.nanoTime();
+        }
+
+        synchronized long reserve(long bytes) {
+            final long now = System.nanoTime();
+            if (next < now) {
+                next = now;
+            }
+            final long delay = next - now;
+            next += bytes * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+            return delay;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.wfchannel;
+
+import org.eclipse.aether.ConfigurationProperties;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.transport.AbstractTransporter;
+import org.eclipse.aether.spi.connector.transport.GetTask;
+import org.eclipse.aether.spi.connector.transport.PeekTask;
+import org.eclipse.aether.spi.connector.transport.PutTask;
+import org.eclipse.aether.spi.connector.transport.TransportTask;
+import org.eclipse.aether.util.ConfigUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Transporter using a shared JDK {@code HttpClient}. See {@link JdkHttpTransporterFactory}.
+ */
+class JdkHttpTransporter extends AbstractTransporter {
+
+    private static final int PARTIAL_CONTENT = 206;
+    private static final int NOT_FOUND = 404;
+    private static final Map<String, String> CHECKSUM_HEADERS = Map.of(
+            "x-checksum-sha1", "SHA-1",
+            "x-checksum-md5", "MD5");
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final Duration requestTimeout;
+    private final String userAgent;
+
+    JdkHttpTransporter(HttpClient client, RemoteRepository repository, RepositorySystemSession session) {
+        this.client = client;
+        final String url = repository.getUrl();
+        this.baseUri = URI.create(url.endsWith("/") ? url : url + "/");
+        this.requestTimeout = Duration.ofMillis(ConfigUtils.getInteger(session, ConfigurationProperties.DEFAULT_REQUEST_TIMEOUT,
+                ConfigurationProperties.REQUEST_TIMEOUT + "." + repository.getId(), ConfigurationProperties.REQUEST_TIMEOUT));
+        this.userAgent = ConfigUtils.getString(session, ConfigurationProperties.DEFAULT_USER_AGENT, ConfigurationProperties.USER_AGENT);
+    }
+
+    @Override
+    public int classify(Throwable error) {
+        if (error instanceof HttpStatusException && ((HttpStatusException) error).statusCode == NOT_FOUND) {
+            return ERROR_NOT_FOUND;
+        }
+        return ERROR_OTHER;
+    }
+
+    @Override
+    protected void implPeek(PeekTask task) throws Exception {
+        final HttpResponse<Void> response = send(newRequest(task)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.discarding());
+        checkStatus(task, response);
+    }
+
+    @Override
+    protected void implGet(GetTask task) throws Exception {
+        final HttpRequest.Builder request = newRequest(task).GET();
+        final long resumeOffset = task.getDataFile() != null ? task.getResumeOffset() : 0;
+        if (resumeOffset > 0) {
+            request.header("Range", "bytes=" + resumeOffset + "-");
+        }
+
+        final HttpResponse<InputStream> response = send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            checkStatus(task, response);
+            for (Map.Entry<String, String> header : CHECKSUM_HEADERS.entrySet()) {
+                response.headers().firstValue(header.getKey())
+                        .ifPresent(checksum -> task.setChecksum(header.getValue(), checksum));
+            }
+            final boolean resume = resumeOffset > 0 && response.statusCode() == PARTIAL_CONTENT;
+            final long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            utilGet(task, body, true, length, resume);
+        }
+    }
+
+    @Override
+    protected void implPut(PutTask task) throws Exception {
+        final HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(
+                HttpRequest.BodyPublishers.ofInputStream(() -> {
+                    try {
+                        return task.newInputStream();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }), task.getDataLength());
+        task.getListener().transportStarted(0, task.getDataLength());
+        final HttpResponse<Void> response = send(newRequest(task).PUT(body).build(), HttpResponse.BodyHandlers.discarding());
+        checkStatus(task, response);
+    }
+
+    @Override
+    protected void implClose() {
+        // the client is shared by other transporters
+    }
+
+    private HttpRequest.Builder newRequest(TransportTask task) {
+        return HttpRequest.newBuilder(baseUri.resolve(task.getLocation()))
+                .timeout(requestTimeout)
+                .header("User-Agent", userAgent);
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return client.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+    }
+
+    private static void checkStatus(TransportTask task, HttpResponse<?> response) throws HttpStatusException {
+        if (response.statusCode() >= 300) {
+            throw new HttpStatusException(response.statusCode(), task.getLocation());
+        }
+    }
+
+    static class HttpStatusException extends IOException {
+        private final int statusCode;
+
+        HttpStatusException(int statusCode, URI location) {
+            super(String.format("Transfer of %s failed with status code %d", location, statusCode));
+            this.statusCode = statusCode;
+        }
+    }
+}
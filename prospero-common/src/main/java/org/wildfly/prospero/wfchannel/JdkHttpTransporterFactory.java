@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.wfchannel;
+
+import org.eclipse.aether.ConfigurationProperties;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.AuthenticationContext;
+import org.eclipse.aether.repository.Proxy;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.transport.Transporter;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transfer.NoTransporterException;
+import org.eclipse.aether.util.ConfigUtils;
+
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates transporters accessing http(s) repositories using the JDK {@code HttpClient}. The client negotiates HTTP/2
+ * if the repository supports it, multiplexing all requests over a single connection, and falls back to HTTP/1.1
+ * with keep-alive connections otherwise.
+ *
+ * The clients are stored in the session's {@code RepositoryCache}, so that connections are re-used by all transporters
+ * created with that cache.
+ *
+ * Repositories the {@code HttpClient} cannot access the way Maven is configured to are left to the next transporter
+ * factory: the JDK disables Basic authentication when tunnelling HTTPS through a proxy, so repositories behind an
+ * authenticating proxy are not accepted, and neither are repositories with the {@code insecure} HTTPS security mode
+ * or with a custom SSL context in their authentication.
+ */
+public final class JdkHttpTransporterFactory implements TransporterFactory {
+
+    private static final String CLIENTS_KEY = JdkHttpTransporterFactory.class.getName() + ".clients";
+    private static final float PRIORITY = 10.0f;
+
+    @Override
+    public Transporter newInstance(RepositorySystemSession session, RemoteRepository repository) throws NoTransporterException {
+        if (!"http".equalsIgnoreCase(repository.getProtocol()) && !"https".equalsIgnoreCase(repository.getProtocol())) {
+            throw new NoTransporterException(repository);
+        }
+
+        final ClientConfig config = new ClientConfig(session, repository);
+        if (config.proxyAuthentication) {
+            throw new NoTransporterException(repository, "proxy authentication is not supported by the HTTP/2 transport");
+        }
+        if (!ConfigurationProperties.HTTPS_SECURITY_MODE_DEFAULT.equals(ConfigUtils.getString(session,
+                ConfigurationProperties.HTTPS_SECURITY_MODE_DEFAULT,
+                ConfigurationProperties.HTTPS_SECURITY_MODE + "." + repository.getId(), ConfigurationProperties.HTTPS_SECURITY_MODE))
+                || config.sslContext) {
+            throw new NoTransporterException(repository, "custom SSL settings are not supported by the HTTP/2 transport");
+        }
+        final HttpClient client = getClients(session).computeIfAbsent(config, ClientConfig::newClient);
+        return new JdkHttpTransporter(client, repository, session);
+    }
+
+    @Override
+    public float getPriority() {
+        return PRIORITY;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<ClientConfig, HttpClient> getClients(RepositorySystemSession session) {
+        final RepositoryCache cache = session.getCache();
+        if (cache == null) {
+            return new ConcurrentHashMap<>();
+        }
+        synchronized (JdkHttpTransporterFactory.class) {
+            Object clients = cache.get(session, CLIENTS_KEY);
+            if (!(clients instanceof Map)) {
+                clients = new ConcurrentHashMap<ClientConfig, HttpClient>();
+                cache.put(session, CLIENTS_KEY, clients);
+            }
+            return (Map<ClientConfig, HttpClient>) clients;
+        }
+    }
+
+    /**
+     * settings affecting the connections created by a client. Repositories with the same settings share the client.
+     */
+    private static class ClientConfig {
+        private final String proxyHost;
+        private final int proxyPort;
+        private final String username;
+        private final String password;
+        private final boolean proxyAuthentication;
+        private final boolean sslContext;
+        private final int connectTimeout;
+
+        ClientConfig(RepositorySystemSession session, RemoteRepository repository) {
+            final Proxy proxy = repository.getProxy();
+            this.proxyHost = proxy == null ? null : proxy.getHost();
+            this.proxyPort = proxy == null ? -1 : proxy.getPort();
+            try (AuthenticationContext auth = AuthenticationContext.forRepository(session, repository)) {
+                this.username = auth == null ? null : auth.get(AuthenticationContext.USERNAME);
+                this.password = auth == null ? null : auth.get(AuthenticationContext.PASSWORD);
+                this.sslContext = auth != null && auth.get(AuthenticationContext.SSL_CONTEXT) != null;
+            }
+            try (AuthenticationContext auth = AuthenticationContext.forProxy(session, repository)) {
+                this.proxyAuthentication = auth != null;
+            }
+            this.connectTimeout = ConfigUtils.getInteger(session, ConfigurationProperties.DEFAULT_CONNECT_TIMEOUT,
+                    ConfigurationProperties.CONNECT_TIMEOUT + "." + repository.getId(), ConfigurationProperties.CONNECT_TIMEOUT);
+        }
+
+        HttpClient newClient() {
+            final HttpClient.Builder builder = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .connectTimeout(Duration.ofMillis(connectTimeout));
+            if (proxyHost != null) {
+                builder.proxy(ProxySelector.of(new InetSocketAddress(proxyHost, proxyPort)));
+            } else {
+                // like the Apache transport, connect directly if Maven has no proxy configured for the repository
+                builder.proxy(HttpClient.Builder.NO_PROXY);
+            }
+            if (username != null) {
+                builder.authenticator(new Authenticator() {
+                    @Override
+                    protected PasswordAuthentication getPasswordAuthentication() {
+                        if (getRequestorType() == RequestorType.SERVER) {
+                            return credentials(username, password);
+                        } else {
+                            return null;
+                        }
+                    }
+                });
+            }
+            return builder.build();
+        }
+
+        private static PasswordAuthentication credentials(String username, String password) {
+            return new PasswordAuthentication(username, password == null ? new char[0] : password.toCharArray());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ClientConfig that = (ClientConfig) o;
+            return proxyPort == that.proxyPort && connectTimeout == that.connectTimeout && Objects.equals(proxyHost, that.proxyHost)
+                    && Objects.equals(username, that.username) && Objects.equals(password, that.password)
+                    && proxyAuthentication == that.proxyAuthentication && sslContext == that.sslContext;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(proxyHost, proxyPort, username, password, proxyAuthentication, sslContext, connectTimeout);
+        }
+    }
+}
@@ -26,43 +26,93 @@ import java.util.Objects;
 import org.apache.commons.io.FileUtils;
 import org.eclipse.aether.repository.LocalRepository;
 import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositoryCache;
 import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
 import org.eclipse.aether.impl.DefaultServiceLocator;
 import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
 import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
 import org.eclipse.aether.transport.file.FileTransporterFactory;
 import org.eclipse.aether.transport.http.HttpTransporterFactory;
+import org.eclipse.aether.util.listener.ChainedRepositoryListener;
 import org.jboss.galleon.ProvisioningException;
 import org.wildfly.prospero.ProsperoLogger;
 import org.wildfly.prospero.api.MavenOptions;
+import org.wildfly.prospero.api.WorkDirectory;
 
 public class MavenSessionManager {
 
     public static final Path LOCAL_MAVEN_REPO = Paths.get(System.getProperty("user.home"), ".m2", "repository");
     private static final String AETHER_OFFLINE_PROTOCOLS_PROPERTY = "aether.offline.protocols";
     public static final String AETHER_OFFLINE_PROTOCOLS_VALUE = "file";
+    private static final String HTTP_MAX_CONNECTIONS_PER_ROUTE_PROPERTY = "aether.connector.http.maxConnectionsPerRoute";
+    private static final String HTTP_CONNECTION_MAX_TTL_PROPERTY = "aether.connector.http.connectionMaxTtl";
+    private static final String CONNECTOR_THREADS_PROPERTY = "aether.connector.basic.threads";
     private final Path provisioningRepo;
+    private final ProvisioningCache provisioningCache;
     private final ProsperoMavenRepositoryListener repositoryListener = new ProsperoMavenRepositoryListener();
+    // holds the pooled HTTP connections, shared by all sessions so that connections are kept alive between phases
+    private final RepositoryCache repositoryCache;
+    private final Integer maxConnectionsPerRoute;
+    private final Integer connectionMaxTtl;
+    private final boolean http2;
+    private final Integer maxConcurrentDownloads;
+    // shared by all sessions, so that the limits apply to the whole operation
+    private final DownloadThrottle downloadThrottle;
     private boolean offline;
 
     public MavenSessionManager(MavenOptions mavenOptions) throws ProvisioningException {
+        this(mavenOptions, null);
+    }
+
+    /**
+     * @param mavenOptions - Maven configuration of the session
+     * @param installationDir - installation the session operates on. If set, a temporary local repository is created
+     *                        in the work directory of the installation. Can be {@code null}.
+     * @throws ProvisioningException if the local repository cannot be created
+     */
+    public MavenSessionManager(MavenOptions mavenOptions, Path installationDir) throws ProvisioningException {
         Objects.requireNonNull(mavenOptions);
 
         this.offline = mavenOptions.isOffline();
+        this.repositoryCache = new DefaultRepositoryCache();
+        this.maxConnectionsPerRoute = mavenOptions.getMaxConnectionsPerRoute();
+        this.connectionMaxTtl = mavenOptions.getConnectionMaxTtl();
+        this.http2 = mavenOptions.isHttp2();
+        this.maxConcurrentDownloads = mavenOptions.getMaxConcurrentDownloads();
+        if (mavenOptions.getMaxBandwidth() != null || mavenOptions.getMaxRepositoryBandwidth() != null || maxConcurrentDownloads != null) {
+            this.downloadThrottle = new DownloadThrottle(mavenOptions.getMaxBandwidth(), mavenOptions.getMaxRepositoryBandwidth(), maxConcurrentDownloads);
+        } else {
+            this.downloadThrottle = null;
+        }
 
-        if (mavenOptions.isNoLocalCache()) {
+        if (mavenOptions.isNoLocalCache() && ProvisioningCache.isEnabled()) {
+            this.provisioningCache = ProvisioningCache.fromSystemProperties();
+            try {
+                Files.createDirectories(provisioningCache.getRoot());
+            } catch (IOException e) {
+                throw ProsperoLogger.ROOT_LOGGER.unableToCreateCache(e);
+            }
+            this.provisioningRepo = provisioningCache.getRoot();
+        } else if (mavenOptions.isNoLocalCache()) {
+            this.provisioningCache = null;
             // generate temp folder
             try {
-                this.provisioningRepo = Files.createTempDirectory("provisioning-repo");
+                this.provisioningRepo = installationDir == null
+                        ? WorkDirectory.createTempDirectory("provisioning-repo")
+                        : WorkDirectory.createTempDirectory(installationDir, "provisioning-repo");
                 Runtime.getRuntime().addShutdownHook(new Thread(() -> FileUtils.deleteQuietly(this.provisioningRepo.toFile())));
             } catch (IOException e) {
                 throw ProsperoLogger.ROOT_LOGGER.unableToCreateCache(e);
             }
         } else if (!mavenOptions.overridesLocalCache()) {
+            this.provisioningCache = null;
             this.provisioningRepo = LOCAL_MAVEN_REPO;
         } else {
+            this.provisioningCache = null;
             this.provisioningRepo = mavenOptions.getLocalCache().toAbsolutePath();
         }
 
@@ -76,6 +126,13 @@ public class MavenSessionManager {
     public MavenSessionManager(MavenSessionManager base) {
         this.offline = base.isOffline();
         this.provisioningRepo = base.provisioningRepo;
+        this.provisioningCache = base.provisioningCache;
+        this.repositoryCache = base.repositoryCache;
+        this.maxConnectionsPerRoute = base.maxConnectionsPerRoute;
+        this.connectionMaxTtl = base.connectionMaxTtl;
+        this.http2 = base.http2;
+        this.maxConcurrentDownloads = base.maxConcurrentDownloads;
+        this.downloadThrottle = base.downloadThrottle;
     }
 
     public MavenSessionManager() throws ProvisioningException {
@@ -83,9 +140,25 @@ public class MavenSessionManager {
     }
 
     public RepositorySystem newRepositorySystem() {
+        return newServiceLocator().getService(RepositorySystem.class);
+    }
+
+    /**
+     * creates transporters configured the same way as the {@link #newRepositorySystem()}. Used to access
+     * repositories directly, without resolving artifacts.
+     */
+    public TransporterProvider newTransporterProvider() {
+        return newServiceLocator().getService(TransporterProvider.class);
+    }
+
+    private DefaultServiceLocator newServiceLocator() {
         final DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
         locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
         locator.addService(TransporterFactory.class, HttpTransporterFactory.class);
+        if (http2) {
+            // takes precedence over the HttpTransporterFactory for http and https repositories
+            locator.addService(TransporterFactory.class, JdkHttpTransporterFactory.class);
+        }
         locator.addService(TransporterFactory.class, FileTransporterFactory.class);
         locator.setErrorHandler(new DefaultServiceLocator.ErrorHandler() {
             @Override
@@ -93,19 +166,53 @@ public class MavenSessionManager {
                 throw ProsperoLogger.ROOT_LOGGER.failedToInitMaven(exception);
             }
         });
-        return locator.getService(RepositorySystem.class);
+        return locator;
     }
 
     public DefaultRepositorySystemSession newRepositorySystemSession(RepositorySystem system) {
         final DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
 
         final LocalRepository localRepo = new LocalRepository(provisioningRepo.toAbsolutePath().toFile());
-        session.setRepositoryListener(repositoryListener);
+        if (provisioningCache != null) {
+            session.setRepositoryListener(new ChainedRepositoryListener(repositoryListener, provisioningCache.accessListener()));
+        } else {
+            session.setRepositoryListener(repositoryListener);
+        }
         session.setLocalRepositoryManager(system.newLocalRepositoryManager(session, localRepo));
         session.setOffline(offline);
+        session.setCache(repositoryCache);
+        if (maxConnectionsPerRoute != null) {
+            session.setConfigProperty(HTTP_MAX_CONNECTIONS_PER_ROUTE_PROPERTY, maxConnectionsPerRoute);
+        }
+        if (connectionMaxTtl != null) {
+            session.setConfigProperty(HTTP_CONNECTION_MAX_TTL_PROPERTY, connectionMaxTtl);
+        }
+        if (maxConcurrentDownloads != null) {
+            session.setConfigProperty(CONNECTOR_THREADS_PROPERTY, maxConcurrentDownloads);
+        }
+        if (downloadThrottle != null) {
+            session.setTransferListener(downloadThrottle);
+        }
         return session;
     }
 
+    /**
+     * Prevents other processes from evicting artifacts from the provisioning cache while it is used, see {@link ProvisioningCache#open()}.
+     *
+     * @return lease that has to be closed when the operation is finished, or {@code null} if the provisioning cache is not used
+     * @throws ProvisioningException if the cache cannot be locked
+     */
+    public ProvisioningCache.Lease openProvisioningCache() throws ProvisioningException {
+        if (provisioningCache == null) {
+            return null;
+        }
+        try {
+            return provisioningCache.open();
+        } catch (IOException e) {
+            throw ProsperoLogger.ROOT_LOGGER.unableToCreateCache(e);
+        }
+    }
+
     public Path getProvisioningRepo() {
         return provisioningRepo;
     }
@@ -23,15 +23,15 @@ import org.eclipse.aether.artifact.Artifact;
 import org.wildfly.channel.ChannelManifest;
 import org.wildfly.channel.MavenArtifact;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * listener called every time an artifact is resolved by Maven. Keeps track of artifacts resolved by Maven
  */
 class ProsperoMavenRepositoryListener extends AbstractRepositoryListener implements ResolvedArtifactsStore {
 
-    private final Map<String, MavenArtifact> manifestVersions = new HashMap<>();
+    private final Map<String, MavenArtifact> manifestVersions = new ConcurrentHashMap<>();
 
     @Override
     public MavenArtifact getManifestVersion(String groupId, String artifactId) {
@@ -0,0 +1,478 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.wfchannel;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.aether.AbstractRepositoryListener;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.RepositoryListener;
+import org.jboss.logging.Logger;
+import org.wildfly.prospero.ProsperoLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Persistent Maven repository used instead of a temporary repository when {@code MavenOptions} don't define a local cache.
+ * <p>
+ * The cache is bounded by size and by age of its entries. An entry is a directory containing resolved artifact files,
+ * usually a single version of an artifact. The modification time of the directory is updated every time an artifact
+ * from it is resolved, and the least recently used entries are evicted first.
+ * <p>
+ * Processes using the cache hold a shared lock on the cache, while the eviction requires an exclusive lock. The shared
+ * lock is held until all {@link Lease}s opened by the process are closed. Entries are evicted automatically at most
+ * once a day, or when the cache exceeds the maximum size, if no other process is using the cache.
+ * <p>
+ * The cache is enabled by setting the {@value #ENABLED_PROPERTY} or {@value #DIR_PROPERTY} system property. The limits
+ * can be changed using the {@value #MAX_SIZE_PROPERTY} (e.g. {@code 500M}, {@code 4G}) and {@value #MAX_AGE_PROPERTY}
+ * system properties.
+ */
+public class ProvisioningCache {
+
+    private static final Logger log = Logger.getLogger(ProvisioningCache.class);
+
+    public static final String ENABLED_PROPERTY = "prospero.cache.enabled";
+    public static final String DIR_PROPERTY = "prospero.cache.dir";
+    public static final String MAX_SIZE_PROPERTY = "prospero.cache.max-size";
+    public static final String MAX_AGE_PROPERTY = "prospero.cache.max-age-days";
+
+    public static final Path DEFAULT_DIR = Paths.get(System.getProperty("user.home"), ".prospero", "provisioning-cache");
+    public static final long DEFAULT_MAX_SIZE = 2L * 1024 * 1024 * 1024;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(30);
+
+    private static final String LOCK_FILE = ".lock";
+    private static final String PRUNE_MARKER = ".last-prune";
+    private static final Duration PRUNE_INTERVAL = Duration.ofDays(1);
+
+    // shared locks held by this JVM, released when the last lease of the cache is closed
+    private static final Map<Path, SharedLock> SHARED_LOCKS = new HashMap<>();
+
+    private final Path root;
+    private final long maxSize;
+    private final Duration maxAge;
+
+    public ProvisioningCache(Path root, long maxSize, Duration maxAge) {
+        this.root = root.toAbsolutePath().normalize();
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * @return true if the cache has been enabled using system properties
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY) || System.getProperty(DIR_PROPERTY) != null;
+    }
+
+    /**
+     * creates an instance of the cache configured by system properties. The cache does not need to be enabled.
+     *
+     * @return the cache
+     * @throws IllegalArgumentException if the configured limits cannot be parsed
+     */
+    public static ProvisioningCache fromSystemProperties() {
+        final String dir = System.getProperty(DIR_PROPERTY);
+        final String maxSize = System.getProperty(MAX_SIZE_PROPERTY);
+        final String maxAge = System.getProperty(MAX_AGE_PROPERTY);
+        return new ProvisioningCache(dir == null ? DEFAULT_DIR : Path.of(dir),
+                maxSize == null ? DEFAULT_MAX_SIZE : parseSize(maxSize),
+                maxAge == null ? DEFAULT_MAX_AGE : Duration.ofDays(Long.parseLong(maxAge.trim())));
+    }
+
+    /**
+     * parses a size with an optional {@code K}, {@code M} or {@code G} unit, e.g. {@code 500M}.
+     *
+     * @param size - the size
+     * @return number of bytes
+     * @throws NumberFormatException if the size cannot be parsed or doesn't fit in a {@code long}
+     */
+    public static long parseSize(String size) {
+        final String value = size.trim().toUpperCase(Locale.ROOT);
+        final char unit = value.isEmpty() ? ' ' : value.charAt(value.length() - 1);
+        final long multiplier;
+        switch (unit) {
+            case 'K':
+                multiplier = 1024L;
+                break;
+            case 'M':
+                multiplier = 1024L * 1024;
+                break;
+            case 'G':
+                multiplier = 1024L * 1024 * 1024;
+                break;
+            default:
+                return Long.parseLong(value);
+        }
+        try {
+            return Math.multiplyExact(Long.parseLong(value.substring(0, value.length() - 1)), multiplier);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Size out of range: " + size);
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * prepares the cache to be used by this JVM. Evicts entries if the cache has not been pruned recently and no other
+     * process is using it, then acquires a shared lock preventing other processes from evicting entries until
+     * the returned lease is closed.
+     * <p>
+     * The lock is shared by all leases opened in this JVM. When the last lease is closed, the lock is released and
+     * the cache is pruned if it exceeds the maximum size.
+     *
+     * @return lease that has to be closed when the operation using the cache is finished
+     * @throws IOException if the cache cannot be created or locked
+     */
+    public Lease open() throws IOException {
+        synchronized (SHARED_LOCKS) {
+            SharedLock shared = SHARED_LOCKS.get(root);
+            if (shared == null) {
+                Files.createDirectories(root);
+
+                if (isPruneDue()) {
+                    pruneAndLog();
+                }
+
+                final FileChannel channel = openLockFile();
+                try {
+                    shared = new SharedLock(channel, channel.lock(0, Long.MAX_VALUE, true));
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    throw e;
+                }
+                SHARED_LOCKS.put(root, shared);
+            }
+            shared.leases++;
+            return new Lease();
+        }
+    }
+
+    private void release() {
+        synchronized (SHARED_LOCKS) {
+            final SharedLock shared = SHARED_LOCKS.get(root);
+            if (shared == null || --shared.leases > 0) {
+                return;
+            }
+            SHARED_LOCKS.remove(root);
+            try {
+                shared.lock.release();
+                shared.channel.close();
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debugf(e, "Unable to release the lock of %s", root);
+                }
+            }
+
+            try {
+                if (isPruneDue() || getStats().getSize() > maxSize) {
+                    pruneAndLog();
+                }
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debugf(e, "Unable to prune %s", root);
+                }
+            }
+        }
+    }
+
+    private void pruneAndLog() throws IOException {
+        final Stats removed = prune();
+        if (removed != null && removed.getEntries() > 0) {
+            ProsperoLogger.ROOT_LOGGER.provisioningCachePruned(removed.getEntries(), removed.getSize(), root);
+        }
+    }
+
+    /**
+     * @return the number and size of entries in the cache
+     * @throws IOException if the cache cannot be read
+     */
+    public Stats getStats() throws IOException {
+        long size = 0;
+        final List<Entry> entries = listEntries();
+        for (Entry entry : entries) {
+            size += entry.size;
+        }
+        return new Stats(entries.size(), size);
+    }
+
+    /**
+     * removes entries that have not been used for longer than the maximum age, then the least recently used entries
+     * until the cache fits into the maximum size.
+     *
+     * @return the number and size of removed entries, or {@code null} if the cache is used by another process
+     * @throws IOException if the cache cannot be read or an entry cannot be removed
+     */
+    public Stats prune() throws IOException {
+        if (!Files.exists(root)) {
+            return new Stats(0, 0);
+        }
+        synchronized (SHARED_LOCKS) {
+            if (SHARED_LOCKS.containsKey(root)) {
+                // this JVM is using the cache
+                return null;
+            }
+            try (FileChannel channel = openLockFile()) {
+                final FileLock lock;
+                try {
+                    lock = channel.tryLock();
+                } catch (OverlappingFileLockException e) {
+                    return null;
+                }
+                if (lock == null) {
+                    return null;
+                }
+                try {
+                    final Stats removed = evict(listEntries());
+                    Files.writeString(root.resolve(PRUNE_MARKER), Instant.now().toString());
+                    return removed;
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * removes all content of the cache.
+     *
+     * @return the number and size of removed entries, or {@code null} if the cache is used by another process
+     * @throws IOException if the cache cannot be removed
+     */
+    public Stats clear() throws IOException {
+        final ProvisioningCache emptyCache = new ProvisioningCache(root, 0, Duration.ZERO);
+        final Stats removed = emptyCache.prune();
+        if (removed != null) {
+            // remove directories without any artifacts
+            try (Stream<Path> content = Files.list(root)) {
+                for (Path path : (Iterable<Path>) content::iterator) {
+                    if (Files.isDirectory(path)) {
+                        FileUtils.deleteDirectory(path.toFile());
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * listener marking entries containing resolved artifacts as recently used.
+     *
+     * @return the listener
+     */
+    public RepositoryListener accessListener() {
+        return new AbstractRepositoryListener() {
+            @Override
+            public void artifactResolved(RepositoryEvent event) {
+                if (event.getArtifact() != null && event.getArtifact().getFile() != null) {
+                    markUsed(event.getArtifact().getFile());
+                }
+            }
+        };
+    }
+
+    void markUsed(File file) {
+        final Path entry = file.toPath().toAbsolutePath().getParent();
+        if (entry == null || !entry.startsWith(root) || entry.equals(root)) {
+            return;
+        }
+        try {
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) {
+                log.debugf(e, "Unable to update the access time of %s", entry);
+            }
+        }
+    }
+
+    private Stats evict(List<Entry> entries) throws IOException {
+        entries.sort(Comparator.comparing(e -> e.lastUsed));
+        long totalSize = 0;
+        for (Entry entry : entries) {
+            totalSize += entry.size;
+        }
+
+        final Instant cutoff = Instant.now().minus(maxAge);
+        int removedCount = 0;
+        long removedSize = 0;
+        for (Entry entry : entries) {
+            if (totalSize <= maxSize && !entry.lastUsed.isBefore(cutoff)) {
+                // entries are sorted by the access time, the remaining ones are newer
+                break;
+            }
+            if (log.isDebugEnabled()) {
+                log.debugf("Evicting %s from the provisioning cache", entry.dir);
+            }
+            remove(entry);
+            totalSize -= entry.size;
+            removedSize += entry.size;
+            removedCount++;
+        }
+        return new Stats(removedCount, removedSize);
+    }
+
+    private void remove(Entry entry) throws IOException {
+        for (Path file : entry.files) {
+            Files.deleteIfExists(file);
+        }
+        // remove the directory and its parents if they are left empty
+        Path dir = entry.dir;
+        while (!dir.equals(root) && isEmpty(dir)) {
+            Files.delete(dir);
+            dir = dir.getParent();
+        }
+    }
+
+    private static boolean isEmpty(Path dir) throws IOException {
+        try (Stream<Path> content = Files.list(dir)) {
+            return content.findAny().isEmpty();
+        }
+    }
+
+    private boolean isPruneDue() throws IOException {
+        final Path marker = root.resolve(PRUNE_MARKER);
+        if (!Files.exists(marker)) {
+            return true;
+        }
+        return Files.getLastModifiedTime(marker).toInstant().isBefore(Instant.now().minus(PRUNE_INTERVAL));
+    }
+
+    private FileChannel openLockFile() throws IOException {
+        Files.createDirectories(root);
+        return FileChannel.open(root.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private List<Entry> listEntries() throws IOException {
+        final Map<Path, Entry> entries = new HashMap<>();
+        if (!Files.exists(root)) {
+            return new ArrayList<>();
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                final Path dir = file.getParent();
+                if (dir.equals(root)) {
+                    // lock and marker files
+                    return FileVisitResult.CONTINUE;
+                }
+                final Entry entry = entries.computeIfAbsent(dir, d -> new Entry(d, lastModified(d)));
+                entry.files.add(file);
+                entry.size += attrs.size();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return new ArrayList<>(entries.values());
+    }
+
+    private static Instant lastModified(Path dir) {
+        try {
+            return Files.getLastModifiedTime(dir).toInstant();
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    /**
+     * use of the cache by an operation. Other processes cannot evict entries from the cache until all leases
+     * opened by this JVM are closed.
+     */
+    public class Lease implements AutoCloseable {
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease() {
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+
+    private static class SharedLock {
+        private final FileChannel channel;
+        private final FileLock lock;
+        private int leases;
+
+        SharedLock(FileChannel channel, FileLock lock) {
+            this.channel = channel;
+            this.lock = lock;
+        }
+    }
+
+    private static class Entry {
+        private final Path dir;
+        private final Instant lastUsed;
+        private final List<Path> files = new ArrayList<>();
+        private long size;
+
+        Entry(Path dir, Instant lastUsed) {
+            this.dir = dir;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    public static class Stats {
+        private final int entries;
+        private final long size;
+
+        public Stats(int entries, long size) {
+            this.entries = entries;
+            this.size = size;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+}
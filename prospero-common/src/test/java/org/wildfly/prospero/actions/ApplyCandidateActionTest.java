@@ -49,11 +49,13 @@ import org.wildfly.channel.ChannelManifestMapper;
 import org.wildfly.channel.ChannelMapper;
 import org.wildfly.channel.Repository;
 import org.wildfly.channel.Stream;
+import org.wildfly.prospero.api.InstallationLock;
 import org.wildfly.prospero.api.ArtifactChange;
 import org.wildfly.prospero.api.FileConflict;
 import org.wildfly.prospero.api.SavedState;
 import org.wildfly.prospero.api.exceptions.InvalidUpdateCandidateException;
 import org.wildfly.prospero.galleon.ArtifactCache;
+import org.wildfly.prospero.galleon.RepositoryRanking;
 import org.wildfly.prospero.installation.git.GitStorage;
 import org.wildfly.prospero.metadata.ManifestVersionRecord;
 import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
@@ -62,6 +64,8 @@ import static org.wildfly.prospero.metadata.ProsperoMetadataUtils.METADATA_DIR;
 
 import org.wildfly.prospero.updates.CandidateProperties;
 import org.wildfly.prospero.updates.CandidatePropertiesParser;
+import org.wildfly.prospero.updates.ConflictReport;
+import org.wildfly.prospero.updates.ConflictReportParser;
 import org.wildfly.prospero.updates.MarkerFile;
 import org.wildfly.prospero.utils.filestate.DirState;
 
@@ -110,6 +114,48 @@ public class ApplyCandidateActionTest {
         assertThat(conflicts).isEmpty();
     }
 
+    @Test
+    public void testDisposableCandidateMetadataIsMovedToInstallation() throws Exception {
+        final DirState expectedState = dirBuilder
+                .addFile("prod1/p1.txt", "p1 1.0.1")
+                .build();
+
+        createSimpleFeaturePacks();
+
+        install(installationPath, FPL_100);
+        prepareUpdate(updatePath, installationPath, FPL_101);
+        final String updatedProvisioning = Files.readString(updatePath.resolve(Constants.PROVISIONED_STATE_DIR).resolve(Constants.PROVISIONING_XML));
+        final List<FileConflict> conflicts = new ApplyCandidateAction(installationPath, updatePath).applyUpdate(ApplyCandidateAction.Type.UPDATE, true);
+
+        expectedState.assertState(installationPath);
+        assertThat(conflicts).isEmpty();
+        assertThat(updatePath.resolve(Constants.PROVISIONED_STATE_DIR)).doesNotExist();
+        assertThat(installationPath.resolve(Constants.PROVISIONED_STATE_DIR).resolve(Constants.PROVISIONING_XML))
+                .hasContent(updatedProvisioning);
+        assertThat(installationPath.resolve(Constants.PROVISIONED_STATE_DIR + ".bak")).doesNotExist();
+    }
+
+    @Test
+    public void testGalleonMetadataIsRestoredIfCacheCannotBeReplaced() throws Exception {
+        createSimpleFeaturePacks();
+
+        install(installationPath, FPL_100);
+        prepareUpdate(updatePath, installationPath, FPL_101);
+        final String installedProvisioning = Files.readString(installationPath.resolve(Constants.PROVISIONED_STATE_DIR).resolve(Constants.PROVISIONING_XML));
+        final String installedCache = Files.readString(installationPath.resolve(ArtifactCache.CACHE_FOLDER).resolve("artifacts.txt"));
+        // a dangling link cannot be copied
+        Files.createSymbolicLink(updatePath.resolve(ArtifactCache.CACHE_FOLDER).resolve("broken.jar"), updatePath.resolve("missing.jar"));
+
+        assertThrows(ProvisioningException.class, () -> new ApplyCandidateAction(installationPath, updatePath).applyUpdate(ApplyCandidateAction.Type.UPDATE));
+
+        assertThat(installationPath.resolve(Constants.PROVISIONED_STATE_DIR).resolve(Constants.PROVISIONING_XML))
+                .hasContent(installedProvisioning);
+        assertThat(installationPath.resolve(ArtifactCache.CACHE_FOLDER).resolve("artifacts.txt"))
+                .hasContent(installedCache);
+        assertThat(installationPath.resolve(Constants.PROVISIONED_STATE_DIR + ".bak")).doesNotExist();
+        assertThat(installationPath.resolve(ArtifactCache.CACHE_FOLDER + ".bak")).doesNotExist();
+    }
+
     @Test
     public void testUpdateWithUserChanges() throws Exception {
         final DirState expectedState = dirBuilder
@@ -172,6 +218,37 @@ public class ApplyCandidateActionTest {
     }
 
 
+    @Test
+    public void recordedConflictsAreUsedUntilServersChange() throws Exception {
+        createSimpleFeaturePacks();
+        install(installationPath, FPL_100);
+        writeContent("prod1/p1.txt", "user prod1/p1");
+        prepareUpdate(updatePath, installationPath, FPL_101);
+
+        final FileConflict userChange = FileConflict.userModified("prod1/p1.txt").updateModified().userPreserved();
+        assertThat(new ApplyCandidateAction(installationPath, updatePath).recordConflicts())
+                .containsExactly(userChange);
+        // listing the conflicts doesn't modify the installation
+        assertThat(installationPath.resolve("prod1/p1.txt.glnew")).doesNotExist();
+
+        // replace the recorded conflicts to verify they are not computed again
+        final Path reportFile = updatePath.resolve(METADATA_DIR).resolve(ApplyCandidateAction.CANDIDATE_CONFLICT_REPORT);
+        final ConflictReport report = ConflictReportParser.read(reportFile);
+        final FileConflict recordedChange = FileConflict.userAdded("prod1/recorded.txt").updateAdded().userPreserved();
+        ConflictReportParser.write(new ConflictReport(report.getFingerprint(), List.of(recordedChange)), reportFile);
+        assertThat(new ApplyCandidateAction(installationPath, updatePath).getConflicts())
+                .containsExactly(recordedChange);
+
+        // files not tracked by Galleon don't invalidate the recorded conflicts
+        writeContent("new.file", "user new file");
+        assertThat(new ApplyCandidateAction(installationPath, updatePath).getConflicts())
+                .containsExactly(recordedChange);
+
+        writeContent("prod1/p1.txt", "user prod1/p1 changed");
+        assertThat(new ApplyCandidateAction(installationPath, updatePath).getConflicts())
+                .containsExactly(userChange);
+    }
+
     @Test
     public void testUserChangesInSystemPaths() throws Exception {
         final DirState expectedState = dirBuilder
@@ -221,6 +298,7 @@ public class ApplyCandidateActionTest {
         // 1. manifest.yaml is updated
         // 2. installation-channels.yaml are not modified
         // 3. .galleon is updated with new values
+        // 4. repository ranking is copied from the candidate
 
         final DirState expectedState = DirState.rootBuilder()
                 .skip("prod1")
@@ -232,6 +310,8 @@ public class ApplyCandidateActionTest {
                         channel("channels " + FPL_100).trim())
                 .addFile(ArtifactCache.CACHE_FOLDER.toString().replace(File.separatorChar, '/') + "/" + "artifacts.txt" , FPL_101+"::abcd::foo/bar")
                 .skip(METADATA_DIR + "/" + ProsperoMetadataUtils.PROVISIONING_RECORD_XML)
+                .skip(InstallationLock.LOCK_FILE.toString().replace(File.separatorChar, '/'))
+                .addFile(RepositoryRanking.RANKING_FILE.toString().replace(File.separatorChar, '/'), "ranking")
                 .build();
 
         // build test packages
@@ -240,6 +320,7 @@ public class ApplyCandidateActionTest {
         // install base and update. perform apply-update
         install(installationPath, FPL_100);
         prepareUpdate(updatePath, installationPath, FPL_101);
+        Files.writeString(updatePath.resolve(RepositoryRanking.RANKING_FILE), "ranking");
         new ApplyCandidateAction(installationPath, updatePath).applyUpdate(ApplyCandidateAction.Type.UPDATE);
 
         // verify
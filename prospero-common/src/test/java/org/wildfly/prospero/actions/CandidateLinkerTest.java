@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.actions;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.util.HashUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CandidateLinkerTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private Path installationDir;
+    private Path candidateDir;
+
+    @Before
+    public void setUp() throws Exception {
+        installationDir = temp.newFolder("server").toPath();
+        candidateDir = temp.newFolder("candidate").toPath();
+    }
+
+    @Test
+    public void identicalJarIsLinked() throws Exception {
+        final Path candidateFile = writeBoth("modules/foo/foo.jar", "content", "content");
+
+        assertThat(new CandidateLinker(installationDir, candidateDir).linkUnchangedFiles()).isEqualTo(1);
+
+        assertThat(Files.isSameFile(candidateFile, installationDir.resolve("modules/foo/foo.jar"))).isTrue();
+        assertThat(candidateFile).hasContent("content");
+    }
+
+    @Test
+    public void changedJarIsNotLinked() throws Exception {
+        final Path candidateFile = writeBoth("modules/foo/foo.jar", "old", "new");
+
+        assertThat(new CandidateLinker(installationDir, candidateDir).linkUnchangedFiles()).isEqualTo(0);
+
+        assertThat(Files.isSameFile(candidateFile, installationDir.resolve("modules/foo/foo.jar"))).isFalse();
+        assertThat(candidateFile).hasContent("new");
+    }
+
+    @Test
+    public void jarWithDifferentRecordedHashIsNotLinked() throws Exception {
+        final Path candidateFile = writeBoth("modules/foo/foo.jar", "content", "content");
+        recordHash(candidateDir, "modules/foo/foo.jar", "0000");
+
+        assertThat(new CandidateLinker(installationDir, candidateDir).linkUnchangedFiles()).isEqualTo(0);
+
+        assertThat(Files.isSameFile(candidateFile, installationDir.resolve("modules/foo/foo.jar"))).isFalse();
+    }
+
+    @Test
+    public void jarModifiedInInstallationIsNotLinked() throws Exception {
+        final Path candidateFile = writeBoth("modules/foo/foo.jar", "content", "content");
+        // same size, but not matching the recorded hash anymore
+        Files.writeString(installationDir.resolve("modules/foo/foo.jar"), "CONTENT");
+
+        assertThat(new CandidateLinker(installationDir, candidateDir).linkUnchangedFiles()).isEqualTo(0);
+
+        assertThat(Files.isSameFile(candidateFile, installationDir.resolve("modules/foo/foo.jar"))).isFalse();
+        assertThat(candidateFile).hasContent("content");
+    }
+
+    @Test
+    public void jarWithoutRecordedHashIsNotLinked() throws Exception {
+        final Path installationFile = installationDir.resolve("modules/foo/foo.jar");
+        Files.createDirectories(installationFile.getParent());
+        Files.writeString(installationFile, "content");
+        final Path candidateFile = candidateDir.resolve("modules/foo/foo.jar");
+        Files.createDirectories(candidateFile.getParent());
+        Files.writeString(candidateFile, "content");
+
+        assertThat(new CandidateLinker(installationDir, candidateDir).linkUnchangedFiles()).isEqualTo(0);
+
+        assertThat(Files.isSameFile(candidateFile, installationFile)).isFalse();
+        assertThat(candidateDir.resolve("modules/foo/foo.jar.link")).doesNotExist();
+    }
+
+    @Test
+    public void nonJarFilesAndMetadataAreNotLinked() throws Exception {
+        writeBoth("standalone/configuration/standalone.xml", "content", "content");
+        writeBoth(".galleon/foo.jar", "content", "content");
+        writeBoth(".installation/.cache/foo.jar", "content", "content");
+
+        assertThat(new CandidateLinker(installationDir, candidateDir).linkUnchangedFiles()).isEqualTo(0);
+    }
+
+    @Test
+    public void jarMissingInInstallationIsNotLinked() throws Exception {
+        final Path candidateFile = candidateDir.resolve("modules/foo/foo.jar");
+        Files.createDirectories(candidateFile.getParent());
+        Files.writeString(candidateFile, "content");
+        recordHash(candidateDir, "modules/foo/foo.jar", HashUtils.bytesToHexString(HashUtils.hashPath(candidateFile)));
+
+        assertThat(new CandidateLinker(installationDir, candidateDir).linkUnchangedFiles()).isEqualTo(0);
+        assertThat(candidateFile).hasContent("content");
+    }
+
+    private Path writeBoth(String relativePath, String installationContent, String candidateContent) throws Exception {
+        final Path installationFile = installationDir.resolve(relativePath);
+        Files.createDirectories(installationFile.getParent());
+        Files.writeString(installationFile, installationContent);
+        final Path candidateFile = candidateDir.resolve(relativePath);
+        Files.createDirectories(candidateFile.getParent());
+        Files.writeString(candidateFile, candidateContent);
+        recordHash(installationDir, relativePath, HashUtils.bytesToHexString(HashUtils.hashPath(installationFile)));
+        recordHash(candidateDir, relativePath, HashUtils.bytesToHexString(HashUtils.hashPath(candidateFile)));
+        return candidateFile;
+    }
+
+    private static void recordHash(Path serverDir, String relativePath, String hash) throws Exception {
+        final Path path = Path.of(relativePath);
+        final Path hashesDir = serverDir.resolve(Constants.PROVISIONED_STATE_DIR).resolve(Constants.HASHES);
+        final Path hashFile = (path.getParent() == null ? hashesDir : hashesDir.resolve(path.getParent())).resolve(Constants.HASHES);
+        Files.createDirectories(hashFile.getParent());
+        Files.write(hashFile, List.of(path.getFileName().toString(), hash), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
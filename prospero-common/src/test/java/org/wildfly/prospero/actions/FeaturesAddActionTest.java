@@ -45,6 +45,7 @@ import org.wildfly.prospero.api.MavenOptions;
 import org.wildfly.prospero.api.exceptions.ArtifactResolutionException;
 import org.wildfly.prospero.api.exceptions.MetadataException;
 import org.wildfly.prospero.api.exceptions.OperationException;
+import org.wildfly.prospero.galleon.FeaturePackCatalog;
 import org.wildfly.prospero.galleon.FeaturePackLocationParser;
 import org.wildfly.prospero.model.FeaturePackTemplateManager;
 import org.wildfly.prospero.model.FeaturePackTemplate;
@@ -218,6 +219,36 @@ public class FeaturesAddActionTest {
         verifyNoInteractions(applyCandidateAction);
     }
 
+    @Test
+    public void recordedLayersAreUsedWithoutResolvingFeaturePack() throws Exception {
+        // install base feature pack
+        final FeaturePackCreator creator = FeaturePackCreator.getInstance().addArtifactResolver(repo);
+        creator.newFeaturePack(FeaturePackLocation.fromString("org.test:base-pack:1.0.0:zip").getFPID())
+            .getCreator()
+            .newFeaturePack(FeaturePackLocation.fromString("org.test:added-pack:1.0.0:zip").getFPID())
+                .addDependency(FeaturePackLocation.fromString("org.test:base-pack:1.0.0"))
+                .addConfigLayer(ConfigLayerSpec.builder()
+                        .setModel("standalone")
+                        .setName("layer1")
+                        .build());
+        deployFeaturePacks(creator);
+        // install
+        installFeaturePack(installDir, "org.test:base-pack:1.0.0:zip");
+
+        assertThatThrownBy(()-> getFeaturesAddAction().addFeaturePackWithLayers("org.test:added-pack",
+                Set.of("idontexist"), NO_CONFIG, candidatePath))
+                .isInstanceOf(FeaturesAddAction.LayerNotFoundException.class);
+        assertThat(installDir.resolve(FeaturePackCatalog.CATALOG_FOLDER)).isNotEmptyDirectory();
+
+        // remove the feature pack, the layers should be read from the catalog
+        FileUtils.deleteDirectory(repository.resolve(Path.of("org", "test", "added-pack", "1.0.0")).toFile());
+
+        assertThatThrownBy(()-> getFeaturesAddAction().addFeaturePackWithLayers("org.test:added-pack",
+                Set.of("idontexist"), NO_CONFIG, candidatePath))
+                .isInstanceOf(FeaturesAddAction.LayerNotFoundException.class)
+                .hasFieldOrPropertyWithValue("supportedLayers", Set.of("layer1"));
+    }
+
     @Test
     public void noLayersInTheFeaturePacks_provisionsNoConfigs() throws Exception {
         // install base feature pack
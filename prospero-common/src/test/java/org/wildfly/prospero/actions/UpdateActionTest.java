@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.actions;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.prospero.api.InstallationUpdateResult;
+import org.wildfly.prospero.api.MavenOptions;
+import org.wildfly.prospero.api.exceptions.MetadataException;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UpdateActionTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void invalidInstallationsAreReportedInOrder() throws Exception {
+        final Path first = temp.newFolder("first").toPath();
+        final Path second = temp.newFolder("second").toPath();
+
+        final List<InstallationUpdateResult> results = UpdateAction.performUpdates(List.of(first, second),
+                MavenOptions.OFFLINE, null, Collections.emptyList(), 2);
+
+        assertThat(results)
+                .map(InstallationUpdateResult::getInstallationDir)
+                .containsExactly(first, second);
+        assertThat(results)
+                .allMatch(r -> r.getStatus() == InstallationUpdateResult.Status.FAILED)
+                .allMatch(r -> r.getError() instanceof MetadataException);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.actions;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.util.HashUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.prospero.api.FileVerification;
+import org.wildfly.prospero.galleon.ArtifactCache;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class VerifyActionTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private Path installationDir;
+
+    @Before
+    public void setUp() throws Exception {
+        installationDir = temp.newFolder().toPath();
+        Files.createDirectories(installationDir.resolve(ProsperoMetadataUtils.METADATA_DIR));
+        ArtifactCache.cleanInstancesCache();
+
+        createFile("bin/run.sh", "run");
+        createFile("modules/foo/foo.jar", "foo");
+        createFile("modules/foo/module.xml", "<module/>");
+    }
+
+    @Test
+    public void unchangedInstallationHasNoChanges() throws Exception {
+        final VerifyAction.Result result = new VerifyAction(installationDir, null).verify(false, 2, null);
+
+        assertThat(result.getVerifiedFiles()).isEqualTo(3);
+        assertThat(result.getChanges()).isEmpty();
+    }
+
+    @Test
+    public void modifiedAndMissingFilesAreReported() throws Exception {
+        Files.writeString(installationDir.resolve("modules/foo/module.xml"), "<module name=\"changed\"/>");
+        Files.delete(installationDir.resolve("bin/run.sh"));
+
+        final List<FileVerification> reported = new ArrayList<>();
+        final VerifyAction.Result result = new VerifyAction(installationDir, null).verify(false, 2, reported::add);
+
+        assertThat(result.getChanges()).containsExactlyInAnyOrder(
+                new FileVerification("modules/foo/module.xml", FileVerification.Status.MODIFIED),
+                new FileVerification("bin/run.sh", FileVerification.Status.MISSING));
+        assertThat(reported).containsExactlyElementsOf(result.getChanges());
+    }
+
+    @Test
+    public void quickModeComparesSizeAndModificationTime() throws Exception {
+        new VerifyAction(installationDir, null).verify(false, 2, null);
+        assertThat(installationDir.resolve(VerifyAction.BASELINE_FILE)).doesNotExist();
+        new VerifyAction(installationDir, null).verify(true, 2, null);
+
+        // same size and modification time, only detected by hashing the file
+        final Path jar = installationDir.resolve("modules/foo/foo.jar");
+        final FileTime lastModified = Files.getLastModifiedTime(jar);
+        Files.writeString(jar, "bar");
+        Files.setLastModifiedTime(jar, lastModified);
+        // different size is detected in the quick mode
+        Files.writeString(installationDir.resolve("bin/run.sh"), "run --debug");
+
+        assertThat(new VerifyAction(installationDir, null).verify(true, 2, null).getChanges())
+                .containsExactly(new FileVerification("bin/run.sh", FileVerification.Status.MODIFIED));
+        assertThat(new VerifyAction(installationDir, null).verify(false, 2, null).getChanges())
+                .containsExactlyInAnyOrder(
+                        new FileVerification("bin/run.sh", FileVerification.Status.MODIFIED),
+                        new FileVerification("modules/foo/foo.jar", FileVerification.Status.MODIFIED));
+    }
+
+    @Test
+    public void artifactsRecordedInCacheAreVerified() throws Exception {
+        final Path cachedArtifact = installationDir.resolve(ArtifactCache.CACHE_FOLDER).resolve("bar-1.0.jar");
+        Files.createDirectories(cachedArtifact.getParent());
+        Files.writeString(cachedArtifact, "bar");
+        Files.writeString(installationDir.resolve(ArtifactCache.CACHE_FOLDER).resolve("artifacts.txt"),
+                "org.test:bar:1.0::" + HashUtils.hashFile(cachedArtifact) + "::.installation/.cache/bar-1.0.jar\n");
+
+        Files.writeString(cachedArtifact, "changed");
+
+        final VerifyAction.Result result = new VerifyAction(installationDir, null).verify(false, 2, null);
+        assertThat(result.getVerifiedFiles()).isEqualTo(4);
+        assertThat(result.getChanges())
+                .containsExactly(new FileVerification(".installation/.cache/bar-1.0.jar", FileVerification.Status.MODIFIED));
+    }
+
+    @Test
+    public void retainedArtifactsAreNotVerified() throws Exception {
+        final Path retainedList = installationDir.resolve(ArtifactCache.RETAINED_FOLDER).resolve("artifacts.txt");
+        Files.createDirectories(retainedList.getParent());
+        Files.writeString(retainedList, "org.test:bar:1.0::abcd::.installation/.retained/org.test/bar-1.0.jar::rev1\n");
+
+        final VerifyAction.Result result = new VerifyAction(installationDir, null).verify(false, 2, null);
+        assertThat(result.getVerifiedFiles()).isEqualTo(3);
+        assertThat(result.getChanges()).isEmpty();
+    }
+
+    @Test
+    public void installationWithoutHashesIsRejected() throws Exception {
+        final Path emptyDir = temp.newFolder().toPath();
+
+        assertThatThrownBy(() -> new VerifyAction(emptyDir, null).verify(false, 2, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void createFile(String relativePath, String content) throws IOException {
+        final Path file = installationDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+
+        final Path hashes = installationDir.resolve(Constants.PROVISIONED_STATE_DIR).resolve(Constants.HASHES)
+                .resolve(relativePath).getParent().resolve(Constants.HASHES);
+        Files.createDirectories(hashes.getParent());
+        Files.writeString(hashes, file.getFileName() + "\n" + HashUtils.hashFile(file) + "\n",
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
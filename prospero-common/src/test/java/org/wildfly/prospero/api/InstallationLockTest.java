@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.prospero.api.exceptions.MetadataException;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+public class InstallationLockTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private Path installationDir;
+
+    @Before
+    public void setUp() throws Exception {
+        installationDir = temp.newFolder("server").toPath();
+        Files.createDirectories(installationDir.resolve(ProsperoMetadataUtils.METADATA_DIR));
+    }
+
+    @Test
+    public void lockFileIsLockedUntilClosed() throws Exception {
+        try (InstallationLock lock = InstallationLock.exclusive(installationDir)) {
+            assertLocked();
+        }
+
+        assertNotLocked();
+    }
+
+    @Test
+    public void nestedLocksAreReleasedWithOutermostLock() throws Exception {
+        try (InstallationLock lock = InstallationLock.exclusive(installationDir)) {
+            try (InstallationLock nested = InstallationLock.shared(installationDir)) {
+                assertLocked();
+            }
+            assertLocked();
+        }
+
+        assertNotLocked();
+    }
+
+    @Test
+    public void sharedLockCannotBeUpgraded() throws Exception {
+        try (InstallationLock lock = InstallationLock.shared(installationDir)) {
+            assertThrows(MetadataException.class, () -> InstallationLock.exclusive(installationDir));
+            assertLocked();
+        }
+
+        assertNotLocked();
+    }
+
+    @Test
+    public void exclusiveLockOfAnotherThreadWaitsForSharedLocks() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> exclusive;
+            try (InstallationLock lock = InstallationLock.shared(installationDir)) {
+                exclusive = executor.submit(() -> {
+                    InstallationLock.exclusive(installationDir).close();
+                    return null;
+                });
+                assertThrows(TimeoutException.class, () -> exclusive.get(200, TimeUnit.MILLISECONDS));
+
+                // the waiting thread does not prevent this thread from locking the installation
+                InstallationLock.shared(installationDir).close();
+            }
+
+            exclusive.get(5, TimeUnit.SECONDS);
+            assertNotLocked();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void locksOfAnotherThreadWaitForExclusiveLock() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> shared;
+            final Future<?> exclusive;
+            try (InstallationLock lock = InstallationLock.exclusive(installationDir)) {
+                shared = executor.submit(() -> {
+                    InstallationLock.shared(installationDir).close();
+                    return null;
+                });
+                exclusive = executor.submit(() -> {
+                    InstallationLock.exclusive(installationDir).close();
+                    return null;
+                });
+                assertThrows(TimeoutException.class, () -> shared.get(200, TimeUnit.MILLISECONDS));
+                assertThrows(TimeoutException.class, () -> exclusive.get(200, TimeUnit.MILLISECONDS));
+
+                // the owning thread can still re-enter the lock
+                InstallationLock.exclusive(installationDir).close();
+                InstallationLock.shared(installationDir).close();
+            }
+
+            shared.get(5, TimeUnit.SECONDS);
+            exclusive.get(5, TimeUnit.SECONDS);
+            assertNotLocked();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void closingLockTwiceDoesNotReleaseOtherLocks() throws Exception {
+        try (InstallationLock lock = InstallationLock.shared(installationDir)) {
+            final InstallationLock other = InstallationLock.shared(installationDir);
+            other.close();
+            other.close();
+
+            assertLocked();
+        }
+    }
+
+    @Test
+    public void directoryWithoutMetadataIsNotLocked() throws Exception {
+        final Path emptyDir = temp.newFolder("empty").toPath();
+
+        try (InstallationLock lock = InstallationLock.exclusive(emptyDir)) {
+            assertThat(emptyDir.resolve(InstallationLock.LOCK_FILE)).doesNotExist();
+        }
+    }
+
+    private void assertLocked() throws Exception {
+        try (FileChannel channel = FileChannel.open(installationDir.resolve(InstallationLock.LOCK_FILE), StandardOpenOption.WRITE)) {
+            assertThrows(OverlappingFileLockException.class, channel::tryLock);
+        }
+    }
+
+    private void assertNotLocked() throws Exception {
+        try (FileChannel channel = FileChannel.open(installationDir.resolve(InstallationLock.LOCK_FILE), StandardOpenOption.WRITE)) {
+            final FileLock lock = channel.tryLock();
+            assertThat(lock).isNotNull();
+            lock.release();
+        }
+    }
+}
@@ -156,4 +156,29 @@ public class MavenOptionsTest {
         assertEquals(base, MavenOptions.read(target));
     }
 
+    @Test
+    public void readWriteMergeConnectionOptions() throws Exception {
+        MavenOptions base = MavenOptions.builder()
+                .setMaxConnectionsPerRoute(10)
+                .setHttp2(true)
+                .build();
+        Path target = temp.newFile().toPath();
+        base.write(target);
+        assertEquals(MavenOptions.builder()
+                .setOffline(false)
+                .setNoLocalCache(true)
+                .setMaxConnectionsPerRoute(10)
+                .setHttp2(true)
+                .build(), MavenOptions.read(target));
+
+        MavenOptions override = MavenOptions.builder()
+                .setConnectionMaxTtl(60)
+                .setHttp2(false)
+                .build();
+        final MavenOptions merged = base.merge(override);
+        assertEquals(Integer.valueOf(10), merged.getMaxConnectionsPerRoute());
+        assertEquals(Integer.valueOf(60), merged.getConnectionMaxTtl());
+        assertFalse(merged.isHttp2());
+    }
+
 }
\ No newline at end of file
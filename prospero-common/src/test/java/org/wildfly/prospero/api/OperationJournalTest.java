@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OperationJournalTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private Path workRoot;
+    private Path installationDir;
+    private Path candidateDir;
+
+    @Before
+    public void setUp() throws Exception {
+        workRoot = temp.newFolder("work").toPath();
+        installationDir = temp.newFolder("server").toPath();
+        candidateDir = temp.newFolder("candidate").toPath();
+    }
+
+    @Test
+    public void emptyJournalHasNoProgress() throws Exception {
+        final OperationJournal journal = OperationJournal.open(workRoot, installationDir);
+
+        assertFalse(journal.isStarted(candidateDir));
+        assertFalse(journal.isCompleted(OperationJournal.Phase.STARTED, candidateDir, "a:1:2"));
+    }
+
+    @Test
+    public void recordedPhaseIsReadByNewJournal() throws Exception {
+        OperationJournal.open(workRoot, installationDir).record(OperationJournal.Phase.CANDIDATE_BUILT, candidateDir, "a:1:2");
+
+        final OperationJournal journal = OperationJournal.open(workRoot, installationDir);
+        assertTrue(journal.isStarted(candidateDir));
+        assertTrue(journal.isCompleted(OperationJournal.Phase.STARTED, candidateDir, "a:1:2"));
+        assertTrue(journal.isCompleted(OperationJournal.Phase.CANDIDATE_BUILT, candidateDir, "a:1:2"));
+    }
+
+    @Test
+    public void startedPhaseDoesNotCompleteCandidate() throws Exception {
+        final OperationJournal journal = OperationJournal.open(workRoot, installationDir);
+        journal.record(OperationJournal.Phase.STARTED, candidateDir, "a:1:2");
+
+        assertTrue(journal.isStarted(candidateDir));
+        assertFalse(journal.isCompleted(OperationJournal.Phase.CANDIDATE_BUILT, candidateDir, "a:1:2"));
+    }
+
+    @Test
+    public void differentFingerprintOrTargetIsNotCompleted() throws Exception {
+        final OperationJournal journal = OperationJournal.open(workRoot, installationDir);
+        journal.record(OperationJournal.Phase.CANDIDATE_BUILT, candidateDir, "a:1:2");
+
+        assertFalse(journal.isCompleted(OperationJournal.Phase.CANDIDATE_BUILT, candidateDir, "a:1:3"));
+        assertFalse(journal.isCompleted(OperationJournal.Phase.CANDIDATE_BUILT, installationDir, "a:1:2"));
+        assertFalse(journal.isStarted(installationDir));
+    }
+
+    @Test
+    public void journalsAreSeparatedByInstallation() throws Exception {
+        final OperationJournal journal = OperationJournal.open(workRoot, installationDir);
+        final OperationJournal otherJournal = OperationJournal.open(workRoot, temp.newFolder("other").toPath());
+
+        assertNotEquals(journal.getWorkDir(), otherJournal.getWorkDir());
+        assertEquals(journal.getWorkDir(), OperationJournal.open(workRoot, installationDir.resolve("..").resolve("server")).getWorkDir());
+    }
+
+    @Test
+    public void discardRemovesWorkDirectory() throws Exception {
+        final OperationJournal journal = OperationJournal.open(workRoot, installationDir);
+        journal.record(OperationJournal.Phase.STARTED, candidateDir, null);
+        Files.createDirectories(journal.getProvisioningRepository());
+
+        journal.discard();
+
+        assertFalse(Files.exists(journal.getWorkDir()));
+        assertFalse(journal.isStarted(candidateDir));
+    }
+
+    @Test
+    public void preserveDownloadsReplacesTemporaryCache() throws Exception {
+        final OperationJournal journal = OperationJournal.open(workRoot, installationDir);
+
+        final MavenOptions options = journal.preserveDownloads(MavenOptions.builder().setNoLocalCache(true).setOffline(true).build());
+
+        assertFalse(options.isNoLocalCache());
+        assertTrue(options.isOffline());
+        assertEquals(journal.getProvisioningRepository(), options.getLocalCache());
+    }
+
+    @Test
+    public void preserveDownloadsKeepsPersistentCache() throws Exception {
+        final OperationJournal journal = OperationJournal.open(workRoot, installationDir);
+        final MavenOptions persistentCache = MavenOptions.builder().setLocalCachePath(temp.newFolder().toPath()).build();
+
+        assertSame(persistentCache, journal.preserveDownloads(persistentCache));
+    }
+}
@@ -37,7 +37,9 @@ import org.wildfly.prospero.test.MetadataTestUtils;
 import java.net.URL;
 import java.io.File;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -246,6 +248,48 @@ public class ProvisioningDefinitionTest {
         assertThrows(ChannelDefinitionException.class, ()-> def.resolveChannels(null));
     }
 
+    @Test
+    public void multipleUrlChannelsAreResolvedInOrder() throws Exception {
+        final List<String> coordinates = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final File file = temp.newFile();
+            MetadataTestUtils.writeChannels(file.toPath(), List.of(new Channel("test-" + i, null, null,
+                    List.of(new Repository("test_repo", "http://custom.repo")),
+                    new ChannelManifestCoordinate("new.test", "gav-" + i),
+                    null, null)));
+            coordinates.add(file.toPath().toString());
+        }
+
+        ProvisioningDefinition def = new ProvisioningDefinition.Builder().setProfile("multi-channel")
+                .setChannelCoordinates(coordinates).build();
+
+        List<Channel> channels = def.resolveChannels(VERSION_RESOLVER_FACTORY);
+
+        assertThat(channels)
+                .map(Channel::getName)
+                .containsExactly("test-0", "test-1", "test-2", "test-3", "test-4", "test-5", "test-6", "test-7");
+    }
+
+    @Test
+    public void multipleUrlChannelsReportFirstFailingChannel() throws Exception {
+        final File valid = temp.newFile();
+        MetadataTestUtils.writeChannels(valid.toPath(), List.of(new Channel("test", null, null,
+                List.of(new Repository("test_repo", "http://custom.repo")),
+                new ChannelManifestCoordinate("new.test", "gav"),
+                null, null)));
+        final Path missingOne = temp.getRoot().toPath().resolve("missing-one.yaml");
+        final Path missingTwo = temp.getRoot().toPath().resolve("missing-two.yaml");
+
+        ProvisioningDefinition def = new ProvisioningDefinition.Builder().setProfile("multi-channel")
+                .setChannelCoordinates(List.of(valid.toPath().toString(), missingOne.toString(), missingTwo.toString()))
+                .build();
+
+        assertThatThrownBy(() -> def.resolveChannels(VERSION_RESOLVER_FACTORY))
+                .isInstanceOf(ChannelDefinitionException.class)
+                .cause()
+                .hasMessageContaining("missing-one.yaml");
+    }
+
     @Test
     public void unknownProfileNameThrowsException() throws Exception {
         final ProvisioningDefinition.Builder builder = new ProvisioningDefinition.Builder().setProfile("idontexist");
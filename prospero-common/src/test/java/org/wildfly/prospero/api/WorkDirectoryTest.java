@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.api;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WorkDirectoryTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        System.clearProperty(WorkDirectory.WORK_DIR_PROPERTY);
+    }
+
+    @Test
+    public void defaultWorkDirectoryIsSiblingOfInstallation() throws Exception {
+        final Path installationDir = temp.newFolder("server").toPath();
+
+        assertEquals(installationDir.resolveSibling("server" + WorkDirectory.WORK_DIR_SUFFIX),
+                WorkDirectory.forInstallation(installationDir));
+    }
+
+    @Test
+    public void configuredWorkDirectoryIsUsedForInstallation() throws Exception {
+        final Path installationDir = temp.newFolder("server").toPath();
+        final Path configured = temp.newFolder("configured").toPath();
+        System.setProperty(WorkDirectory.WORK_DIR_PROPERTY, configured.toString());
+
+        assertEquals(configured, WorkDirectory.forInstallation(installationDir));
+        assertEquals(configured, WorkDirectory.getRoot());
+    }
+
+    @Test
+    public void temporaryDirectoryIsCreatedOnTheSameFileSystem() throws Exception {
+        final Path installationDir = temp.newFolder("server").toPath();
+
+        final Path tempDirectory = WorkDirectory.createTempDirectory(installationDir, "candidate");
+
+        assertTrue(Files.isDirectory(tempDirectory));
+        assertEquals(WorkDirectory.forInstallation(installationDir), tempDirectory.getParent());
+        assertEquals(Files.getFileStore(installationDir), Files.getFileStore(tempDirectory));
+    }
+
+    @Test
+    public void temporaryFilesOfInstallationAreCreatedInWorkDirectory() throws Exception {
+        final Path installationDir = temp.newFolder("server").toPath();
+        final Path workDir = WorkDirectory.forInstallation(installationDir);
+
+        final Path tempDirectory;
+        final Path tempFile;
+        try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.forInstallation(installationDir)) {
+            tempDirectory = temporaryFiles.createTempDirectory("prospero-repository");
+            tempFile = temporaryFiles.createTempFile("prospero-repository", ".zip");
+
+            assertEquals(workDir, tempDirectory.getParent());
+            assertEquals(workDir, tempFile.getParent());
+        }
+
+        assertFalse(Files.exists(tempDirectory));
+        assertFalse(Files.exists(tempFile));
+        assertFalse(Files.exists(workDir));
+    }
+
+    @Test
+    public void workDirectoryInUseIsNotRemoved() throws Exception {
+        final Path installationDir = temp.newFolder("server").toPath();
+        final Path workDir = WorkDirectory.forInstallation(installationDir);
+
+        final Path otherOperation = WorkDirectory.createTempDirectory(installationDir, "candidate");
+        try (TemporaryFilesManager temporaryFiles = TemporaryFilesManager.forInstallation(installationDir)) {
+            temporaryFiles.createTempDirectory("prospero-repository");
+        }
+
+        assertTrue(Files.isDirectory(otherOperation));
+
+        Files.delete(otherOperation);
+        WorkDirectory.deleteIfEmpty(installationDir);
+
+        assertFalse(Files.exists(workDir));
+    }
+
+    @Test
+    public void configuredWorkDirectoryIsNotRemoved() throws Exception {
+        final Path installationDir = temp.newFolder("server").toPath();
+        final Path configured = temp.newFolder("configured").toPath();
+        System.setProperty(WorkDirectory.WORK_DIR_PROPERTY, configured.toString());
+
+        WorkDirectory.deleteIfEmpty(installationDir);
+
+        assertTrue(Files.isDirectory(configured));
+    }
+}
@@ -158,6 +158,106 @@ public class ArtifactCacheTest {
         assertEquals(Optional.empty(), cachedArtifact);
     }
 
+    @Test
+    public void retainedArtifactIsAvailableAfterItIsRemovedFromInstallation() throws Exception {
+        final Path installedFile = installationDir.resolve("modules").resolve("test.jar");
+        Files.createDirectories(installedFile.getParent());
+        Files.writeString(installedFile, "old version");
+        cache.record(new MavenArtifact(GROUP_ID, ARTIFACT_ID, EXTENSION, CLASSIFIER, VERSION, installedFile.toFile()), installedFile);
+
+        assertEquals(1, cache.retain(candidateWithEmptyCache(), "rev1"));
+        // simulate update replacing the file and the cache
+        Files.delete(installedFile);
+        Files.writeString(installationDir.resolve(ArtifactCache.CACHE_FOLDER).resolve(ArtifactCache.CACHE_FILENAME), "");
+        ArtifactCache.cleanInstancesCache();
+
+        final Optional<File> cachedArtifact = ArtifactCache.getInstance(installationDir)
+                .getArtifact(GROUP_ID, ARTIFACT_ID, EXTENSION, CLASSIFIER, VERSION);
+        assertThat(cachedArtifact).isPresent();
+        assertThat(cachedArtifact.get().toPath())
+                .startsWith(installationDir.resolve(ArtifactCache.RETAINED_FOLDER))
+                .hasContent("old version");
+    }
+
+    @Test
+    public void retainedArtifactsOfOldestRevisionsAreRemoved() throws Exception {
+        System.setProperty(ArtifactCache.RETAINED_REVISIONS_PROPERTY, "1");
+        try {
+            final Path firstFile = installationDir.resolve("first.jar");
+            Files.writeString(firstFile, "first");
+            cache.record(new MavenArtifact(GROUP_ID, ARTIFACT_ID, EXTENSION, CLASSIFIER, VERSION, firstFile.toFile()), firstFile);
+            cache.retain(candidateWithEmptyCache(), "rev1");
+
+            final Path secondFile = installationDir.resolve("second.jar");
+            Files.writeString(secondFile, "second");
+            Files.writeString(installationDir.resolve(ArtifactCache.CACHE_FOLDER).resolve(ArtifactCache.CACHE_FILENAME), "");
+            cache.record(new MavenArtifact(GROUP_ID, ARTIFACT_ID, EXTENSION, CLASSIFIER, "2.0.0", secondFile.toFile()), secondFile);
+            cache.retain(candidateWithEmptyCache(), "rev2");
+
+            final List<String> retained = Files.readAllLines(installationDir.resolve(ArtifactCache.RETAINED_FOLDER).resolve(ArtifactCache.CACHE_FILENAME));
+            assertThat(retained)
+                    .hasSize(1)
+                    .allMatch(l -> l.contains("2.0.0") && l.endsWith("::rev2"));
+            assertEquals(Optional.empty(), cache.getArtifact(GROUP_ID, ARTIFACT_ID, EXTENSION, CLASSIFIER, VERSION));
+        } finally {
+            System.clearProperty(ArtifactCache.RETAINED_REVISIONS_PROPERTY);
+        }
+    }
+
+    @Test
+    public void artifactRetainedAgainAfterRevertIsNotRemovedWithOlderRevision() throws Exception {
+        System.setProperty(ArtifactCache.RETAINED_REVISIONS_PROPERTY, "2");
+        try {
+            final Path cacheList = installationDir.resolve(ArtifactCache.CACHE_FOLDER).resolve(ArtifactCache.CACHE_FILENAME);
+            final Path oldFile = installationDir.resolve("modules").resolve("test-1.0.0.jar");
+            final Path newFile = installationDir.resolve("modules").resolve("test-2.0.0.jar");
+            Files.createDirectories(oldFile.getParent());
+            final MavenArtifact oldArtifact = new MavenArtifact(GROUP_ID, ARTIFACT_ID, EXTENSION, CLASSIFIER, VERSION, oldFile.toFile());
+            final MavenArtifact newArtifact = new MavenArtifact(GROUP_ID, ARTIFACT_ID, EXTENSION, CLASSIFIER, "2.0.0", newFile.toFile());
+
+            // update
+            Files.writeString(oldFile, "old version");
+            cache.record(oldArtifact, oldFile);
+            cache.retain(candidateWithEmptyCache(), "rev1");
+            Files.delete(oldFile);
+            Files.writeString(cacheList, "");
+            Files.writeString(newFile, "new version");
+            cache.record(newArtifact, newFile);
+
+            // revert
+            cache.retain(candidateWithEmptyCache(), "rev2");
+            Files.delete(newFile);
+            Files.writeString(cacheList, "");
+            Files.writeString(oldFile, "old version");
+            cache.record(oldArtifact, oldFile);
+
+            // update again, evicting the first revision
+            cache.retain(candidateWithEmptyCache(), "rev3");
+            Files.delete(oldFile);
+            Files.writeString(cacheList, "");
+
+            final List<String> retained = Files.readAllLines(installationDir.resolve(ArtifactCache.RETAINED_FOLDER).resolve(ArtifactCache.CACHE_FILENAME));
+            assertThat(retained)
+                    .hasSize(2)
+                    .anyMatch(l -> l.contains("2.0.0") && l.endsWith("::rev2"))
+                    .anyMatch(l -> l.contains(VERSION) && l.endsWith("::rev3"));
+            ArtifactCache.cleanInstancesCache();
+            final Optional<File> cachedArtifact = ArtifactCache.getInstance(installationDir)
+                    .getArtifact(GROUP_ID, ARTIFACT_ID, EXTENSION, CLASSIFIER, VERSION);
+            assertThat(cachedArtifact).isPresent();
+            assertThat(cachedArtifact.get().toPath()).hasContent("old version");
+        } finally {
+            System.clearProperty(ArtifactCache.RETAINED_REVISIONS_PROPERTY);
+        }
+    }
+
+    private Path candidateWithEmptyCache() throws IOException {
+        final Path candidate = temp.newFolder().toPath();
+        Files.createDirectories(candidate.resolve(ArtifactCache.CACHE_FOLDER));
+        Files.writeString(candidate.resolve(ArtifactCache.CACHE_FOLDER).resolve(ArtifactCache.CACHE_FILENAME), "");
+        return candidate;
+    }
+
     @Test
     public void cacheMavenManifests_ResolvedInList() throws Exception {
         final ManifestVersionRecord record = new ManifestVersionRecord();
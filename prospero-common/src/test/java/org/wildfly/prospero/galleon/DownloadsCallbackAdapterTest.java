@@ -31,8 +31,12 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.wildfly.prospero.api.Console;
+import org.wildfly.prospero.api.DownloadProgress;
 import org.wildfly.prospero.api.ProvisioningProgressEvent;
 
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 
@@ -120,6 +124,104 @@ public class DownloadsCallbackAdapterTest {
         assertEquals("test2.jar", event.getCurrentItem());
     }
 
+    @Test
+    public void updateIncludesDownloadThroughput() throws Exception {
+        tracker.starting(100);
+        Thread.sleep(10);
+
+        adapter.transferSucceeded(new TransferEvent.Builder(session, new TransferResource(null, null, "test.jar", null, null))
+                .setTransferredBytes(1000)
+                .build());
+
+        final ProvisioningProgressEvent event = getProgressEvent();
+        assertEquals(ProvisioningProgressEvent.EventType.UPDATE, event.getEventType());
+        assertThat(event.getThroughput()).isPositive();
+    }
+
+    @Test
+    public void updateIncludesBytesOfInProgressDownload() throws Exception {
+        tracker.starting(1);
+        Thread.sleep(10);
+
+        final TransferResource resource = new TransferResource(null, null, "test.jar", null, null).setContentLength(2000);
+        adapter.transferStarted(new TransferEvent.Builder(session, resource).build());
+        adapter.transferProgressed(new TransferEvent.Builder(session, resource)
+                .setDataBuffer(ByteBuffer.allocate(1000))
+                .build());
+
+        final ProvisioningProgressEvent event = getProgressEvent();
+        assertEquals(ProvisioningProgressEvent.EventType.UPDATE, event.getEventType());
+        assertEquals(0, event.getCompleted());
+        assertEquals("test.jar (50%)", event.getCurrentItem());
+        assertEquals(1000, event.getDownloadProgress().getDownloadedBytes());
+        assertEquals(2000, event.getDownloadProgress().getExpectedBytes());
+        assertThat(event.getThroughput()).isPositive();
+        assertThat(event.getEta()).isNotNegative();
+    }
+
+    @Test
+    public void artifactsResolvedWithoutDownloadAreCountedAsCacheHits() throws Exception {
+        tracker.starting(2);
+
+        adapter.transferSucceeded(new TransferEvent.Builder(session, new TransferResource(null, null, "org/test/test/1.0.0/test-1.0.0.jar", null, null))
+                .setTransferredBytes(1000)
+                .build());
+        resolve("org.test", "test", null);
+        resolve("org.test", "cached", null);
+
+        ProvisioningProgressEvent event = getProgressEvent();
+        assertEquals(ProvisioningProgressEvent.EventType.UPDATE, event.getEventType());
+        assertEquals(2, event.getCompleted());
+        assertEquals("cached-1.0.0.jar", event.getCurrentItem());
+
+        tracker.complete();
+        event = getProgressEvent();
+        assertEquals(ProvisioningProgressEvent.EventType.COMPLETED, event.getEventType());
+        final DownloadProgress downloadProgress = event.getDownloadProgress();
+        assertEquals(1, downloadProgress.getDownloads());
+        assertEquals(1, downloadProgress.getCacheHits());
+        assertEquals(1000, downloadProgress.getDownloadedBytes());
+    }
+
+    @Test
+    public void cacheHitsAreMatchedByCoordinates() throws Exception {
+        tracker.starting(4);
+
+        adapter.transferSucceeded(new TransferEvent.Builder(session, new TransferResource(null, null, "org/one/common/1.0.0/common-1.0.0.jar", null, null))
+                .build());
+        adapter.transferSucceeded(new TransferEvent.Builder(session, new TransferResource(null, null, "org/test/test/1.0.0/test-1.0.0-sources.jar", null, null))
+                .build());
+        // same file name, different groupId
+        resolve("org.two", "common", null);
+        // same artifact, different classifier
+        resolve("org.test", "test", null);
+        // downloaded artifacts
+        resolve("org.one", "common", null);
+        resolve("org.test", "test", "sources");
+
+        tracker.complete();
+        final DownloadProgress downloadProgress = getProgressEvent().getDownloadProgress();
+        assertEquals(2, downloadProgress.getDownloads());
+        assertEquals(2, downloadProgress.getCacheHits());
+    }
+
+    @Test
+    public void parseArtifactKeyFromRepositoryPath() {
+        assertEquals("org.test:test:jar::1.0.0", DownloadsCallbackAdapter.artifactKey("org/test/test/1.0.0/test-1.0.0.jar"));
+        assertEquals("org.test:test:tar.gz:dist:1.0.0", DownloadsCallbackAdapter.artifactKey("org/test/test/1.0.0/test-1.0.0-dist.tar.gz"));
+        assertEquals("org.test:test:jar::1.0-SNAPSHOT", DownloadsCallbackAdapter.artifactKey("org/test/test/1.0-SNAPSHOT/test-1.0-20240101.120000-3.jar"));
+        assertEquals(null, DownloadsCallbackAdapter.artifactKey("test.jar"));
+    }
+
+    private void resolve(String groupId, String artifactId, String classifier) {
+        final String fileName = artifactId + "-1.0.0" + (classifier == null ? "" : "-" + classifier) + ".jar";
+        final MavenArtifact artifact = new MavenArtifact().setGroupId(groupId).setArtifactId(artifactId)
+                .setVersion("1.0.0").setExtension("jar").setClassifier(classifier);
+        artifact.setPath(Path.of("repository", fileName));
+        tracker.processing(artifact);
+        tracker.processed(artifact);
+    }
+
     private ProvisioningProgressEvent getProgressEvent() {
         Mockito.verify(console, Mockito.atLeastOnce()).progressUpdate(progressEventCaptor.capture());
         return progressEventCaptor.getValue();
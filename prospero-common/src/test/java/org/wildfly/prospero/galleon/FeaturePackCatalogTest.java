@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.jboss.galleon.config.ConfigId;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FeaturePackCatalogTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void storedEntryCanBeReadBack() throws Exception {
+        final FeaturePackCatalog catalog = new FeaturePackCatalog(temp.getRoot().toPath());
+        catalog.store("org.test", "test-pack", "1.0.0", new FeaturePackCatalog.Entry(
+                Map.of("standalone", Set.of("layer1", "layer2"), "host", Set.of("layer3")),
+                Set.of(new ConfigId("standalone", "standalone.xml"))));
+
+        final FeaturePackCatalog.Entry entry = catalog.get("org.test", "test-pack", "1.0.0").get();
+        assertThat(entry.getLayers())
+                .containsEntry("standalone", Set.of("layer1", "layer2"))
+                .containsEntry("host", Set.of("layer3"));
+        assertThat(entry.hasConfig(new ConfigId("standalone", "standalone.xml"))).isTrue();
+        assertThat(entry.hasConfig(new ConfigId("standalone", "standalone-ha.xml"))).isFalse();
+    }
+
+    @Test
+    public void otherVersionsAreNotFound() throws Exception {
+        final FeaturePackCatalog catalog = new FeaturePackCatalog(temp.getRoot().toPath());
+        catalog.store("org.test", "test-pack", "1.0.0", new FeaturePackCatalog.Entry(Map.of(), Set.of()));
+
+        assertThat(catalog.get("org.test", "test-pack", "1.0.0")).isPresent();
+        assertThat(catalog.get("org.test", "test-pack", "1.0.1")).isEmpty();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.wildfly.channel.ArtifactTransferException;
+import org.wildfly.channel.Channel;
+import org.wildfly.channel.ChannelManifestCoordinate;
+import org.wildfly.channel.Repository;
+import org.wildfly.channel.spi.MavenVersionsResolver;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PrefetchingVersionResolverFactoryTest {
+
+    private static final List<Repository> REPOSITORIES = List.of(new Repository("test", "http://test.te"));
+    private static final ChannelManifestCoordinate MANIFEST_ONE = new ChannelManifestCoordinate("org.test", "one");
+    private static final ChannelManifestCoordinate MANIFEST_TWO = new ChannelManifestCoordinate("org.test", "two");
+
+    @Mock
+    private MavenVersionsResolver.Factory factory;
+
+    @Mock
+    private MavenVersionsResolver resolver;
+
+    @Test
+    public void prefetchedManifestsAreNotResolvedAgain() throws Exception {
+        when(factory.create(any())).thenReturn(resolver);
+        final URL urlOne = new URL("file:/tmp/one.yaml");
+        final URL urlTwo = new URL("file:/tmp/two.yaml");
+        when(resolver.resolveChannelMetadata(List.of(MANIFEST_ONE))).thenReturn(List.of(urlOne));
+        when(resolver.resolveChannelMetadata(List.of(MANIFEST_TWO))).thenReturn(List.of(urlTwo));
+
+        final PrefetchingVersionResolverFactory prefetchingFactory = new PrefetchingVersionResolverFactory(factory);
+        prefetchingFactory.prefetch(List.of(channel("one", MANIFEST_ONE), channel("two", MANIFEST_TWO)));
+
+        final MavenVersionsResolver prefetchedResolver = prefetchingFactory.create(REPOSITORIES);
+        assertThat(prefetchedResolver.resolveChannelMetadata(List.of(MANIFEST_ONE)))
+                .containsExactly(urlOne);
+        assertThat(prefetchedResolver.resolveChannelMetadata(List.of(MANIFEST_TWO)))
+                .containsExactly(urlTwo);
+
+        verify(resolver, times(1)).resolveChannelMetadata(List.of(MANIFEST_ONE));
+        verify(resolver, times(1)).resolveChannelMetadata(List.of(MANIFEST_TWO));
+    }
+
+    @Test
+    public void failedPrefetchIsResolvedAgainByDelegate() throws Exception {
+        when(factory.create(any())).thenReturn(resolver);
+        final URL urlTwo = new URL("file:/tmp/two.yaml");
+        final ArtifactTransferException exception = new ArtifactTransferException("test", Collections.emptySet(), Collections.emptySet());
+        when(resolver.resolveChannelMetadata(List.of(MANIFEST_ONE))).thenThrow(exception);
+        when(resolver.resolveChannelMetadata(List.of(MANIFEST_TWO))).thenReturn(List.of(urlTwo));
+
+        final PrefetchingVersionResolverFactory prefetchingFactory = new PrefetchingVersionResolverFactory(factory);
+        prefetchingFactory.prefetch(List.of(channel("one", MANIFEST_ONE), channel("two", MANIFEST_TWO)));
+
+        final MavenVersionsResolver prefetchedResolver = prefetchingFactory.create(REPOSITORIES);
+        assertThatThrownBy(() -> prefetchedResolver.resolveChannelMetadata(List.of(MANIFEST_ONE)))
+                .isSameAs(exception);
+        verify(resolver, times(2)).resolveChannelMetadata(List.of(MANIFEST_ONE));
+    }
+
+    @Test
+    public void singleChannelIsNotPrefetched() throws Exception {
+        final PrefetchingVersionResolverFactory prefetchingFactory = new PrefetchingVersionResolverFactory(factory);
+        prefetchingFactory.prefetch(List.of(channel("one", MANIFEST_ONE),
+                channel("url", new ChannelManifestCoordinate(new URL("file:/tmp/url.yaml")))));
+
+        verifyNoInteractions(factory);
+    }
+
+    @Test
+    public void manifestResolvedWithDifferentRepositoriesIsNotReused() throws Exception {
+        when(factory.create(any())).thenReturn(resolver);
+        final URL urlOne = new URL("file:/tmp/one.yaml");
+        final URL urlOther = new URL("file:/tmp/other.yaml");
+        when(resolver.resolveChannelMetadata(List.of(MANIFEST_ONE))).thenReturn(List.of(urlOne), List.of(urlOther));
+        when(resolver.resolveChannelMetadata(List.of(MANIFEST_TWO))).thenReturn(List.of(urlOne));
+
+        final PrefetchingVersionResolverFactory prefetchingFactory = new PrefetchingVersionResolverFactory(factory);
+        prefetchingFactory.prefetch(List.of(channel("one", MANIFEST_ONE), channel("two", MANIFEST_TWO)));
+
+        final MavenVersionsResolver otherResolver = prefetchingFactory.create(Set.of(new Repository("other", "http://other.te")));
+        assertThat(otherResolver.resolveChannelMetadata(List.of(MANIFEST_ONE)))
+                .containsExactly(urlOther);
+    }
+
+    private static Channel channel(String name, ChannelManifestCoordinate manifest) {
+        return new Channel(name, null, null, REPOSITORIES, manifest, null, null);
+    }
+}
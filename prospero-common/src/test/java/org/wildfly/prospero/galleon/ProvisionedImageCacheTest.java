@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.channel.BlocklistCoordinate;
+import org.wildfly.channel.Channel;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestCoordinate;
+import org.wildfly.channel.ChannelManifestMapper;
+import org.wildfly.channel.MavenArtifact;
+import org.wildfly.channel.Repository;
+import org.wildfly.channel.Stream;
+import org.wildfly.prospero.api.InstallationLock;
+import org.wildfly.prospero.metadata.ManifestVersionRecord;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+import org.wildfly.prospero.wfchannel.ResolvedArtifactsStore;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProvisionedImageCacheTest {
+
+    private static final ChannelManifestCoordinate MANIFEST = new ChannelManifestCoordinate("org.test", "test-manifest");
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private Path provisioningXml;
+    private Path server;
+
+    @Before
+    public void setUp() throws Exception {
+        provisioningXml = temp.newFile("provisioning.xml").toPath();
+        Files.writeString(provisioningXml, "<installation/>");
+
+        server = temp.newFolder("server").toPath();
+        Files.createDirectories(server.resolve("modules"));
+        Files.writeString(server.resolve("modules").resolve("test.jar"), "jar");
+        Files.createDirectories(server.resolve("standalone"));
+        Files.writeString(server.resolve("standalone").resolve("standalone.xml"), "<server/>");
+        Files.createDirectories(server.resolve(ProsperoMetadataUtils.METADATA_DIR).resolve(".git"));
+        Files.writeString(server.resolve(ProsperoMetadataUtils.METADATA_DIR).resolve(ProsperoMetadataUtils.MANIFEST_FILE_NAME), "manifest");
+        Files.writeString(server.resolve(InstallationLock.LOCK_FILE), "");
+    }
+
+    @Test
+    public void keyDependsOnManifestVersions() throws Exception {
+        final ResolvedArtifactsStore store = resolvedManifest(new Stream("org.foo", "bar", "1.0.0"));
+        final Optional<String> key = ProvisionedImageCache.key(provisioningXml, record("1.0.0.Final"), List.of(channel(null, null)), store);
+
+        assertThat(key).isPresent();
+        assertThat(ProvisionedImageCache.key(provisioningXml, record("1.0.0.Final"), List.of(channel(null, null)), store))
+                .isEqualTo(key);
+        assertThat(ProvisionedImageCache.key(provisioningXml, record("1.0.1.Final"), List.of(channel(null, null)), store))
+                .isPresent().isNotEqualTo(key);
+    }
+
+    @Test
+    public void changingManifestsAreNotCached() throws Exception {
+        final ResolvedArtifactsStore store = resolvedManifest(new Stream("org.foo", "bar", "1.0.0"));
+        assertThat(ProvisionedImageCache.key(provisioningXml, record("1.0.0-SNAPSHOT"), List.of(channel(null, null)), store))
+                .isEmpty();
+
+        final ManifestVersionRecord openManifest = new ManifestVersionRecord();
+        openManifest.addManifest(new ManifestVersionRecord.NoManifest(List.of("test-repo"), "LATEST"));
+        assertThat(ProvisionedImageCache.key(provisioningXml, openManifest, List.of(channel(null, null)), store)).isEmpty();
+    }
+
+    @Test
+    public void channelsNotDeterminingVersionsAreNotCached() throws Exception {
+        final ResolvedArtifactsStore fixed = resolvedManifest(new Stream("org.foo", "bar", "1.0.0"));
+        final ResolvedArtifactsStore pattern = resolvedManifest(new Stream("org.foo", "bar", Pattern.compile("1\\..*")));
+
+        assertThat(ProvisionedImageCache.key(provisioningXml, record("1.0.0.Final"), List.of(channel(null, null)), pattern))
+                .isEmpty();
+        assertThat(ProvisionedImageCache.key(provisioningXml, record("1.0.0.Final"),
+                List.of(channel(new BlocklistCoordinate("org.test", "blocklist"), null)), fixed)).isEmpty();
+        assertThat(ProvisionedImageCache.key(provisioningXml, record("1.0.0.Final"),
+                List.of(channel(null, Channel.NoStreamStrategy.LATEST)), fixed)).isEmpty();
+        // the manifest was not resolved in this session
+        assertThat(ProvisionedImageCache.key(provisioningXml, record("1.0.0.Final"), List.of(channel(null, null)),
+                (groupId, artifactId) -> null)).isEmpty();
+    }
+
+    @Test
+    public void storedImageIsMaterializedWithoutHistory() throws Exception {
+        final ProvisionedImageCache cache = new ProvisionedImageCache(temp.newFolder("cache").toPath(), 3);
+        final Path target = temp.getRoot().toPath().resolve("target");
+
+        assertThat(cache.materialize("key", target)).isFalse();
+        cache.store("key", server);
+
+        assertThat(cache.materialize("key", target)).isTrue();
+        assertThat(target.resolve("modules").resolve("test.jar")).hasContent("jar");
+        assertThat(target.resolve("standalone").resolve("standalone.xml")).hasContent("<server/>");
+        assertThat(target.resolve(ProsperoMetadataUtils.METADATA_DIR).resolve(ProsperoMetadataUtils.MANIFEST_FILE_NAME)).hasContent("manifest");
+        assertThat(target.resolve(ProsperoMetadataUtils.METADATA_DIR).resolve(".git")).doesNotExist();
+        assertThat(target.resolve(InstallationLock.LOCK_FILE)).doesNotExist();
+    }
+
+    @Test
+    public void leastRecentlyUsedImagesAreEvicted() throws Exception {
+        final Path root = temp.newFolder("cache").toPath();
+        final ProvisionedImageCache cache = new ProvisionedImageCache(root, 2);
+        cache.store("one", server);
+        cache.store("two", server);
+        Files.setLastModifiedTime(root.resolve("one"), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(root.resolve("two"), FileTime.fromMillis(2000));
+
+        // using the image marks it as recent
+        cache.materialize("one", temp.getRoot().toPath().resolve("target"));
+        cache.store("three", server);
+
+        assertThat(root.resolve("one")).exists();
+        assertThat(root.resolve("two")).doesNotExist();
+        assertThat(root.resolve("three")).exists();
+    }
+
+    private ResolvedArtifactsStore resolvedManifest(Stream... streams) throws Exception {
+        final File manifestFile = temp.newFile();
+        Files.writeString(manifestFile.toPath(),
+                ChannelManifestMapper.toYaml(new ChannelManifest("test", null, null, List.of(streams))));
+        final MavenArtifact manifest = new MavenArtifact(MANIFEST.getGroupId(), MANIFEST.getArtifactId(),
+                ChannelManifest.EXTENSION, ChannelManifest.CLASSIFIER, "1.0.0.Final", manifestFile);
+        return (groupId, artifactId) -> MANIFEST.getGroupId().equals(groupId) && MANIFEST.getArtifactId().equals(artifactId)
+                ? manifest : null;
+    }
+
+    private static Channel channel(BlocklistCoordinate blocklist, Channel.NoStreamStrategy noStreamStrategy) {
+        return new Channel("test", null, null, List.of(new Repository("test", "http://test.te")), MANIFEST, blocklist,
+                noStreamStrategy);
+    }
+
+    private static ManifestVersionRecord record(String version) {
+        final ManifestVersionRecord record = new ManifestVersionRecord();
+        record.addManifest(new ManifestVersionRecord.MavenManifest(MANIFEST.getGroupId(), MANIFEST.getArtifactId(), version));
+        return record;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.Repository;
+import org.wildfly.channel.spi.MavenVersionsResolver;
+
+import java.io.File;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RankedRepositoryResolverFactoryTest {
+
+    private static final Repository FIRST = new Repository("first", "http://first.te/maven");
+    private static final Repository SECOND = new Repository("second", "http://second.te/maven");
+
+    @Mock
+    private MavenVersionsResolver.Factory factory;
+    @Mock
+    private RepositoryRanking ranking;
+    @Mock
+    private MavenVersionsResolver declaredOrderResolver;
+    @Mock
+    private MavenVersionsResolver rankedResolver;
+
+    @Test
+    public void artifactsAreResolvedWithRankedRepositories() throws Exception {
+        when(factory.create(List.of(FIRST, SECOND))).thenReturn(declaredOrderResolver);
+        when(factory.create(List.of(SECOND, FIRST))).thenReturn(rankedResolver);
+        when(ranking.order("org.foo", List.of(FIRST, SECOND))).thenReturn(List.of(FIRST, SECOND));
+        when(ranking.order("org.bar", List.of(FIRST, SECOND))).thenReturn(List.of(SECOND, FIRST));
+        final ArtifactCoordinate foo = new ArtifactCoordinate("org.foo", "foo", "jar", null, "1.0.0");
+        final ArtifactCoordinate bar = new ArtifactCoordinate("org.bar", "bar", "jar", null, "1.0.0");
+        when(declaredOrderResolver.resolveArtifacts(List.of(foo))).thenReturn(List.of(new File("foo.jar")));
+        when(rankedResolver.resolveArtifacts(List.of(bar))).thenReturn(List.of(new File("bar.jar")));
+
+        final MavenVersionsResolver resolver = new RankedRepositoryResolverFactory(factory, ranking)
+                .create(List.of(FIRST, SECOND));
+
+        assertThat(resolver.resolveArtifacts(List.of(bar, foo)))
+                .containsExactly(new File("bar.jar"), new File("foo.jar"));
+    }
+}
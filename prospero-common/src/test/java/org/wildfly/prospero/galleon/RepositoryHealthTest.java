@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+import org.junit.After;
+import org.junit.Test;
+import org.wildfly.channel.Repository;
+import org.wildfly.channel.spi.MavenVersionsResolver;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RepositoryHealthTest {
+
+    private static final Repository GOOD = new Repository("good", "http://good.te/maven");
+    private static final Repository BAD = new Repository("bad", "http://bad.te/maven/");
+    private static final Repository LOCAL = new Repository("local", "file:/tmp/repository");
+
+    private final AtomicInteger probes = new AtomicInteger();
+    private RepositoryHealth repositoryHealth;
+
+    @After
+    public void tearDown() {
+        if (repositoryHealth != null) {
+            repositoryHealth.close();
+        }
+    }
+
+    @Test
+    public void unreachableRepositoryIsSkipped() {
+        repositoryHealth = new RepositoryHealth(this::probe, 3);
+
+        assertThat(repositoryHealth.filter(List.of(GOOD, BAD, LOCAL)))
+                .containsExactly(GOOD, LOCAL);
+        assertThat(repositoryHealth.isHealthy("http://bad.te/maven"))
+                .isFalse();
+    }
+
+    @Test
+    public void repositoryIsProbedOnlyOnce() {
+        repositoryHealth = new RepositoryHealth(this::probe, 3);
+
+        repositoryHealth.filter(List.of(GOOD, BAD));
+        repositoryHealth.filter(List.of(GOOD, BAD));
+
+        assertThat(probes.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void allRepositoriesAreUsedIfNoneIsHealthy() {
+        repositoryHealth = new RepositoryHealth(this::probe, 3);
+
+        assertThat(repositoryHealth.filter(List.of(BAD)))
+                .containsExactly(BAD);
+    }
+
+    @Test
+    public void repositoryIsSkippedAfterTooManyFailures() {
+        repositoryHealth = new RepositoryHealth(this::probe, 2);
+
+        repositoryHealth.transferFailed(failedTransfer(GOOD, new IOException("Read timed out")));
+        assertThat(repositoryHealth.filter(List.of(GOOD, LOCAL))).containsExactly(GOOD, LOCAL);
+
+        repositoryHealth.transferFailed(failedTransfer(GOOD, new IOException("Read timed out")));
+        assertThat(repositoryHealth.filter(List.of(GOOD, LOCAL))).containsExactly(LOCAL);
+    }
+
+    @Test
+    public void missingArtifactIsNotAFailure() {
+        repositoryHealth = new RepositoryHealth(this::probe, 1);
+
+        final ArtifactNotFoundException notFound = new ArtifactNotFoundException(
+                new DefaultArtifact("org.test:test:1.0.0"), null);
+        repositoryHealth.transferFailed(failedTransfer(GOOD, notFound));
+
+        assertThat(repositoryHealth.isHealthy(GOOD.getUrl())).isTrue();
+    }
+
+    @Test
+    public void existingResolverSkipsRepositoryAfterTooManyFailures() throws Exception {
+        repositoryHealth = new RepositoryHealth(this::probe, 1);
+        final MavenVersionsResolver.Factory factory = mock(MavenVersionsResolver.Factory.class);
+        final MavenVersionsResolver allRepositories = mock(MavenVersionsResolver.class);
+        final MavenVersionsResolver localOnly = mock(MavenVersionsResolver.class);
+        when(factory.create(List.of(GOOD, LOCAL))).thenReturn(allRepositories);
+        when(factory.create(List.of(LOCAL))).thenReturn(localOnly);
+
+        final MavenVersionsResolver resolver = new RepositoryHealthResolverFactory(factory, repositoryHealth)
+                .create(List.of(GOOD, LOCAL));
+        resolver.resolveArtifact("org.test", "one", "jar", null, "1.0.0");
+        repositoryHealth.transferFailed(failedTransfer(GOOD, new IOException("Read timed out")));
+        resolver.resolveArtifact("org.test", "two", "jar", null, "1.0.0");
+
+        verify(allRepositories).resolveArtifact("org.test", "one", "jar", null, "1.0.0");
+        verify(localOnly).resolveArtifact("org.test", "two", "jar", null, "1.0.0");
+    }
+
+    private void probe(Repository repository) throws IOException {
+        probes.incrementAndGet();
+        if (repository.getUrl().startsWith(BAD.getUrl())) {
+            throw new ConnectException("Connection refused");
+        }
+    }
+
+    private static TransferEvent failedTransfer(Repository repository, Exception exception) {
+        final TransferResource resource = new TransferResource(repository.getId(), repository.getUrl() + "/",
+                "org/test/test/1.0.0/test-1.0.0.jar", null, null);
+        return new TransferEvent.Builder(new DefaultRepositorySystemSession(), resource)
+                .setType(TransferEvent.EventType.FAILED)
+                .setException(exception)
+                .build();
+    }
+}
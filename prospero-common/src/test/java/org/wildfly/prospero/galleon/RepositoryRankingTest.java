@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.galleon;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.channel.Repository;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RepositoryRankingTest {
+
+    private static final Repository FIRST = new Repository("first", "http://first.te/maven");
+    private static final Repository SECOND = new Repository("second", "http://second.te/maven");
+    private static final Repository THIRD = new Repository("third", "http://third.te/maven");
+    private static final List<Repository> REPOSITORIES = List.of(FIRST, SECOND, THIRD);
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void repositoriesKeepDeclaredOrderWithoutStatistics() throws Exception {
+        final RepositoryRanking ranking = RepositoryRanking.load(temp.newFolder().toPath());
+
+        assertThat(ranking.order("org.jboss.test", REPOSITORIES))
+                .containsExactly(FIRST, SECOND, THIRD);
+    }
+
+    @Test
+    public void repositoryProvidingArtifactsIsTriedFirst() throws Exception {
+        final RepositoryRanking ranking = RepositoryRanking.load(temp.newFolder().toPath());
+
+        for (int i = 0; i < RepositoryRanking.MIN_REQUESTS; i++) {
+            ranking.transferFailed(transfer(FIRST, "org/jboss/test/artifact/1.0." + i + "/artifact-1.0." + i + ".jar", TransferEvent.EventType.FAILED));
+            ranking.transferSucceeded(transfer(THIRD, "org/jboss/test/artifact/1.0." + i + "/artifact-1.0." + i + ".jar", TransferEvent.EventType.SUCCEEDED));
+        }
+
+        assertThat(ranking.order("org.jboss.other", REPOSITORIES))
+                .containsExactly(THIRD, FIRST, SECOND);
+        assertThat(ranking.order("com.example", REPOSITORIES))
+                .containsExactly(FIRST, SECOND, THIRD);
+    }
+
+    @Test
+    public void metadataTransfersAreIgnored() throws Exception {
+        final RepositoryRanking ranking = RepositoryRanking.load(temp.newFolder().toPath());
+
+        for (int i = 0; i < RepositoryRanking.MIN_REQUESTS; i++) {
+            ranking.transferSucceeded(transfer(SECOND, "org/jboss/test/artifact/maven-metadata.xml", TransferEvent.EventType.SUCCEEDED));
+        }
+
+        assertThat(ranking.order("org.jboss.test", REPOSITORIES))
+                .containsExactly(FIRST, SECOND, THIRD);
+    }
+
+    @Test
+    public void statisticsArePersistedInServer() throws Exception {
+        final Path installation = temp.newFolder().toPath();
+        Files.createDirectory(installation.resolve(ProsperoMetadataUtils.METADATA_DIR));
+        final RepositoryRanking ranking = RepositoryRanking.load(installation);
+        for (int i = 0; i < RepositoryRanking.MIN_REQUESTS; i++) {
+            ranking.transferSucceeded(transfer(SECOND, "org/jboss/test/artifact/1.0." + i + "/artifact-1.0." + i + ".jar", TransferEvent.EventType.SUCCEEDED));
+        }
+        ranking.save(installation);
+
+        assertThat(installation.resolve(RepositoryRanking.RANKING_FILE)).exists();
+        assertThat(RepositoryRanking.load(installation).order("org.jboss.test", REPOSITORIES))
+                .containsExactly(SECOND, FIRST, THIRD);
+    }
+
+    @Test
+    public void groupIdPrefix() {
+        assertThat(RepositoryRanking.prefix("org.jboss.test.deep")).isEqualTo("org.jboss");
+        assertThat(RepositoryRanking.prefix("junit")).isEqualTo("junit");
+    }
+
+    private static TransferEvent transfer(Repository repository, String resourceName, TransferEvent.EventType type) {
+        final TransferResource resource = new TransferResource(repository.getId(), repository.getUrl() + "/",
+                resourceName, null, null);
+        return new TransferEvent.Builder(new DefaultRepositorySystemSession(), resource)
+                .setType(type)
+                .build();
+    }
+}
@@ -32,6 +32,7 @@ import org.wildfly.channel.Channel;
 import org.wildfly.channel.ChannelManifest;
 import org.wildfly.channel.ChannelManifestCoordinate;
 import org.wildfly.channel.Repository;
+import org.wildfly.prospero.api.InstallationLock;
 import org.wildfly.prospero.api.Diff;
 import org.wildfly.prospero.api.FeatureChange;
 import org.wildfly.prospero.metadata.ManifestVersionRecord;
@@ -285,6 +286,8 @@ public class GitStorageTest {
         final GitStorage gitStorage = new GitStorage(base.getParent());
         ProsperoMetadataUtils.writeManifest(base.resolve(ProsperoMetadataUtils.MANIFEST_FILE_NAME), manifest);
         generateProsperoConfig(List.of(new Channel("", "", null, null, null, null, null)));
+        // the lock file is created together with the metadata when the installation is provisioned
+        InstallationLock.exclusive(base.getParent()).close();
 
         // ensure there's a time gap between creation of the folder and record
         final Instant metadataDirCreationTime = Files.readAttributes(base, BasicFileAttributes.class).creationTime().toInstant();
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestMapper;
+import org.wildfly.channel.Stream;
+import org.wildfly.prospero.api.exceptions.MetadataException;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ManifestYamlSupportTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private Path manifestFile;
+    private ChannelManifest manifest;
+
+    @Before
+    public void setUp() throws Exception {
+        manifestFile = temp.getRoot().toPath().resolve(ProsperoMetadataUtils.MANIFEST_FILE_NAME);
+        manifest = new ChannelManifest("test", "test-id", "description", List.of(
+                new Stream("org.test", "one", "1.0.0"),
+                new Stream("org.test", "two", "2.0.0")));
+        ProsperoMetadataUtils.writeManifest(manifestFile, manifest);
+    }
+
+    @Test
+    public void recordedManifestIsReadWithoutYaml() throws Exception {
+        ManifestYamlSupport.recordParsed(manifestFile, manifest);
+
+        final ChannelManifest parsed = ManifestYamlSupport.parseRecorded(manifestFile);
+
+        assertThat(ChannelManifestMapper.toYaml(parsed)).isEqualTo(ChannelManifestMapper.toYaml(manifest));
+        assertThat(temp.getRoot().toPath().resolve(".manifest.yaml.json")).exists();
+    }
+
+    @Test
+    public void modifiedManifestIsValidatedAgain() throws Exception {
+        ManifestYamlSupport.recordParsed(manifestFile, manifest);
+        Files.writeString(manifestFile, "schemaVersion: 1.0.0\nstreams:\n  - foo: bar\n");
+
+        assertThatThrownBy(() -> ManifestYamlSupport.parseRecorded(manifestFile))
+                .isInstanceOf(MetadataException.class);
+    }
+
+    @Test
+    public void manifestWithoutRecordIsParsedWithoutRecording() throws Exception {
+        final ChannelManifest parsed = ManifestYamlSupport.parseRecorded(manifestFile);
+
+        assertThat(parsed.getStreams()).containsExactlyInAnyOrderElementsOf(manifest.getStreams());
+        assertThat(temp.getRoot().toPath().resolve(".manifest.yaml.json")).doesNotExist();
+    }
+}
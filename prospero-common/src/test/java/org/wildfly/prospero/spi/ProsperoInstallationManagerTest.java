@@ -31,16 +31,30 @@ import org.wildfly.installationmanager.MavenOptions;
 import org.wildfly.prospero.actions.InstallationHistoryAction;
 import org.wildfly.prospero.actions.UpdateAction;
 import org.wildfly.prospero.api.ChannelChange;
+import org.wildfly.prospero.api.Console;
+import org.wildfly.prospero.api.ProvisioningProgressEvent;
 import org.wildfly.prospero.api.SavedState;
+import org.wildfly.prospero.api.exceptions.OperationException;
 import org.wildfly.prospero.updates.UpdateSet;
 
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
-
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -206,6 +220,82 @@ public class ProsperoInstallationManagerTest {
                 eq(List.of(new Repository("test", "http://test.te"))), eq(Path.of("test")));
     }
 
+    @Test
+    public void findUpdatesAsyncCompletesWithResult() throws Exception {
+        final ProsperoInstallationManager mgr = new ProsperoInstallationManager(actionFactory);
+        when(actionFactory.getUpdateAction(eq(Collections.emptyList()), any())).thenReturn(updateAction);
+        when(updateAction.findUpdates()).thenReturn(new UpdateSet(Collections.emptyList()));
+
+        final AsyncOperation<List<org.wildfly.installationmanager.ArtifactChange>> operation = mgr.findUpdatesAsync(null, Runnable::run);
+
+        assertTrue(operation.getResult().get(10, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    public void prepareUpdateAsyncPropagatesFailure() throws Exception {
+        final ProsperoInstallationManager mgr = new ProsperoInstallationManager(actionFactory);
+        when(actionFactory.getUpdateAction(eq(Collections.emptyList()), any())).thenReturn(updateAction);
+        final OperationException exception = new OperationException("test");
+        when(updateAction.buildUpdate(any())).thenThrow(exception);
+
+        final AsyncOperation<Boolean> operation = mgr.prepareUpdateAsync(Path.of("test"), null, Runnable::run);
+
+        final ExecutionException ex = assertThrows(ExecutionException.class, () -> operation.getResult().get(10, TimeUnit.SECONDS));
+        assertEquals(exception, ex.getCause());
+    }
+
+    @Test
+    public void cancelAsyncOperationStopsAtNextCheck() throws Exception {
+        final ProsperoInstallationManager mgr = new ProsperoInstallationManager(actionFactory);
+        final AtomicReference<Console> console = new AtomicReference<>();
+        final CountDownLatch started = new CountDownLatch(1);
+        when(actionFactory.getUpdateAction(eq(Collections.emptyList()), any())).thenAnswer(inv -> {
+            console.set(inv.getArgument(1));
+            return updateAction;
+        });
+        when(updateAction.findUpdates()).thenAnswer(inv -> {
+            started.countDown();
+            while (!console.get().isCancelled()) {
+                Thread.sleep(10);
+            }
+            console.get().checkCancelled();
+            return new UpdateSet(Collections.emptyList());
+        });
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final AsyncOperation<List<org.wildfly.installationmanager.ArtifactChange>> operation = mgr.findUpdatesAsync(null, executor);
+            final CompletableFuture<Throwable> progressError = new CompletableFuture<>();
+            operation.getProgress().subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(ProvisioningProgressEvent item) {
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    progressError.complete(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    progressError.complete(null);
+                }
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            assertTrue(operation.cancel());
+
+            assertTrue(operation.getResult().isCancelled());
+            assertThat(progressError.get(10, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void mapMavenOptions() throws Exception {
         // no local cache
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.updates;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.wildfly.channel.BlocklistCoordinate;
+import org.wildfly.channel.Channel;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestCoordinate;
+import org.wildfly.channel.ChannelManifestMapper;
+import org.wildfly.channel.MavenArtifact;
+import org.wildfly.channel.Repository;
+import org.wildfly.channel.Stream;
+import org.wildfly.prospero.api.ArtifactChange;
+import org.wildfly.prospero.metadata.ManifestVersionRecord;
+import org.wildfly.prospero.wfchannel.ResolvedArtifactsStore;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ManifestUpdateFinderTest {
+
+    private static final List<Repository> REPOSITORIES = List.of(new Repository("test", "http://test.te"));
+    private static final ChannelManifestCoordinate MANIFEST = new ChannelManifestCoordinate("org.test", "manifest");
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Mock
+    private UpdateFinder updateFinder;
+
+    @Test
+    public void sameManifestVersionMeansNoUpdates() throws Exception {
+        final ResolvedArtifactsStore store = resolvedManifest("1.0.1", new Stream("org.foo", "bar", "1.0.0"));
+        final ManifestUpdateFinder finder = new ManifestUpdateFinder(List.of(channel(null)), store);
+
+        assertThat(finder.isUnchanged(record("1.0.1"))).isTrue();
+        assertThat(finder.isUnchanged(record("1.0.0"))).isFalse();
+    }
+
+    @Test
+    public void versionPatternStreamCanChangeWithoutManifestChange() throws Exception {
+        final ResolvedArtifactsStore store = resolvedManifest("1.0.1", new Stream("org.foo", "bar", Pattern.compile("1\\..*")));
+        final ManifestUpdateFinder finder = new ManifestUpdateFinder(List.of(channel(null)), store);
+
+        assertThat(finder.isUnchanged(record("1.0.1"))).isFalse();
+    }
+
+    @Test
+    public void updatesAreFoundInResolvedManifest() throws Exception {
+        final ResolvedArtifactsStore store = resolvedManifest("1.0.1",
+                new Stream("org.foo", "updated", "1.0.1"),
+                new Stream("org.foo", "unchanged", "1.0.0"));
+        final ManifestUpdateFinder finder = new ManifestUpdateFinder(List.of(channel(null)), store);
+
+        final UpdateSet updates = finder.findUpdates(List.of(
+                artifact("updated", "1.0.0"),
+                artifact("unchanged", "1.0.0"),
+                artifact("removed", "1.0.0")), updateFinder);
+
+        assertThat(updates.getArtifactUpdates())
+                .containsExactly(
+                        ArtifactChange.updated(artifact("updated", "1.0.0"), artifact("updated", "1.0.1"), "test"),
+                        ArtifactChange.removed(artifact("removed", "1.0.0")));
+        verifyNoInteractions(updateFinder);
+    }
+
+    @Test
+    public void versionPatternStreamsAreLookedUp() throws Exception {
+        final ResolvedArtifactsStore store = resolvedManifest("1.0.1",
+                new Stream("org.foo", "pattern", Pattern.compile("1\\..*")),
+                new Stream("org.foo", "updated", "1.0.1"));
+        final ManifestUpdateFinder finder = new ManifestUpdateFinder(List.of(channel(null)), store);
+        final ArtifactChange patternChange = ArtifactChange.updated(artifact("pattern", "1.0.0"), artifact("pattern", "1.2.0"), "test");
+        when(updateFinder.findChanges(List.of(artifact("pattern", "1.0.0"))))
+                .thenReturn(Map.of(artifact("pattern", "1.0.0"), patternChange));
+
+        final UpdateSet updates = finder.findUpdates(List.of(artifact("pattern", "1.0.0"), artifact("updated", "1.0.0")), updateFinder);
+
+        assertThat(updates.getArtifactUpdates())
+                .containsExactly(
+                        patternChange,
+                        ArtifactChange.updated(artifact("updated", "1.0.0"), artifact("updated", "1.0.1"), "test"));
+    }
+
+    @Test
+    public void artifactsDifferingByClassifierAreUpdatedSeparately() throws Exception {
+        final ResolvedArtifactsStore store = resolvedManifest("1.0.1", new Stream("org.foo", "bar", "1.0.1"));
+        final ManifestUpdateFinder finder = new ManifestUpdateFinder(List.of(channel(null)), store);
+
+        final UpdateSet updates = finder.findUpdates(List.of(
+                artifact("bar", null, "1.0.0"),
+                artifact("bar", "sources", "1.0.0"),
+                artifact("bar", "tests", "1.0.1")), updateFinder);
+
+        assertThat(updates.getArtifactUpdates())
+                .containsExactly(
+                        ArtifactChange.updated(artifact("bar", null, "1.0.0"), artifact("bar", null, "1.0.1"), "test"),
+                        ArtifactChange.updated(artifact("bar", "sources", "1.0.0"), artifact("bar", "sources", "1.0.1"), "test"));
+        verifyNoInteractions(updateFinder);
+    }
+
+    @Test
+    public void lookedUpArtifactsDifferingByClassifierAreUpdatedSeparately() throws Exception {
+        final ResolvedArtifactsStore store = resolvedManifest("1.0.1", new Stream("org.foo", "pattern", Pattern.compile("1\\..*")));
+        final ManifestUpdateFinder finder = new ManifestUpdateFinder(List.of(channel(null)), store);
+        final List<Artifact> artifacts = List.of(artifact("pattern", null, "1.0.0"), artifact("pattern", "sources", "1.1.0"));
+        final ArtifactChange change = ArtifactChange.updated(artifacts.get(0), artifact("pattern", null, "1.2.0"), "test");
+        final ArtifactChange sourcesChange = ArtifactChange.updated(artifacts.get(1), artifact("pattern", "sources", "1.2.0"), "test");
+        when(updateFinder.findChanges(artifacts)).thenReturn(Map.of(artifacts.get(1), sourcesChange, artifacts.get(0), change));
+
+        final UpdateSet updates = finder.findUpdates(artifacts, updateFinder);
+
+        assertThat(updates.getArtifactUpdates()).containsExactly(change, sourcesChange);
+    }
+
+    @Test
+    public void channelWithBlocklistIsLookedUp() throws Exception {
+        final ResolvedArtifactsStore store = resolvedManifest("1.0.1", new Stream("org.foo", "bar", "1.0.1"));
+        final ManifestUpdateFinder finder = new ManifestUpdateFinder(
+                List.of(channel(new BlocklistCoordinate("org.test", "blocklist"))), store);
+        final List<Artifact> artifacts = List.of(artifact("bar", "1.0.0"));
+        when(updateFinder.findUpdates(artifacts)).thenReturn(UpdateSet.EMPTY);
+
+        assertThat(finder.isUnchanged(record("1.0.1"))).isFalse();
+        assertThat(finder.findUpdates(artifacts, updateFinder).isEmpty()).isTrue();
+        verify(updateFinder).findUpdates(artifacts);
+    }
+
+    private ResolvedArtifactsStore resolvedManifest(String version, Stream... streams) throws Exception {
+        final File manifestFile = temp.newFile();
+        Files.writeString(manifestFile.toPath(),
+                ChannelManifestMapper.toYaml(new ChannelManifest("test", null, null, List.of(streams))));
+        final MavenArtifact manifest = new MavenArtifact(MANIFEST.getGroupId(), MANIFEST.getArtifactId(),
+                ChannelManifest.EXTENSION, ChannelManifest.CLASSIFIER, version, manifestFile);
+        return (groupId, artifactId) -> MANIFEST.getGroupId().equals(groupId) && MANIFEST.getArtifactId().equals(artifactId)
+                ? manifest : null;
+    }
+
+    private static ManifestVersionRecord record(String version) {
+        return new ManifestVersionRecord("1.0.0",
+                List.of(new ManifestVersionRecord.MavenManifest(MANIFEST.getGroupId(), MANIFEST.getArtifactId(), version)),
+                Collections.emptyList(), Collections.emptyList());
+    }
+
+    private static Channel channel(BlocklistCoordinate blocklist) {
+        return new Channel("test", null, null, REPOSITORIES, MANIFEST, blocklist, null);
+    }
+
+    private static Artifact artifact(String artifactId, String version) {
+        return new DefaultArtifact("org.foo", artifactId, "jar", version);
+    }
+
+    private static Artifact artifact(String artifactId, String classifier, String version) {
+        return new DefaultArtifact("org.foo", artifactId, classifier, "jar", version);
+    }
+}
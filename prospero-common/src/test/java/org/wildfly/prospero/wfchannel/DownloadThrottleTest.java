@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.wfchannel;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.transfer.TransferCancelledException;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DownloadThrottleTest {
+
+    @Test
+    public void rateDelaysDataAboveLimit() {
+        final DownloadThrottle.Rate rate = new DownloadThrottle.Rate(1000);
+
+        assertThat(rate.reserve(500)).isLessThanOrEqualTo(0);
+        assertThat(rate.reserve(500))
+                .isGreaterThan(TimeUnit.MILLISECONDS.toNanos(400))
+                .isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void progressIsDelayedByRepositoryLimit() throws Exception {
+        final DownloadThrottle throttle = new DownloadThrottle(null, 10_000L, null);
+        final TransferResource resource = resource("http://test.te/one");
+
+        final long start = System.nanoTime();
+        throttle.transferProgressed(progressed(resource, 1000));
+        throttle.transferProgressed(progressed(resource, 1000));
+        // another repository isn't affected by the first one
+        throttle.transferProgressed(progressed(resource("http://test.te/two"), 1000));
+
+        assertThat(System.nanoTime() - start)
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(90))
+                .isLessThan(TimeUnit.MILLISECONDS.toNanos(190));
+    }
+
+    @Test
+    public void concurrentDownloadsWaitForFreeSlot() throws Exception {
+        final DownloadThrottle throttle = new DownloadThrottle(null, null, 1);
+        final TransferResource first = resource("http://test.te/one");
+        final TransferResource second = resource("http://test.te/one");
+        throttle.transferInitiated(event(first, TransferEvent.EventType.INITIATED));
+
+        final CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                throttle.transferInitiated(event(second, TransferEvent.EventType.INITIATED));
+            } catch (TransferCancelledException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(waiting).isNotDone();
+
+        throttle.transferSucceeded(event(first, TransferEvent.EventType.SUCCEEDED));
+        waiting.get(5, TimeUnit.SECONDS);
+    }
+
+    private static TransferResource resource(String repositoryUrl) {
+        return new TransferResource("test", repositoryUrl, "org/test/test/1.0.0/test-1.0.0.jar", null, null);
+    }
+
+    private static TransferEvent progressed(TransferResource resource, int bytes) {
+        return new TransferEvent.Builder(new DefaultRepositorySystemSession(), resource)
+                .setType(TransferEvent.EventType.PROGRESSED)
+                .setDataBuffer(ByteBuffer.allocate(bytes))
+                .build();
+    }
+
+    private static TransferEvent event(TransferResource resource, TransferEvent.EventType type) {
+        return new TransferEvent.Builder(new DefaultRepositorySystemSession(), resource)
+                .setType(type)
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.wfchannel;
+
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.resource.PathResourceManager;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.Proxy;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.spi.connector.transport.Transporter;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.util.repository.AuthenticationBuilder;
+import org.jboss.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.prospero.api.MavenOptions;
+
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static io.undertow.Handlers.resource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Resolves artifacts from a local HTTP server standing in for a remote repository, and compares the number of
+ * connections opened and the time taken by the transports.
+ */
+public class HttpTransportTest {
+
+    private static final Logger LOG = Logger.getLogger(HttpTransportTest.class.getName());
+    private static final int ARTIFACTS = 20;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final Set<Object> connections = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private Undertow server;
+    private RemoteRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        final Path webRoot = temp.newFolder("repository").toPath();
+        for (int i = 0; i < ARTIFACTS; i++) {
+            final Path artifact = webRoot.resolve(String.format("org/test/artifact-%1$d/1.0.0/artifact-%1$d-1.0.0.jar", i));
+            Files.createDirectories(artifact.getParent());
+            Files.writeString(artifact, "artifact " + i);
+            final byte[] sha1 = MessageDigest.getInstance("SHA-1").digest(Files.readAllBytes(artifact));
+            Files.writeString(artifact.resolveSibling(artifact.getFileName() + ".sha1"), String.format("%040x", new BigInteger(1, sha1)));
+        }
+
+        final HttpHandler files = resource(new PathResourceManager(webRoot));
+        server = Undertow.builder()
+                .addHttpListener(0, "localhost")
+                .setHandler(exchange -> {
+                    connections.add(exchange.getConnection());
+                    files.handleRequest(exchange);
+                })
+                .build();
+        server.start();
+        final int port = ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+        repository = new RemoteRepository.Builder("test", "default", "http://localhost:" + port + "/").build();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void pooledTransportReusesConnections() throws Exception {
+        final MavenSessionManager msm = new MavenSessionManager(MavenOptions.builder()
+                .setLocalCachePath(temp.newFolder("local-repo").toPath())
+                .build());
+
+        resolveAll(msm, "pooled");
+
+        assertThat(connections).hasSizeLessThan(ARTIFACTS);
+    }
+
+    @Test
+    public void http2TransportReusesConnections() throws Exception {
+        final MavenSessionManager msm = new MavenSessionManager(MavenOptions.builder()
+                .setLocalCachePath(temp.newFolder("local-repo").toPath())
+                .setHttp2(true)
+                .build());
+
+        resolveAll(msm, "HTTP/2");
+
+        assertThat(connections).hasSizeLessThan(ARTIFACTS);
+    }
+
+    @Test
+    public void missingArtifactIsNotFoundWithHttp2Transport() throws Exception {
+        final MavenSessionManager msm = new MavenSessionManager(MavenOptions.builder()
+                .setLocalCachePath(temp.newFolder("local-repo").toPath())
+                .setHttp2(true)
+                .build());
+        final RepositorySystem system = msm.newRepositorySystem();
+        final DefaultRepositorySystemSession session = msm.newRepositorySystemSession(system);
+
+        assertThatThrownBy(() -> system.resolveArtifact(session,
+                new ArtifactRequest(new DefaultArtifact("org.test:missing:1.0.0"), List.of(repository), null)))
+                .isInstanceOf(ArtifactResolutionException.class)
+                .satisfies(e -> assertThat(((ArtifactResolutionException) e).getResult().getExceptions())
+                        .hasOnlyElementsOfType(ArtifactNotFoundException.class));
+    }
+
+    @Test
+    public void repositoryBehindAuthenticatingProxyUsesApacheTransport() throws Exception {
+        final MavenSessionManager msm = new MavenSessionManager(MavenOptions.builder()
+                .setLocalCachePath(temp.newFolder("local-repo").toPath())
+                .setHttp2(true)
+                .build());
+        final RepositorySystem system = msm.newRepositorySystem();
+        final DefaultRepositorySystemSession session = msm.newRepositorySystemSession(system);
+        final RemoteRepository proxied = new RemoteRepository.Builder(repository)
+                .setProxy(new Proxy("http", "localhost", 3128,
+                        new AuthenticationBuilder().addUsername("user").addPassword("secret").build()))
+                .build();
+
+        try (Transporter direct = msm.newTransporterProvider().newTransporter(session, repository);
+             Transporter viaProxy = msm.newTransporterProvider().newTransporter(session, proxied)) {
+            assertThat(direct).isInstanceOf(JdkHttpTransporter.class);
+            assertThat(viaProxy).isNotInstanceOf(JdkHttpTransporter.class);
+        }
+    }
+
+    private void resolveAll(MavenSessionManager msm, String transport) throws Exception {
+        final long start = System.currentTimeMillis();
+        // use a new session for each half of the artifacts, connections should be kept between sessions
+        for (int half = 0; half < 2; half++) {
+            final RepositorySystem system = msm.newRepositorySystem();
+            final DefaultRepositorySystemSession session = msm.newRepositorySystemSession(system);
+            for (int i = half * ARTIFACTS / 2; i < (half + 1) * ARTIFACTS / 2; i++) {
+                final ArtifactResult result = system.resolveArtifact(session, new ArtifactRequest(
+                        new DefaultArtifact("org.test", "artifact-" + i, "jar", "1.0.0"), List.of(repository), null));
+                assertThat(result.getArtifact().getFile()).hasContent("artifact " + i);
+            }
+        }
+        LOG.infof("Resolved %d artifacts using the %s transport in %d ms over %d connections",
+                ARTIFACTS, transport, System.currentTimeMillis() - start, connections.size());
+    }
+}
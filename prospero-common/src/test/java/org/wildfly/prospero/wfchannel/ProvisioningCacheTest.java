@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.prospero.wfchannel;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ProvisioningCacheTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private Path root;
+
+    @Before
+    public void setUp() throws Exception {
+        root = temp.newFolder("cache").toPath();
+    }
+
+    @Test
+    public void statsCountAllEntries() throws Exception {
+        createEntry("org/test/one/1.0", 100, Duration.ZERO);
+        createEntry("org/test/two/1.0", 200, Duration.ZERO);
+
+        final ProvisioningCache.Stats stats = new ProvisioningCache(root, 1000, Duration.ofDays(1)).getStats();
+
+        assertEquals(2, stats.getEntries());
+        assertEquals(300, stats.getSize());
+    }
+
+    @Test
+    public void pruneRemovesLeastRecentlyUsedEntriesOverTheSizeLimit() throws Exception {
+        final Path oldest = createEntry("org/test/one/1.0", 100, Duration.ofHours(3));
+        final Path older = createEntry("org/test/one/1.1", 100, Duration.ofHours(2));
+        final Path newest = createEntry("org/test/two/1.0", 100, Duration.ofHours(1));
+
+        final ProvisioningCache.Stats removed = new ProvisioningCache(root, 150, Duration.ofDays(1)).prune();
+
+        assertEquals(2, removed.getEntries());
+        assertEquals(200, removed.getSize());
+        assertThat(oldest).doesNotExist();
+        assertThat(older).doesNotExist();
+        assertThat(newest).exists();
+    }
+
+    @Test
+    public void pruneRemovesEntriesOlderThanMaxAge() throws Exception {
+        final Path expired = createEntry("org/test/one/1.0", 100, Duration.ofDays(2));
+        final Path recent = createEntry("org/test/two/1.0", 100, Duration.ofHours(1));
+
+        final ProvisioningCache.Stats removed = new ProvisioningCache(root, 1000, Duration.ofDays(1)).prune();
+
+        assertEquals(1, removed.getEntries());
+        assertThat(expired).doesNotExist();
+        assertThat(expired.getParent()).doesNotExist();
+        assertThat(recent).exists();
+    }
+
+    @Test
+    public void usedEntryIsNotEvicted() throws Exception {
+        final Path used = createEntry("org/test/one/1.0", 100, Duration.ofHours(3));
+        final Path unused = createEntry("org/test/two/1.0", 100, Duration.ofHours(2));
+        final ProvisioningCache cache = new ProvisioningCache(root, 150, Duration.ofDays(1));
+
+        cache.markUsed(used.resolve("artifact.jar").toFile());
+        cache.prune();
+
+        assertThat(used).exists();
+        assertThat(unused).doesNotExist();
+    }
+
+    @Test
+    public void cacheUsedByThisProcessIsNotPruned() throws Exception {
+        final Path entry = createEntry("org/test/one/1.0", 100, Duration.ofDays(2));
+        final ProvisioningCache cache = new ProvisioningCache(root, 1000, Duration.ofDays(3));
+        try (ProvisioningCache.Lease ignored = cache.open()) {
+            assertNull(new ProvisioningCache(root, 0, Duration.ZERO).prune());
+            assertThat(entry).exists();
+        }
+    }
+
+    @Test
+    public void cacheIsPrunedAfterLastLeaseIsClosed() throws Exception {
+        final ProvisioningCache cache = new ProvisioningCache(root, 150, Duration.ofDays(3));
+        final ProvisioningCache.Lease first = cache.open();
+        final ProvisioningCache.Lease second = cache.open();
+        final Path older = createEntry("org/test/one/1.0", 100, Duration.ofDays(2));
+        final Path newer = createEntry("org/test/two/1.0", 100, Duration.ofDays(1));
+
+        first.close();
+        assertNull(new ProvisioningCache(root, 0, Duration.ZERO).prune());
+        assertThat(older).exists();
+
+        second.close();
+        assertThat(older).doesNotExist();
+        assertThat(newer).exists();
+    }
+
+    @Test
+    public void parseSizeWithUnits() {
+        assertEquals(100, ProvisioningCache.parseSize("100"));
+        assertEquals(2048, ProvisioningCache.parseSize("2k"));
+        assertEquals(5L * 1024 * 1024, ProvisioningCache.parseSize("5M"));
+        assertEquals(3L * 1024 * 1024 * 1024, ProvisioningCache.parseSize("3G"));
+    }
+
+    @Test
+    public void parseSizeRejectsOverflow() {
+        assertThatThrownBy(() -> ProvisioningCache.parseSize("9000000000G"))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    private Path createEntry(String path, int size, Duration lastUsed) throws Exception {
+        final Path dir = root.resolve(path);
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("artifact.jar"), new byte[size]);
+        Files.setLastModifiedTime(dir, FileTime.from(Instant.now().minus(lastUsed)));
+        return dir;
+    }
+}